@@ -21,6 +21,7 @@ import science.atlarge.graphalytics.domain.graph.FormattedGraph;
 import science.atlarge.graphalytics.domain.graph.Property;
 import science.atlarge.graphalytics.domain.graph.PropertyList;
 import science.atlarge.graphalytics.domain.graph.PropertyType;
+import science.atlarge.graphalytics.util.io.CompressionCodecs;
 import org.apache.commons.configuration.Configuration;
 
 import java.nio.file.Paths;
@@ -132,7 +133,10 @@ public final class FormattedGraphParser {
 	}
 
 	private String resolveGraphPath(String relativePath) {
-		return Paths.get(graphRootDirectory, relativePath).toString();
+		String path = Paths.get(graphRootDirectory, relativePath).toString();
+		// Fall back to a compressed copy of the file if the uncompressed file does not exist
+		String existingPath = CompressionCodecs.findFile(path);
+		return existingPath != null ? existingPath : path;
 	}
 
 }
\ No newline at end of file
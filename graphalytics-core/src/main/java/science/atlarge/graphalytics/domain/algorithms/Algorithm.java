@@ -109,7 +109,7 @@ public enum Algorithm {
 
 
 	/**
-	 * @return ValidationRule for this algorithm
+	 * @return ValidationRule for this algorithm, a LongValidationRule or DoubleValidationRule
 	 */
 	public ValidationRule<?> getValidationRule() {
 		try {
@@ -18,6 +18,7 @@
 package science.atlarge.graphalytics.domain.graph;
 
 import java.io.Serializable;
+import java.nio.file.Paths;
 
 /**
  * Represents a single graph in the Graphalytics benchmark suite. Each graph has a unique name, two paths to files
@@ -129,6 +130,16 @@ public final class FormattedGraph implements Serializable {
 		return edgeFilePath;
 	}
 
+	/**
+	 * @return the path of the binary CSR file caching this graph, or null if the graph has no cache directory
+	 */
+	public String getCsrFilePath() {
+		if (graph == null || graph.getCacheDirectory() == null) {
+			return null;
+		}
+		return Paths.get(graph.getCacheDirectory(), name + ".csr").toString();
+	}
+
 	/**
 	 * @return true iff the vertices of the graph have properties
 	 */
@@ -20,6 +20,7 @@ package science.atlarge.graphalytics.domain.graph;
 import science.atlarge.graphalytics.configuration.InvalidConfigurationException;
 import science.atlarge.graphalytics.domain.algorithms.Algorithm;
 import science.atlarge.graphalytics.domain.algorithms.AlgorithmParameters;
+import science.atlarge.graphalytics.util.io.CompressionCodecs;
 
 import java.io.Serializable;
 import java.nio.file.Paths;
@@ -38,15 +39,17 @@ public final class Graph implements Serializable {
 
 	private final String graphName;
 	private final FormattedGraph sourceGraph;
+	private final String cacheDirectory;
 	private final Map<Algorithm, FormattedGraph> graphPerAlgorithm;
 	private final Set<FormattedGraph> formattedGraphs;
 	private final Map<Algorithm, AlgorithmParameters> algorithmParameters;
 
-	private Graph(String graphName, FormattedGraph sourceGraph,
+	private Graph(String graphName, FormattedGraph sourceGraph, String cacheDirectory,
 				  Map<Algorithm, FormattedGraph> graphPerAlgorithm,
 				  Map<Algorithm, AlgorithmParameters> algorithmParameters) {
 		this.graphName = graphName;
 		this.sourceGraph = sourceGraph;
+		this.cacheDirectory = cacheDirectory;
 		this.graphPerAlgorithm = Collections.unmodifiableMap(graphPerAlgorithm);
 		this.algorithmParameters = Collections.unmodifiableMap(algorithmParameters);
 
@@ -67,6 +70,13 @@ public final class Graph implements Serializable {
 		return sourceGraph;
 	}
 
+	/**
+	 * @return the directory in which derived files for this graph are cached
+	 */
+	public String getCacheDirectory() {
+		return cacheDirectory;
+	}
+
 	public Map<Algorithm, FormattedGraph> getGraphPerAlgorithm() {
 		return graphPerAlgorithm;
 	}
@@ -165,10 +175,13 @@ public final class Graph implements Serializable {
 			}
 
 			// Select the filenames for the vertex and edge data
-			String vertexFilename = vertexProperties.equals(sourceGraph.getVertexProperties()) ?
+			// Compressed source files are always decompressed to the cache, as platforms expect plain EVLP files
+			String vertexFilename = vertexProperties.equals(sourceGraph.getVertexProperties()) &&
+					CompressionCodecs.forPath(sourceGraph.getVertexFilePath()) == null ?
 					sourceGraph.getVertexFilePath() :
 					generateCacheFilename(vertexProperties, false);
-			String edgeFilename = edgeProperties.equals(sourceGraph.getEdgeProperties()) ?
+			String edgeFilename = edgeProperties.equals(sourceGraph.getEdgeProperties()) &&
+					CompressionCodecs.forPath(sourceGraph.getEdgeFilePath()) == null ?
 					sourceGraph.getEdgeFilePath() :
 					generateCacheFilename(edgeProperties, true);
 
@@ -192,7 +205,8 @@ public final class Graph implements Serializable {
 		}
 
 		public Graph toGraphSet() {
-			return new Graph(graphName, sourceGraph, new HashMap<>(graphPerAlgorithm), new HashMap<>(algorithmParameters));
+			return new Graph(graphName, sourceGraph, graphCacheDirectory, new HashMap<>(graphPerAlgorithm),
+					new HashMap<>(algorithmParameters));
 		}
 
 		private static class PropertyLists {
@@ -20,7 +20,9 @@ package science.atlarge.graphalytics.execution;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import science.atlarge.graphalytics.configuration.GraphalyticsExecutionException;
 import science.atlarge.graphalytics.domain.benchmark.*;
@@ -37,6 +39,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import science.atlarge.graphalytics.plugin.Plugins;
+import science.atlarge.graphalytics.util.GraphCacheManager;
 import science.atlarge.graphalytics.util.GraphFileManager;
 
 /**
@@ -95,12 +98,20 @@ public class BenchmarkExecutor {
 		finishedBenchmark = 0;
 
 
+		List<FormattedGraph> benchmarkGraphs = new ArrayList<>();
+		for (BenchmarkRun benchmarkRun : benchmark.getBenchmarkRuns()) {
+			benchmarkGraphs.add(benchmarkRun.getFormattedGraph());
+		}
+		GraphCacheManager graphCacheManager = GraphCacheManager.fromConfiguration(benchmarkGraphs);
+
 		LOG.info("");
 		for (Graph graph : benchmark.getGraphs()) {
 
 			LOG.info(String.format("Preparing graph \"%s\" with %s different formats: %s",
 					graph.getName(),graph.getFormattedGraphs().size(), graph.listFormattedGraphs()));
 
+			formatGraphs(graph, graphCacheManager);
+
 			LOG.info("");
 			LOG.info("");
 			for (FormattedGraph formattedGraph : graph.getFormattedGraphs()) {
@@ -339,6 +350,24 @@ public class BenchmarkExecutor {
 		return benchmarkRunResult;
 	}
 
+	private void formatGraphs(Graph graph, GraphCacheManager graphCacheManager) {
+		List<FormattedGraph> requiredGraphs = new ArrayList<>();
+		for (FormattedGraph formattedGraph : graph.getFormattedGraphs()) {
+			if (!benchmark.getBenchmarksForGraph(formattedGraph).isEmpty()) {
+				requiredGraphs.add(formattedGraph);
+			}
+		}
+
+		// generate all missing graph files in a single pass over the source graph; failures are reported per
+		// formatted graph when it is formatted individually
+		try {
+			graphCacheManager.reserveSpace(graph, requiredGraphs);
+			GraphFileManager.ensureGraphFilesExist(requiredGraphs);
+		} catch (Exception e) {
+			LOG.warn("Failed to format all graphs of \"" + graph.getName() + "\" in a single pass.", e);
+		}
+	}
+
 	private void formatGraph(FormattedGraph formattedGraph, String fullGraphName) {
 		LOG.info(String.format("Formatting (Minimizing) graph \"%s\"", fullGraphName));
 
@@ -17,7 +17,10 @@
  */
 package science.atlarge.graphalytics.execution;
 
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
 import org.apache.logging.log4j.Level;
+import science.atlarge.graphalytics.configuration.ConfigurationUtil;
 import science.atlarge.graphalytics.configuration.GraphalyticsExecutionException;
 import science.atlarge.graphalytics.plugin.Plugins;
 import science.atlarge.graphalytics.report.result.BenchmarkMetric;
@@ -31,7 +34,8 @@ import science.atlarge.graphalytics.util.TimeUtil;
 import science.atlarge.graphalytics.validation.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import science.atlarge.graphalytics.validation.rule.EpsilonValidationRule;
+import science.atlarge.graphalytics.validation.rule.DoubleValidationRule;
+import science.atlarge.graphalytics.validation.rule.LongValidationRule;
 import science.atlarge.graphalytics.validation.rule.ValidationRule;
 
 import java.io.*;
@@ -50,6 +54,11 @@ public class BenchmarkRunner {
 
 	private static Logger LOG;
 
+	private static final String BENCHMARK_PROPERTIES_FILE = "benchmark.properties";
+	private static final String VALIDATION_MODE_KEY = "benchmark.runner.validation.mode";
+	private static final String VALIDATION_RUN_SIZE_KEY = "benchmark.runner.validation.run-size";
+	private static final String VALIDATION_THREADS_KEY = "benchmark.runner.validation.threads";
+
 	private RunnerService service;
 	private Plugins plugins;
 
@@ -150,23 +159,36 @@ public class BenchmarkRunner {
 
 		if (benchmarkRunSetup.isValidationRequired()) {
 			ValidationRule validationRule = benchmarkRun.getAlgorithm().getValidationRule();
+			Configuration benchmarkConfiguration = loadBenchmarkConfiguration();
+			ValidationMode validationMode = getValidationMode(benchmarkConfiguration);
+			int validationRunSize = getValidationRunSize(benchmarkConfiguration);
+			int validationThreads = getValidationThreads(benchmarkConfiguration);
 
 			@SuppressWarnings("rawtypes")
 			VertexValidator<?> validator;
-			if(validationRule instanceof EpsilonValidationRule) {
+			if(validationRule instanceof DoubleValidationRule) {
 				validator = new DoubleVertexValidator(benchmarkRunSetup.getOutputDir(),
 						benchmarkRunSetup.getValidationDir(),
-						validationRule, true);
-			} else {
+						(DoubleValidationRule) validationRule, true, validationMode, validationRunSize, validationThreads,
+						benchmarkRun.getFormattedGraph().getNumberOfVertices());
+			} else if(validationRule instanceof LongValidationRule) {
 				validator = new LongVertexValidator(benchmarkRunSetup.getOutputDir(),
 						benchmarkRunSetup.getValidationDir(),
-						validationRule, true);
+						(LongValidationRule) validationRule, true, validationMode, validationRunSize, validationThreads,
+						benchmarkRun.getFormattedGraph().getNumberOfVertices());
+			} else {
+				validator = null;
+				LOG.error("Unsupported validation rule: " + validationRule);
 			}
 
-			try {
-				validated = validator.validate();
-			} catch (ValidatorException e) {
-				LOG.error("Failed to validate output: " + e);
+			if (validator != null) {
+				try {
+					validated = validator.validate();
+				} catch (ValidatorException e) {
+					LOG.error("Failed to validate output: " + e);
+					validated = false;
+				}
+			} else {
 				validated = false;
 			}
 		}
@@ -175,6 +197,61 @@ public class BenchmarkRunner {
 		return validated;
 	}
 
+	private static Configuration loadBenchmarkConfiguration() {
+		try {
+			return ConfigurationUtil.loadConfiguration(BENCHMARK_PROPERTIES_FILE);
+		} catch (Exception e) {
+			LOG.debug("Failed to read " + BENCHMARK_PROPERTIES_FILE + ", using the default validation settings.");
+			return new PropertiesConfiguration();
+		}
+	}
+
+	private static ValidationMode getValidationMode(Configuration benchmarkConfiguration) {
+		try {
+			String name = benchmarkConfiguration.getString(VALIDATION_MODE_KEY, ValidationMode.IN_MEMORY.getName());
+			ValidationMode mode = ValidationMode.fromName(name);
+			if (mode == null) {
+				LOG.error("Invalid value for configuration " + VALIDATION_MODE_KEY + ": " + name);
+				return ValidationMode.IN_MEMORY;
+			}
+			return mode;
+		} catch (Exception e) {
+			LOG.debug("Failed to read configuration " + VALIDATION_MODE_KEY + ", validating in memory.");
+			return ValidationMode.IN_MEMORY;
+		}
+	}
+
+	private static int getValidationRunSize(Configuration benchmarkConfiguration) {
+		int defaultRunSize = VertexValidator.DEFAULT_EXTERNAL_RUN_SIZE;
+		try {
+			int runSize = benchmarkConfiguration.getInt(VALIDATION_RUN_SIZE_KEY, defaultRunSize);
+			if (runSize < 1) {
+				LOG.error("Invalid value for configuration " + VALIDATION_RUN_SIZE_KEY + ": " + runSize);
+				return defaultRunSize;
+			}
+			return runSize;
+		} catch (Exception e) {
+			LOG.debug("Failed to read configuration " + VALIDATION_RUN_SIZE_KEY + ", using " + defaultRunSize + ".");
+			return defaultRunSize;
+		}
+	}
+
+	private static int getValidationThreads(Configuration benchmarkConfiguration) {
+		int defaultThreads = Runtime.getRuntime().availableProcessors();
+		try {
+			int threads = benchmarkConfiguration.getInt(VALIDATION_THREADS_KEY, defaultThreads);
+			if (threads < 1) {
+				LOG.error("Invalid value for configuration " + VALIDATION_THREADS_KEY + ": " + threads);
+				return defaultThreads;
+			}
+			return threads;
+		} catch (Exception e) {
+			LOG.debug("Failed to read configuration " + VALIDATION_THREADS_KEY + ", using " + defaultThreads +
+					" threads.");
+			return defaultThreads;
+		}
+	}
+
 	public BenchmarkRunResult summarize(BenchmarkRun benchmarkRun, BenchmarkMetrics metrics) {
 
 		// calculate makespan
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import science.atlarge.graphalytics.configuration.ConfigurationUtil;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.domain.graph.Graph;
+import science.atlarge.graphalytics.util.io.CsrGraphFile;
+import science.atlarge.graphalytics.util.io.GraphCacheManifest;
+import science.atlarge.graphalytics.util.io.GraphFileStreams;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Keeps the total size of derived graph files in the cache directory within a configurable budget
+ * ("graphs.cache.max-size") by evicting the least recently used files before new ones are generated. Files needed by
+ * the current benchmark are never evicted. Only files generated by Graphalytics are considered for eviction, i.e. files
+ * with a GraphCacheManifest and binary CSR files, so source datasets are safe even if they are stored in the cache
+ * directory.
+ * <p>
+ * The last use of a cache file is tracked through the modification time of its manifest (or of the file itself if it
+ * has no manifest), which is updated every time the file is reused.
+ */
+public final class GraphCacheManager {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private static final String BENCHMARK_PROPERTIES_FILE = "benchmark.properties";
+	private static final String MAX_SIZE_KEY = "graphs.cache.max-size";
+
+	private final long maximumSize;
+	private final Set<Path> requiredFiles = new HashSet<>();
+
+	/**
+	 * @param maximumSize    the maximum total size of the cache directory in bytes, or 0 to disable eviction
+	 * @param requiredGraphs the graphs used by the current benchmark, their files are never evicted
+	 */
+	public GraphCacheManager(long maximumSize, Collection<FormattedGraph> requiredGraphs) {
+		this.maximumSize = maximumSize;
+		for (FormattedGraph formattedGraph : requiredGraphs) {
+			addRequiredFile(formattedGraph.getVertexFilePath());
+			addRequiredFile(formattedGraph.getEdgeFilePath());
+			addRequiredFile(formattedGraph.getCsrFilePath());
+			if (formattedGraph.getGraph() != null) {
+				FormattedGraph sourceGraph = formattedGraph.getGraph().getSourceGraph();
+				addRequiredFile(sourceGraph.getVertexFilePath());
+				addRequiredFile(sourceGraph.getEdgeFilePath());
+			}
+		}
+	}
+
+	/**
+	 * Creates a GraphCacheManager with the budget configured by the "graphs.cache.max-size" property.
+	 *
+	 * @param requiredGraphs the graphs used by the current benchmark, their files are never evicted
+	 * @return the configured GraphCacheManager
+	 */
+	public static GraphCacheManager fromConfiguration(Collection<FormattedGraph> requiredGraphs) {
+		long maximumSize = 0;
+		try {
+			Configuration benchmarkConfiguration = ConfigurationUtil.loadConfiguration(BENCHMARK_PROPERTIES_FILE);
+			String value = benchmarkConfiguration.getString(MAX_SIZE_KEY, null);
+			if (value != null && !value.trim().isEmpty()) {
+				maximumSize = parseSize(value);
+			}
+		} catch (Exception e) {
+			LOG.error("Invalid value for configuration " + MAX_SIZE_KEY + ", cache eviction disabled.", e);
+		}
+		return new GraphCacheManager(maximumSize, requiredGraphs);
+	}
+
+	/**
+	 * Parses a size in bytes with an optional binary suffix, e.g. "500g" or "2T".
+	 *
+	 * @param value the size to parse
+	 * @return the size in bytes
+	 * @throws NumberFormatException iff the value is not a valid size
+	 */
+	static long parseSize(String value) {
+		String size = value.trim().toLowerCase(Locale.ROOT);
+		int shift = 0;
+		switch (size.charAt(size.length() - 1)) {
+			case 'k': shift = 10; break;
+			case 'm': shift = 20; break;
+			case 'g': shift = 30; break;
+			case 't': shift = 40; break;
+		}
+		if (shift > 0) {
+			size = size.substring(0, size.length() - 1).trim();
+		}
+		long result = Long.parseLong(size);
+		if (result < 0) {
+			throw new NumberFormatException("Size must not be negative: " + value);
+		}
+		return result << shift;
+	}
+
+	private void addRequiredFile(String path) {
+		if (path != null) {
+			requiredFiles.add(normalize(Paths.get(path)));
+		}
+	}
+
+	private static Path normalize(Path path) {
+		return path.toAbsolutePath().normalize();
+	}
+
+	/**
+	 * @return true iff a cache budget is configured
+	 */
+	public boolean isEnabled() {
+		return maximumSize > 0;
+	}
+
+	/**
+	 * Evicts least recently used files from the cache directory of a graph to make room for the files of the given
+	 * formatted graphs that are missing or out of date, and will therefore be regenerated. The size of a regenerated
+	 * vertex or edge file is estimated by the size of its source file, which is an upper bound for property-projected
+	 * files of uncompressed sources. The size of a regenerated CSR file follows from the size of the graph.
+	 *
+	 * @param graph           the graph whose files are about to be generated
+	 * @param formattedGraphs the formatted graphs whose files are about to be generated
+	 * @throws IOException iff the cache directory could not be read
+	 */
+	public void reserveSpace(Graph graph, Collection<FormattedGraph> formattedGraphs) throws IOException {
+		if (!isEnabled() || graph.getCacheDirectory() == null) {
+			return;
+		}
+		Path cacheDirectory = Paths.get(graph.getCacheDirectory());
+		if (!Files.isDirectory(cacheDirectory)) {
+			return;
+		}
+
+		FormattedGraph sourceGraph = graph.getSourceGraph();
+		boolean csrCacheEnabled = GraphFileManager.isCsrCacheEnabled();
+		long requiredBytes = 0;
+		for (FormattedGraph formattedGraph : formattedGraphs) {
+			if (!GraphFileManager.isVertexFileUpToDate(sourceGraph, formattedGraph)) {
+				requiredBytes += sourceSize(sourceGraph.getVertexFilePath());
+			}
+			if (!GraphFileManager.isEdgeFileUpToDate(sourceGraph, formattedGraph)) {
+				requiredBytes += sourceSize(sourceGraph.getEdgeFilePath());
+			}
+			if (csrCacheEnabled && formattedGraph.getCsrFilePath() != null &&
+					!GraphFileManager.isCsrFileUpToDate(formattedGraph)) {
+				requiredBytes += CsrGraphFile.fileSize(0, formattedGraph.getNumberOfVertices(),
+						formattedGraph.getNumberOfEdges(), formattedGraph.getVertexProperties().size(),
+						formattedGraph.getEdgeProperties().size());
+			}
+		}
+		evict(cacheDirectory, requiredBytes);
+	}
+
+	private static long sourceSize(String sourcePath) throws IOException {
+		Path source = Paths.get(sourcePath);
+		return Files.exists(source) ? Files.size(source) : 0;
+	}
+
+	/**
+	 * Evicts least recently used files until the cache directory has room for the given number of bytes, or no more
+	 * files can be evicted.
+	 *
+	 * @param cacheDirectory the cache directory
+	 * @param requiredBytes  the number of bytes to make room for
+	 * @return the number of bytes reclaimed
+	 * @throws IOException iff the cache directory could not be read
+	 */
+	long evict(Path cacheDirectory, long requiredBytes) throws IOException {
+		List<CacheEntry> entries = new ArrayList<>();
+		long totalSize = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory)) {
+			for (Path file : files) {
+				CacheEntry entry = CacheEntry.forFile(file);
+				if (entry != null) {
+					entries.add(entry);
+					totalSize += entry.size;
+				}
+			}
+		}
+		if (totalSize + requiredBytes <= maximumSize) {
+			return 0;
+		}
+
+		Collections.sort(entries, new Comparator<CacheEntry>() {
+			@Override
+			public int compare(CacheEntry o1, CacheEntry o2) {
+				return Long.compare(o1.lastUsed, o2.lastUsed);
+			}
+		});
+
+		long reclaimedBytes = 0;
+		int evictedFiles = 0;
+		for (CacheEntry entry : entries) {
+			if (totalSize - reclaimedBytes + requiredBytes <= maximumSize) {
+				break;
+			}
+			if (requiredFiles.contains(normalize(entry.file))) {
+				continue;
+			}
+			LOG.info("Evicting \"{}\" from the graph cache.", entry.file);
+			// Remove the manifest first, so an interrupted eviction leaves an invalid rather than a corrupt entry
+			Files.deleteIfExists(entry.manifest);
+			Files.deleteIfExists(entry.file);
+			reclaimedBytes += entry.size;
+			evictedFiles++;
+		}
+
+		if (evictedFiles > 0) {
+			LOG.info("Reclaimed {} MB by evicting {} file(s) from the graph cache.", reclaimedBytes >> 20, evictedFiles);
+		}
+		if (totalSize - reclaimedBytes + requiredBytes > maximumSize) {
+			LOG.warn("Graph cache at \"{}\" will exceed its budget of {} MB, all remaining files are in use.",
+					cacheDirectory, maximumSize >> 20);
+		}
+		return reclaimedBytes;
+	}
+
+	/**
+	 * Records that a cache file was used, so it is evicted after files that have not been used more recently. Must
+	 * not be called for source files, as this updates their modification time.
+	 *
+	 * @param filePath the cache file that was used
+	 */
+	public static void recordUse(String filePath) {
+		Path file = Paths.get(filePath);
+		Path manifest = Paths.get(filePath + GraphCacheManifest.MANIFEST_EXTENSION);
+		try {
+			Files.setLastModifiedTime(Files.exists(manifest) ? manifest : file,
+					FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException e) {
+			LOG.debug("Failed to record use of cache file \"{}\".", filePath, e);
+		}
+	}
+
+	/**
+	 * A file in the cache directory that was generated by Graphalytics, with its manifest if it has one.
+	 */
+	private static final class CacheEntry {
+
+		private final Path file;
+		private final Path manifest;
+		private final long size;
+		private final long lastUsed;
+
+		private CacheEntry(Path file, Path manifest, long size, long lastUsed) {
+			this.file = file;
+			this.manifest = manifest;
+			this.size = size;
+			this.lastUsed = lastUsed;
+		}
+
+		private static CacheEntry forFile(Path file) throws IOException {
+			String name = file.getFileName().toString();
+			if (!Files.isRegularFile(file) || name.endsWith(GraphCacheManifest.MANIFEST_EXTENSION)) {
+				return null;
+			}
+
+			Path manifest = Paths.get(file.toString() + GraphCacheManifest.MANIFEST_EXTENSION);
+			if (Files.isRegularFile(manifest)) {
+				return new CacheEntry(file, manifest, Files.size(file) + Files.size(manifest),
+						Files.getLastModifiedTime(manifest).toMillis());
+			} else if (name.endsWith(GraphFileStreams.CSR_EXTENSION)) {
+				return new CacheEntry(file, manifest, Files.size(file), Files.getLastModifiedTime(file).toMillis());
+			}
+			return null;
+		}
+
+	}
+
+}
@@ -17,17 +17,24 @@
  */
 package science.atlarge.graphalytics.util;
 
+import org.apache.commons.configuration.Configuration;
+import science.atlarge.graphalytics.configuration.ConfigurationUtil;
 import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.domain.graph.Graph;
 import science.atlarge.graphalytics.domain.graph.PropertyList;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import science.atlarge.graphalytics.util.io.*;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Utility class for managing graph files. Responsible for generating additional graph files from a source dataset
@@ -40,6 +47,10 @@ public final class GraphFileManager {
 
 	private static final Logger LOG = LogManager.getLogger();
 
+	private static final String BENCHMARK_PROPERTIES_FILE = "benchmark.properties";
+	private static final String CSR_CACHE_KEY = "graphs.cache.csr";
+	private static final String FORMATTING_THREADS_KEY = "graphs.formatting.threads";
+
 	/**
 	 * Prevent instantiation of utility class.
 	 */
@@ -47,84 +58,268 @@ public final class GraphFileManager {
 	}
 
 	/**
-	 * Checks if the vertex and edge files for a Graph exist, and tries to generate them if they do not.
+	 * Checks if the vertex and edge files for a Graph exist, and tries to generate them if they do not. If enabled
+	 * through the "graphs.cache.csr" property, a binary CSR copy of the graph is also generated in the cache directory.
 	 *
 	 * @param formattedGraph the graph to check the vertex and edge file for
 	 * @throws IOException iff the vertex or edge file can not be generated
 	 */
 	public static void ensureGraphFilesExist(FormattedGraph formattedGraph) throws IOException {
-		ensureVertexFileExists(formattedGraph);
-		ensureEdgeFileExists(formattedGraph);
+		ensureGraphFilesExist(Collections.singletonList(formattedGraph));
 	}
 
-	private static void ensureVertexFileExists(FormattedGraph formattedGraph) throws IOException {
-		if (Paths.get(formattedGraph.getVertexFilePath()).toFile().exists()) {
-			LOG.info("Found vertex file for graph \"{}\" at \"{}\".", formattedGraph.getGraph().getName(), formattedGraph.getVertexFilePath());
+	/**
+	 * Checks if the vertex and edge files for a collection of graphs exist, and tries to generate them if they do not.
+	 * All missing files derived from the same source graph are generated with a single scan of the source files.
+	 *
+	 * @param formattedGraphs the graphs to check the vertex and edge files for
+	 * @throws IOException iff a vertex or edge file can not be generated
+	 */
+	public static void ensureGraphFilesExist(Collection<FormattedGraph> formattedGraphs) throws IOException {
+		Map<Graph, List<FormattedGraph>> graphsPerSource = new LinkedHashMap<>();
+		for (FormattedGraph formattedGraph : formattedGraphs) {
+			Graph graph = formattedGraph.getGraph();
+			if (!graphsPerSource.containsKey(graph)) {
+				graphsPerSource.put(graph, new ArrayList<FormattedGraph>());
+			}
+			graphsPerSource.get(graph).add(formattedGraph);
+		}
+
+		for (Map.Entry<Graph, List<FormattedGraph>> entry : graphsPerSource.entrySet()) {
+			ensureVertexFilesExist(entry.getKey().getSourceGraph(), entry.getValue());
+			ensureEdgeFilesExist(entry.getKey().getSourceGraph(), entry.getValue());
+		}
+
+		if (isCsrCacheEnabled()) {
+			for (FormattedGraph formattedGraph : formattedGraphs) {
+				ensureCsrFileExists(formattedGraph);
+			}
+		}
+	}
+
+	static boolean isCsrCacheEnabled() {
+		try {
+			Configuration benchmarkConfiguration = ConfigurationUtil.loadConfiguration(BENCHMARK_PROPERTIES_FILE);
+			return benchmarkConfiguration.getBoolean(CSR_CACHE_KEY, false);
+		} catch (Exception e) {
+			LOG.debug("Failed to read configuration " + CSR_CACHE_KEY + ", CSR cache disabled.");
+			return false;
+		}
+	}
+
+	private static int getFormattingThreads() {
+		int defaultThreads = Runtime.getRuntime().availableProcessors();
+		try {
+			Configuration benchmarkConfiguration = ConfigurationUtil.loadConfiguration(BENCHMARK_PROPERTIES_FILE);
+			int threads = benchmarkConfiguration.getInt(FORMATTING_THREADS_KEY, defaultThreads);
+			if (threads < 1) {
+				LOG.error("Invalid value for configuration " + FORMATTING_THREADS_KEY + ": " + threads);
+				return defaultThreads;
+			}
+			return threads;
+		} catch (Exception e) {
+			LOG.debug("Failed to read configuration " + FORMATTING_THREADS_KEY + ", using " + defaultThreads +
+					" threads.");
+			return defaultThreads;
+		}
+	}
+
+	private static void ensureCsrFileExists(FormattedGraph formattedGraph) throws IOException {
+		String csrFilePath = formattedGraph.getCsrFilePath();
+		if (csrFilePath == null) {
+			return;
+		}
+
+		if (isCsrFileUpToDate(formattedGraph)) {
+			LOG.info("Found CSR file for graph \"{}\" at \"{}\".", formattedGraph.getName(), csrFilePath);
+			GraphCacheManager.recordUse(csrFilePath);
 			return;
 		}
+		if (Paths.get(csrFilePath).toFile().exists()) {
+			LOG.info("CSR file for graph \"{}\" is out of date.", formattedGraph.getName());
+		}
+
+		LOG.info("Generating CSR file for graph \"{}\" at \"{}\".", formattedGraph.getName(), csrFilePath);
+		Files.createDirectories(Paths.get(csrFilePath).getParent());
+		new CsrGraphWriter(formattedGraph.isDirected(), formattedGraph.getVertexProperties(),
+				formattedGraph.getEdgeProperties()).write(formattedGraph.getVertexFilePath(),
+				formattedGraph.getEdgeFilePath(), Paths.get(csrFilePath));
+		LOG.info("Done generating CSR file for graph \"{}\".", formattedGraph.getName());
+	}
 
-		FormattedGraph sourceGraph = formattedGraph.getGraph().getSourceGraph();
-		if (!Paths.get(sourceGraph.getVertexFilePath()).toFile().exists()) {
+	private static void ensureVertexFilesExist(FormattedGraph sourceGraph, Collection<FormattedGraph> formattedGraphs)
+			throws IOException {
+		String sourcePath = sourceGraph.getVertexFilePath();
+		Map<String, FormattedGraph> missingGraphs = new LinkedHashMap<>();
+		for (FormattedGraph formattedGraph : formattedGraphs) {
+			String vertexFilePath = formattedGraph.getVertexFilePath();
+			int[] propertyIndices = findPropertyIndices(sourceGraph.getVertexProperties(),
+					formattedGraph.getVertexProperties());
+			if (isUpToDate(vertexFilePath, sourcePath, propertyIndices)) {
+				LOG.info("Found vertex file for graph \"{}\" at \"{}\".", formattedGraph.getGraph().getName(), vertexFilePath);
+				if (!vertexFilePath.equals(sourcePath)) {
+					GraphCacheManager.recordUse(vertexFilePath);
+				}
+			} else {
+				if (Paths.get(vertexFilePath).toFile().exists()) {
+					LOG.info("Vertex file for graph \"{}\" at \"{}\" is incomplete or out of date.",
+							formattedGraph.getGraph().getName(), vertexFilePath);
+				}
+				missingGraphs.put(vertexFilePath, formattedGraph);
+			}
+		}
+		if (missingGraphs.isEmpty()) {
+			return;
+		}
+
+		if (!Paths.get(sourcePath).toFile().exists()) {
 			throw new IOException("Source vertex file is missing, can not generate graph files.");
 		}
 
-		LOG.info("Generating vertex file for graph \"{}\" at \"{}\" with vertex properties {}.",
-				formattedGraph.getGraph().getName(), formattedGraph.getVertexFilePath(), formattedGraph.getVertexProperties());
-		generateVertexFile(formattedGraph);
-		LOG.info("Done generating vertex file for graph \"{}\".", formattedGraph.getGraph().getName());
+		String[] targetPaths = new String[missingGraphs.size()];
+		int[][] propertyIndices = new int[missingGraphs.size()][];
+		GraphCacheManifest[] manifests = new GraphCacheManifest[missingGraphs.size()];
+		int i = 0;
+		for (FormattedGraph formattedGraph : missingGraphs.values()) {
+			LOG.info("Generating vertex file for graph \"{}\" at \"{}\" with vertex properties {}.",
+					formattedGraph.getGraph().getName(), formattedGraph.getVertexFilePath(), formattedGraph.getVertexProperties());
+			// Ensure that the output directory exists
+			Files.createDirectories(Paths.get(formattedGraph.getVertexFilePath()).getParent());
+			targetPaths[i] = formattedGraph.getVertexFilePath();
+			propertyIndices[i] = findPropertyIndices(sourceGraph.getVertexProperties(),
+					formattedGraph.getVertexProperties());
+			manifests[i] = GraphCacheManifest.describe(sourcePath, propertyIndices[i]);
+			GraphCacheManifest.invalidate(targetPaths[i]);
+			i++;
+		}
+		new ParallelGraphFileProjector(getFormattingThreads()).projectVertexFile(sourcePath, targetPaths,
+				propertyIndices);
+		for (i = 0; i < targetPaths.length; i++) {
+			manifests[i].write(targetPaths[i]);
+		}
+		LOG.info("Done generating {} vertex file(s) for graph \"{}\".", targetPaths.length,
+				sourceGraph.getGraph().getName());
 	}
 
-	private static void ensureEdgeFileExists(FormattedGraph formattedGraph) throws IOException {
-		if (Paths.get(formattedGraph.getEdgeFilePath()).toFile().exists()) {
-			LOG.info("Found edge file for graph \"{}\" at \"{}\".", formattedGraph.getName(), formattedGraph.getEdgeFilePath());
+	private static void ensureEdgeFilesExist(FormattedGraph sourceGraph, Collection<FormattedGraph> formattedGraphs)
+			throws IOException {
+		String sourcePath = sourceGraph.getEdgeFilePath();
+		Map<String, FormattedGraph> missingGraphs = new LinkedHashMap<>();
+		for (FormattedGraph formattedGraph : formattedGraphs) {
+			String edgeFilePath = formattedGraph.getEdgeFilePath();
+			int[] propertyIndices = findPropertyIndices(sourceGraph.getEdgeProperties(),
+					formattedGraph.getEdgeProperties());
+			if (isUpToDate(edgeFilePath, sourcePath, propertyIndices)) {
+				LOG.info("Found edge file for graph \"{}\" at \"{}\".", formattedGraph.getName(), edgeFilePath);
+				if (!edgeFilePath.equals(sourcePath)) {
+					GraphCacheManager.recordUse(edgeFilePath);
+				}
+			} else {
+				if (Paths.get(edgeFilePath).toFile().exists()) {
+					LOG.info("Edge file for graph \"{}\" at \"{}\" is incomplete or out of date.",
+							formattedGraph.getName(), edgeFilePath);
+				}
+				missingGraphs.put(edgeFilePath, formattedGraph);
+			}
+		}
+		if (missingGraphs.isEmpty()) {
 			return;
 		}
 
-		FormattedGraph sourceGraph = formattedGraph.getGraph().getSourceGraph();
-		if (!Paths.get(sourceGraph.getEdgeFilePath()).toFile().exists()) {
+		if (!Paths.get(sourcePath).toFile().exists()) {
 			throw new IOException("Source edge file is missing, can not generate graph files.");
 		}
 
-		LOG.info("Generating edge file for graph \"{}\" at \"{}\" with edge properties {}.",
-				formattedGraph.getGraph().getName(), formattedGraph.getEdgeFilePath(), formattedGraph.getEdgeProperties());
-		generateEdgeFile(formattedGraph);
-		LOG.info("Done generating edge file for graph \"{}\".", formattedGraph.getGraph().getName());
+		String[] targetPaths = new String[missingGraphs.size()];
+		int[][] propertyIndices = new int[missingGraphs.size()][];
+		GraphCacheManifest[] manifests = new GraphCacheManifest[missingGraphs.size()];
+		int i = 0;
+		for (FormattedGraph formattedGraph : missingGraphs.values()) {
+			LOG.info("Generating edge file for graph \"{}\" at \"{}\" with edge properties {}.",
+					formattedGraph.getGraph().getName(), formattedGraph.getEdgeFilePath(), formattedGraph.getEdgeProperties());
+			// Ensure that the output directory exists
+			Files.createDirectories(Paths.get(formattedGraph.getEdgeFilePath()).getParent());
+			targetPaths[i] = formattedGraph.getEdgeFilePath();
+			propertyIndices[i] = findPropertyIndices(sourceGraph.getEdgeProperties(),
+					formattedGraph.getEdgeProperties());
+			manifests[i] = GraphCacheManifest.describe(sourcePath, propertyIndices[i]);
+			GraphCacheManifest.invalidate(targetPaths[i]);
+			i++;
+		}
+		new ParallelGraphFileProjector(getFormattingThreads()).projectEdgeFile(sourcePath, targetPaths,
+				propertyIndices);
+		for (i = 0; i < targetPaths.length; i++) {
+			manifests[i].write(targetPaths[i]);
+		}
+		LOG.info("Done generating {} edge file(s) for graph \"{}\".", targetPaths.length,
+				sourceGraph.getGraph().getName());
+	}
+
+	/**
+	 * @param sourceGraph    the source graph of the formatted graph
+	 * @param formattedGraph the formatted graph to check
+	 * @return true iff the vertex file of the formatted graph can be used as is
+	 * @throws IOException iff the source file could not be read
+	 */
+	static boolean isVertexFileUpToDate(FormattedGraph sourceGraph, FormattedGraph formattedGraph)
+			throws IOException {
+		return isUpToDate(formattedGraph.getVertexFilePath(), sourceGraph.getVertexFilePath(),
+				findPropertyIndices(sourceGraph.getVertexProperties(), formattedGraph.getVertexProperties()));
+	}
+
+	/**
+	 * @param sourceGraph    the source graph of the formatted graph
+	 * @param formattedGraph the formatted graph to check
+	 * @return true iff the edge file of the formatted graph can be used as is
+	 * @throws IOException iff the source file could not be read
+	 */
+	static boolean isEdgeFileUpToDate(FormattedGraph sourceGraph, FormattedGraph formattedGraph) throws IOException {
+		return isUpToDate(formattedGraph.getEdgeFilePath(), sourceGraph.getEdgeFilePath(),
+				findPropertyIndices(sourceGraph.getEdgeProperties(), formattedGraph.getEdgeProperties()));
 	}
 
-	private static void generateVertexFile(FormattedGraph formattedGraph) throws IOException {
-		// Ensure that the output directory exists
-		Files.createDirectories(Paths.get(formattedGraph.getVertexFilePath()).getParent());
-
-		// Generate the vertex file
-		int[] propertyIndices = findPropertyIndices(formattedGraph.getGraph().getSourceGraph().getVertexProperties(),
-				formattedGraph.getVertexProperties());
-		try (VertexListStreamWriter writer = new VertexListStreamWriter(
-				new VertexListPropertyFilter(
-						new VertexListInputStreamReader(
-								new FileInputStream(formattedGraph.getGraph().getSourceGraph().getVertexFilePath())
-						),
-						propertyIndices),
-				new FileOutputStream(formattedGraph.getVertexFilePath()))) {
-			writer.writeAll();
+	/**
+	 * Checks if the CSR file of a formatted graph exists and was generated from the current vertex and edge files.
+	 *
+	 * @param formattedGraph the formatted graph to check
+	 * @return true iff the CSR file can be used as is
+	 * @throws IOException iff the vertex or edge file could not be read
+	 */
+	static boolean isCsrFileUpToDate(FormattedGraph formattedGraph) throws IOException {
+		String csrFilePath = formattedGraph.getCsrFilePath();
+		if (csrFilePath == null || !Paths.get(csrFilePath).toFile().exists() ||
+				!Paths.get(formattedGraph.getVertexFilePath()).toFile().exists() ||
+				!Paths.get(formattedGraph.getEdgeFilePath()).toFile().exists()) {
+			return false;
+		}
+
+		long fingerprint = GraphCacheManifest.fingerprint(formattedGraph.getVertexFilePath(),
+				formattedGraph.getEdgeFilePath());
+		try (CsrGraphFile csrFile = CsrGraphFile.open(Paths.get(csrFilePath))) {
+			return csrFile.getSourceFingerprint() == fingerprint;
+		} catch (IOException e) {
+			LOG.warn("Failed to read CSR file at \"{}\".", csrFilePath, e);
+			return false;
 		}
 	}
 
-	private static void generateEdgeFile(FormattedGraph formattedGraph) throws IOException {
-		// Ensure that the output directory exists
-		Files.createDirectories(Paths.get(formattedGraph.getEdgeFilePath()).getParent());
-
-		// Generate the edge file
-		int[] propertyIndices = findPropertyIndices(formattedGraph.getGraph().getSourceGraph().getEdgeProperties(),
-				formattedGraph.getEdgeProperties());
-		try (EdgeListStreamWriter writer = new EdgeListStreamWriter(
-				new EdgeListPropertyFilter(
-						new EdgeListInputStreamReader(
-								new FileInputStream(formattedGraph.getGraph().getSourceGraph().getEdgeFilePath())
-						),
-						propertyIndices),
-				new FileOutputStream(formattedGraph.getEdgeFilePath()))) {
-			writer.writeAll();
+	/**
+	 * Checks if a graph file can be used as is. Files derived from a source file are only reused if their manifest
+	 * shows that they are complete and were generated from the current version of the source file.
+	 */
+	private static boolean isUpToDate(String filePath, String sourcePath, int[] propertyIndices) throws IOException {
+		if (!Paths.get(filePath).toFile().exists()) {
+			return false;
+		}
+		if (filePath.equals(sourcePath)) {
+			return true;
+		}
+		if (!Paths.get(sourcePath).toFile().exists()) {
+			LOG.warn("Source file \"{}\" is missing, using \"{}\" without checking if it is up to date.",
+					sourcePath, filePath);
+			return true;
 		}
+		return GraphCacheManifest.describe(sourcePath, propertyIndices).matches(filePath);
 	}
 
 	private static int[] findPropertyIndices(PropertyList sourceList, PropertyList targetList) throws IOException {
@@ -0,0 +1,393 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.graph;
+
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.util.io.PropertyValues;
+
+import java.util.Arrays;
+
+/**
+ * Compact in-memory representation of a property graph in the compressed-sparse-row (CSR) format. Vertices are
+ * identified by a dense index in [0, getNumberOfVertices()), assigned in ascending order of the original vertex ids.
+ * Edges are identified by their position in the outgoing adjacency array. Adjacency lists and property values are
+ * stored in primitive arrays, so iterating over the graph does not allocate:
+ * <pre>
+ * for (int edge = graph.getOutEdgesBegin(vertex); edge &lt; graph.getOutEdgesEnd(vertex); edge++) {
+ *     int neighbour = graph.getOutEdgeTarget(edge);
+ * }
+ * </pre>
+ * Undirected edges are stored once in each direction, so the incoming and outgoing adjacency of undirected graphs
+ * are identical. Compared to PropertyGraph, which uses several objects per vertex and edge, a CsrGraph requires
+ * roughly 8 bytes per vertex and 4 bytes per edge direction, plus 8 bytes per property value.
+ */
+public final class CsrGraph {
+
+	private final boolean isDirected;
+	private final long[] vertexIds;
+	private final PropertyColumns vertexProperties;
+
+	private final int[] outOffsets;
+	private final int[] outTargets;
+	private final PropertyColumns edgeProperties;
+
+	private final int[] inOffsets;
+	private final int[] inSources;
+	private final int[] inEdges;
+
+	CsrGraph(boolean isDirected, long[] vertexIds, PropertyColumns vertexProperties, int[] outOffsets,
+			int[] outTargets, PropertyColumns edgeProperties, int[] inOffsets, int[] inSources, int[] inEdges) {
+		this.isDirected = isDirected;
+		this.vertexIds = vertexIds;
+		this.vertexProperties = vertexProperties;
+		this.outOffsets = outOffsets;
+		this.outTargets = outTargets;
+		this.edgeProperties = edgeProperties;
+		this.inOffsets = inOffsets;
+		this.inSources = inSources;
+		this.inEdges = inEdges;
+	}
+
+	/**
+	 * @return true iff the graph is directed
+	 */
+	public boolean isDirected() {
+		return isDirected;
+	}
+
+	/**
+	 * @return the number of vertices in the graph
+	 */
+	public int getNumberOfVertices() {
+		return vertexIds.length;
+	}
+
+	/**
+	 * @return the number of stored edges, i.e. twice the number of input edges for undirected graphs
+	 */
+	public int getNumberOfEdges() {
+		return outTargets.length;
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the original id of the vertex
+	 */
+	public long getVertexId(int vertex) {
+		return vertexIds[vertex];
+	}
+
+	/**
+	 * @param vertexId the original id of a vertex
+	 * @return the dense index of the vertex, or -1 if the graph does not contain the vertex
+	 */
+	public int getVertexIndex(long vertexId) {
+		int index = Arrays.binarySearch(vertexIds, vertexId);
+		return index >= 0 ? index : -1;
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the number of outgoing edges of the vertex
+	 */
+	public int getOutDegree(int vertex) {
+		return outOffsets[vertex + 1] - outOffsets[vertex];
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the index of the first outgoing edge of the vertex
+	 */
+	public int getOutEdgesBegin(int vertex) {
+		return outOffsets[vertex];
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the index directly after the last outgoing edge of the vertex
+	 */
+	public int getOutEdgesEnd(int vertex) {
+		return outOffsets[vertex + 1];
+	}
+
+	/**
+	 * @param edge the index of an edge
+	 * @return the dense index of the destination vertex of the edge
+	 */
+	public int getOutEdgeTarget(int edge) {
+		return outTargets[edge];
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the number of incoming edges of the vertex
+	 */
+	public int getInDegree(int vertex) {
+		return inOffsets[vertex + 1] - inOffsets[vertex];
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the position of the first incoming edge of the vertex, see getInEdgeSource and getInEdge
+	 */
+	public int getInEdgesBegin(int vertex) {
+		return inOffsets[vertex];
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the position directly after the last incoming edge of the vertex
+	 */
+	public int getInEdgesEnd(int vertex) {
+		return inOffsets[vertex + 1];
+	}
+
+	/**
+	 * @param position the position of an incoming edge, between getInEdgesBegin and getInEdgesEnd of its target
+	 * @return the dense index of the source vertex of the edge
+	 */
+	public int getInEdgeSource(int position) {
+		return inSources[position];
+	}
+
+	/**
+	 * @param position the position of an incoming edge, between getInEdgesBegin and getInEdgesEnd of its target
+	 * @return the index of the edge, used to look up its property values
+	 */
+	public int getInEdge(int position) {
+		return inEdges == null ? position : inEdges[position];
+	}
+
+	/**
+	 * @param property the index of an INTEGER vertex property
+	 * @param vertex   the dense index of a vertex
+	 * @return the value of the property for the vertex
+	 */
+	public long getVertexLongProperty(int property, int vertex) {
+		return vertexProperties.getLong(property, vertex);
+	}
+
+	/**
+	 * @param property the index of a REAL vertex property
+	 * @param vertex   the dense index of a vertex
+	 * @return the value of the property for the vertex
+	 */
+	public double getVertexDoubleProperty(int property, int vertex) {
+		return vertexProperties.getDouble(property, vertex);
+	}
+
+	/**
+	 * @param property the index of an INTEGER edge property
+	 * @param edge     the index of an edge
+	 * @return the value of the property for the edge
+	 */
+	public long getEdgeLongProperty(int property, int edge) {
+		return edgeProperties.getLong(property, edge);
+	}
+
+	/**
+	 * @param property the index of a REAL edge property
+	 * @param edge     the index of an edge
+	 * @return the value of the property for the edge
+	 */
+	public double getEdgeDoubleProperty(int property, int edge) {
+		return edgeProperties.getDouble(property, edge);
+	}
+
+	/**
+	 * Builder for a CsrGraph. All vertices must be added before the first edge is added. Edges are buffered as pairs
+	 * of dense vertex indices and sorted into the CSR layout when the graph is built.
+	 */
+	public static final class Builder {
+
+		private static final int INITIAL_CAPACITY = 1 << 10;
+
+		private final boolean isDirected;
+
+		private long[] vertexIds = new long[INITIAL_CAPACITY];
+		private PropertyColumns vertexProperties;
+		private int numberOfVertices;
+		private boolean verticesSealed;
+
+		private int[] edgeSources = new int[INITIAL_CAPACITY];
+		private int[] edgeTargets = new int[INITIAL_CAPACITY];
+		private PropertyColumns edgeProperties;
+		private int numberOfEdges;
+
+		/**
+		 * @param isDirected       true iff the graph is directed
+		 * @param vertexProperties the properties of each vertex
+		 * @param edgeProperties   the properties of each edge
+		 */
+		public Builder(boolean isDirected, PropertyList vertexProperties, PropertyList edgeProperties) {
+			this.isDirected = isDirected;
+			this.vertexProperties = new PropertyColumns(vertexProperties, INITIAL_CAPACITY);
+			this.edgeProperties = new PropertyColumns(edgeProperties, INITIAL_CAPACITY);
+		}
+
+		/**
+		 * @param vertexId the id of the vertex
+		 * @param values   the property values of the vertex, copied by this method
+		 */
+		public void addVertex(long vertexId, PropertyValues values) {
+			if (verticesSealed) {
+				throw new IllegalStateException("Vertices must be added before edges.");
+			}
+			if (numberOfVertices == vertexIds.length) {
+				int capacity = grow(numberOfVertices);
+				vertexIds = Arrays.copyOf(vertexIds, capacity);
+				vertexProperties.ensureCapacity(capacity);
+			}
+			vertexIds[numberOfVertices] = vertexId;
+			if (values != null) {
+				vertexProperties.set(numberOfVertices, values);
+			}
+			numberOfVertices++;
+		}
+
+		/**
+		 * @param sourceId      the id of the source vertex
+		 * @param destinationId the id of the destination vertex
+		 * @param values        the property values of the edge, copied by this method
+		 */
+		public void addEdge(long sourceId, long destinationId, PropertyValues values) {
+			if (!verticesSealed) {
+				sealVertices();
+			}
+			int source = indexOf(sourceId, "Source");
+			int target = indexOf(destinationId, "Destination");
+			if (numberOfEdges == edgeSources.length) {
+				int capacity = grow(numberOfEdges);
+				edgeSources = Arrays.copyOf(edgeSources, capacity);
+				edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+				edgeProperties.ensureCapacity(capacity);
+			}
+			edgeSources[numberOfEdges] = source;
+			edgeTargets[numberOfEdges] = target;
+			if (values != null) {
+				edgeProperties.set(numberOfEdges, values);
+			}
+			numberOfEdges++;
+		}
+
+		private static int grow(int size) {
+			if (size == Integer.MAX_VALUE - 8) {
+				throw new IllegalStateException("CsrGraph can not hold more than " + size + " vertices or edges.");
+			}
+			return (int)Math.min(Integer.MAX_VALUE - 8, size * 2L);
+		}
+
+		private int indexOf(long vertexId, String role) {
+			int index = Arrays.binarySearch(vertexIds, 0, numberOfVertices, vertexId);
+			if (index < 0) {
+				throw new IllegalArgumentException(role + " vertex with id " + vertexId + " does not exist.");
+			}
+			return index;
+		}
+
+		/**
+		 * Sorts the vertices by id, so dense indices can be found with a binary search.
+		 */
+		private void sealVertices() {
+			verticesSealed = true;
+			long[] sortedIds = Arrays.copyOf(vertexIds, numberOfVertices);
+			Arrays.sort(sortedIds);
+			for (int i = 1; i < numberOfVertices; i++) {
+				if (sortedIds[i] == sortedIds[i - 1]) {
+					throw new IllegalArgumentException("Vertex with id " + sortedIds[i] + " already exists.");
+				}
+			}
+
+			PropertyColumns sortedProperties = vertexProperties.allocateLike(numberOfVertices);
+			for (int i = 0; i < numberOfVertices; i++) {
+				sortedProperties.copy(vertexProperties, i, Arrays.binarySearch(sortedIds, vertexIds[i]));
+			}
+			vertexIds = sortedIds;
+			vertexProperties = sortedProperties;
+		}
+
+		/**
+		 * @return the CsrGraph containing all added vertices and edges
+		 */
+		public CsrGraph build() {
+			if (!verticesSealed) {
+				sealVertices();
+			}
+			int n = numberOfVertices;
+			long storedEdges = isDirected ? numberOfEdges : 2L * numberOfEdges;
+			if (storedEdges > Integer.MAX_VALUE - 8) {
+				throw new IllegalStateException("CsrGraph can not hold " + storedEdges + " edges.");
+			}
+
+			// Counting sort of the edges by source vertex, preserving the input order per vertex
+			int[] outOffsets = new int[n + 1];
+			for (int e = 0; e < numberOfEdges; e++) {
+				outOffsets[edgeSources[e] + 1]++;
+				if (!isDirected) {
+					outOffsets[edgeTargets[e] + 1]++;
+				}
+			}
+			prefixSum(outOffsets);
+			int[] outTargets = new int[(int)storedEdges];
+			PropertyColumns outProperties = edgeProperties.allocateLike((int)storedEdges);
+			int[] outPosition = Arrays.copyOf(outOffsets, n);
+			int[] edgePosition = isDirected ? new int[numberOfEdges] : null;
+			for (int e = 0; e < numberOfEdges; e++) {
+				int position = outPosition[edgeSources[e]]++;
+				outTargets[position] = edgeTargets[e];
+				outProperties.copy(edgeProperties, e, position);
+				if (isDirected) {
+					edgePosition[e] = position;
+				} else {
+					position = outPosition[edgeTargets[e]]++;
+					outTargets[position] = edgeSources[e];
+					outProperties.copy(edgeProperties, e, position);
+				}
+			}
+
+			if (!isDirected) {
+				return new CsrGraph(false, vertexIds, vertexProperties, outOffsets, outTargets, outProperties,
+						outOffsets, outTargets, null);
+			}
+
+			int[] inOffsets = new int[n + 1];
+			for (int e = 0; e < numberOfEdges; e++) {
+				inOffsets[edgeTargets[e] + 1]++;
+			}
+			prefixSum(inOffsets);
+			int[] inSources = new int[numberOfEdges];
+			int[] inEdges = new int[numberOfEdges];
+			int[] inPosition = Arrays.copyOf(inOffsets, n);
+			for (int e = 0; e < numberOfEdges; e++) {
+				int position = inPosition[edgeTargets[e]]++;
+				inSources[position] = edgeSources[e];
+				inEdges[position] = edgePosition[e];
+			}
+			return new CsrGraph(true, vertexIds, vertexProperties, outOffsets, outTargets, outProperties,
+					inOffsets, inSources, inEdges);
+		}
+
+		private static void prefixSum(int[] offsets) {
+			for (int i = 1; i < offsets.length; i++) {
+				offsets[i] += offsets[i - 1];
+			}
+		}
+
+	}
+
+}
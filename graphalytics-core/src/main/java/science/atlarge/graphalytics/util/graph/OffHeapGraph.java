@@ -0,0 +1,269 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.graph;
+
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+import science.atlarge.graphalytics.util.io.CsrGraphFile;
+import science.atlarge.graphalytics.util.io.MappedLongArray;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Property graph in the compressed-sparse-row (CSR) format, stored outside of the Java heap in a memory-mapped file.
+ * Provides the same adjacency and property accessors as CsrGraph, but with long edge indices, so graphs with more than
+ * 2^31 edges can be represented. The number of vertices is limited to about 2^31, because CsrGraphWriter keeps the
+ * vertex table on the heap. Because the data is not on the heap, it does not contribute to garbage collection pauses,
+ * and the operating system pages it in and out as needed.
+ * <p>
+ * A store is written once by CsrGraphWriter (see PropertyGraphParser.parseOffHeapGraph) and can afterwards be
+ * reopened with open() without parsing the input again. Stores use the CsrGraphFile format with the vertex ids in
+ * ascending order. As in CsrGraph, undirected edges are stored once in each direction, and the incoming and outgoing
+ * adjacency of undirected graphs are identical; directed graphs additionally store the in-edge sections.
+ */
+public final class OffHeapGraph implements AutoCloseable {
+
+	private final CsrGraphFile file;
+	private final PropertyType[] vertexPropertyTypes;
+	private final PropertyType[] edgePropertyTypes;
+
+	private final MappedLongArray vertexIds;
+	private final MappedLongArray[] vertexProperties;
+	private final MappedLongArray outOffsets;
+	private final MappedLongArray outTargets;
+	private final MappedLongArray[] edgeProperties;
+	private final MappedLongArray inOffsets;
+	private final MappedLongArray inSources;
+	private final MappedLongArray inEdges;
+
+	private OffHeapGraph(CsrGraphFile file) {
+		this.file = file;
+		this.vertexPropertyTypes = file.getVertexPropertyTypes();
+		this.edgePropertyTypes = file.getEdgePropertyTypes();
+		this.vertexIds = file.getVertexIds();
+		this.vertexProperties = new MappedLongArray[vertexPropertyTypes.length];
+		for (int i = 0; i < vertexProperties.length; i++) {
+			vertexProperties[i] = file.getVertexProperty(i);
+		}
+		this.outOffsets = file.getOffsets();
+		this.outTargets = file.getNeighbours();
+		this.edgeProperties = new MappedLongArray[edgePropertyTypes.length];
+		for (int i = 0; i < edgeProperties.length; i++) {
+			edgeProperties[i] = file.getEdgeProperty(i);
+		}
+		if (file.isDirected()) {
+			this.inOffsets = file.getInOffsets();
+			this.inSources = file.getInSources();
+			this.inEdges = file.getInEdges();
+		} else {
+			this.inOffsets = outOffsets;
+			this.inSources = outTargets;
+			this.inEdges = null;
+		}
+	}
+
+	/**
+	 * Opens a previously written off-heap graph store. All sections are memory-mapped, so opening a store does not
+	 * parse or copy any data.
+	 *
+	 * @param path the path of an off-heap graph store
+	 * @return a view of the graph stored in the file
+	 * @throws IOException if the file could not be read or is not a valid off-heap graph store
+	 */
+	public static OffHeapGraph open(Path path) throws IOException {
+		CsrGraphFile file = CsrGraphFile.open(path);
+		boolean hasAdjacency = file.isDirected() ? file.hasInEdges() : file.isSymmetric();
+		if (!file.hasSortedVertexIds() || !hasAdjacency) {
+			file.close();
+			throw new IOException("CSR graph file \"" + path + "\" is not an off-heap graph store.");
+		}
+		return new OffHeapGraph(file);
+	}
+
+	/**
+	 * @return true iff the graph is directed
+	 */
+	public boolean isDirected() {
+		return file.isDirected();
+	}
+
+	/**
+	 * @return the number of vertices in the graph
+	 */
+	public long getNumberOfVertices() {
+		return file.getNumberOfVertices();
+	}
+
+	/**
+	 * @return the number of stored edges, i.e. twice the number of input edges for undirected graphs
+	 */
+	public long getNumberOfEdges() {
+		return file.getNumberOfEdges();
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the original id of the vertex
+	 */
+	public long getVertexId(long vertex) {
+		return vertexIds.get(vertex);
+	}
+
+	/**
+	 * @param vertexId the original id of a vertex
+	 * @return the dense index of the vertex, or -1 if the graph does not contain the vertex
+	 */
+	public long getVertexIndex(long vertexId) {
+		long low = 0;
+		long high = file.getNumberOfVertices() - 1;
+		while (low <= high) {
+			long middle = (low + high) >>> 1;
+			long middleId = vertexIds.get(middle);
+			if (middleId < vertexId) {
+				low = middle + 1;
+			} else if (middleId > vertexId) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the number of outgoing edges of the vertex
+	 */
+	public long getOutDegree(long vertex) {
+		return outOffsets.get(vertex + 1) - outOffsets.get(vertex);
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the index of the first outgoing edge of the vertex
+	 */
+	public long getOutEdgesBegin(long vertex) {
+		return outOffsets.get(vertex);
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the index directly after the last outgoing edge of the vertex
+	 */
+	public long getOutEdgesEnd(long vertex) {
+		return outOffsets.get(vertex + 1);
+	}
+
+	/**
+	 * @param edge the index of an edge
+	 * @return the dense index of the destination vertex of the edge
+	 */
+	public long getOutEdgeTarget(long edge) {
+		return outTargets.get(edge);
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the number of incoming edges of the vertex
+	 */
+	public long getInDegree(long vertex) {
+		return inOffsets.get(vertex + 1) - inOffsets.get(vertex);
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the position of the first incoming edge of the vertex, see getInEdgeSource and getInEdge
+	 */
+	public long getInEdgesBegin(long vertex) {
+		return inOffsets.get(vertex);
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the position directly after the last incoming edge of the vertex
+	 */
+	public long getInEdgesEnd(long vertex) {
+		return inOffsets.get(vertex + 1);
+	}
+
+	/**
+	 * @param position the position of an incoming edge, between getInEdgesBegin and getInEdgesEnd of its target
+	 * @return the dense index of the source vertex of the edge
+	 */
+	public long getInEdgeSource(long position) {
+		return inSources.get(position);
+	}
+
+	/**
+	 * @param position the position of an incoming edge, between getInEdgesBegin and getInEdgesEnd of its target
+	 * @return the index of the edge, used to look up its property values
+	 */
+	public long getInEdge(long position) {
+		return inEdges == null ? position : inEdges.get(position);
+	}
+
+	/**
+	 * @param property the index of an INTEGER vertex property
+	 * @param vertex   the dense index of a vertex
+	 * @return the value of the property for the vertex
+	 */
+	public long getVertexLongProperty(int property, long vertex) {
+		return column(vertexProperties, vertexPropertyTypes, property, PropertyType.INTEGER).get(vertex);
+	}
+
+	/**
+	 * @param property the index of a REAL vertex property
+	 * @param vertex   the dense index of a vertex
+	 * @return the value of the property for the vertex
+	 */
+	public double getVertexDoubleProperty(int property, long vertex) {
+		return column(vertexProperties, vertexPropertyTypes, property, PropertyType.REAL).getDouble(vertex);
+	}
+
+	/**
+	 * @param property the index of an INTEGER edge property
+	 * @param edge     the index of an edge
+	 * @return the value of the property for the edge
+	 */
+	public long getEdgeLongProperty(int property, long edge) {
+		return column(edgeProperties, edgePropertyTypes, property, PropertyType.INTEGER).get(edge);
+	}
+
+	/**
+	 * @param property the index of a REAL edge property
+	 * @param edge     the index of an edge
+	 * @return the value of the property for the edge
+	 */
+	public double getEdgeDoubleProperty(int property, long edge) {
+		return column(edgeProperties, edgePropertyTypes, property, PropertyType.REAL).getDouble(edge);
+	}
+
+	private static MappedLongArray column(MappedLongArray[] columns, PropertyType[] types, int property,
+			PropertyType expectedType) {
+		if (types[property] != expectedType) {
+			throw new IllegalArgumentException("Property " + property + " is not of type " + expectedType + ".");
+		}
+		return columns[property];
+	}
+
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.graph;
+
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.util.io.EdgeListStream;
+import science.atlarge.graphalytics.util.io.GraphFileStreams;
+import science.atlarge.graphalytics.util.io.LineChunks;
+import science.atlarge.graphalytics.util.io.TypedEdgeListReader;
+import science.atlarge.graphalytics.util.io.TypedEdgeListStream;
+import science.atlarge.graphalytics.util.io.TypedVertexListReader;
+import science.atlarge.graphalytics.util.io.TypedVertexListStream;
+import science.atlarge.graphalytics.util.io.VertexListStream;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds a CsrGraph from EVLP files using multiple threads. Both files are split into line-aligned chunks, and each
+ * chunk is read twice by its own thread:
+ * <ol>
+ * <li>the first pass counts the vertices of each chunk, or the out- and in-degree of each vertex within each chunk;</li>
+ * <li>a prefix sum over the counts assigns every chunk a private cursor per vertex into the preallocated arrays;</li>
+ * <li>the second pass parses the chunk again and scatters its vertices or edges to the positions of its cursors.</li>
+ * </ol>
+ * Chunks are assigned consecutive positions in file order, so the result is identical to that of CsrGraph.Builder,
+ * regardless of the number of threads. The per-chunk degree counts require one int per vertex per chunk.
+ */
+final class ParallelCsrGraphLoader {
+
+	static final long DEFAULT_MINIMUM_CHUNK_SIZE = 1L << 24;
+
+	private final int numberOfThreads;
+	private final long minimumChunkSize;
+
+	/**
+	 * @param numberOfThreads  the number of threads to use
+	 * @param minimumChunkSize the minimum number of bytes per chunk
+	 */
+	ParallelCsrGraphLoader(int numberOfThreads, long minimumChunkSize) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("Number of threads must be at least 1, got " + numberOfThreads + ".");
+		}
+		this.numberOfThreads = numberOfThreads;
+		this.minimumChunkSize = minimumChunkSize;
+	}
+
+	/**
+	 * @param vertexListPath   an uncompressed EVLP vertex list file
+	 * @param edgeListPath     an uncompressed EVLP edge list file
+	 * @param isDirected       true iff the input graph is directed
+	 * @param vertexProperties the properties of each vertex in the vertex list file
+	 * @param edgeProperties   the properties of each edge in the edge list file
+	 * @return the parsed CsrGraph
+	 * @throws IOException iff an error occurred while parsing the input
+	 */
+	CsrGraph load(String vertexListPath, String edgeListPath, boolean isDirected, PropertyList vertexProperties,
+			PropertyList edgeProperties) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			VertexTable vertices = loadVertices(executor, vertexListPath, vertexProperties);
+			return loadEdges(executor, edgeListPath, isDirected, vertices, edgeProperties);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private VertexTable loadVertices(ExecutorService executor, final String path, final PropertyList properties)
+			throws IOException {
+		final long[] boundaries = LineChunks.findBoundaries(Paths.get(path), numberOfThreads, minimumChunkSize);
+		final int numberOfChunks = boundaries.length - 1;
+
+		// Pass 1: count the vertices in each chunk
+		final long[] chunkStarts = new long[numberOfChunks + 1];
+		runInParallel(executor, numberOfChunks, new ChunkTask() {
+			@Override
+			public void run(int chunk) throws IOException {
+				long count = 0;
+				try (VertexListStream vertices = GraphFileStreams.openVertexList(path, boundaries[chunk],
+						boundaries[chunk + 1])) {
+					while (vertices.hasNextVertex()) {
+						vertices.getNextVertex();
+						count++;
+					}
+				}
+				chunkStarts[chunk + 1] = count;
+			}
+		});
+		for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+			chunkStarts[chunk + 1] += chunkStarts[chunk];
+		}
+		final int numberOfVertices = checkedSize(chunkStarts[numberOfChunks], "vertices");
+
+		// Pass 2: parse each chunk into its range of the preallocated arrays
+		final long[] ids = new long[numberOfVertices];
+		final PropertyColumns values = new PropertyColumns(properties, numberOfVertices);
+		runInParallel(executor, numberOfChunks, new ChunkTask() {
+			@Override
+			public void run(int chunk) throws IOException {
+				int position = (int)chunkStarts[chunk];
+				try (TypedVertexListStream vertices = new TypedVertexListReader(
+						GraphFileStreams.openVertexList(path, boundaries[chunk], boundaries[chunk + 1]), properties)) {
+					while (vertices.hasNextVertex()) {
+						TypedVertexListStream.TypedVertexData vertex = vertices.getNextVertex();
+						ids[position] = vertex.getId();
+						values.set(position, vertex);
+						position++;
+					}
+				}
+			}
+		});
+
+		// Assign dense indices in ascending order of vertex id
+		final long[] sortedIds = Arrays.copyOf(ids, numberOfVertices);
+		Arrays.parallelSort(sortedIds);
+		for (int i = 1; i < numberOfVertices; i++) {
+			if (sortedIds[i] == sortedIds[i - 1]) {
+				throw new IllegalArgumentException("Vertex with id " + sortedIds[i] + " already exists.");
+			}
+		}
+		final PropertyColumns sortedValues = values.allocateLike(numberOfVertices);
+		if (sortedValues.getPropertyCount() > 0) {
+			runInParallel(executor, numberOfThreads, new ChunkTask() {
+				@Override
+				public void run(int slice) {
+					for (int i = sliceStart(slice, numberOfVertices); i < sliceStart(slice + 1, numberOfVertices); i++) {
+						sortedValues.copy(values, i, Arrays.binarySearch(sortedIds, ids[i]));
+					}
+				}
+			});
+		}
+		return new VertexTable(sortedIds, sortedValues);
+	}
+
+	private CsrGraph loadEdges(ExecutorService executor, final String path, final boolean isDirected,
+			final VertexTable vertices, final PropertyList properties) throws IOException {
+		final long[] boundaries = LineChunks.findBoundaries(Paths.get(path), numberOfThreads, minimumChunkSize);
+		final int numberOfChunks = boundaries.length - 1;
+		final int numberOfVertices = vertices.ids.length;
+
+		// Pass 1: count the outgoing (and for directed graphs incoming) edges per vertex in each chunk
+		final int[][] outCursors = new int[numberOfChunks][];
+		final int[][] inCursors = isDirected ? new int[numberOfChunks][] : null;
+		runInParallel(executor, numberOfChunks, new ChunkTask() {
+			@Override
+			public void run(int chunk) throws IOException {
+				int[] outCounts = new int[numberOfVertices];
+				int[] inCounts = isDirected ? new int[numberOfVertices] : outCounts;
+				try (EdgeListStream edges = GraphFileStreams.openEdgeList(path, boundaries[chunk],
+						boundaries[chunk + 1])) {
+					while (edges.hasNextEdge()) {
+						EdgeListStream.EdgeData edge = edges.getNextEdge();
+						outCounts[vertices.indexOf(edge.getSourceId(), "Source")]++;
+						inCounts[vertices.indexOf(edge.getDestinationId(), "Destination")]++;
+					}
+				}
+				outCursors[chunk] = outCounts;
+				if (isDirected) {
+					inCursors[chunk] = inCounts;
+				}
+			}
+		});
+
+		// Compute the offsets of each vertex and turn the counts of each chunk into its starting positions
+		final int[] outOffsets = new int[numberOfVertices + 1];
+		final int[] inOffsets = isDirected ? new int[numberOfVertices + 1] : null;
+		sumDegrees(executor, outCursors, outOffsets);
+		if (isDirected) {
+			sumDegrees(executor, inCursors, inOffsets);
+		}
+		prefixSum(outOffsets);
+		if (isDirected) {
+			prefixSum(inOffsets);
+		}
+		int numberOfEdges = outOffsets[numberOfVertices];
+		assignCursors(executor, outCursors, outOffsets);
+		if (isDirected) {
+			assignCursors(executor, inCursors, inOffsets);
+		}
+
+		// Pass 2: scatter the edges of each chunk to the positions of its cursors
+		final int[] outTargets = new int[numberOfEdges];
+		final PropertyColumns values = new PropertyColumns(properties, numberOfEdges);
+		final int[] inSources = isDirected ? new int[numberOfEdges] : null;
+		final int[] inEdges = isDirected ? new int[numberOfEdges] : null;
+		runInParallel(executor, numberOfChunks, new ChunkTask() {
+			@Override
+			public void run(int chunk) throws IOException {
+				int[] outCursor = outCursors[chunk];
+				int[] inCursor = isDirected ? inCursors[chunk] : null;
+				try (TypedEdgeListStream edges = new TypedEdgeListReader(
+						GraphFileStreams.openEdgeList(path, boundaries[chunk], boundaries[chunk + 1]), properties)) {
+					while (edges.hasNextEdge()) {
+						TypedEdgeListStream.TypedEdgeData edge = edges.getNextEdge();
+						int source = vertices.indexOf(edge.getSourceId(), "Source");
+						int target = vertices.indexOf(edge.getDestinationId(), "Destination");
+
+						int position = outCursor[source]++;
+						outTargets[position] = target;
+						values.set(position, edge);
+						if (isDirected) {
+							int inPosition = inCursor[target]++;
+							inSources[inPosition] = source;
+							inEdges[inPosition] = position;
+						} else {
+							position = outCursor[target]++;
+							outTargets[position] = source;
+							values.set(position, edge);
+						}
+					}
+				}
+				// Release the cursors of this chunk as soon as possible
+				outCursors[chunk] = null;
+				if (isDirected) {
+					inCursors[chunk] = null;
+				}
+			}
+		});
+
+		if (isDirected) {
+			return new CsrGraph(true, vertices.ids, vertices.values, outOffsets, outTargets, values,
+					inOffsets, inSources, inEdges);
+		}
+		return new CsrGraph(false, vertices.ids, vertices.values, outOffsets, outTargets, values,
+				outOffsets, outTargets, null);
+	}
+
+	/**
+	 * Stores the degree of each vertex, summed over all chunks, in offsets[vertex + 1].
+	 */
+	private void sumDegrees(ExecutorService executor, final int[][] counts, final int[] offsets) throws IOException {
+		final int numberOfVertices = offsets.length - 1;
+		runInParallel(executor, numberOfThreads, new ChunkTask() {
+			@Override
+			public void run(int slice) {
+				for (int v = sliceStart(slice, numberOfVertices); v < sliceStart(slice + 1, numberOfVertices); v++) {
+					long degree = 0;
+					for (int[] chunkCounts : counts) {
+						degree += chunkCounts[v];
+					}
+					offsets[v + 1] = (int)Math.min(degree, Integer.MAX_VALUE);
+				}
+			}
+		});
+	}
+
+	private static void prefixSum(int[] offsets) {
+		long sum = 0;
+		for (int i = 1; i < offsets.length; i++) {
+			sum += offsets[i];
+			offsets[i] = checkedSize(sum, "edges");
+		}
+	}
+
+	/**
+	 * Replaces the per-chunk degree counts of each vertex by the position of the first edge of the chunk.
+	 */
+	private void assignCursors(ExecutorService executor, final int[][] counts, final int[] offsets)
+			throws IOException {
+		final int numberOfVertices = offsets.length - 1;
+		runInParallel(executor, numberOfThreads, new ChunkTask() {
+			@Override
+			public void run(int slice) {
+				for (int v = sliceStart(slice, numberOfVertices); v < sliceStart(slice + 1, numberOfVertices); v++) {
+					int position = offsets[v];
+					for (int[] chunkCounts : counts) {
+						int count = chunkCounts[v];
+						chunkCounts[v] = position;
+						position += count;
+					}
+				}
+			}
+		});
+	}
+
+	private int sliceStart(int slice, int size) {
+		return (int)((long)size * slice / numberOfThreads);
+	}
+
+	private static int checkedSize(long size, String elements) {
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("CsrGraph can not hold " + size + " " + elements + ".");
+		}
+		return (int)size;
+	}
+
+	private static void runInParallel(ExecutorService executor, int numberOfTasks, final ChunkTask task)
+			throws IOException {
+		List<Future<Void>> results = new ArrayList<>(numberOfTasks);
+		for (int i = 0; i < numberOfTasks; i++) {
+			final int index = i;
+			results.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws IOException {
+					task.run(index);
+					return null;
+				}
+			}));
+		}
+		for (Future<Void> result : results) {
+			try {
+				result.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while loading graph.", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException)e.getCause();
+				} else if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)e.getCause();
+				}
+				throw new IOException("Failed to load graph.", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * A task operating on a single chunk of a file or a single slice of the vertices.
+	 */
+	private interface ChunkTask {
+
+		void run(int chunk) throws IOException;
+
+	}
+
+	/**
+	 * Sorted vertex ids with the property values of each vertex in the same order.
+	 */
+	private static final class VertexTable {
+
+		private final long[] ids;
+		private final PropertyColumns values;
+
+		private VertexTable(long[] ids, PropertyColumns values) {
+			this.ids = ids;
+			this.values = values;
+		}
+
+		private int indexOf(long vertexId, String role) {
+			int index = Arrays.binarySearch(ids, vertexId);
+			if (index < 0) {
+				throw new IllegalArgumentException(role + " vertex with id " + vertexId + " does not exist.");
+			}
+			return index;
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.graph;
+
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+import science.atlarge.graphalytics.util.io.PropertyValues;
+
+import java.util.Arrays;
+
+/**
+ * Column-oriented storage of the property values of a set of vertices or edges. INTEGER properties are stored in a
+ * long[] column and REAL properties in a double[] column, both indexed by the dense index of the vertex or edge.
+ */
+final class PropertyColumns {
+
+	private final PropertyType[] types;
+	private final long[][] longColumns;
+	private final double[][] doubleColumns;
+
+	/**
+	 * @param properties the properties to store
+	 * @param capacity   the initial number of elements to allocate space for
+	 */
+	PropertyColumns(PropertyList properties, int capacity) {
+		this.types = new PropertyType[properties.size()];
+		this.longColumns = new long[types.length][];
+		this.doubleColumns = new double[types.length][];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = properties.get(i).getType();
+			if (types[i] == PropertyType.INTEGER) {
+				longColumns[i] = new long[capacity];
+			} else {
+				doubleColumns[i] = new double[capacity];
+			}
+		}
+	}
+
+	private PropertyColumns(PropertyType[] types, long[][] longColumns, double[][] doubleColumns) {
+		this.types = types;
+		this.longColumns = longColumns;
+		this.doubleColumns = doubleColumns;
+	}
+
+	int getPropertyCount() {
+		return types.length;
+	}
+
+	/**
+	 * Grows all columns to hold at least the given number of elements.
+	 */
+	void ensureCapacity(int capacity) {
+		for (int i = 0; i < types.length; i++) {
+			if (longColumns[i] != null && longColumns[i].length < capacity) {
+				longColumns[i] = Arrays.copyOf(longColumns[i], capacity);
+			} else if (doubleColumns[i] != null && doubleColumns[i].length < capacity) {
+				doubleColumns[i] = Arrays.copyOf(doubleColumns[i], capacity);
+			}
+		}
+	}
+
+	/**
+	 * Stores the values of a single element.
+	 */
+	void set(int index, PropertyValues values) {
+		for (int i = 0; i < types.length; i++) {
+			if (longColumns[i] != null) {
+				longColumns[i][index] = values.getLong(i);
+			} else {
+				doubleColumns[i][index] = values.getDouble(i);
+			}
+		}
+	}
+
+	/**
+	 * Copies the values of an element of another set of columns with the same properties.
+	 */
+	void copy(PropertyColumns source, int sourceIndex, int index) {
+		for (int i = 0; i < types.length; i++) {
+			if (longColumns[i] != null) {
+				longColumns[i][index] = source.longColumns[i][sourceIndex];
+			} else {
+				doubleColumns[i][index] = source.doubleColumns[i][sourceIndex];
+			}
+		}
+	}
+
+	/**
+	 * @return new columns with the same properties and space for the given number of elements
+	 */
+	PropertyColumns allocateLike(int capacity) {
+		long[][] newLongColumns = new long[types.length][];
+		double[][] newDoubleColumns = new double[types.length][];
+		for (int i = 0; i < types.length; i++) {
+			if (longColumns[i] != null) {
+				newLongColumns[i] = new long[capacity];
+			} else {
+				newDoubleColumns[i] = new double[capacity];
+			}
+		}
+		return new PropertyColumns(types, newLongColumns, newDoubleColumns);
+	}
+
+	long getLong(int property, int index) {
+		if (longColumns[property] == null) {
+			throw new IllegalArgumentException("Property " + property + " is not an INTEGER property.");
+		}
+		return longColumns[property][index];
+	}
+
+	double getDouble(int property, int index) {
+		if (doubleColumns[property] == null) {
+			throw new IllegalArgumentException("Property " + property + " is not a REAL property.");
+		}
+		return doubleColumns[property][index];
+	}
+
+}
@@ -17,6 +17,9 @@
  */
 package science.atlarge.graphalytics.util.graph;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
 import java.util.*;
 
 /**
@@ -28,10 +31,10 @@ import java.util.*;
  */
 public class PropertyGraph<V, E> {
 
-	private final Map<Long, Vertex> vertices;
+	private final Long2ObjectMap<Vertex> vertices;
 
 	public PropertyGraph() {
-		this.vertices = new HashMap<>();
+		this.vertices = new Long2ObjectOpenHashMap<>();
 	}
 
 	public void createVertex(long id, V value) {
@@ -42,13 +45,15 @@ public class PropertyGraph<V, E> {
 	}
 
 	public void createEdge(long sourceVertexId, long destinationVertexId, E value) {
-		if (!vertices.containsKey(sourceVertexId)) {
+		Vertex sourceVertex = vertices.get(sourceVertexId);
+		if (sourceVertex == null) {
 			throw new IllegalArgumentException("Source vertex with id " + sourceVertexId + " does not exist.");
 		}
-		if (!vertices.containsKey(destinationVertexId)) {
+		Vertex destinationVertex = vertices.get(destinationVertexId);
+		if (destinationVertex == null) {
 			throw new IllegalArgumentException("Source vertex with id " + destinationVertexId + " does not exist.");
 		}
-		new Edge(vertices.get(sourceVertexId), vertices.get(destinationVertexId), value);
+		new Edge(sourceVertex, destinationVertex, value);
 	}
 
 	public Collection<Vertex> getVertices() {
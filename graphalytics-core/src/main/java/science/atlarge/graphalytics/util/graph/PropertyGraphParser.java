@@ -17,12 +17,19 @@
  */
 package science.atlarge.graphalytics.util.graph;
 
-import science.atlarge.graphalytics.util.io.EdgeListInputStreamReader;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.util.io.CsrGraphFile;
+import science.atlarge.graphalytics.util.io.CsrGraphWriter;
 import science.atlarge.graphalytics.util.io.EdgeListStream;
-import science.atlarge.graphalytics.util.io.VertexListInputStreamReader;
+import science.atlarge.graphalytics.util.io.GraphFileStreams;
+import science.atlarge.graphalytics.util.io.LineChunks;
+import science.atlarge.graphalytics.util.io.PropertyValues;
+import science.atlarge.graphalytics.util.io.TypedEdgeListStream;
+import science.atlarge.graphalytics.util.io.TypedVertexListStream;
 import science.atlarge.graphalytics.util.io.VertexListStream;
 
 import java.io.*;
+import java.nio.file.Path;
 
 /**
  * Utility class for parsing graphs for the purpose of testing algorithm implementations.
@@ -92,8 +99,8 @@ public final class PropertyGraphParser<V, E> implements AutoCloseable {
 	public static <V, E> PropertyGraph<V, E> parsePropertyGraph(String vertexListPath, String edgeListPath,
 			boolean isDirected, ValueParser<V> vertexValueParser, ValueParser<E> edgeValueParser)
 			throws IOException {
-		return parsePropertyGraph(new VertexListInputStreamReader(new FileInputStream(vertexListPath)),
-				new EdgeListInputStreamReader(new FileInputStream(edgeListPath)),
+		return parsePropertyGraph(GraphFileStreams.openVertexList(vertexListPath),
+				GraphFileStreams.openEdgeList(edgeListPath),
 				isDirected, vertexValueParser, edgeValueParser);
 	}
 
@@ -119,6 +126,161 @@ public final class PropertyGraphParser<V, E> implements AutoCloseable {
 		return parser.getGraph();
 	}
 
+	/**
+	 * Parses a vertex list file and edge list file into a PropertyGraph. Properties are parsed to primitive values
+	 * according to the given PropertyLists before being passed to the value parsers, so no intermediate Strings are
+	 * created for each property.
+	 *
+	 * @param vertexListPath    file path pointing to the vertex list file
+	 * @param edgeListPath      file path pointing to the edge list file
+	 * @param isDirected        true iff the input graph is directed
+	 * @param vertexProperties  the properties of each vertex in the vertex list file
+	 * @param edgeProperties    the properties of each edge in the edge list file
+	 * @param vertexValueParser a custom parser for converting vertex properties to type V
+	 * @param edgeValueParser   a custom parser for converting edge properties to type E
+	 * @param <V>               the PropertyGraph vertex value type
+	 * @param <E>               the PropertyGraph edge value type
+	 * @return the parsed PropertyGraph
+	 * @throws IOException iff an error occurred while parsing the input
+	 */
+	public static <V, E> PropertyGraph<V, E> parsePropertyGraph(String vertexListPath, String edgeListPath,
+			boolean isDirected, PropertyList vertexProperties, PropertyList edgeProperties,
+			TypedValueParser<V> vertexValueParser, TypedValueParser<E> edgeValueParser) throws IOException {
+		try (TypedVertexListStream vertexList = GraphFileStreams.openTypedVertexList(vertexListPath, vertexProperties);
+			 TypedEdgeListStream edgeList = GraphFileStreams.openTypedEdgeList(edgeListPath, edgeProperties)) {
+			return parsePropertyGraph(vertexList, edgeList, isDirected, vertexValueParser, edgeValueParser);
+		}
+	}
+
+	/**
+	 * Parses a typed vertex list stream and typed edge list stream into a PropertyGraph.
+	 *
+	 * @param vertexList        input vertex list stream
+	 * @param edgeList          input edge list stream
+	 * @param isDirected        true iff the input graph is directed
+	 * @param vertexValueParser a custom parser for converting vertex properties to type V
+	 * @param edgeValueParser   a custom parser for converting edge properties to type E
+	 * @param <V>               the PropertyGraph vertex value type
+	 * @param <E>               the PropertyGraph edge value type
+	 * @return the parsed PropertyGraph
+	 * @throws IOException iff an error occurred while parsing the input
+	 */
+	public static <V, E> PropertyGraph<V, E> parsePropertyGraph(TypedVertexListStream vertexList,
+			TypedEdgeListStream edgeList, boolean isDirected, TypedValueParser<V> vertexValueParser,
+			TypedValueParser<E> edgeValueParser) throws IOException {
+		PropertyGraph<V, E> graph = new PropertyGraph<>();
+		while (vertexList.hasNextVertex()) {
+			TypedVertexListStream.TypedVertexData vertex = vertexList.getNextVertex();
+			graph.createVertex(vertex.getId(), vertexValueParser.parse(vertex));
+		}
+		while (edgeList.hasNextEdge()) {
+			TypedEdgeListStream.TypedEdgeData edge = edgeList.getNextEdge();
+
+			long sourceId = edge.getSourceId();
+			long destinationId = edge.getDestinationId();
+			E value = edgeValueParser.parse(edge);
+
+			graph.createEdge(sourceId, destinationId, value);
+			if (!isDirected) {
+				graph.createEdge(destinationId, sourceId, value);
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * Parses a vertex list file and edge list file into a CsrGraph, storing all properties in primitive columns. Uses
+	 * one thread per available processor, see parseCsrGraph with an explicit number of threads.
+	 *
+	 * @param vertexListPath   file path pointing to the vertex list file
+	 * @param edgeListPath     file path pointing to the edge list file
+	 * @param isDirected       true iff the input graph is directed
+	 * @param vertexProperties the properties of each vertex in the vertex list file
+	 * @param edgeProperties   the properties of each edge in the edge list file
+	 * @return the parsed CsrGraph
+	 * @throws IOException iff an error occurred while parsing the input
+	 */
+	public static CsrGraph parseCsrGraph(String vertexListPath, String edgeListPath, boolean isDirected,
+			PropertyList vertexProperties, PropertyList edgeProperties) throws IOException {
+		return parseCsrGraph(vertexListPath, edgeListPath, isDirected, vertexProperties, edgeProperties,
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Parses a vertex list file and edge list file into a CsrGraph using multiple threads. Uncompressed EVLP files are
+	 * split into chunks that are parsed in parallel in two passes: the first pass counts the degree of each vertex,
+	 * and the second pass stores each edge directly at its final position. The result does not depend on the number
+	 * of threads. Other files are parsed sequentially.
+	 *
+	 * @param vertexListPath   file path pointing to the vertex list file
+	 * @param edgeListPath     file path pointing to the edge list file
+	 * @param isDirected       true iff the input graph is directed
+	 * @param vertexProperties the properties of each vertex in the vertex list file
+	 * @param edgeProperties   the properties of each edge in the edge list file
+	 * @param numberOfThreads  the number of threads to use
+	 * @return the parsed CsrGraph
+	 * @throws IOException iff an error occurred while parsing the input
+	 */
+	public static CsrGraph parseCsrGraph(String vertexListPath, String edgeListPath, boolean isDirected,
+			PropertyList vertexProperties, PropertyList edgeProperties, int numberOfThreads) throws IOException {
+		if (numberOfThreads > 1 && LineChunks.isSplittable(vertexListPath) && LineChunks.isSplittable(edgeListPath)) {
+			return new ParallelCsrGraphLoader(numberOfThreads, ParallelCsrGraphLoader.DEFAULT_MINIMUM_CHUNK_SIZE)
+					.load(vertexListPath, edgeListPath, isDirected, vertexProperties, edgeProperties);
+		}
+		try (TypedVertexListStream vertexList = GraphFileStreams.openTypedVertexList(vertexListPath, vertexProperties);
+			 TypedEdgeListStream edgeList = GraphFileStreams.openTypedEdgeList(edgeListPath, edgeProperties)) {
+			return parseCsrGraph(vertexList, edgeList, isDirected, vertexProperties, edgeProperties);
+		}
+	}
+
+	/**
+	 * Parses a typed vertex list stream and typed edge list stream into a CsrGraph.
+	 *
+	 * @param vertexList       input vertex list stream
+	 * @param edgeList         input edge list stream
+	 * @param isDirected       true iff the input graph is directed
+	 * @param vertexProperties the properties of each vertex in the vertex list stream
+	 * @param edgeProperties   the properties of each edge in the edge list stream
+	 * @return the parsed CsrGraph
+	 * @throws IOException iff an error occurred while parsing the input
+	 */
+	public static CsrGraph parseCsrGraph(TypedVertexListStream vertexList, TypedEdgeListStream edgeList,
+			boolean isDirected, PropertyList vertexProperties, PropertyList edgeProperties) throws IOException {
+		CsrGraph.Builder builder = new CsrGraph.Builder(isDirected, vertexProperties, edgeProperties);
+		while (vertexList.hasNextVertex()) {
+			TypedVertexListStream.TypedVertexData vertex = vertexList.getNextVertex();
+			builder.addVertex(vertex.getId(), vertex);
+		}
+		while (edgeList.hasNextEdge()) {
+			TypedEdgeListStream.TypedEdgeData edge = edgeList.getNextEdge();
+			builder.addEdge(edge.getSourceId(), edge.getDestinationId(), edge);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Parses a vertex list file and edge list file into an off-heap graph store at the given path, and opens the
+	 * store. The store can be reopened later with OffHeapGraph.open without parsing the input again. Unlike CsrGraph,
+	 * the number of edges is not limited to 2^31; the number of vertices is still limited to about 2^31.
+	 *
+	 * @param vertexListPath   file path pointing to the vertex list file
+	 * @param edgeListPath     file path pointing to the edge list file
+	 * @param isDirected       true iff the input graph is directed
+	 * @param vertexProperties the properties of each vertex in the vertex list file
+	 * @param edgeProperties   the properties of each edge in the edge list file
+	 * @param storePath        the path of the off-heap graph store to write, replaced if it exists
+	 * @return the opened OffHeapGraph, to be closed by the caller
+	 * @throws IOException iff an error occurred while parsing the input or writing the store
+	 */
+	public static OffHeapGraph parseOffHeapGraph(String vertexListPath, String edgeListPath, boolean isDirected,
+			PropertyList vertexProperties, PropertyList edgeProperties, Path storePath) throws IOException {
+		int layoutFlags = CsrGraphFile.FLAG_SORTED_IDS |
+				(isDirected ? CsrGraphFile.FLAG_IN_EDGES : CsrGraphFile.FLAG_SYMMETRIC);
+		new CsrGraphWriter(isDirected, vertexProperties, edgeProperties, layoutFlags)
+				.write(vertexListPath, edgeListPath, storePath);
+		return OffHeapGraph.open(storePath);
+	}
+
 	/**
 	 * Parser for converting an array of strings (properties for a single vertex or edge) into a single value type.
 	 *
@@ -130,4 +292,15 @@ public final class PropertyGraphParser<V, E> implements AutoCloseable {
 
 	}
 
+	/**
+	 * Parser for converting the parsed properties of a single vertex or edge into a single value type.
+	 *
+	 * @param <T> the type of value returned by this parser
+	 */
+	public interface TypedValueParser<T> {
+
+		T parse(PropertyValues values) throws IOException;
+
+	}
+
 }
@@ -17,7 +17,10 @@
  */
 package science.atlarge.graphalytics.util.graph;
 
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+import science.atlarge.graphalytics.util.graph.PropertyGraphParser.TypedValueParser;
 import science.atlarge.graphalytics.util.graph.PropertyGraphParser.ValueParser;
+import science.atlarge.graphalytics.util.io.PropertyValues;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -102,4 +105,52 @@ public class PropertyGraphValueParsers {
 		};
 	}
 
+	/**
+	 * Creates a typed parser that returns the value null with type Void, regardless of the input.
+	 *
+	 * @return a TypedValueParser for type Void
+	 */
+	public static TypedValueParser<Void> typedVoidParser() {
+		return new TypedValueParser<Void>() {
+			@Override
+			public Void parse(PropertyValues values) throws IOException {
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Creates a typed parser that expects exactly one property of type INTEGER.
+	 *
+	 * @return a TypedValueParser for type Long
+	 */
+	public static TypedValueParser<Long> typedLongParser() {
+		return new TypedValueParser<Long>() {
+			@Override
+			public Long parse(PropertyValues values) throws IOException {
+				if (values.getPropertyCount() != 1 || values.getType(0) != PropertyType.INTEGER) {
+					throw new IOException("Expected single property with value of type Long.");
+				}
+				return values.getLong(0);
+			}
+		};
+	}
+
+	/**
+	 * Creates a typed parser that expects exactly one property of type REAL.
+	 *
+	 * @return a TypedValueParser for type Double
+	 */
+	public static TypedValueParser<Double> typedDoubleParser() {
+		return new TypedValueParser<Double>() {
+			@Override
+			public Double parse(PropertyValues values) throws IOException {
+				if (values.getPropertyCount() != 1 || values.getType(0) != PropertyType.REAL) {
+					throw new IOException("Expected single property with value of type Double.");
+				}
+				return values.getDouble(0);
+			}
+		};
+	}
+
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Codec for reading compressed graph files. Codecs are selected by file extension. Additional codecs can be added by
+ * placing a resource named "META-INF/graphalytics/codecs" on the classpath, containing the fully qualified class
+ * names of CompressionCodec implementations with a public no-argument constructor.
+ */
+public interface CompressionCodec {
+
+	/**
+	 * @return the file extension of files compressed with this codec, including the leading dot (e.g. ".gz")
+	 */
+	String getFileExtension();
+
+	/**
+	 * @param compressedStream a stream of compressed data
+	 * @return a stream of the decompressed data, which closes compressedStream when closed
+	 * @throws IOException iff the stream could not be opened, e.g. due to an invalid header
+	 */
+	InputStream createInputStream(InputStream compressedStream) throws IOException;
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Collection of methods for detecting and reading compressed graph files. The gzip codec is always available, other
+ * codecs are discovered on the classpath (see CompressionCodec).
+ */
+public final class CompressionCodecs {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private static final String CODEC_RESOURCE = "META-INF/graphalytics/codecs";
+	private static final int READ_BUFFER_SIZE = 1 << 20;
+
+	private static List<CompressionCodec> codecs;
+
+	/**
+	 * Prevent instantiation of utility class.
+	 */
+	private CompressionCodecs() {
+	}
+
+	private static synchronized List<CompressionCodec> getCodecs() {
+		if (codecs == null) {
+			List<CompressionCodec> discoveredCodecs = new ArrayList<>();
+			discoveredCodecs.add(new GzipCompressionCodec());
+			discoverCodecsOnClasspath(discoveredCodecs);
+			codecs = Collections.unmodifiableList(discoveredCodecs);
+		}
+		return codecs;
+	}
+
+	private static void discoverCodecsOnClasspath(List<CompressionCodec> discoveredCodecs) {
+		try {
+			Enumeration<URL> resources = CompressionCodecs.class.getClassLoader().getResources(CODEC_RESOURCE);
+			while (resources.hasMoreElements()) {
+				URL resource = resources.nextElement();
+				try (Scanner codecFileScanner = new Scanner(resource.openStream())) {
+					while (codecFileScanner.hasNext()) {
+						String codecClassName = codecFileScanner.next();
+						try {
+							discoveredCodecs.add(Class.forName(codecClassName).asSubclass(CompressionCodec.class)
+									.newInstance());
+						} catch (ClassNotFoundException | ClassCastException | InstantiationException |
+								IllegalAccessException e) {
+							LOG.warn("Failed to load compression codec \"" + codecClassName + "\":", e);
+						}
+					}
+				} catch (IOException e) {
+					LOG.warn("Failed to read compression codecs from \"" + resource.getFile() + "\":", e);
+				}
+			}
+		} catch (IOException e) {
+			LOG.error("Failed to enumerate classpath resources while loading compression codecs.");
+		}
+	}
+
+	/**
+	 * @param path the path of a graph file
+	 * @return the codec for the extension of the file, or null if the file is not compressed
+	 */
+	public static CompressionCodec forPath(String path) {
+		for (CompressionCodec codec : getCodecs()) {
+			if (path.endsWith(codec.getFileExtension())) {
+				return codec;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds a graph file that may be stored in compressed form.
+	 *
+	 * @param path the path of an uncompressed or compressed graph file
+	 * @return path if it exists, otherwise path with the extension of a known codec appended if that file exists, or
+	 * null if neither exists
+	 */
+	public static String findFile(String path) {
+		if (Files.isRegularFile(Paths.get(path))) {
+			return path;
+		}
+		for (CompressionCodec codec : getCodecs()) {
+			String compressedPath = path + codec.getFileExtension();
+			if (Files.isRegularFile(Paths.get(compressedPath))) {
+				return compressedPath;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Opens a compressed file for reading. Decompression runs on a separate thread, so the consumer of the returned
+	 * stream can parse data while the next block is being decompressed.
+	 *
+	 * @param path  the path of the compressed file
+	 * @param codec the codec to decompress the file with
+	 * @return a stream of decompressed data
+	 * @throws IOException iff the file could not be opened
+	 */
+	public static InputStream openDecompressed(String path, CompressionCodec codec) throws IOException {
+		InputStream fileStream = new BufferedInputStream(new FileInputStream(path), READ_BUFFER_SIZE);
+		try {
+			return new ReadAheadInputStream(codec.createInputStream(fileStream), "decompress " + path);
+		} catch (IOException | RuntimeException e) {
+			fileStream.close();
+			throw e;
+		}
+	}
+
+}
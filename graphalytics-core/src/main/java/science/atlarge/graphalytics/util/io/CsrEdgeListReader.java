@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * EdgeListStream that reads the edges of a graph stored in the binary CSR format. Edges are returned grouped by
+ * source vertex. Property values are formatted as Strings only when they are requested. Files that store each
+ * undirected edge in both directions, such as OffHeapGraph stores, are rejected.
+ */
+public class CsrEdgeListReader implements EdgeListStream {
+
+	private final CsrGraphFile graphFile;
+	private final MappedLongArray vertexIds;
+	private final MappedLongArray offsets;
+	private final MappedLongArray neighbours;
+	private final CsrEdgeData cache;
+
+	private long vertexIndex = -1;
+	private long vertexEnd = 0;
+	private long edgeIndex = -1;
+
+	public CsrEdgeListReader(Path path) throws IOException {
+		this(openEdgeList(path));
+	}
+
+	private static CsrGraphFile openEdgeList(Path path) throws IOException {
+		CsrGraphFile graphFile = CsrGraphFile.open(path);
+		if (graphFile.isSymmetric()) {
+			graphFile.close();
+			throw new IOException("Can not read the edge list of symmetrized CSR graph file \"" + path + "\".");
+		}
+		return graphFile;
+	}
+
+	public CsrEdgeListReader(CsrGraphFile graphFile) {
+		if (graphFile.isSymmetric()) {
+			throw new IllegalArgumentException("Can not read the edge list of a symmetrized CSR graph file.");
+		}
+		this.graphFile = graphFile;
+		this.vertexIds = graphFile.getVertexIds();
+		this.offsets = graphFile.getOffsets();
+		this.neighbours = graphFile.getNeighbours();
+		this.cache = new CsrEdgeData(graphFile);
+	}
+
+	@Override
+	public boolean hasNextEdge() throws IOException {
+		return edgeIndex + 1 < graphFile.getNumberOfEdges();
+	}
+
+	@Override
+	public EdgeData getNextEdge() throws IOException {
+		if (!hasNextEdge()) {
+			throw new NoSuchElementException();
+		}
+
+		edgeIndex++;
+		while (edgeIndex >= vertexEnd) {
+			vertexIndex++;
+			vertexEnd = offsets.get(vertexIndex + 1);
+		}
+		cache.setSourceId(vertexIds.get(vertexIndex));
+		cache.setDestinationId(vertexIds.get(neighbours.get(edgeIndex)));
+		cache.setEdgeIndex(edgeIndex);
+		return cache;
+	}
+
+	@Override
+	public void close() throws IOException {
+		graphFile.close();
+	}
+
+	/**
+	 * EdgeData that formats the property values of the current edge on first access.
+	 */
+	private static final class CsrEdgeData extends EdgeData {
+
+		private final MappedLongArray[] columns;
+		private final PropertyType[] types;
+		private long edgeIndex;
+		private boolean valuesFormatted;
+
+		private CsrEdgeData(CsrGraphFile graphFile) {
+			this.types = graphFile.getEdgePropertyTypes();
+			this.columns = new MappedLongArray[types.length];
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = graphFile.getEdgeProperty(i);
+			}
+			setValues(new String[types.length]);
+		}
+
+		private void setEdgeIndex(long edgeIndex) {
+			this.edgeIndex = edgeIndex;
+			this.valuesFormatted = false;
+		}
+
+		@Override
+		public String[] getValues() {
+			String[] values = super.getValues();
+			if (!valuesFormatted) {
+				for (int i = 0; i < columns.length; i++) {
+					values[i] = types[i] == PropertyType.REAL ?
+							Double.toString(columns[i].getDouble(edgeIndex)) :
+							Long.toString(columns[i].get(edgeIndex));
+				}
+				valuesFormatted = true;
+			}
+			return values;
+		}
+
+		@Override
+		public String toString() {
+			getValues();
+			return super.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a graph stored in the binary compressed-sparse-row (CSR) format written by CsrGraphWriter. All
+ * sections are memory-mapped, so opening a graph does not parse or copy any data.
+ * <p>
+ * The file consists of a header followed by a number of sections of 64-bit little-endian values:
+ * <pre>
+ * header:      magic (8 bytes), version (4), flags (4), #vertices (8), #edges (8), source fingerprint (8),
+ *              #vertex properties (4), #edge properties (4), one type byte per vertex and edge property,
+ *              padded to a multiple of 8 bytes
+ * vertex ids:  #vertices values, the original vertex id of each dense vertex index
+ * vertex data: one column of #vertices values per vertex property
+ * offsets:     #vertices + 1 values, the edges of vertex i are stored at [offsets[i], offsets[i + 1])
+ * neighbours:  #edges values, the dense index of the destination vertex of each edge
+ * edge data:   one column of #edges values per edge property
+ * in offsets:  (FLAG_IN_EDGES only) #vertices + 1 values, the offsets of the incoming edges of each vertex
+ * in sources:  (FLAG_IN_EDGES only) #edges values, the dense index of the source vertex of each incoming edge
+ * in edges:    (FLAG_IN_EDGES only) #edges values, the index of each incoming edge in the neighbours section
+ * </pre>
+ * By default, edges are stored exactly as they occur in the edge list, grouped by source vertex, and vertex ids are
+ * stored in file order. Version 2 added flags for files that store each undirected edge in both directions
+ * (FLAG_SYMMETRIC), store the vertex ids in ascending order (FLAG_SORTED_IDS), or include the in-edge sections
+ * (FLAG_IN_EDGES); version 1 files have none of these. Integer properties are stored as longs, real properties as
+ * doubles.
+ */
+public final class CsrGraphFile implements AutoCloseable {
+
+	static final long MAGIC = 0x3152534354504c47L; // "GLPTCSR1" in little-endian byte order
+	static final int VERSION = 2;
+	static final int FIXED_HEADER_SIZE = 48;
+
+	public static final int FLAG_DIRECTED = 1;
+	public static final int FLAG_SYMMETRIC = 2;
+	public static final int FLAG_SORTED_IDS = 4;
+	public static final int FLAG_IN_EDGES = 8;
+
+	static final byte TYPE_INTEGER = 0;
+	static final byte TYPE_REAL = 1;
+
+	private final FileChannel channel;
+	private final int flags;
+	private final long numberOfVertices;
+	private final long numberOfEdges;
+	private final long sourceFingerprint;
+	private final PropertyType[] vertexPropertyTypes;
+	private final PropertyType[] edgePropertyTypes;
+
+	private final MappedLongArray vertexIds;
+	private final MappedLongArray[] vertexProperties;
+	private final MappedLongArray offsets;
+	private final MappedLongArray neighbours;
+	private final MappedLongArray[] edgeProperties;
+	private final MappedLongArray inOffsets;
+	private final MappedLongArray inSources;
+	private final MappedLongArray inEdges;
+
+	private CsrGraphFile(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(header, 0);
+			if (header.getLong(0) != MAGIC) {
+				throw new IOException("File \"" + path + "\" is not a CSR graph file.");
+			}
+			int version = header.getInt(8);
+			if (version < 1 || version > VERSION) {
+				throw new IOException("Unsupported CSR graph file version " + version + " in \"" + path + "\".");
+			}
+			this.flags = header.getInt(12);
+			if (version == 1 && (flags & ~FLAG_DIRECTED) != 0) {
+				throw new IOException("Unsupported flags " + flags + " in version 1 CSR graph file \"" + path + "\".");
+			}
+			this.numberOfVertices = header.getLong(16);
+			this.numberOfEdges = header.getLong(24);
+			this.sourceFingerprint = header.getLong(32);
+			int vertexPropertyCount = header.getInt(40);
+			int edgePropertyCount = header.getInt(44);
+
+			ByteBuffer types = ByteBuffer.allocate(vertexPropertyCount + edgePropertyCount);
+			readFully(types, FIXED_HEADER_SIZE);
+			this.vertexPropertyTypes = new PropertyType[vertexPropertyCount];
+			for (int i = 0; i < vertexPropertyCount; i++) {
+				vertexPropertyTypes[i] = decodeType(types.get(i));
+			}
+			this.edgePropertyTypes = new PropertyType[edgePropertyCount];
+			for (int i = 0; i < edgePropertyCount; i++) {
+				edgePropertyTypes[i] = decodeType(types.get(vertexPropertyCount + i));
+			}
+
+			long position = headerSize(vertexPropertyCount, edgePropertyCount);
+			if (channel.size() != fileSize(flags, numberOfVertices, numberOfEdges, vertexPropertyCount,
+					edgePropertyCount)) {
+				throw new IOException("CSR graph file \"" + path + "\" is truncated or corrupt.");
+			}
+
+			this.vertexIds = map(position, numberOfVertices);
+			position += 8 * numberOfVertices;
+			this.vertexProperties = new MappedLongArray[vertexPropertyCount];
+			for (int i = 0; i < vertexPropertyCount; i++) {
+				vertexProperties[i] = map(position, numberOfVertices);
+				position += 8 * numberOfVertices;
+			}
+			this.offsets = map(position, numberOfVertices + 1);
+			position += 8 * (numberOfVertices + 1);
+			this.neighbours = map(position, numberOfEdges);
+			position += 8 * numberOfEdges;
+			this.edgeProperties = new MappedLongArray[edgePropertyCount];
+			for (int i = 0; i < edgePropertyCount; i++) {
+				edgeProperties[i] = map(position, numberOfEdges);
+				position += 8 * numberOfEdges;
+			}
+			if (hasInEdges()) {
+				this.inOffsets = map(position, numberOfVertices + 1);
+				position += 8 * (numberOfVertices + 1);
+				this.inSources = map(position, numberOfEdges);
+				position += 8 * numberOfEdges;
+				this.inEdges = map(position, numberOfEdges);
+			} else {
+				this.inOffsets = null;
+				this.inSources = null;
+				this.inEdges = null;
+			}
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * @param path the path of a CSR graph file
+	 * @return a view of the graph stored in the file
+	 * @throws IOException if the file could not be read or is not a valid CSR graph file
+	 */
+	public static CsrGraphFile open(Path path) throws IOException {
+		return new CsrGraphFile(path);
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of CSR graph file.");
+			}
+		}
+	}
+
+	private MappedLongArray map(long position, long length) throws IOException {
+		return MappedLongArray.map(channel, FileChannel.MapMode.READ_ONLY, position, length);
+	}
+
+	/**
+	 * @param flags               the flags of the file, a combination of the FLAG_ constants
+	 * @param numberOfVertices    the number of vertices of the graph
+	 * @param numberOfEdges       the number of stored edges
+	 * @param vertexPropertyCount the number of vertex properties
+	 * @param edgePropertyCount   the number of edge properties
+	 * @return the size in bytes of a CSR file of the described graph
+	 */
+	public static long fileSize(int flags, long numberOfVertices, long numberOfEdges, int vertexPropertyCount,
+			int edgePropertyCount) {
+		long values = numberOfVertices * (1 + vertexPropertyCount) + (numberOfVertices + 1) +
+				numberOfEdges * (1 + edgePropertyCount);
+		if ((flags & FLAG_IN_EDGES) != 0) {
+			values += (numberOfVertices + 1) + 2 * numberOfEdges;
+		}
+		return headerSize(vertexPropertyCount, edgePropertyCount) + 8 * values;
+	}
+
+	/**
+	 * Writes the header of a CSR file, which is followed directly by the vertex ids section.
+	 *
+	 * @param channel             the channel of the file to write
+	 * @param flags               the flags of the file, a combination of the FLAG_ constants
+	 * @param numberOfVertices    the number of vertices of the graph
+	 * @param numberOfEdges       the number of stored edges
+	 * @param sourceFingerprint   the fingerprint of the files the graph was read from, or 0 if not tracked
+	 * @param vertexPropertyTypes the type of each vertex property
+	 * @param edgePropertyTypes   the type of each edge property
+	 * @return the size of the header, i.e. the position of the vertex ids section
+	 * @throws IOException iff the header could not be written
+	 */
+	public static long writeHeader(FileChannel channel, int flags, long numberOfVertices, long numberOfEdges,
+			long sourceFingerprint, PropertyType[] vertexPropertyTypes, PropertyType[] edgePropertyTypes)
+			throws IOException {
+		int headerSize = (int)headerSize(vertexPropertyTypes.length, edgePropertyTypes.length);
+		ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+		header.putLong(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(flags);
+		header.putLong(numberOfVertices);
+		header.putLong(numberOfEdges);
+		header.putLong(sourceFingerprint);
+		header.putInt(vertexPropertyTypes.length);
+		header.putInt(edgePropertyTypes.length);
+		for (PropertyType type : vertexPropertyTypes) {
+			header.put(encodeType(type));
+		}
+		for (PropertyType type : edgePropertyTypes) {
+			header.put(encodeType(type));
+		}
+		header.clear();
+		while (header.hasRemaining()) {
+			channel.write(header, header.position());
+		}
+		return headerSize;
+	}
+
+	static long headerSize(int vertexPropertyCount, int edgePropertyCount) {
+		return (FIXED_HEADER_SIZE + vertexPropertyCount + edgePropertyCount + 7) & ~7L;
+	}
+
+	private static byte encodeType(PropertyType type) {
+		return type == PropertyType.REAL ? TYPE_REAL : TYPE_INTEGER;
+	}
+
+	private static PropertyType decodeType(byte type) throws IOException {
+		switch (type) {
+			case TYPE_INTEGER:
+				return PropertyType.INTEGER;
+			case TYPE_REAL:
+				return PropertyType.REAL;
+			default:
+				throw new IOException("Unknown property type " + type + " in CSR graph file.");
+		}
+	}
+
+	/**
+	 * @return true iff the graph is directed
+	 */
+	public boolean isDirected() {
+		return (flags & FLAG_DIRECTED) != 0;
+	}
+
+	/**
+	 * @return true iff each undirected edge is stored once in each direction
+	 */
+	public boolean isSymmetric() {
+		return (flags & FLAG_SYMMETRIC) != 0;
+	}
+
+	/**
+	 * @return true iff the vertex ids are stored in ascending order
+	 */
+	public boolean hasSortedVertexIds() {
+		return (flags & FLAG_SORTED_IDS) != 0;
+	}
+
+	/**
+	 * @return true iff the file contains the in-edge sections
+	 */
+	public boolean hasInEdges() {
+		return (flags & FLAG_IN_EDGES) != 0;
+	}
+
+	/**
+	 * @return the number of vertices in the graph
+	 */
+	public long getNumberOfVertices() {
+		return numberOfVertices;
+	}
+
+	/**
+	 * @return the number of edges stored in the file
+	 */
+	public long getNumberOfEdges() {
+		return numberOfEdges;
+	}
+
+	/**
+	 * @return the fingerprint of the vertex and edge files the CSR file was generated from, see
+	 *         GraphCacheManifest.fingerprint
+	 */
+	public long getSourceFingerprint() {
+		return sourceFingerprint;
+	}
+
+	public PropertyType[] getVertexPropertyTypes() {
+		return vertexPropertyTypes.clone();
+	}
+
+	public PropertyType[] getEdgePropertyTypes() {
+		return edgePropertyTypes.clone();
+	}
+
+	/**
+	 * @return the original vertex id for each dense vertex index
+	 */
+	public MappedLongArray getVertexIds() {
+		return vertexIds;
+	}
+
+	/**
+	 * @param property the index of a vertex property
+	 * @return the values of the property for each dense vertex index, as longs or as raw double bits
+	 */
+	public MappedLongArray getVertexProperty(int property) {
+		return vertexProperties[property];
+	}
+
+	/**
+	 * @return the offsets of the adjacency list of each dense vertex index in the neighbour array
+	 */
+	public MappedLongArray getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * @return the dense vertex index of the destination of each edge
+	 */
+	public MappedLongArray getNeighbours() {
+		return neighbours;
+	}
+
+	/**
+	 * @param property the index of an edge property
+	 * @return the values of the property for each edge, as longs or as raw double bits
+	 */
+	public MappedLongArray getEdgeProperty(int property) {
+		return edgeProperties[property];
+	}
+
+	/**
+	 * @return the offsets of the incoming edges of each dense vertex index in the in sources and in edges sections,
+	 *         or null if the file has no in-edge sections
+	 */
+	public MappedLongArray getInOffsets() {
+		return inOffsets;
+	}
+
+	/**
+	 * @return the dense vertex index of the source of each incoming edge, or null if the file has no in-edge sections
+	 */
+	public MappedLongArray getInSources() {
+		return inSources;
+	}
+
+	/**
+	 * @return the index in the neighbours section of each incoming edge, or null if the file has no in-edge sections
+	 */
+	public MappedLongArray getInEdges() {
+		return inEdges;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
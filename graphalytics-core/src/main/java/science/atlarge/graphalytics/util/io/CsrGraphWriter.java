@@ -0,0 +1,340 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Converts a graph in the EVLP format to the binary CSR format described in CsrGraphFile. The conversion reads the
+ * vertex file once and the edge file twice: the first pass counts the degree of each vertex, the second pass
+ * scatters the edges directly into the memory-mapped output file. Only per-vertex arrays are kept on the heap, so
+ * the number of edges is not bounded by the heap size; the number of vertices is limited to about 2^31.
+ * <p>
+ * By default, vertices are stored in file order and each edge is stored once, as in the edge file. Layout flags
+ * select the optional CsrGraphFile layouts: vertex ids in ascending order, undirected edges stored in both directions,
+ * and the in-edge sections of directed graphs. Edges of a vertex always keep the order of the edge file.
+ */
+public final class CsrGraphWriter {
+
+	private final int flags;
+	private final PropertyList vertexProperties;
+	private final PropertyList edgeProperties;
+	private final PropertyType[] vertexPropertyTypes;
+	private final PropertyType[] edgePropertyTypes;
+
+	/**
+	 * @param isDirected       true iff the graph is directed
+	 * @param vertexProperties the properties of each vertex in the vertex file
+	 * @param edgeProperties   the properties of each edge in the edge file
+	 */
+	public CsrGraphWriter(boolean isDirected, PropertyList vertexProperties, PropertyList edgeProperties) {
+		this(isDirected, vertexProperties, edgeProperties, 0);
+	}
+
+	/**
+	 * @param isDirected       true iff the graph is directed
+	 * @param vertexProperties the properties of each vertex in the vertex file
+	 * @param edgeProperties   the properties of each edge in the edge file
+	 * @param layoutFlags      a combination of CsrGraphFile.FLAG_SORTED_IDS, CsrGraphFile.FLAG_SYMMETRIC (undirected
+	 *                         graphs only) and CsrGraphFile.FLAG_IN_EDGES (directed graphs only)
+	 */
+	public CsrGraphWriter(boolean isDirected, PropertyList vertexProperties, PropertyList edgeProperties,
+			int layoutFlags) {
+		int supportedFlags = CsrGraphFile.FLAG_SORTED_IDS |
+				(isDirected ? CsrGraphFile.FLAG_IN_EDGES : CsrGraphFile.FLAG_SYMMETRIC);
+		if ((layoutFlags & ~supportedFlags) != 0) {
+			throw new IllegalArgumentException("Unsupported layout flags " + layoutFlags + " for " +
+					(isDirected ? "a directed" : "an undirected") + " graph.");
+		}
+		this.flags = layoutFlags | (isDirected ? CsrGraphFile.FLAG_DIRECTED : 0);
+		this.vertexProperties = vertexProperties;
+		this.edgeProperties = edgeProperties;
+		this.vertexPropertyTypes = toTypes(vertexProperties);
+		this.edgePropertyTypes = toTypes(edgeProperties);
+	}
+
+	private static PropertyType[] toTypes(PropertyList properties) {
+		PropertyType[] types = new PropertyType[properties.size()];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = properties.get(i).getType();
+		}
+		return types;
+	}
+
+	private boolean hasFlag(int flag) {
+		return (flags & flag) != 0;
+	}
+
+	/**
+	 * Converts a vertex file and an edge file to a CSR graph file. The output is written to a temporary file first
+	 * and moved into place once it is complete; the temporary file is deleted if the conversion fails.
+	 *
+	 * @param vertexFilePath the path of the EVLP vertex file
+	 * @param edgeFilePath   the path of the EVLP edge file
+	 * @param outputPath     the path of the CSR file to write
+	 * @throws IOException if the input could not be read or parsed, or the output could not be written
+	 */
+	public void write(String vertexFilePath, String edgeFilePath, Path outputPath) throws IOException {
+		long fingerprint = GraphCacheManifest.fingerprint(vertexFilePath, edgeFilePath);
+
+		// Read all vertices and build the mapping from vertex id to dense index
+		VertexTable vertices = readVertices(vertexFilePath);
+		int numberOfVertices = vertices.size;
+
+		// First pass over the edges: count the out-degree (and in-degree) of each vertex
+		long[] offsets = new long[numberOfVertices + 1];
+		long[] inOffsets = hasFlag(CsrGraphFile.FLAG_IN_EDGES) ? new long[numberOfVertices + 1] : null;
+		boolean isSymmetric = hasFlag(CsrGraphFile.FLAG_SYMMETRIC);
+		try (EdgeListStream edges = GraphFileStreams.openEdgeList(edgeFilePath)) {
+			while (edges.hasNextEdge()) {
+				EdgeListStream.EdgeData edge = edges.getNextEdge();
+				offsets[vertices.indexOf(edge.getSourceId()) + 1]++;
+				int destination = vertices.indexOf(edge.getDestinationId());
+				if (inOffsets != null) {
+					inOffsets[destination + 1]++;
+				} else if (isSymmetric) {
+					offsets[destination + 1]++;
+				}
+			}
+		}
+		prefixSum(offsets);
+		if (inOffsets != null) {
+			prefixSum(inOffsets);
+		}
+		long numberOfEdges = offsets[numberOfVertices];
+
+		Path temporaryPath = Paths.get(outputPath.toString() + ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				long position = CsrGraphFile.writeHeader(channel, flags, numberOfVertices, numberOfEdges, fingerprint,
+						vertexPropertyTypes, edgePropertyTypes);
+				writeGraph(channel, position, edgeFilePath, vertices, offsets, inOffsets, numberOfEdges);
+			}
+			Files.move(temporaryPath, outputPath, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException ex) {
+			Files.deleteIfExists(temporaryPath);
+			throw ex;
+		}
+	}
+
+	private void writeGraph(FileChannel channel, long position, String edgeFilePath, VertexTable vertices,
+			long[] offsets, long[] inOffsets, long numberOfEdges) throws IOException {
+		int numberOfVertices = vertices.size;
+		MappedLongArray vertexIds = map(channel, position, numberOfVertices);
+		position += 8L * numberOfVertices;
+		for (int i = 0; i < numberOfVertices; i++) {
+			vertexIds.set(i, vertices.ids[i]);
+		}
+		vertexIds.force();
+
+		for (int p = 0; p < vertexPropertyTypes.length; p++) {
+			MappedLongArray column = map(channel, position, numberOfVertices);
+			position += 8L * numberOfVertices;
+			for (int i = 0; i < numberOfVertices; i++) {
+				column.set(i, vertices.properties[p][i]);
+			}
+			column.force();
+		}
+		position = writeOffsets(channel, position, offsets);
+
+		MappedLongArray neighbours = map(channel, position, numberOfEdges);
+		position += 8L * numberOfEdges;
+		MappedLongArray[] edgeColumns = new MappedLongArray[edgePropertyTypes.length];
+		for (int p = 0; p < edgeColumns.length; p++) {
+			edgeColumns[p] = map(channel, position, numberOfEdges);
+			position += 8L * numberOfEdges;
+		}
+		MappedLongArray inSources = null;
+		MappedLongArray inEdges = null;
+		if (inOffsets != null) {
+			position = writeOffsets(channel, position, inOffsets);
+			inSources = map(channel, position, numberOfEdges);
+			position += 8L * numberOfEdges;
+			inEdges = map(channel, position, numberOfEdges);
+		}
+
+		// Second pass over the edges: scatter each edge to the next free slot of its source (and target) vertex
+		boolean isSymmetric = hasFlag(CsrGraphFile.FLAG_SYMMETRIC);
+		long[] cursors = Arrays.copyOf(offsets, numberOfVertices);
+		long[] inCursors = inOffsets != null ? Arrays.copyOf(inOffsets, numberOfVertices) : null;
+		try (TypedEdgeListStream edges = GraphFileStreams.openTypedEdgeList(edgeFilePath, edgeProperties)) {
+			while (edges.hasNextEdge()) {
+				TypedEdgeListStream.TypedEdgeData edge = edges.getNextEdge();
+				int source = vertices.indexOf(edge.getSourceId());
+				int destination = vertices.indexOf(edge.getDestinationId());
+				long edgeIndex = cursors[source]++;
+				neighbours.set(edgeIndex, destination);
+				setProperties(edgeColumns, edgeIndex, edge, edgePropertyTypes);
+				if (inCursors != null) {
+					long inPosition = inCursors[destination]++;
+					inSources.set(inPosition, source);
+					inEdges.set(inPosition, edgeIndex);
+				} else if (isSymmetric) {
+					long reverseIndex = cursors[destination]++;
+					neighbours.set(reverseIndex, source);
+					setProperties(edgeColumns, reverseIndex, edge, edgePropertyTypes);
+				}
+			}
+		}
+
+		neighbours.force();
+		for (MappedLongArray column : edgeColumns) {
+			column.force();
+		}
+		if (inOffsets != null) {
+			inSources.force();
+			inEdges.force();
+		}
+	}
+
+	private VertexTable readVertices(String vertexFilePath) throws IOException {
+		VertexTable table = new VertexTable(vertexPropertyTypes.length);
+		try (TypedVertexListStream vertices = GraphFileStreams.openTypedVertexList(vertexFilePath,
+				vertexProperties)) {
+			while (vertices.hasNextVertex()) {
+				TypedVertexListStream.TypedVertexData vertex = vertices.getNextVertex();
+				table.add(vertex.getId());
+				for (int p = 0; p < vertexPropertyTypes.length; p++) {
+					table.properties[p][table.size - 1] = encodeValue(vertex, p, vertexPropertyTypes[p]);
+				}
+			}
+		}
+		table.buildIndex(hasFlag(CsrGraphFile.FLAG_SORTED_IDS));
+		return table;
+	}
+
+	private static void setProperties(MappedLongArray[] columns, long index, PropertyValues values,
+			PropertyType[] types) {
+		for (int p = 0; p < columns.length; p++) {
+			columns[p].set(index, encodeValue(values, p, types[p]));
+		}
+	}
+
+	private static long encodeValue(PropertyValues values, int property, PropertyType type) {
+		return type == PropertyType.REAL ? Double.doubleToRawLongBits(values.getDouble(property)) :
+				values.getLong(property);
+	}
+
+	private static void prefixSum(long[] offsets) {
+		for (int i = 1; i < offsets.length; i++) {
+			offsets[i] += offsets[i - 1];
+		}
+	}
+
+	private static long writeOffsets(FileChannel channel, long position, long[] offsets) throws IOException {
+		MappedLongArray array = map(channel, position, offsets.length);
+		for (int i = 0; i < offsets.length; i++) {
+			array.set(i, offsets[i]);
+		}
+		array.force();
+		return position + 8L * offsets.length;
+	}
+
+	private static MappedLongArray map(FileChannel channel, long position, long length) throws IOException {
+		return MappedLongArray.map(channel, FileChannel.MapMode.READ_WRITE, position, length);
+	}
+
+	/**
+	 * Vertex ids and properties in file order, with a sorted index for looking up the dense index of a vertex id.
+	 * If the vertices are reordered by id, the dense index of a vertex is its rank.
+	 */
+	private static final class VertexTable {
+
+		private long[] ids = new long[1024];
+		private final long[][] properties;
+		private int size;
+
+		private long[] sortedIds;
+		private int[] sortedIndices;
+
+		private VertexTable(int propertyCount) {
+			this.properties = new long[propertyCount][ids.length];
+		}
+
+		private void add(long id) throws IOException {
+			if (size == ids.length) {
+				if (size == Integer.MAX_VALUE - 8) {
+					throw new IOException("Graphs with more than " + size + " vertices can not be converted to CSR.");
+				}
+				int newLength = (int)Math.min(2L * size, Integer.MAX_VALUE - 8);
+				ids = Arrays.copyOf(ids, newLength);
+				for (int p = 0; p < properties.length; p++) {
+					properties[p] = Arrays.copyOf(properties[p], newLength);
+				}
+			}
+			ids[size++] = id;
+		}
+
+		private void buildIndex(boolean reorder) throws IOException {
+			boolean sorted = true;
+			for (int i = 1; i < size && sorted; i++) {
+				sorted = ids[i - 1] < ids[i];
+			}
+			if (sorted) {
+				// Vertex files are usually sorted, in which case the ids can be searched directly
+				sortedIds = ids;
+				return;
+			}
+
+			sortedIds = Arrays.copyOf(ids, size);
+			Arrays.parallelSort(sortedIds);
+			sortedIndices = new int[size];
+			for (int i = 0; i < size; i++) {
+				int rank = Arrays.binarySearch(sortedIds, ids[i]);
+				if ((rank > 0 && sortedIds[rank - 1] == ids[i]) || (rank + 1 < size && sortedIds[rank + 1] == ids[i])) {
+					throw new IOException("Vertex " + ids[i] + " occurs multiple times in the vertex file.");
+				}
+				sortedIndices[rank] = i;
+			}
+
+			if (reorder) {
+				for (int p = 0; p < properties.length; p++) {
+					long[] sortedProperties = new long[size];
+					for (int rank = 0; rank < size; rank++) {
+						sortedProperties[rank] = properties[p][sortedIndices[rank]];
+					}
+					properties[p] = sortedProperties;
+				}
+				ids = sortedIds;
+				sortedIndices = null;
+			}
+		}
+
+		private int indexOf(long id) throws IOException {
+			int rank = Arrays.binarySearch(sortedIds, 0, size, id);
+			if (rank < 0) {
+				throw new IOException("Edge refers to vertex " + id + ", which does not exist in the vertex file.");
+			}
+			return sortedIndices == null ? rank : sortedIndices[rank];
+		}
+
+	}
+
+}
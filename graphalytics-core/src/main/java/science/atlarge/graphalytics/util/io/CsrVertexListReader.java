@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * VertexListStream that reads the vertices of a graph stored in the binary CSR format, in the order of the original
+ * vertex file. Property values are formatted as Strings only when they are requested.
+ */
+public class CsrVertexListReader implements VertexListStream {
+
+	private final CsrGraphFile graphFile;
+	private final MappedLongArray vertexIds;
+	private final CsrVertexData cache;
+
+	private long vertexIndex = -1;
+
+	public CsrVertexListReader(Path path) throws IOException {
+		this(CsrGraphFile.open(path));
+	}
+
+	public CsrVertexListReader(CsrGraphFile graphFile) {
+		this.graphFile = graphFile;
+		this.vertexIds = graphFile.getVertexIds();
+		this.cache = new CsrVertexData(graphFile);
+	}
+
+	@Override
+	public boolean hasNextVertex() throws IOException {
+		return vertexIndex + 1 < graphFile.getNumberOfVertices();
+	}
+
+	@Override
+	public VertexData getNextVertex() throws IOException {
+		if (!hasNextVertex()) {
+			throw new NoSuchElementException();
+		}
+
+		vertexIndex++;
+		cache.setId(vertexIds.get(vertexIndex));
+		cache.setVertexIndex(vertexIndex);
+		return cache;
+	}
+
+	@Override
+	public void close() throws IOException {
+		graphFile.close();
+	}
+
+	/**
+	 * VertexData that formats the property values of the current vertex on first access.
+	 */
+	private static final class CsrVertexData extends VertexData {
+
+		private final MappedLongArray[] columns;
+		private final PropertyType[] types;
+		private long vertexIndex;
+		private boolean valuesFormatted;
+
+		private CsrVertexData(CsrGraphFile graphFile) {
+			this.types = graphFile.getVertexPropertyTypes();
+			this.columns = new MappedLongArray[types.length];
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = graphFile.getVertexProperty(i);
+			}
+			setValues(new String[types.length]);
+		}
+
+		private void setVertexIndex(long vertexIndex) {
+			this.vertexIndex = vertexIndex;
+			this.valuesFormatted = false;
+		}
+
+		@Override
+		public String[] getValues() {
+			String[] values = super.getValues();
+			if (!valuesFormatted) {
+				for (int i = 0; i < columns.length; i++) {
+					values[i] = types[i] == PropertyType.REAL ?
+							Double.toString(columns[i].getDouble(vertexIndex)) :
+							Long.toString(columns[i].get(vertexIndex));
+				}
+				valuesFormatted = true;
+			}
+			return values;
+		}
+
+		@Override
+		public String toString() {
+			getValues();
+			return super.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+/**
+ * Parses decimal numbers from a range of a character sequence without converting the range to a String. Used both
+ * for text, such as lines of validation output, and for bytes of EVLP data through an ASCII view of the buffer.
+ */
+public final class DecimalParser {
+
+	// Decimals with a mantissa below 2^53 and a power of ten up to 10^22 are exact products or quotients of doubles
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final double[] EXACT_POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/**
+	 * Prevent instantiation of utility class.
+	 */
+	private DecimalParser() {
+	}
+
+	/**
+	 * Parses a signed decimal long, with the same accepted syntax as Long.parseLong.
+	 *
+	 * @param value the characters containing the long
+	 * @param start the index of the first character of the long
+	 * @param end   the index directly after the last character of the long
+	 * @return the parsed value
+	 * @throws NumberFormatException if the given range is not a valid long
+	 */
+	public static long parseLong(CharSequence value, int start, int end) throws NumberFormatException {
+		int i = start;
+		boolean negative = false;
+		if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+			negative = value.charAt(i) == '-';
+			i++;
+		}
+		if (i == end) {
+			throw malformedNumber(value, start, end);
+		}
+
+		// Accumulate negatively to support Long.MIN_VALUE
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multiplyLimit = limit / 10;
+		long result = 0;
+		for (; i < end; i++) {
+			char c = value.charAt(i);
+			int digit = c >= '0' && c <= '9' ? c - '0' : Character.digit(c, 10);
+			if (digit < 0 || result < multiplyLimit) {
+				throw malformedNumber(value, start, end);
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw malformedNumber(value, start, end);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Parses a double, with the same accepted syntax and result as Double.parseDouble. Plain decimals with an integer
+	 * mantissa below 2^53 (all digits, ignoring the decimal point) and an effective power of ten up to 10^22 in
+	 * magnitude are converted directly from the characters; other values are copied to a String and parsed by
+	 * Double.parseDouble.
+	 *
+	 * @param value the characters containing the double
+	 * @param start the index of the first character of the double
+	 * @param end   the index directly after the last character of the double
+	 * @return the parsed value
+	 * @throws NumberFormatException if the given range is not a valid double
+	 */
+	public static double parseDouble(CharSequence value, int start, int end) throws NumberFormatException {
+		double result = parseExactDecimal(value, start, end);
+		if (!Double.isNaN(result)) {
+			return result;
+		}
+		return Double.parseDouble(value.subSequence(start, end).toString());
+	}
+
+	/**
+	 * Parses a decimal of the form [sign] digits [. digits] [e [sign] digits] if its value is the product or quotient
+	 * of a mantissa below 2^53 and a power of ten up to 10^22. Both operands are then exact doubles, so the single
+	 * rounding of the multiplication or division gives the correctly rounded result.
+	 *
+	 * @return the parsed value, or NaN if the characters are not such a decimal
+	 */
+	private static double parseExactDecimal(CharSequence value, int i, int end) {
+		boolean negative = false;
+		if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+			negative = value.charAt(i) == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean inFraction = false;
+		for (; i < end; i++) {
+			char c = value.charAt(i);
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + (c - '0');
+				if (mantissa >= MAX_EXACT_MANTISSA) {
+					return Double.NaN;
+				}
+				digits++;
+				if (inFraction) {
+					fractionDigits++;
+				}
+			} else if (c == '.' && !inFraction) {
+				inFraction = true;
+			} else {
+				break;
+			}
+		}
+		if (digits == 0) {
+			return Double.NaN;
+		}
+
+		int exponent = 0;
+		if (i < end && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+				negativeExponent = value.charAt(i) == '-';
+				i++;
+			}
+			int exponentDigits = 0;
+			for (; i < end && exponentDigits < 4; i++, exponentDigits++) {
+				int digit = value.charAt(i) - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				exponent = exponent * 10 + digit;
+			}
+			if (exponentDigits == 0) {
+				return Double.NaN;
+			}
+			if (negativeExponent) {
+				exponent = -exponent;
+			}
+		}
+		if (i != end) {
+			return Double.NaN;
+		}
+
+		exponent -= fractionDigits;
+		double result;
+		if (exponent == 0) {
+			result = mantissa;
+		} else if (exponent > 0 && exponent < EXACT_POWERS_OF_TEN.length) {
+			result = mantissa * EXACT_POWERS_OF_TEN[exponent];
+		} else if (exponent < 0 && -exponent < EXACT_POWERS_OF_TEN.length) {
+			result = mantissa / EXACT_POWERS_OF_TEN[-exponent];
+		} else {
+			return Double.NaN;
+		}
+		return negative ? -result : result;
+	}
+
+	private static NumberFormatException malformedNumber(CharSequence value, int start, int end) {
+		return new NumberFormatException("For input string: \"" + value.subSequence(start, end) + "\"");
+	}
+
+}
@@ -30,7 +30,7 @@ public class EdgeListPropertyFilter implements EdgeListStream {
 
 	private final EdgeListStream inputStream;
 	private final int[] propertyIndicesToKeep;
-	private final EdgeData cache = new EdgeData();
+	private final FilteredEdgeData cache;
 
 	/**
 	 * Construct a EdgeListPropertyFilter that reads edges from a EdgeListStream, and filter and rearranges
@@ -43,7 +43,7 @@ public class EdgeListPropertyFilter implements EdgeListStream {
 	public EdgeListPropertyFilter(EdgeListStream inputStream, int[] propertyIndicesToKeep) {
 		this.inputStream = inputStream;
 		this.propertyIndicesToKeep = Arrays.copyOf(propertyIndicesToKeep, propertyIndicesToKeep.length);
-		this.cache.setValues(new String[propertyIndicesToKeep.length]);
+		this.cache = new FilteredEdgeData(this.propertyIndicesToKeep);
 	}
 
 	@Override
@@ -56,12 +56,7 @@ public class EdgeListPropertyFilter implements EdgeListStream {
 		EdgeData inputData = inputStream.getNextEdge();
 		cache.setSourceId(inputData.getSourceId());
 		cache.setDestinationId(inputData.getDestinationId());
-
-		String[] inputValues = inputData.getValues();
-		String[] outputValues = cache.getValues();
-		for (int i = 0; i < propertyIndicesToKeep.length; i++) {
-			outputValues[i] = inputValues[propertyIndicesToKeep[i]];
-		}
+		cache.setInput(inputData);
 
 		return cache;
 	}
@@ -70,4 +65,57 @@ public class EdgeListPropertyFilter implements EdgeListStream {
 	public void close() throws IOException {
 		inputStream.close();
 	}
+
+	/**
+	 * EdgeData that selects its property values from the current input edge on first access. Values are copied
+	 * directly from the input edge when written, without decoding them to Strings.
+	 */
+	private static final class FilteredEdgeData extends EdgeData {
+
+		private final int[] propertyIndicesToKeep;
+		private EdgeData inputData;
+		private boolean valuesSelected;
+
+		private FilteredEdgeData(int[] propertyIndicesToKeep) {
+			this.propertyIndicesToKeep = propertyIndicesToKeep;
+			setValues(new String[propertyIndicesToKeep.length]);
+		}
+
+		private void setInput(EdgeData inputData) {
+			this.inputData = inputData;
+			this.valuesSelected = false;
+		}
+
+		@Override
+		public String[] getValues() {
+			String[] outputValues = super.getValues();
+			// Avoid decoding the input properties if none are kept
+			if (!valuesSelected && propertyIndicesToKeep.length > 0) {
+				String[] inputValues = inputData.getValues();
+				for (int i = 0; i < propertyIndicesToKeep.length; i++) {
+					outputValues[i] = inputValues[propertyIndicesToKeep[i]];
+				}
+			}
+			valuesSelected = true;
+			return outputValues;
+		}
+
+		@Override
+		public int getValueCount() {
+			return propertyIndicesToKeep.length;
+		}
+
+		@Override
+		public void writeValue(int index, EvlpByteWriter writer) throws IOException {
+			inputData.writeValue(propertyIndicesToKeep[index], writer);
+		}
+
+		@Override
+		public String toString() {
+			getValues();
+			return super.toString();
+		}
+
+	}
+
 }
@@ -87,6 +87,25 @@ public interface EdgeListStream extends AutoCloseable {
 			this.values = values;
 		}
 
+		/**
+		 * @return the number of property values of this edge
+		 */
+		public int getValueCount() {
+			return getValues().length;
+		}
+
+		/**
+		 * Writes a single property value. Subclasses may override this to copy the value without decoding it to a
+		 * String first.
+		 *
+		 * @param index  the index of the property value
+		 * @param writer the writer to write the value to
+		 * @throws IOException iff the value could not be written
+		 */
+		public void writeValue(int index, EvlpByteWriter writer) throws IOException {
+			writer.writeToken(getValues()[index]);
+		}
+
 		@Override
 		public String toString() {
 			return "EdgeData{" +
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats EVLP tokens directly into a reusable direct ByteBuffer, which is written to a channel in large blocks.
+ * Identifiers are formatted without creating intermediate Strings, and tokens from a LineTokenizer are copied as raw
+ * bytes without being decoded.
+ */
+public final class EvlpByteWriter implements AutoCloseable {
+
+	static final int DEFAULT_BUFFER_SIZE = 1 << 22;
+
+	private static final int MAX_LONG_LENGTH = 20;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+	private final byte[] digits = new byte[MAX_LONG_LENGTH];
+
+	/**
+	 * @param channel the channel to write to, closed when this writer is closed
+	 */
+	public EvlpByteWriter(WritableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+
+	EvlpByteWriter(WritableByteChannel channel, int bufferSize) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, MAX_LONG_LENGTH));
+	}
+
+	private void ensureCapacity(int length) throws IOException {
+		if (buffer.remaining() < length) {
+			flush();
+		}
+	}
+
+	/**
+	 * Writes a signed decimal long.
+	 *
+	 * @param value the value to write
+	 * @throws IOException iff the buffer could not be flushed
+	 */
+	public void writeLong(long value) throws IOException {
+		ensureCapacity(MAX_LONG_LENGTH);
+		if (value == Long.MIN_VALUE) {
+			for (byte b : Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII)) {
+				buffer.put(b);
+			}
+			return;
+		}
+		if (value < 0) {
+			buffer.put((byte)'-');
+			value = -value;
+		}
+		int position = digits.length;
+		do {
+			digits[--position] = (byte)('0' + value % 10);
+			value /= 10;
+		} while (value != 0);
+		buffer.put(digits, position, digits.length - position);
+	}
+
+	/**
+	 * Writes a double in the format of Double.toString. Unlike the other methods, this allocates a String.
+	 *
+	 * @param value the value to write
+	 * @throws IOException iff the buffer could not be flushed
+	 */
+	public void writeDouble(double value) throws IOException {
+		writeToken(Double.toString(value));
+	}
+
+	/**
+	 * Writes a String token. Strings consisting of ASCII characters are written without allocating.
+	 *
+	 * @param token the token to write
+	 * @throws IOException iff the buffer could not be flushed
+	 */
+	public void writeToken(String token) throws IOException {
+		int length = token.length();
+		for (int i = 0; i < length; i++) {
+			if (token.charAt(i) >= 0x80) {
+				writeBytes(ByteBuffer.wrap(token.getBytes(StandardCharsets.UTF_8)));
+				return;
+			}
+		}
+		if (length > buffer.capacity()) {
+			writeBytes(ByteBuffer.wrap(token.getBytes(StandardCharsets.US_ASCII)));
+			return;
+		}
+		ensureCapacity(length);
+		for (int i = 0; i < length; i++) {
+			buffer.put((byte)token.charAt(i));
+		}
+	}
+
+	/**
+	 * Copies a token from the current line of a LineTokenizer without decoding it.
+	 *
+	 * @param tokenizer the tokenizer holding the token
+	 * @param token     the index of the token on the current line
+	 * @throws IOException iff the buffer could not be flushed
+	 */
+	public void writeToken(LineTokenizer tokenizer, int token) throws IOException {
+		writeBytes(tokenizer.getTokenBytes(token));
+	}
+
+	private void writeBytes(ByteBuffer bytes) throws IOException {
+		if (bytes.remaining() > buffer.capacity()) {
+			flush();
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+			return;
+		}
+		ensureCapacity(bytes.remaining());
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Writes the separator between two tokens.
+	 *
+	 * @throws IOException iff the buffer could not be flushed
+	 */
+	public void writeSeparator() throws IOException {
+		ensureCapacity(1);
+		buffer.put((byte)' ');
+	}
+
+	/**
+	 * Terminates the current line.
+	 *
+	 * @throws IOException iff the buffer could not be flushed
+	 */
+	public void endLine() throws IOException {
+		ensureCapacity(1);
+		buffer.put((byte)'\n');
+	}
+
+	/**
+	 * Writes all buffered bytes to the channel.
+	 *
+	 * @throws IOException iff the channel could not be written to
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+}
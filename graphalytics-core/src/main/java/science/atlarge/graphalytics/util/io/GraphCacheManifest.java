@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * Describes how a cached graph file was generated: the source file it was derived from, the properties selected from
+ * that source, and the size of the completed cache file. The manifest is stored next to the cache file (with the
+ * {@value #MANIFEST_EXTENSION} extension) and is only written after the cache file is complete, so a cache file
+ * without a matching manifest is either incomplete or derived from a different version of the source.
+ * <p>
+ * Source files are identified by their size, modification time and a fingerprint of their first and last bytes.
+ * Hashing the complete source would require a full scan of a possibly very large file on every run.
+ */
+public final class GraphCacheManifest {
+
+	public static final String MANIFEST_EXTENSION = ".manifest";
+
+	private static final int FINGERPRINT_SAMPLE_SIZE = 1 << 16;
+	private static final String TEMPORARY_EXTENSION = ".tmp";
+
+	private static final String SOURCE_PATH_KEY = "source.path";
+	private static final String SOURCE_SIZE_KEY = "source.size";
+	private static final String SOURCE_MODIFIED_KEY = "source.modified";
+	private static final String SOURCE_FINGERPRINT_KEY = "source.fingerprint";
+	private static final String PROPERTY_INDICES_KEY = "properties";
+	private static final String TARGET_SIZE_KEY = "target.size";
+
+	private final Properties properties;
+
+	private GraphCacheManifest(Properties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * Describes a cache file that is generated from a source file by selecting the given properties.
+	 *
+	 * @param sourcePath      the source file of the cache file
+	 * @param propertyIndices the indices of the source properties that are copied to the cache file
+	 * @return a manifest describing the source file and property selection
+	 * @throws IOException iff the source file could not be read
+	 */
+	public static GraphCacheManifest describe(String sourcePath, int[] propertyIndices) throws IOException {
+		Path source = Paths.get(sourcePath);
+		Properties properties = new Properties();
+		properties.setProperty(SOURCE_PATH_KEY, source.toAbsolutePath().normalize().toString());
+		properties.setProperty(SOURCE_SIZE_KEY, String.valueOf(Files.size(source)));
+		properties.setProperty(SOURCE_MODIFIED_KEY, String.valueOf(Files.getLastModifiedTime(source).toMillis()));
+		properties.setProperty(SOURCE_FINGERPRINT_KEY, String.valueOf(computeFingerprint(source)));
+		properties.setProperty(PROPERTY_INDICES_KEY, Arrays.toString(propertyIndices));
+		return new GraphCacheManifest(properties);
+	}
+
+	/**
+	 * Checks if a cache file exists, is complete, and was generated as described by this manifest.
+	 *
+	 * @param cacheFilePath the cache file to check
+	 * @return true iff the cache file can be reused
+	 */
+	public boolean matches(String cacheFilePath) {
+		Path cacheFile = Paths.get(cacheFilePath);
+		Path manifestFile = getManifestPath(cacheFile);
+		if (!Files.isRegularFile(cacheFile) || !Files.isRegularFile(manifestFile)) {
+			return false;
+		}
+
+		Properties stored = new Properties();
+		try (InputStream input = Files.newInputStream(manifestFile)) {
+			stored.load(input);
+			String targetSize = stored.getProperty(TARGET_SIZE_KEY);
+			if (targetSize == null || Long.parseLong(targetSize) != Files.size(cacheFile)) {
+				return false;
+			}
+		} catch (IOException | NumberFormatException e) {
+			return false;
+		}
+		stored.remove(TARGET_SIZE_KEY);
+		return stored.equals(properties);
+	}
+
+	/**
+	 * Records that a cache file was generated as described by this manifest. Must only be called once the cache file
+	 * is complete. The manifest is written to a temporary file and renamed, so it is never observed partially written.
+	 *
+	 * @param cacheFilePath the completed cache file
+	 * @throws IOException iff the manifest could not be written
+	 */
+	public void write(String cacheFilePath) throws IOException {
+		Path cacheFile = Paths.get(cacheFilePath);
+		Path manifestFile = getManifestPath(cacheFile);
+		Path temporaryFile = Paths.get(manifestFile.toString() + TEMPORARY_EXTENSION);
+
+		Properties stored = new Properties();
+		stored.putAll(properties);
+		stored.setProperty(TARGET_SIZE_KEY, String.valueOf(Files.size(cacheFile)));
+		try (OutputStream output = Files.newOutputStream(temporaryFile)) {
+			stored.store(output, "Generated by Graphalytics, do not edit");
+		}
+		Files.move(temporaryFile, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Removes the manifest of a cache file, marking the cache file as invalid. Must be called before a cache file is
+	 * regenerated, so a failed regeneration can not leave a new cache file with an old manifest behind.
+	 *
+	 * @param cacheFilePath the cache file to invalidate
+	 * @throws IOException iff the manifest could not be removed
+	 */
+	public static void invalidate(String cacheFilePath) throws IOException {
+		Files.deleteIfExists(getManifestPath(Paths.get(cacheFilePath)));
+	}
+
+	private static Path getManifestPath(Path cacheFile) {
+		return Paths.get(cacheFile.toString() + MANIFEST_EXTENSION);
+	}
+
+	/**
+	 * Computes a fingerprint of one or more source files from their sizes, modification times and first and last
+	 * bytes. Intended for cache files that are derived from several sources and store the fingerprint themselves.
+	 *
+	 * @param sourcePaths the source files to fingerprint
+	 * @return the fingerprint
+	 * @throws IOException iff any of the source files could not be read
+	 */
+	public static long fingerprint(String... sourcePaths) throws IOException {
+		CRC32 crc = new CRC32();
+		ByteBuffer buffer = ByteBuffer.allocate(FINGERPRINT_SAMPLE_SIZE);
+		ByteBuffer attributes = ByteBuffer.allocate(2 * Long.BYTES);
+		for (String sourcePath : sourcePaths) {
+			Path source = Paths.get(sourcePath);
+			attributes.clear();
+			attributes.putLong(Files.size(source));
+			attributes.putLong(Files.getLastModifiedTime(source).toMillis());
+			crc.update(attributes.array(), 0, attributes.position());
+			updateSamples(crc, source, buffer);
+		}
+		return crc.getValue();
+	}
+
+	private static long computeFingerprint(Path source) throws IOException {
+		CRC32 crc = new CRC32();
+		updateSamples(crc, source, ByteBuffer.allocate(FINGERPRINT_SAMPLE_SIZE));
+		return crc.getValue();
+	}
+
+	private static void updateSamples(CRC32 crc, Path source, ByteBuffer buffer) throws IOException {
+		try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+			long size = channel.size();
+			update(crc, channel, 0, buffer);
+			if (size > FINGERPRINT_SAMPLE_SIZE) {
+				update(crc, channel, Math.max(FINGERPRINT_SAMPLE_SIZE, size - FINGERPRINT_SAMPLE_SIZE), buffer);
+			}
+		}
+	}
+
+	private static void update(CRC32 crc, FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+		buffer.clear();
+		while (buffer.hasRemaining()) {
+			int bytesRead = channel.read(buffer, position + buffer.position());
+			if (bytesRead < 0) {
+				break;
+			}
+		}
+		buffer.flip();
+		crc.update(buffer.array(), 0, buffer.limit());
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Collection of factory methods for opening vertex and edge list streams on graph files. The most efficient reader
+ * for the given file is selected: files in the binary CSR format (with the {@value #CSR_EXTENSION} extension) are read
+ * directly, other regular files are memory-mapped, and remaining files (e.g. compressed files, see CompressionCodecs,
+ * and named pipes) are read by a PipelinedVertexListReader or PipelinedEdgeListReader, which overlap reading, parsing
+ * and consuming the data on separate threads.
+ */
+public final class GraphFileStreams {
+
+	public static final String CSR_EXTENSION = ".csr";
+
+	/**
+	 * Prevent instantiation of utility class.
+	 */
+	private GraphFileStreams() {
+	}
+
+	/**
+	 * @param vertexFilePath path of a vertex list file in the EVLP or CSR format, optionally compressed
+	 * @return a VertexListStream reading the given file
+	 * @throws IOException iff the file could not be opened
+	 */
+	public static VertexListStream openVertexList(String vertexFilePath) throws IOException {
+		Path path = Paths.get(vertexFilePath);
+		if (vertexFilePath.endsWith(CSR_EXTENSION)) {
+			return new CsrVertexListReader(path);
+		}
+		CompressionCodec codec = CompressionCodecs.forPath(vertexFilePath);
+		if (codec != null) {
+			return new PipelinedVertexListReader(CompressionCodecs.openDecompressed(vertexFilePath, codec));
+		}
+		if (Files.isRegularFile(path)) {
+			return new MappedVertexListReader(path);
+		}
+		return new PipelinedVertexListReader(new FileInputStream(vertexFilePath));
+	}
+
+	/**
+	 * @param edgeFilePath path of an edge list file in the EVLP or CSR format, optionally compressed
+	 * @return an EdgeListStream reading the given file
+	 * @throws IOException iff the file could not be opened
+	 */
+	public static EdgeListStream openEdgeList(String edgeFilePath) throws IOException {
+		Path path = Paths.get(edgeFilePath);
+		if (edgeFilePath.endsWith(CSR_EXTENSION)) {
+			return new CsrEdgeListReader(path);
+		}
+		CompressionCodec codec = CompressionCodecs.forPath(edgeFilePath);
+		if (codec != null) {
+			return new PipelinedEdgeListReader(CompressionCodecs.openDecompressed(edgeFilePath, codec));
+		}
+		if (Files.isRegularFile(path)) {
+			return new MappedEdgeListReader(path);
+		}
+		return new PipelinedEdgeListReader(new FileInputStream(edgeFilePath));
+	}
+
+	/**
+	 * Opens a line-aligned byte range of an uncompressed EVLP vertex list file, see LineChunks.
+	 *
+	 * @param vertexFilePath path of a vertex list file in the EVLP format
+	 * @param rangeStart     offset of the first byte to read, must be the start of a line
+	 * @param rangeEnd       offset directly after the last byte to read, must be the end of a line or the file
+	 * @return a VertexListStream reading the given range of the file
+	 * @throws IOException iff the file could not be opened
+	 */
+	public static VertexListStream openVertexList(String vertexFilePath, long rangeStart, long rangeEnd)
+			throws IOException {
+		return new MappedVertexListReader(Paths.get(vertexFilePath), rangeStart, rangeEnd);
+	}
+
+	/**
+	 * Opens a line-aligned byte range of an uncompressed EVLP edge list file, see LineChunks.
+	 *
+	 * @param edgeFilePath path of an edge list file in the EVLP format
+	 * @param rangeStart   offset of the first byte to read, must be the start of a line
+	 * @param rangeEnd     offset directly after the last byte to read, must be the end of a line or the file
+	 * @return an EdgeListStream reading the given range of the file
+	 * @throws IOException iff the file could not be opened
+	 */
+	public static EdgeListStream openEdgeList(String edgeFilePath, long rangeStart, long rangeEnd)
+			throws IOException {
+		return new MappedEdgeListReader(Paths.get(edgeFilePath), rangeStart, rangeEnd);
+	}
+
+	/**
+	 * @param vertexFilePath path of a vertex list file in the EVLP or CSR format
+	 * @param properties     the properties of each vertex in the file
+	 * @return a TypedVertexListStream reading the given file
+	 * @throws IOException iff the file could not be opened
+	 */
+	public static TypedVertexListStream openTypedVertexList(String vertexFilePath, PropertyList properties)
+			throws IOException {
+		return new TypedVertexListReader(openVertexList(vertexFilePath), properties);
+	}
+
+	/**
+	 * @param edgeFilePath path of an edge list file in the EVLP or CSR format
+	 * @param properties   the properties of each edge in the file
+	 * @return a TypedEdgeListStream reading the given file
+	 * @throws IOException iff the file could not be opened
+	 */
+	public static TypedEdgeListStream openTypedEdgeList(String edgeFilePath, PropertyList properties)
+			throws IOException {
+		return new TypedEdgeListReader(openEdgeList(edgeFilePath), properties);
+	}
+
+}
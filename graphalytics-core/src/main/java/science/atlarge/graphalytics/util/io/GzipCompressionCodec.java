@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * CompressionCodec for gzip-compressed files.
+ */
+public class GzipCompressionCodec implements CompressionCodec {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	@Override
+	public String getFileExtension() {
+		return ".gz";
+	}
+
+	@Override
+	public InputStream createInputStream(InputStream compressedStream) throws IOException {
+		return new GZIPInputStream(compressedStream, BUFFER_SIZE);
+	}
+
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Reads lines of EVLP data with separate threads for I/O and parsing. A reader thread fills large blocks from the
+ * source stream, cutting each block at the last complete line, and hands the blocks to a pool of parser threads. The
+ * parser threads locate the lines in a block and parse the leading vertex identifiers of each line. The consumer
+ * iterates over the parsed lines in the original order; remaining tokens of a line are only tokenized on request.
+ * A fixed number of blocks is allocated up front and recycled, which bounds both memory usage and how far the reader
+ * and parsers run ahead of the consumer.
+ */
+final class LineBlockPipeline implements AutoCloseable {
+
+	static final int DEFAULT_BLOCK_SIZE = 1 << 22;
+	static final int DEFAULT_PARSER_THREADS = Math.max(1, Math.min(4,
+			Runtime.getRuntime().availableProcessors() - 1));
+
+	private static final Block END_OF_STREAM = new Block(0, 0);
+
+	private final InputStream source;
+	private final int idsPerLine;
+	private final String elementName;
+	private final BlockingQueue<Block> freeBlocks;
+	private final BlockingQueue<Future<Block>> parsedBlocks = new LinkedBlockingQueue<>();
+	private final ExecutorService parsers;
+	private final Thread readerThread;
+	private volatile boolean closed;
+
+	private final LineTokenizer tokenizer = new LineTokenizer();
+	private Block currentBlock;
+	private int currentLine;
+	private boolean lineTokenized;
+	private IOException failure;
+	private boolean finished;
+
+	/**
+	 * @param source        the stream to read, closed when the pipeline is closed
+	 * @param idsPerLine    the number of vertex identifiers at the start of each line
+	 * @param elementName   the kind of element on each line, used in error messages
+	 * @param blockSize     the size of each block in bytes, bounds the maximum line length
+	 * @param parserThreads the number of parser threads
+	 */
+	LineBlockPipeline(InputStream source, int idsPerLine, String elementName, int blockSize, int parserThreads) {
+		if (parserThreads < 1) {
+			throw new IllegalArgumentException("Number of parser threads must be at least 1, got " + parserThreads + ".");
+		}
+		this.source = source;
+		this.idsPerLine = idsPerLine;
+		this.elementName = elementName;
+
+		// Enough blocks to keep every parser busy while the consumer and reader each hold one block
+		int numberOfBlocks = 2 * parserThreads + 2;
+		this.freeBlocks = new ArrayBlockingQueue<>(numberOfBlocks);
+		for (int i = 0; i < numberOfBlocks; i++) {
+			freeBlocks.add(new Block(blockSize, idsPerLine));
+		}
+
+		this.parsers = Executors.newFixedThreadPool(parserThreads, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "parse " + elementName + " list");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.readerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				readBlocks();
+			}
+		}, "read " + elementName + " list");
+		this.readerThread.setDaemon(true);
+		this.readerThread.start();
+	}
+
+	private void readBlocks() {
+		try {
+			byte[] carry = null;
+			int carryLength = 0;
+			while (!closed) {
+				final Block block = freeBlocks.take();
+				if (carryLength > 0) {
+					System.arraycopy(carry, 0, block.data, 0, carryLength);
+				}
+				block.length = carryLength;
+				boolean endOfStream = block.fill(source);
+
+				// Cut the block after its last complete line, the remainder is carried over to the next block
+				int cut = block.length;
+				if (!endOfStream) {
+					cut = block.lastLineEnd();
+					if (cut < 0) {
+						throw new IOException("Line in " + elementName + " list exceeds the maximum line length of " +
+								block.data.length + " bytes.");
+					}
+				}
+				carryLength = block.length - cut;
+				if (carryLength > 0) {
+					if (carry == null) {
+						carry = new byte[block.data.length];
+					}
+					System.arraycopy(block.data, cut, carry, 0, carryLength);
+				}
+				block.length = cut;
+
+				parsedBlocks.add(parsers.submit(new Callable<Block>() {
+					@Override
+					public Block call() throws IOException {
+						block.parse(elementName);
+						return block;
+					}
+				}));
+				if (endOfStream) {
+					parsedBlocks.add(completed(END_OF_STREAM));
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			// Closed by the consumer
+		} catch (Throwable e) {
+			// Includes unchecked exceptions of the source or the parser pool, which would otherwise leave the consumer
+			// waiting forever
+			parsedBlocks.add(failed(e));
+		} finally {
+			try {
+				source.close();
+			} catch (IOException e) {
+				// Ignore, the source has been read completely or the pipeline was closed
+			}
+		}
+	}
+
+	private static Future<Block> completed(final Block block) {
+		FutureTask<Block> future = new FutureTask<>(new Callable<Block>() {
+			@Override
+			public Block call() {
+				return block;
+			}
+		});
+		future.run();
+		return future;
+	}
+
+	private static Future<Block> failed(final Throwable error) {
+		FutureTask<Block> future = new FutureTask<>(new Callable<Block>() {
+			@Override
+			public Block call() throws Exception {
+				if (error instanceof Exception) {
+					throw (Exception)error;
+				}
+				if (error instanceof Error) {
+					throw (Error)error;
+				}
+				throw new IOException(error);
+			}
+		});
+		future.run();
+		return future;
+	}
+
+	/**
+	 * Advances to the next line.
+	 *
+	 * @return true iff a line was found
+	 * @throws IOException if the source could not be read or a line could not be parsed
+	 */
+	boolean nextLine() throws IOException {
+		if (failure != null) {
+			throw failure;
+		}
+		if (closed) {
+			throw new IOException("Stream closed.");
+		}
+		lineTokenized = false;
+		while (true) {
+			if (currentBlock != null && ++currentLine < currentBlock.lineCount) {
+				return true;
+			}
+			if (currentBlock != null) {
+				freeBlocks.add(currentBlock);
+				currentBlock = null;
+			}
+			if (finished) {
+				return false;
+			}
+
+			Block block = takeParsedBlock();
+			if (block == END_OF_STREAM) {
+				finished = true;
+				parsers.shutdown();
+				return false;
+			}
+			currentBlock = block;
+			currentLine = -1;
+		}
+	}
+
+	private Block takeParsedBlock() throws IOException {
+		try {
+			return parsedBlocks.take().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for " + elementName + " data.", e);
+		} catch (ExecutionException e) {
+			failure = e.getCause() instanceof IOException ? (IOException)e.getCause() :
+					new IOException("Failed to parse " + elementName + " data.", e.getCause());
+			throw failure;
+		}
+	}
+
+	/**
+	 * @param index the index of a vertex identifier at the start of the current line
+	 * @return the parsed vertex identifier
+	 */
+	long getId(int index) {
+		return currentBlock.ids[currentLine * idsPerLine + index];
+	}
+
+	/**
+	 * @return a tokenizer holding all tokens of the current line
+	 */
+	LineTokenizer getTokenizer() {
+		if (!lineTokenized) {
+			tokenizer.tokenize(currentBlock.buffer, currentBlock.lineStarts[currentLine],
+					currentBlock.lineEnds[currentLine]);
+			lineTokenized = true;
+		}
+		return tokenizer;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		readerThread.interrupt();
+		parsers.shutdownNow();
+		try {
+			readerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * A block of complete lines, with the offsets and leading vertex identifiers of each line once parsed.
+	 */
+	private static final class Block {
+
+		private static final int INITIAL_LINE_CAPACITY = 1 << 12;
+
+		private final byte[] data;
+		private final ByteBuffer buffer;
+		private final int idsPerLine;
+		private final LineTokenizer tokenizer = new LineTokenizer();
+		private int length;
+
+		private int lineCount;
+		private int[] lineStarts = new int[INITIAL_LINE_CAPACITY];
+		private int[] lineEnds = new int[INITIAL_LINE_CAPACITY];
+		private long[] ids;
+
+		private Block(int size, int idsPerLine) {
+			this.data = new byte[size];
+			this.buffer = ByteBuffer.wrap(data);
+			this.idsPerLine = idsPerLine;
+			this.ids = new long[INITIAL_LINE_CAPACITY * idsPerLine];
+		}
+
+		/**
+		 * Reads from the source until the block is full or the end of the source is reached.
+		 *
+		 * @return true iff the end of the source was reached
+		 */
+		private boolean fill(InputStream source) throws IOException {
+			while (length < data.length) {
+				int bytesRead = source.read(data, length, data.length - length);
+				if (bytesRead < 0) {
+					return true;
+				}
+				length += bytesRead;
+			}
+			return false;
+		}
+
+		/**
+		 * @return the offset directly after the last newline in the block, or -1 if the block contains no newline
+		 */
+		private int lastLineEnd() {
+			for (int i = length - 1; i >= 0; i--) {
+				if (data[i] == '\n') {
+					return i + 1;
+				}
+			}
+			return -1;
+		}
+
+		private void parse(String elementName) throws IOException {
+			lineCount = 0;
+			int position = 0;
+			while (position < length) {
+				int end = position;
+				while (end < length && data[end] != '\n') {
+					end++;
+				}
+				int tokenCount = tokenizer.tokenize(buffer, position, end);
+				if (tokenCount > 0) {
+					if (tokenCount < idsPerLine) {
+						throw new IOException("Malformed " + elementName + " data in stream: \"" +
+								tokenizer.lineToString() + "\".");
+					}
+					addLine(position, end);
+				}
+				position = end + 1;
+			}
+		}
+
+		private void addLine(int start, int end) throws IOException {
+			if (lineCount == lineStarts.length) {
+				lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+				lineEnds = Arrays.copyOf(lineEnds, lineCount * 2);
+				ids = Arrays.copyOf(ids, lineCount * 2 * idsPerLine);
+			}
+			lineStarts[lineCount] = start;
+			lineEnds[lineCount] = end;
+			for (int i = 0; i < idsPerLine; i++) {
+				ids[lineCount * idsPerLine + i] = tokenizer.parseLong(i);
+			}
+			lineCount++;
+		}
+
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Splits EVLP files into line-aligned byte ranges, so that the ranges can be read by separate threads (see the range
+ * factory methods of GraphFileStreams).
+ */
+public final class LineChunks {
+
+	private static final int BOUNDARY_SCAN_SIZE = 1 << 16;
+
+	/**
+	 * Prevent instantiation of utility class.
+	 */
+	private LineChunks() {
+	}
+
+	/**
+	 * @param path path of a graph file
+	 * @return true iff the file is an uncompressed EVLP file that can be split into byte ranges
+	 */
+	public static boolean isSplittable(String path) {
+		return Files.isRegularFile(Paths.get(path)) && !path.endsWith(GraphFileStreams.CSR_EXTENSION) &&
+				CompressionCodecs.forPath(path) == null;
+	}
+
+	/**
+	 * Splits a file into at most maximumChunks ranges of roughly equal size. Each boundary is moved forward to the
+	 * start of the next line, so no line is split between two ranges.
+	 *
+	 * @param source           the file to split
+	 * @param maximumChunks    the maximum number of ranges
+	 * @param minimumChunkSize the minimum number of bytes per range, to avoid the overhead of splitting small files
+	 * @return the offsets of the boundaries between chunks, starting with 0 and ending with the size of the file
+	 * @throws IOException iff the file could not be read
+	 */
+	public static long[] findBoundaries(Path source, int maximumChunks, long minimumChunkSize) throws IOException {
+		try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+			long size = channel.size();
+			int numberOfChunks = (int)Math.max(1, Math.min(maximumChunks, size / Math.max(minimumChunkSize, 1)));
+
+			long[] boundaries = new long[numberOfChunks + 1];
+			ByteBuffer scanBuffer = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+			for (int i = 1; i < numberOfChunks; i++) {
+				long nominal = Math.max(size / numberOfChunks * i, boundaries[i - 1]);
+				boundaries[i] = findNextLineStart(channel, nominal, size, scanBuffer);
+			}
+			boundaries[numberOfChunks] = size;
+			return boundaries;
+		}
+	}
+
+	private static long findNextLineStart(FileChannel channel, long offset, long size, ByteBuffer scanBuffer)
+			throws IOException {
+		if (offset == 0) {
+			return 0;
+		}
+		// A line starts at offset if the preceding byte is a newline, so start scanning at offset - 1
+		long position = offset - 1;
+		while (position < size) {
+			scanBuffer.clear();
+			int bytesRead = channel.read(scanBuffer, position);
+			if (bytesRead <= 0) {
+				break;
+			}
+			for (int i = 0; i < bytesRead; i++) {
+				if (scanBuffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += bytesRead;
+		}
+		return size;
+	}
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits a single line of EVLP data, stored as bytes in a ByteBuffer, into whitespace-separated tokens. Tokens are
+ * kept as offsets into the buffer, so identifiers and property values can be parsed or copied without creating
+ * intermediate String objects. A LineTokenizer is reused for every line of a stream.
+ */
+public final class LineTokenizer {
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private ByteBuffer buffer;
+	private ByteBuffer tokenView;
+	private int lineStart;
+	private int lineEnd;
+	private int[] tokenStarts = new int[INITIAL_CAPACITY];
+	private int[] tokenEnds = new int[INITIAL_CAPACITY];
+	private int tokenCount;
+	private byte[] scratch = new byte[64];
+	private final CharSequence chars = new BufferChars();
+
+	/**
+	 * Tokenizes the bytes in the range [start, end) of the given buffer. Any byte with a value up to and including
+	 * the space character is treated as a separator, matching the behaviour of String.trim().
+	 *
+	 * @param buffer the buffer containing the line
+	 * @param start  the offset of the first byte of the line
+	 * @param end    the offset directly after the last byte of the line
+	 * @return the number of tokens on the line
+	 */
+	public int tokenize(ByteBuffer buffer, int start, int end) {
+		if (this.buffer != buffer) {
+			this.buffer = buffer;
+			this.tokenView = null;
+		}
+		this.lineStart = start;
+		this.lineEnd = end;
+		this.tokenCount = 0;
+
+		int i = start;
+		while (i < end) {
+			while (i < end && isSeparator(buffer.get(i))) {
+				i++;
+			}
+			if (i == end) {
+				break;
+			}
+			int tokenStart = i;
+			while (i < end && !isSeparator(buffer.get(i))) {
+				i++;
+			}
+			addToken(tokenStart, i);
+		}
+		return tokenCount;
+	}
+
+	private static boolean isSeparator(byte b) {
+		return b >= 0 && b <= ' ';
+	}
+
+	private void addToken(int start, int end) {
+		if (tokenCount == tokenStarts.length) {
+			tokenStarts = Arrays.copyOf(tokenStarts, tokenCount * 2);
+			tokenEnds = Arrays.copyOf(tokenEnds, tokenCount * 2);
+		}
+		tokenStarts[tokenCount] = start;
+		tokenEnds[tokenCount] = end;
+		tokenCount++;
+	}
+
+	/**
+	 * @return the number of tokens on the current line
+	 */
+	public int getTokenCount() {
+		return tokenCount;
+	}
+
+	/**
+	 * @param token the index of a token on the current line
+	 * @return the length of the token in bytes
+	 */
+	public int getTokenLength(int token) {
+		return tokenEnds[token] - tokenStarts[token];
+	}
+
+	/**
+	 * Parses a token as a signed decimal long, with the same accepted syntax as Long.parseLong.
+	 *
+	 * @param token the index of a token on the current line
+	 * @return the parsed value
+	 * @throws IOException if the token is not a valid long
+	 */
+	public long parseLong(int token) throws IOException {
+		try {
+			return DecimalParser.parseLong(chars, tokenStarts[token], tokenEnds[token]);
+		} catch (NumberFormatException ex) {
+			throw malformedNumber(token);
+		}
+	}
+
+	/**
+	 * Parses a token as a double, with the same accepted syntax and result as Double.parseDouble. Plain decimals with
+	 * an integer mantissa below 2^53 (all digits, ignoring the decimal point) and an effective power of ten up to
+	 * 10^22 in magnitude are converted directly from the bytes; other values are decoded to a String and parsed by
+	 * Double.parseDouble.
+	 *
+	 * @param token the index of a token on the current line
+	 * @return the parsed value
+	 * @throws IOException if the token is not a valid double
+	 */
+	public double parseDouble(int token) throws IOException {
+		try {
+			return DecimalParser.parseDouble(chars, tokenStarts[token], tokenEnds[token]);
+		} catch (NumberFormatException ex) {
+			throw malformedNumber(token);
+		}
+	}
+
+	private IOException malformedNumber(int token) {
+		return new IOException("Failed to parse number from stream: \"" + getString(token) + "\".");
+	}
+
+	/**
+	 * Decodes a token to a String. Only intended for consumers that require String values, as this allocates.
+	 *
+	 * @param token the index of a token on the current line
+	 * @return the token as a String
+	 */
+	public String getString(int token) {
+		int length = copyToScratch(tokenStarts[token], tokenEnds[token]);
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodes a range of tokens into a String array, reusing the given array if it has the correct size.
+	 *
+	 * @param firstToken the index of the first token to decode
+	 * @param reuse      an array to reuse if possible, may be null
+	 * @return an array containing tokens firstToken up to the last token on the line
+	 */
+	public String[] getStrings(int firstToken, String[] reuse) {
+		int count = Math.max(tokenCount - firstToken, 0);
+		String[] values = reuse != null && reuse.length == count ? reuse : new String[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = getString(firstToken + i);
+		}
+		return values;
+	}
+
+	/**
+	 * Returns a view of the bytes of a token. The view is shared between calls and is only valid until the next call
+	 * to getTokenBytes or tokenize.
+	 *
+	 * @param token the index of a token on the current line
+	 * @return a buffer with its position and limit set to the bytes of the token
+	 */
+	ByteBuffer getTokenBytes(int token) {
+		if (tokenView == null) {
+			tokenView = buffer.duplicate();
+		}
+		tokenView.clear();
+		tokenView.limit(tokenEnds[token]);
+		tokenView.position(tokenStarts[token]);
+		return tokenView;
+	}
+
+	/**
+	 * @return the complete current line as a String, used for error messages
+	 */
+	public String lineToString() {
+		int length = copyToScratch(lineStart, lineEnd);
+		return new String(scratch, 0, length, StandardCharsets.UTF_8).trim();
+	}
+
+	private int copyToScratch(int start, int end) {
+		int length = end - start;
+		if (scratch.length < length) {
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		}
+		for (int i = 0; i < length; i++) {
+			scratch[i] = buffer.get(start + i);
+		}
+		return length;
+	}
+
+	/**
+	 * View of the current buffer as characters, indexed by buffer offset, for parsing numbers in place. Bytes are
+	 * mapped to the characters with the same code point, so only ASCII bytes can form digits.
+	 */
+	private final class BufferChars implements CharSequence {
+
+		@Override
+		public int length() {
+			return buffer.limit();
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char)(buffer.get(index) & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			int length = copyToScratch(start, end);
+			return new String(scratch, 0, length, StandardCharsets.ISO_8859_1);
+		}
+
+		@Override
+		public String toString() {
+			return subSequence(0, length()).toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * EdgeListStream that reads edge data from a memory-mapped file. Vertex identifiers are parsed directly from the
+ * mapped bytes, and edge properties are only decoded to Strings when they are requested.
+ */
+public class MappedEdgeListReader implements EdgeListStream, TokenizedLineStream {
+
+	private final LineTokenizer tokenizer = new LineTokenizer();
+	private final MappedLineReader lineReader;
+	private final MappedEdgeData cache = new MappedEdgeData(tokenizer);
+	private boolean cacheValid;
+
+	public MappedEdgeListReader(Path path) throws IOException {
+		this(path, MappedLineReader.DEFAULT_WINDOW_SIZE);
+	}
+
+	MappedEdgeListReader(Path path, int windowSize) throws IOException {
+		this.lineReader = new MappedLineReader(path, windowSize, tokenizer);
+	}
+
+	/**
+	 * Reads only the edges in a byte range of a file.
+	 *
+	 * @param path       the file to read
+	 * @param rangeStart offset of the first byte to read, must be the start of a line
+	 * @param rangeEnd   offset directly after the last byte to read, must be the end of a line or the file
+	 * @throws IOException if the file could not be opened
+	 */
+	MappedEdgeListReader(Path path, long rangeStart, long rangeEnd) throws IOException {
+		this.lineReader = new MappedLineReader(path, rangeStart, rangeEnd, MappedLineReader.DEFAULT_WINDOW_SIZE,
+				tokenizer);
+	}
+
+	@Override
+	public boolean hasNextEdge() throws IOException {
+		if (cacheValid) {
+			return true;
+		}
+		if (!lineReader.nextLine()) {
+			return false;
+		}
+
+		if (tokenizer.getTokenCount() < 2) {
+			throw new IOException("Malformed edge data in stream: \"" + tokenizer.lineToString() + "\".");
+		}
+		cache.setSourceId(tokenizer.parseLong(0));
+		cache.setDestinationId(tokenizer.parseLong(1));
+		cache.invalidateValues();
+
+		cacheValid = true;
+		return true;
+	}
+
+	@Override
+	public EdgeData getNextEdge() throws IOException {
+		if (!hasNextEdge()) {
+			throw new NoSuchElementException();
+		}
+
+		cacheValid = false;
+		return cache;
+	}
+
+	@Override
+	public LineTokenizer getTokenizer() {
+		return tokenizer;
+	}
+
+	@Override
+	public void close() throws IOException {
+		lineReader.close();
+	}
+
+	/**
+	 * EdgeData that decodes its property values from the current line of the tokenizer on first access.
+	 */
+	private static final class MappedEdgeData extends EdgeData {
+
+		private final LineTokenizer tokenizer;
+		private boolean valuesDecoded;
+
+		private MappedEdgeData(LineTokenizer tokenizer) {
+			this.tokenizer = tokenizer;
+		}
+
+		private void invalidateValues() {
+			valuesDecoded = false;
+		}
+
+		@Override
+		public String[] getValues() {
+			if (!valuesDecoded) {
+				setValues(tokenizer.getStrings(2, super.getValues()));
+				valuesDecoded = true;
+			}
+			return super.getValues();
+		}
+
+		@Override
+		public int getValueCount() {
+			return tokenizer.getTokenCount() - 2;
+		}
+
+		@Override
+		public void writeValue(int index, EvlpByteWriter writer) throws IOException {
+			if (index < 0 || index >= getValueCount()) {
+				throw new IOException("Missing property " + index + " in edge data: \"" +
+						tokenizer.lineToString() + "\".");
+			}
+			writer.writeToken(tokenizer, 2 + index);
+		}
+
+		@Override
+		public String toString() {
+			getValues();
+			return super.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads non-empty lines from a byte range of a file through a sliding memory-mapped window. Lines are handed to a
+ * LineTokenizer directly from the mapped buffer; no per-line objects are created. The window is remapped at the start
+ * of the first incomplete line whenever the end of the current window is reached.
+ */
+final class MappedLineReader implements AutoCloseable {
+
+	static final int DEFAULT_WINDOW_SIZE = 1 << 27;
+
+	private final FileChannel channel;
+	private final long rangeEnd;
+	private final int windowSize;
+	private final LineTokenizer tokenizer;
+
+	private ByteBuffer window;
+	private long windowOffset;
+	private int position;
+
+	/**
+	 * @param path       the file to read
+	 * @param rangeStart offset of the first byte to read, must be the start of a line
+	 * @param rangeEnd   offset directly after the last byte to read, must be the end of a line or the file
+	 * @param windowSize the maximum number of bytes to map at once, bounds the maximum line length
+	 * @param tokenizer  the tokenizer to pass each line to
+	 * @throws IOException if the file could not be opened
+	 */
+	MappedLineReader(Path path, long rangeStart, long rangeEnd, int windowSize, LineTokenizer tokenizer)
+			throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.rangeEnd = rangeEnd < 0 ? channel.size() : Math.min(rangeEnd, channel.size());
+		this.windowSize = windowSize;
+		this.tokenizer = tokenizer;
+		map(rangeStart);
+	}
+
+	MappedLineReader(Path path, int windowSize, LineTokenizer tokenizer) throws IOException {
+		this(path, 0, -1, windowSize, tokenizer);
+	}
+
+	private void map(long offset) throws IOException {
+		long length = Math.min(windowSize, rangeEnd - offset);
+		if (length <= 0) {
+			window = ByteBuffer.allocate(0);
+		} else {
+			window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+		}
+		windowOffset = offset;
+		position = 0;
+	}
+
+	/**
+	 * Advances to the next non-empty line and tokenizes it.
+	 *
+	 * @return true iff a line was found
+	 * @throws IOException if a line does not fit in the mapping window
+	 */
+	boolean nextLine() throws IOException {
+		while (true) {
+			int limit = window.limit();
+			boolean lastWindow = windowOffset + limit >= rangeEnd;
+			if (position == limit) {
+				if (lastWindow) {
+					return false;
+				}
+				map(windowOffset + position);
+				continue;
+			}
+
+			int end = position;
+			while (end < limit && window.get(end) != '\n') {
+				end++;
+			}
+
+			if (end == limit && !lastWindow) {
+				// The line continues beyond the current window
+				if (position == 0) {
+					throw new IOException("Line at offset " + windowOffset + " exceeds the maximum line length of " +
+							windowSize + " bytes.");
+				}
+				map(windowOffset + position);
+				continue;
+			}
+
+			int start = position;
+			position = end < limit ? end + 1 : end;
+			if (tokenizer.tokenize(window, start, end) > 0) {
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Array of 64-bit values backed by one or more memory-mapped segments of a file. Elements are addressed with a long
+ * index, so the array is not limited to 2^31 elements. Values are stored in little-endian byte order and can be
+ * accessed as long or as double.
+ */
+public final class MappedLongArray {
+
+	private static final int SEGMENT_SHIFT = 27;
+	private static final long SEGMENT_LENGTH = 1L << SEGMENT_SHIFT;
+	private static final long SEGMENT_MASK = SEGMENT_LENGTH - 1;
+
+	private final ByteBuffer[] segments;
+	private final long length;
+
+	private MappedLongArray(ByteBuffer[] segments, long length) {
+		this.segments = segments;
+		this.length = length;
+	}
+
+	/**
+	 * Maps a range of a file as an array of longs. In read-write mode the file is extended if needed.
+	 *
+	 * @param channel  the file to map
+	 * @param mode     the mapping mode
+	 * @param position the byte offset of the first element in the file
+	 * @param length   the number of elements in the array
+	 * @return the mapped array
+	 * @throws IOException if the file could not be mapped
+	 */
+	public static MappedLongArray map(FileChannel channel, FileChannel.MapMode mode, long position, long length)
+			throws IOException {
+		int segmentCount = (int)((length + SEGMENT_LENGTH - 1) >>> SEGMENT_SHIFT);
+		ByteBuffer[] segments = new ByteBuffer[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			long segmentElements = Math.min(SEGMENT_LENGTH, length - ((long)i << SEGMENT_SHIFT));
+			segments[i] = channel.map(mode, position + ((long)i << (SEGMENT_SHIFT + 3)), segmentElements << 3)
+					.order(ByteOrder.LITTLE_ENDIAN);
+		}
+		return new MappedLongArray(segments, length);
+	}
+
+	/**
+	 * @return the number of elements in the array
+	 */
+	public long length() {
+		return length;
+	}
+
+	public long get(long index) {
+		return segments[(int)(index >>> SEGMENT_SHIFT)].getLong((int)(index & SEGMENT_MASK) << 3);
+	}
+
+	public void set(long index, long value) {
+		segments[(int)(index >>> SEGMENT_SHIFT)].putLong((int)(index & SEGMENT_MASK) << 3, value);
+	}
+
+	public double getDouble(long index) {
+		return Double.longBitsToDouble(get(index));
+	}
+
+	public void setDouble(long index, double value) {
+		set(index, Double.doubleToRawLongBits(value));
+	}
+
+	/**
+	 * Copies the array to the heap.
+	 *
+	 * @return a long[] containing all elements of this array
+	 * @throws IllegalStateException if the array does not fit in a Java array
+	 */
+	public long[] toArray() {
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Array of length " + length + " does not fit in a Java array.");
+		}
+		long[] array = new long[(int)length];
+		int index = 0;
+		for (ByteBuffer segment : segments) {
+			ByteBuffer view = segment.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+			view.clear();
+			int count = view.remaining() >>> 3;
+			view.asLongBuffer().get(array, index, count);
+			index += count;
+		}
+		return array;
+	}
+
+	/**
+	 * Copies the array to the heap, interpreting each element as a double.
+	 *
+	 * @return a double[] containing all elements of this array
+	 * @throws IllegalStateException if the array does not fit in a Java array
+	 */
+	public double[] toDoubleArray() {
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Array of length " + length + " does not fit in a Java array.");
+		}
+		double[] array = new double[(int)length];
+		int index = 0;
+		for (ByteBuffer segment : segments) {
+			ByteBuffer view = segment.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+			view.clear();
+			int count = view.remaining() >>> 3;
+			view.asDoubleBuffer().get(array, index, count);
+			index += count;
+		}
+		return array;
+	}
+
+	/**
+	 * Flushes any changes to the underlying file.
+	 */
+	public void force() {
+		for (ByteBuffer segment : segments) {
+			if (segment instanceof MappedByteBuffer) {
+				((MappedByteBuffer)segment).force();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * VertexListStream that reads vertex data from a memory-mapped file. Vertex identifiers are parsed directly from the
+ * mapped bytes, and vertex properties are only decoded to Strings when they are requested.
+ */
+public class MappedVertexListReader implements VertexListStream, TokenizedLineStream {
+
+	private final LineTokenizer tokenizer = new LineTokenizer();
+	private final MappedLineReader lineReader;
+	private final MappedVertexData cache = new MappedVertexData(tokenizer);
+	private boolean cacheValid;
+
+	public MappedVertexListReader(Path path) throws IOException {
+		this(path, MappedLineReader.DEFAULT_WINDOW_SIZE);
+	}
+
+	MappedVertexListReader(Path path, int windowSize) throws IOException {
+		this.lineReader = new MappedLineReader(path, windowSize, tokenizer);
+	}
+
+	/**
+	 * Reads only the vertices in a byte range of a file.
+	 *
+	 * @param path       the file to read
+	 * @param rangeStart offset of the first byte to read, must be the start of a line
+	 * @param rangeEnd   offset directly after the last byte to read, must be the end of a line or the file
+	 * @throws IOException if the file could not be opened
+	 */
+	MappedVertexListReader(Path path, long rangeStart, long rangeEnd) throws IOException {
+		this.lineReader = new MappedLineReader(path, rangeStart, rangeEnd, MappedLineReader.DEFAULT_WINDOW_SIZE,
+				tokenizer);
+	}
+
+	@Override
+	public boolean hasNextVertex() throws IOException {
+		if (cacheValid) {
+			return true;
+		}
+		if (!lineReader.nextLine()) {
+			return false;
+		}
+
+		cache.setId(tokenizer.parseLong(0));
+		cache.invalidateValues();
+
+		cacheValid = true;
+		return true;
+	}
+
+	@Override
+	public VertexData getNextVertex() throws IOException {
+		if (!hasNextVertex()) {
+			throw new NoSuchElementException();
+		}
+
+		cacheValid = false;
+		return cache;
+	}
+
+	@Override
+	public LineTokenizer getTokenizer() {
+		return tokenizer;
+	}
+
+	@Override
+	public void close() throws IOException {
+		lineReader.close();
+	}
+
+	/**
+	 * VertexData that decodes its property values from the current line of the tokenizer on first access.
+	 */
+	private static final class MappedVertexData extends VertexData {
+
+		private final LineTokenizer tokenizer;
+		private boolean valuesDecoded;
+
+		private MappedVertexData(LineTokenizer tokenizer) {
+			this.tokenizer = tokenizer;
+		}
+
+		private void invalidateValues() {
+			valuesDecoded = false;
+		}
+
+		@Override
+		public String[] getValues() {
+			if (!valuesDecoded) {
+				setValues(tokenizer.getStrings(1, super.getValues()));
+				valuesDecoded = true;
+			}
+			return super.getValues();
+		}
+
+		@Override
+		public int getValueCount() {
+			return tokenizer.getTokenCount() - 1;
+		}
+
+		@Override
+		public void writeValue(int index, EvlpByteWriter writer) throws IOException {
+			if (index < 0 || index >= getValueCount()) {
+				throw new IOException("Missing property " + index + " in vertex data: \"" +
+						tokenizer.lineToString() + "\".");
+			}
+			writer.writeToken(tokenizer, 1 + index);
+		}
+
+		@Override
+		public String toString() {
+			getValues();
+			return super.toString();
+		}
+
+	}
+
+}
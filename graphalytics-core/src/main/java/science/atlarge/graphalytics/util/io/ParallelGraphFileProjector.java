@@ -0,0 +1,348 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filters and rearranges the properties of a vertex or edge file using multiple threads. The source file is split
+ * into line-aligned byte ranges, each range is projected to a separate segment file by a worker thread, and the
+ * segments are concatenated in order. The output is identical to that of a single VertexListPropertyFilter or
+ * EdgeListPropertyFilter applied to the whole file. Multiple target files can be generated from a single scan of the
+ * source file, each with its own selection of properties. Compressed source files and files that can not be mapped are
+ * read sequentially. Targets are written to temporary files and only renamed to their final path once complete.
+ */
+public final class ParallelGraphFileProjector {
+
+	/**
+	 * Minimum number of bytes per range, to avoid the overhead of splitting small files.
+	 */
+	static final long DEFAULT_MINIMUM_CHUNK_SIZE = 1L << 26;
+
+	private static final String TEMPORARY_EXTENSION = ".tmp";
+
+	private final int numberOfThreads;
+	private final long minimumChunkSize;
+
+	/**
+	 * @param numberOfThreads the number of worker threads to use
+	 */
+	public ParallelGraphFileProjector(int numberOfThreads) {
+		this(numberOfThreads, DEFAULT_MINIMUM_CHUNK_SIZE);
+	}
+
+	ParallelGraphFileProjector(int numberOfThreads, long minimumChunkSize) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("Number of threads must be at least 1, got " + numberOfThreads + ".");
+		}
+		this.numberOfThreads = numberOfThreads;
+		this.minimumChunkSize = Math.max(minimumChunkSize, 1);
+	}
+
+	/**
+	 * @param sourcePath            the EVLP vertex file to read
+	 * @param targetPath            the vertex file to write
+	 * @param propertyIndicesToKeep a list of property indices to copy to the output, see VertexListPropertyFilter
+	 * @throws IOException iff the source could not be read or the target could not be written
+	 */
+	public void projectVertexFile(String sourcePath, String targetPath, int[] propertyIndicesToKeep)
+			throws IOException {
+		projectVertexFile(sourcePath, new String[]{targetPath}, new int[][]{propertyIndicesToKeep});
+	}
+
+	/**
+	 * Generates multiple vertex files with a single scan of the source file.
+	 *
+	 * @param sourcePath            the EVLP vertex file to read
+	 * @param targetPaths           the vertex files to write
+	 * @param propertyIndicesToKeep for each target, a list of property indices to copy to the output
+	 * @throws IOException iff the source could not be read or a target could not be written
+	 */
+	public void projectVertexFile(String sourcePath, String[] targetPaths, final int[][] propertyIndicesToKeep)
+			throws IOException {
+		Path[] targets = toPaths(targetPaths);
+		Path[] temporaryTargets = toTemporaryPaths(targets);
+		try {
+			final Path source = Paths.get(sourcePath);
+			if (!Files.isRegularFile(source) || CompressionCodecs.forPath(sourcePath) != null) {
+				try (VertexListStream input = GraphFileStreams.openVertexList(sourcePath);
+					 VertexListStreamTee tee = new VertexListStreamTee(input, propertyIndicesToKeep,
+							 openOutputs(temporaryTargets))) {
+					tee.writeAll();
+				}
+			} else {
+				project(source, temporaryTargets, new SegmentProjection() {
+					@Override
+					public void project(long rangeStart, long rangeEnd, Path[] outputPaths) throws IOException {
+						try (VertexListStream input = new MappedVertexListReader(source, rangeStart, rangeEnd);
+							 VertexListStreamTee tee = new VertexListStreamTee(input, propertyIndicesToKeep,
+									 openOutputs(outputPaths))) {
+							tee.writeAll();
+						}
+					}
+				});
+			}
+			moveToTargets(temporaryTargets, targets);
+		} catch (IOException | RuntimeException e) {
+			deleteIncompleteTargets(temporaryTargets, targets);
+			throw e;
+		}
+	}
+
+	/**
+	 * @param sourcePath            the EVLP edge file to read
+	 * @param targetPath            the edge file to write
+	 * @param propertyIndicesToKeep a list of property indices to copy to the output, see EdgeListPropertyFilter
+	 * @throws IOException iff the source could not be read or the target could not be written
+	 */
+	public void projectEdgeFile(String sourcePath, String targetPath, int[] propertyIndicesToKeep)
+			throws IOException {
+		projectEdgeFile(sourcePath, new String[]{targetPath}, new int[][]{propertyIndicesToKeep});
+	}
+
+	/**
+	 * Generates multiple edge files with a single scan of the source file.
+	 *
+	 * @param sourcePath            the EVLP edge file to read
+	 * @param targetPaths           the edge files to write
+	 * @param propertyIndicesToKeep for each target, a list of property indices to copy to the output
+	 * @throws IOException iff the source could not be read or a target could not be written
+	 */
+	public void projectEdgeFile(String sourcePath, String[] targetPaths, final int[][] propertyIndicesToKeep)
+			throws IOException {
+		Path[] targets = toPaths(targetPaths);
+		Path[] temporaryTargets = toTemporaryPaths(targets);
+		try {
+			final Path source = Paths.get(sourcePath);
+			if (!Files.isRegularFile(source) || CompressionCodecs.forPath(sourcePath) != null) {
+				try (EdgeListStream input = GraphFileStreams.openEdgeList(sourcePath);
+					 EdgeListStreamTee tee = new EdgeListStreamTee(input, propertyIndicesToKeep,
+							 openOutputs(temporaryTargets))) {
+					tee.writeAll();
+				}
+			} else {
+				project(source, temporaryTargets, new SegmentProjection() {
+					@Override
+					public void project(long rangeStart, long rangeEnd, Path[] outputPaths) throws IOException {
+						try (EdgeListStream input = new MappedEdgeListReader(source, rangeStart, rangeEnd);
+							 EdgeListStreamTee tee = new EdgeListStreamTee(input, propertyIndicesToKeep,
+									 openOutputs(outputPaths))) {
+							tee.writeAll();
+						}
+					}
+				});
+			}
+			moveToTargets(temporaryTargets, targets);
+		} catch (IOException | RuntimeException e) {
+			deleteIncompleteTargets(temporaryTargets, targets);
+			throw e;
+		}
+	}
+
+	private static Path[] toPaths(String[] paths) {
+		Path[] result = new Path[paths.length];
+		for (int i = 0; i < paths.length; i++) {
+			result[i] = Paths.get(paths[i]);
+		}
+		return result;
+	}
+
+	private static Path[] toTemporaryPaths(Path[] targets) {
+		Path[] result = new Path[targets.length];
+		for (int i = 0; i < targets.length; i++) {
+			result[i] = Paths.get(targets[i].toString() + TEMPORARY_EXTENSION);
+		}
+		return result;
+	}
+
+	/**
+	 * Moves the completed temporary files to their final location, so a target file is never observed in a partially
+	 * written state, even if the process is killed during projection.
+	 */
+	private static void moveToTargets(Path[] temporaryTargets, Path[] targets) throws IOException {
+		for (int i = 0; i < targets.length; i++) {
+			Files.move(temporaryTargets[i], targets[i], StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+	}
+
+	private static void deleteIncompleteTargets(Path[] temporaryTargets, Path[] targets) {
+		for (int i = 0; i < targets.length; i++) {
+			try {
+				Files.deleteIfExists(temporaryTargets[i]);
+				// Do not leave an outdated version of a target behind if it was meant to be replaced
+				Files.deleteIfExists(targets[i]);
+			} catch (IOException e) {
+				// Ignore, the original failure is more relevant
+			}
+		}
+	}
+
+	private static WritableByteChannel[] openOutputs(Path[] paths) throws IOException {
+		WritableByteChannel[] outputs = new WritableByteChannel[paths.length];
+		try {
+			for (int i = 0; i < paths.length; i++) {
+				outputs[i] = FileChannel.open(paths[i], StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			}
+		} catch (IOException e) {
+			for (WritableByteChannel output : outputs) {
+				if (output != null) {
+					output.close();
+				}
+			}
+			throw e;
+		}
+		return outputs;
+	}
+
+	private void project(Path source, Path[] targets, final SegmentProjection projection) throws IOException {
+		final long[] boundaries = findChunkBoundaries(source);
+		int numberOfChunks = boundaries.length - 1;
+		if (numberOfChunks == 1) {
+			projection.project(boundaries[0], boundaries[1], targets);
+			return;
+		}
+
+		final Path[][] segments = new Path[numberOfChunks][targets.length];
+		for (int i = 0; i < numberOfChunks; i++) {
+			for (int t = 0; t < targets.length; t++) {
+				segments[i][t] = Paths.get(targets[t].toString() + ".part" + i);
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(numberOfThreads, numberOfChunks));
+		List<Future<Void>> results = new ArrayList<>(numberOfChunks);
+		try {
+			for (int i = 0; i < numberOfChunks; i++) {
+				final int chunk = i;
+				results.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws IOException {
+						projection.project(boundaries[chunk], boundaries[chunk + 1], segments[chunk]);
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> result : results) {
+				awaitSegment(result);
+			}
+
+			for (int t = 0; t < targets.length; t++) {
+				List<Path> targetSegments = new ArrayList<>(numberOfChunks);
+				for (int i = 0; i < numberOfChunks; i++) {
+					targetSegments.add(segments[i][t]);
+				}
+				concatenate(targetSegments, targets[t]);
+			}
+		} finally {
+			// Stop the remaining workers before deleting the segments, so none is recreated after the cleanup
+			for (Future<Void> result : results) {
+				result.cancel(true);
+			}
+			shutdownAndAwait(executor);
+			for (Path[] chunkSegments : segments) {
+				for (Path segment : chunkSegments) {
+					Files.deleteIfExists(segment);
+				}
+			}
+		}
+	}
+
+	private static void shutdownAndAwait(ExecutorService executor) {
+		executor.shutdownNow();
+		boolean interrupted = false;
+		while (true) {
+			try {
+				if (executor.awaitTermination(1, TimeUnit.SECONDS)) {
+					break;
+				}
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void awaitSegment(Future<Void> result) throws IOException {
+		try {
+			result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while projecting graph file.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException)e.getCause();
+			}
+			throw new IOException("Failed to project graph file.", e.getCause());
+		}
+	}
+
+	/**
+	 * Splits a file into at most numberOfThreads line-aligned ranges of roughly equal size, see LineChunks.
+	 *
+	 * @param source the file to split
+	 * @return the offsets of the boundaries between chunks, starting with 0 and ending with the size of the file
+	 * @throws IOException iff the file could not be read
+	 */
+	long[] findChunkBoundaries(Path source) throws IOException {
+		return LineChunks.findBoundaries(source, numberOfThreads, minimumChunkSize);
+	}
+
+	private static void concatenate(List<Path> segments, Path target) throws IOException {
+		try (FileChannel output = FileChannel.open(target, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			for (Path segment : segments) {
+				try (FileChannel input = FileChannel.open(segment, StandardOpenOption.READ)) {
+					long position = 0;
+					long size = input.size();
+					while (position < size) {
+						position += input.transferTo(position, size - position, output);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Projects a single byte range of the source file to one output file per target.
+	 */
+	private interface SegmentProjection {
+
+		void project(long rangeStart, long rangeEnd, Path[] outputPaths) throws IOException;
+
+	}
+
+}
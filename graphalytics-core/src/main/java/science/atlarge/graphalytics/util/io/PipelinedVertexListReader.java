@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * VertexListStream that reads vertex data from an InputStream with separate threads for I/O and parsing, see
+ * LineBlockPipeline. Intended for sources that are read sequentially and may block, e.g. compressed files, pipes and
+ * network-backed storage. Vertex properties are only decoded to Strings when they are requested.
+ */
+public class PipelinedVertexListReader implements VertexListStream, TokenizedLineStream {
+
+	private final LineBlockPipeline pipeline;
+	private final PipelinedVertexData cache;
+	private boolean cacheValid;
+
+	/**
+	 * @param inputStream the stream to read vertex data from, closed when this reader is closed
+	 */
+	public PipelinedVertexListReader(InputStream inputStream) {
+		this(inputStream, LineBlockPipeline.DEFAULT_BLOCK_SIZE, LineBlockPipeline.DEFAULT_PARSER_THREADS);
+	}
+
+	/**
+	 * @param inputStream   the stream to read vertex data from, closed when this reader is closed
+	 * @param blockSize     the size of the blocks read from the stream, bounds the maximum line length
+	 * @param parserThreads the number of threads parsing blocks
+	 */
+	public PipelinedVertexListReader(InputStream inputStream, int blockSize, int parserThreads) {
+		this.pipeline = new LineBlockPipeline(inputStream, 1, "vertex", blockSize, parserThreads);
+		this.cache = new PipelinedVertexData(pipeline);
+	}
+
+	@Override
+	public boolean hasNextVertex() throws IOException {
+		if (cacheValid) {
+			return true;
+		}
+		if (!pipeline.nextLine()) {
+			return false;
+		}
+
+		cache.setId(pipeline.getId(0));
+		cache.invalidateValues();
+
+		cacheValid = true;
+		return true;
+	}
+
+	@Override
+	public VertexData getNextVertex() throws IOException {
+		if (!hasNextVertex()) {
+			throw new NoSuchElementException();
+		}
+
+		cacheValid = false;
+		return cache;
+	}
+
+	@Override
+	public LineTokenizer getTokenizer() {
+		return pipeline.getTokenizer();
+	}
+
+	@Override
+	public void close() throws IOException {
+		pipeline.close();
+	}
+
+	/**
+	 * VertexData that tokenizes the current line and decodes its property values on first access.
+	 */
+	private static final class PipelinedVertexData extends VertexData {
+
+		private final LineBlockPipeline pipeline;
+		private boolean valuesDecoded;
+
+		private PipelinedVertexData(LineBlockPipeline pipeline) {
+			this.pipeline = pipeline;
+		}
+
+		private void invalidateValues() {
+			valuesDecoded = false;
+		}
+
+		@Override
+		public String[] getValues() {
+			if (!valuesDecoded) {
+				setValues(pipeline.getTokenizer().getStrings(1, super.getValues()));
+				valuesDecoded = true;
+			}
+			return super.getValues();
+		}
+
+		@Override
+		public int getValueCount() {
+			return pipeline.getTokenizer().getTokenCount() - 1;
+		}
+
+		@Override
+		public void writeValue(int index, EvlpByteWriter writer) throws IOException {
+			if (index < 0 || index >= getValueCount()) {
+				throw new IOException("Missing property " + index + " in vertex data: \"" +
+						pipeline.getTokenizer().lineToString() + "\".");
+			}
+			writer.writeToken(pipeline.getTokenizer(), 1 + index);
+		}
+
+		@Override
+		public String toString() {
+			getValues();
+			return super.toString();
+		}
+
+	}
+
+}
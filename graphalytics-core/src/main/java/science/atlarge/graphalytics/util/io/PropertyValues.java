@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+
+import java.io.IOException;
+
+/**
+ * Parsed property values of a single vertex or edge. Values of INTEGER properties are stored as longs and values of
+ * REAL properties as doubles, both indexed by the position of the property in the PropertyList. Instances are reused
+ * by typed streams for every record, so values must be copied if they are needed after the next record is read.
+ */
+public class PropertyValues {
+
+	private final PropertyType[] types;
+	private final long[] longValues;
+	private final double[] doubleValues;
+
+	/**
+	 * @param properties the properties of each vertex or edge
+	 */
+	public PropertyValues(PropertyList properties) {
+		this.types = new PropertyType[properties.size()];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = properties.get(i).getType();
+		}
+		this.longValues = new long[types.length];
+		this.doubleValues = new double[types.length];
+	}
+
+	/**
+	 * @return the number of properties
+	 */
+	public int getPropertyCount() {
+		return types.length;
+	}
+
+	/**
+	 * @param property the index of a property
+	 * @return the type of the property
+	 */
+	public PropertyType getType(int property) {
+		return types[property];
+	}
+
+	/**
+	 * @param property the index of an INTEGER property
+	 * @return the value of the property
+	 */
+	public long getLong(int property) {
+		return longValues[property];
+	}
+
+	/**
+	 * @param property the index of a REAL property
+	 * @return the value of the property
+	 */
+	public double getDouble(int property) {
+		return doubleValues[property];
+	}
+
+	void parse(String[] values) throws IOException {
+		checkPropertyCount(values.length);
+		for (int i = 0; i < types.length; i++) {
+			try {
+				if (types[i] == PropertyType.REAL) {
+					doubleValues[i] = Double.parseDouble(values[i]);
+				} else {
+					longValues[i] = Long.parseLong(values[i]);
+				}
+			} catch (NumberFormatException ex) {
+				throw new IOException("Failed to parse number from stream: \"" + values[i] + "\".", ex);
+			}
+		}
+	}
+
+	void parse(LineTokenizer tokenizer, int firstToken) throws IOException {
+		checkPropertyCount(tokenizer.getTokenCount() - firstToken);
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] == PropertyType.REAL) {
+				doubleValues[i] = tokenizer.parseDouble(firstToken + i);
+			} else {
+				longValues[i] = tokenizer.parseLong(firstToken + i);
+			}
+		}
+	}
+
+	private void checkPropertyCount(int count) throws IOException {
+		if (count != types.length) {
+			throw new IOException("Expected " + types.length + " properties, found " + count + ".");
+		}
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * InputStream that reads a source stream on a separate thread, a fixed number of blocks ahead of the consumer. Used to
+ * overlap expensive reads (e.g. decompression) with parsing. Blocks are recycled, so no memory is allocated after
+ * construction. Exceptions thrown by the source, checked or not, are rethrown to the consumer as IOExceptions.
+ */
+public final class ReadAheadInputStream extends InputStream {
+
+	static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+	static final int DEFAULT_NUMBER_OF_BLOCKS = 4;
+
+	private static final Block END_OF_STREAM = new Block(0);
+
+	private final InputStream source;
+	private final BlockingQueue<Block> freeBlocks;
+	private final BlockingQueue<Block> filledBlocks = new LinkedBlockingQueue<>();
+	private final Thread readerThread;
+	private volatile boolean closed;
+
+	private Block currentBlock;
+	private int position;
+
+	/**
+	 * @param source     the stream to read ahead of, closed when this stream is closed
+	 * @param threadName a descriptive name for the reader thread
+	 */
+	public ReadAheadInputStream(InputStream source, String threadName) {
+		this(source, threadName, DEFAULT_BLOCK_SIZE, DEFAULT_NUMBER_OF_BLOCKS);
+	}
+
+	ReadAheadInputStream(InputStream source, String threadName, int blockSize, int numberOfBlocks) {
+		this.source = source;
+		this.freeBlocks = new ArrayBlockingQueue<>(numberOfBlocks);
+		for (int i = 0; i < numberOfBlocks; i++) {
+			freeBlocks.add(new Block(blockSize));
+		}
+		this.readerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				readAhead();
+			}
+		}, threadName);
+		this.readerThread.setDaemon(true);
+		this.readerThread.start();
+	}
+
+	private void readAhead() {
+		try {
+			while (!closed) {
+				Block block = freeBlocks.take();
+				block.fill(source);
+				if (block.length > 0) {
+					filledBlocks.add(block);
+				}
+				if (block.length < block.data.length) {
+					filledBlocks.add(END_OF_STREAM);
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			// Closed by the consumer
+		} catch (Throwable e) {
+			// Includes unchecked exceptions of the source, which would otherwise leave the consumer waiting forever
+			filledBlocks.add(Block.failure(e));
+		} finally {
+			try {
+				source.close();
+			} catch (IOException e) {
+				// Ignore, the source has been read completely or the stream was closed
+			}
+		}
+	}
+
+	private boolean nextBlock() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed.");
+		}
+		if (currentBlock != null && currentBlock != END_OF_STREAM) {
+			freeBlocks.add(currentBlock);
+		}
+		try {
+			currentBlock = filledBlocks.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for data.", e);
+		}
+		position = 0;
+		if (currentBlock.error != null) {
+			Throwable error = currentBlock.error;
+			// Keep reporting the failure on subsequent reads
+			filledBlocks.add(currentBlock);
+			currentBlock = null;
+			throw new IOException("Failed to read from source stream.", error);
+		}
+		if (currentBlock == END_OF_STREAM) {
+			filledBlocks.add(END_OF_STREAM);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (currentBlock == null || position == currentBlock.length) {
+			if (!nextBlock()) {
+				return -1;
+			}
+		}
+		return currentBlock.data[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+		if (currentBlock == null || position == currentBlock.length) {
+			if (!nextBlock()) {
+				return -1;
+			}
+		}
+		int bytesRead = Math.min(length, currentBlock.length - position);
+		System.arraycopy(currentBlock.data, position, buffer, offset, bytesRead);
+		position += bytesRead;
+		return bytesRead;
+	}
+
+	@Override
+	public int available() {
+		return currentBlock == null ? 0 : currentBlock.length - position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		readerThread.interrupt();
+		try {
+			readerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final class Block {
+
+		private final byte[] data;
+		private int length;
+		private Throwable error;
+
+		private Block(int size) {
+			this.data = new byte[size];
+		}
+
+		private static Block failure(Throwable error) {
+			Block block = new Block(0);
+			block.error = error;
+			return block;
+		}
+
+		private void fill(InputStream source) throws IOException {
+			length = 0;
+			while (length < data.length) {
+				int bytesRead = source.read(data, length, data.length - length);
+				if (bytesRead < 0) {
+					break;
+				}
+				length += bytesRead;
+			}
+		}
+
+	}
+
+}
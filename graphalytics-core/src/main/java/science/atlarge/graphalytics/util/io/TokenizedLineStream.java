@@ -0,0 +1,31 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+/**
+ * Implemented by vertex and edge list streams that keep the current line in a LineTokenizer, so that consumers can
+ * parse property values directly from the raw bytes instead of decoding them to Strings first.
+ */
+interface TokenizedLineStream {
+
+	/**
+	 * @return the tokenizer holding the line of the element most recently returned by the stream
+	 */
+	LineTokenizer getTokenizer();
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+
+import java.io.IOException;
+
+/**
+ * Stream of edges with property values parsed to primitives according to a PropertyList.
+ */
+public interface TypedEdgeListStream extends AutoCloseable {
+
+	/**
+	 * @return true iff there is another edge available in the stream
+	 * @throws IOException if an error occurred while reading from the input stream
+	 */
+	boolean hasNextEdge() throws IOException;
+
+	/**
+	 * Reads the next edge from the stream. Warning: the returned TypedEdgeData object is reused for the next
+	 * call to getNextEdge. Throws a NoSuchElementException if no next element exists.
+	 *
+	 * @return the next edge
+	 * @throws IOException if an error occurred while reading from or parsing the input stream
+	 */
+	TypedEdgeData getNextEdge() throws IOException;
+
+	@Override
+	void close() throws IOException;
+
+	class TypedEdgeData extends PropertyValues {
+
+		private long sourceId;
+		private long destinationId;
+
+		public TypedEdgeData(PropertyList properties) {
+			super(properties);
+		}
+
+		public long getSourceId() {
+			return sourceId;
+		}
+
+		public long getDestinationId() {
+			return destinationId;
+		}
+
+		void setIds(long sourceId, long destinationId) {
+			this.sourceId = sourceId;
+			this.destinationId = destinationId;
+		}
+
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+
+import java.io.IOException;
+
+/**
+ * TypedVertexListStream that parses the properties of a VertexListStream according to a PropertyList. Values read
+ * from a memory-mapped file or a pipelined reader are parsed directly from the raw bytes, without decoding them to
+ * Strings; only real values that LineTokenizer.parseDouble can not convert exactly are decoded first.
+ */
+public class TypedVertexListReader implements TypedVertexListStream {
+
+	private final VertexListStream inputStream;
+	private final TokenizedLineStream tokenizedInputStream;
+	private final TypedVertexData cache;
+
+	/**
+	 * @param inputStream the underlying VertexListStream
+	 * @param properties  the properties of each vertex in the input stream
+	 */
+	public TypedVertexListReader(VertexListStream inputStream, PropertyList properties) {
+		this.inputStream = inputStream;
+		this.tokenizedInputStream = inputStream instanceof TokenizedLineStream ?
+				(TokenizedLineStream)inputStream : null;
+		this.cache = new TypedVertexData(properties);
+	}
+
+	@Override
+	public boolean hasNextVertex() throws IOException {
+		return inputStream.hasNextVertex();
+	}
+
+	@Override
+	public TypedVertexData getNextVertex() throws IOException {
+		VertexListStream.VertexData vertex = inputStream.getNextVertex();
+		cache.setId(vertex.getId());
+		if (tokenizedInputStream != null) {
+			cache.parse(tokenizedInputStream.getTokenizer(), 1);
+		} else {
+			cache.parse(vertex.getValues());
+		}
+		return cache;
+	}
+
+	@Override
+	public void close() throws IOException {
+		inputStream.close();
+	}
+
+}
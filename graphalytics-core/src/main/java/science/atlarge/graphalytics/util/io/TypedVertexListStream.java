@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+
+import java.io.IOException;
+
+/**
+ * Stream of vertexs with property values parsed to primitives according to a PropertyList.
+ */
+public interface TypedVertexListStream extends AutoCloseable {
+
+	/**
+	 * @return true iff there is another vertex available in the stream
+	 * @throws IOException if an error occurred while reading from the input stream
+	 */
+	boolean hasNextVertex() throws IOException;
+
+	/**
+	 * Reads the next vertex from the stream. Warning: the returned TypedVertexData object is reused for the next
+	 * call to getNextVertex. Throws a NoSuchElementException if no next element exists.
+	 *
+	 * @return the next vertex
+	 * @throws IOException if an error occurred while reading from or parsing the input stream
+	 */
+	TypedVertexData getNextVertex() throws IOException;
+
+	@Override
+	void close() throws IOException;
+
+	class TypedVertexData extends PropertyValues {
+
+		private long id;
+
+		public TypedVertexData(PropertyList properties) {
+			super(properties);
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		void setId(long id) {
+			this.id = id;
+		}
+
+	}
+
+}
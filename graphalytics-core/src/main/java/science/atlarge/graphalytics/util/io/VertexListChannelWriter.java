@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes a VertexListStream to a channel in the EVLP vertex-list format. Output is formatted directly into a
+ * direct ByteBuffer by an EvlpByteWriter, and property values read from a memory-mapped file are copied without
+ * being decoded, so no objects are allocated per vertex. Produces the same output as VertexListStreamWriter.
+ */
+public class VertexListChannelWriter implements AutoCloseable {
+
+	private final VertexListStream inputStream;
+	private final EvlpByteWriter writer;
+
+	/**
+	 * @param inputStream   the vertexs to write
+	 * @param outputChannel the channel to write to, closed when this writer is closed
+	 */
+	public VertexListChannelWriter(VertexListStream inputStream, WritableByteChannel outputChannel) {
+		this(inputStream, new EvlpByteWriter(outputChannel));
+	}
+
+	VertexListChannelWriter(VertexListStream inputStream, EvlpByteWriter writer) {
+		this.inputStream = inputStream;
+		this.writer = writer;
+	}
+
+	public void writeAll() throws IOException {
+		while (inputStream.hasNextVertex()) {
+			writeNextVertex();
+		}
+		writer.flush();
+	}
+
+	void writeNextVertex() throws IOException {
+		VertexListStream.VertexData vertexData = inputStream.getNextVertex();
+		writer.writeLong(vertexData.getId());
+		int valueCount = vertexData.getValueCount();
+		for (int i = 0; i < valueCount; i++) {
+			writer.writeSeparator();
+			vertexData.writeValue(i, writer);
+		}
+		writer.endLine();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+}
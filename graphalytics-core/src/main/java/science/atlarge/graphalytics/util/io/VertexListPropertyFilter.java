@@ -30,7 +30,7 @@ public class VertexListPropertyFilter implements VertexListStream {
 
 	private final VertexListStream inputStream;
 	private final int[] propertyIndicesToKeep;
-	private final VertexData cache = new VertexData();
+	private final FilteredVertexData cache;
 
 	/**
 	 * Construct a VertexListPropertyFilter that reads vertices from a VertexListStream, and filter and rearranges
@@ -43,7 +43,7 @@ public class VertexListPropertyFilter implements VertexListStream {
 	public VertexListPropertyFilter(VertexListStream inputStream, int[] propertyIndicesToKeep) {
 		this.inputStream = inputStream;
 		this.propertyIndicesToKeep = Arrays.copyOf(propertyIndicesToKeep, propertyIndicesToKeep.length);
-		this.cache.setValues(new String[propertyIndicesToKeep.length]);
+		this.cache = new FilteredVertexData(this.propertyIndicesToKeep);
 	}
 
 	@Override
@@ -55,12 +55,7 @@ public class VertexListPropertyFilter implements VertexListStream {
 	public VertexData getNextVertex() throws IOException {
 		VertexData inputData = inputStream.getNextVertex();
 		cache.setId(inputData.getId());
-
-		String[] inputValues = inputData.getValues();
-		String[] outputValues = cache.getValues();
-		for (int i = 0; i < propertyIndicesToKeep.length; i++) {
-			outputValues[i] = inputValues[propertyIndicesToKeep[i]];
-		}
+		cache.setInput(inputData);
 
 		return cache;
 	}
@@ -69,4 +64,57 @@ public class VertexListPropertyFilter implements VertexListStream {
 	public void close() throws IOException {
 		inputStream.close();
 	}
+
+	/**
+	 * VertexData that selects its property values from the current input vertex on first access. Values are copied
+	 * directly from the input vertex when written, without decoding them to Strings.
+	 */
+	private static final class FilteredVertexData extends VertexData {
+
+		private final int[] propertyIndicesToKeep;
+		private VertexData inputData;
+		private boolean valuesSelected;
+
+		private FilteredVertexData(int[] propertyIndicesToKeep) {
+			this.propertyIndicesToKeep = propertyIndicesToKeep;
+			setValues(new String[propertyIndicesToKeep.length]);
+		}
+
+		private void setInput(VertexData inputData) {
+			this.inputData = inputData;
+			this.valuesSelected = false;
+		}
+
+		@Override
+		public String[] getValues() {
+			String[] outputValues = super.getValues();
+			// Avoid decoding the input properties if none are kept
+			if (!valuesSelected && propertyIndicesToKeep.length > 0) {
+				String[] inputValues = inputData.getValues();
+				for (int i = 0; i < propertyIndicesToKeep.length; i++) {
+					outputValues[i] = inputValues[propertyIndicesToKeep[i]];
+				}
+			}
+			valuesSelected = true;
+			return outputValues;
+		}
+
+		@Override
+		public int getValueCount() {
+			return propertyIndicesToKeep.length;
+		}
+
+		@Override
+		public void writeValue(int index, EvlpByteWriter writer) throws IOException {
+			inputData.writeValue(propertyIndicesToKeep[index], writer);
+		}
+
+		@Override
+		public String toString() {
+			getValues();
+			return super.toString();
+		}
+
+	}
+
 }
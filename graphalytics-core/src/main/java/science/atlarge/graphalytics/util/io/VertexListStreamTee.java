@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.NoSuchElementException;
+
+/**
+ * Writes a single VertexListStream to multiple outputs in one pass, applying a different VertexListPropertyFilter
+ * for each output. Used to generate several derived vertex files from a source file with a single scan.
+ */
+final class VertexListStreamTee implements AutoCloseable {
+
+	/**
+	 * Smaller than the default buffer size, as many tees may be writing to many outputs concurrently.
+	 */
+	private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+
+	private final VertexListStream inputStream;
+	private final Branch[] branches;
+	private final VertexListChannelWriter[] writers;
+
+	/**
+	 * @param inputStream           the vertices to write
+	 * @param propertyIndicesToKeep for each output, a list of property indices to copy
+	 * @param outputChannels        the outputs to write to, closed when the tee is closed; the input is not closed
+	 */
+	VertexListStreamTee(VertexListStream inputStream, int[][] propertyIndicesToKeep,
+			WritableByteChannel[] outputChannels) {
+		this.inputStream = inputStream;
+		this.branches = new Branch[outputChannels.length];
+		this.writers = new VertexListChannelWriter[outputChannels.length];
+		for (int i = 0; i < outputChannels.length; i++) {
+			branches[i] = new Branch();
+			writers[i] = new VertexListChannelWriter(new VertexListPropertyFilter(branches[i], propertyIndicesToKeep[i]),
+					new EvlpByteWriter(outputChannels[i], OUTPUT_BUFFER_SIZE));
+		}
+	}
+
+	void writeAll() throws IOException {
+		while (inputStream.hasNextVertex()) {
+			VertexListStream.VertexData vertexData = inputStream.getNextVertex();
+			for (int i = 0; i < writers.length; i++) {
+				branches[i].offer(vertexData);
+				writers[i].writeNextVertex();
+			}
+		}
+		// All branches are drained, so this only flushes the outputs
+		for (VertexListChannelWriter writer : writers) {
+			writer.writeAll();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		IOException exception = null;
+		for (VertexListChannelWriter writer : writers) {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				exception = e;
+			}
+		}
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	/**
+	 * VertexListStream that yields the vertex most recently offered to it exactly once.
+	 */
+	private static final class Branch implements VertexListStream {
+
+		private VertexData next;
+
+		private void offer(VertexData vertexData) {
+			next = vertexData;
+		}
+
+		@Override
+		public boolean hasNextVertex() {
+			return next != null;
+		}
+
+		@Override
+		public VertexData getNextVertex() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			VertexData vertexData = next;
+			next = null;
+			return vertexData;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
@@ -17,28 +17,28 @@
  */
 package science.atlarge.graphalytics.validation;
 
-import it.unimi.dsi.fastutil.longs.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import science.atlarge.graphalytics.util.MemoryUtil;
-import science.atlarge.graphalytics.validation.rule.ValidationRule;
+import science.atlarge.graphalytics.validation.rule.DoubleValidationRule;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Collections;
-import java.util.concurrent.atomic.AtomicLong;
+import java.nio.file.Paths;
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /**
  * Class takes the output file generated by a platform for specific algorithm and the reference output for this algorithm.
  * Both files should be in graphalytics vertex file format. The values of the vertices are validate using the given validation
- * rule.
- *
+ * rule. Depending on the ValidationMode, both outputs are either loaded into memory, parsing files and comparing
+ * partitions on multiple threads, or sorted by vertex id in bounded memory and compared in a streaming merge. Rules
+ * that are order dependent, such as equivalence, are matched in ascending order of vertex id in both modes, on a
+ * single thread, so both modes and all numbers of threads report the same counts. In memory, vertex values are stored
+ * in flat arrays indexed by vertex id if the ids of the reference output are compact relative to the number of
+ * vertices of the graph, and in hash maps otherwise.
  *
  * @author Stijn Heldens
  * @author Tim Hegeman
@@ -46,141 +46,198 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class DoubleVertexValidator extends VertexValidator {
 	private static final Logger LOG = LogManager.getLogger(DoubleVertexValidator.class);
-	private static final long MAX_PRINT_ERROR_COUNT = 100;
+	private static final int PARTITIONS_PER_THREAD = 4;
 
 	final private Path outputPath;
 	final private Path validationFile;
-	final private ValidationRule<Double> rule;
+	final private DoubleValidationRule rule;
 	final private boolean verbose;
+	final private ValidationMode mode;
+	final private int externalRunSize;
+	final private int numberOfThreads;
+	final private long numberOfVertices;
+
+	private ValidationCounters counters;
+
+	public DoubleVertexValidator(Path outputPath, Path validationFile, DoubleValidationRule rule, boolean verbose) {
+		this(outputPath, validationFile, rule, verbose, ValidationMode.IN_MEMORY, DEFAULT_EXTERNAL_RUN_SIZE,
+				Runtime.getRuntime().availableProcessors(), -1);
+	}
 
-	public DoubleVertexValidator(Path outputPath, Path validationFile, ValidationRule<Double> rule, boolean verbose) {
+	/**
+	 * @param outputPath       the output file or directory of the platform
+	 * @param validationFile   the reference output file or directory
+	 * @param rule             the rule to parse and compare vertex values with
+	 * @param verbose          true iff the first errors should be logged
+	 * @param mode             the strategy used to match the vertices of both outputs
+	 * @param externalRunSize  the maximum number of vertices per side kept in memory in the external sort mode
+	 * @param numberOfThreads  the number of threads to parse and compare outputs with in the in-memory mode
+	 * @param numberOfVertices the number of vertices of the graph, or a non-positive value if unknown
+	 */
+	public DoubleVertexValidator(Path outputPath, Path validationFile, DoubleValidationRule rule, boolean verbose,
+			ValidationMode mode, int externalRunSize, int numberOfThreads, long numberOfVertices) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("Number of threads must be at least 1, got " + numberOfThreads + ".");
+		}
 		this.outputPath = outputPath;
 		this.validationFile = validationFile;
 		this.rule = rule;
 		this.verbose = verbose;
+		this.mode = mode;
+		this.externalRunSize = externalRunSize;
+		this.numberOfThreads = numberOfThreads;
+		this.numberOfVertices = numberOfVertices;
 	}
 
 	public boolean validate() throws ValidatorException {
-		Long2DoubleMap validationResults, outputResults;
-
 		LOG.info("Validating contents of '" + outputPath + "'...");
 		LOG.info(MemoryUtil.getMemoryStats());
 
-		try {
-			validationResults = parseFileOrDirectory(validationFile);
-		} catch (IOException e) {
-			throw new ValidatorException("Failed to read validation file '" + validationFile + "'");
+		counters = new ValidationCounters(LOG, verbose);
+		if (mode == ValidationMode.EXTERNAL_SORT) {
+			validateExternal();
+		} else {
+			validateInMemory();
 		}
+		boolean valid = counters.report();
 
-		try {
-			outputResults = parseFileOrDirectory(outputPath);
-		} catch (IOException e) {
-			throw new ValidatorException("Failed to read output file/directory '" + outputPath + "'");
-		}
+		LOG.info(MemoryUtil.getMemoryStats());
 
-		LongSet keys = new LongOpenHashSet(validationResults.keySet().size() + outputResults.keySet().size());
-		keys.addAll(validationResults.keySet());
-		keys.addAll(outputResults.keySet());
-
-		long errorsCount = 0;
-
-		long missingVertices = 0;
-		long unknownVertices = 0;
-		long incorrectVertices = 0;
-		long correctVertices = 0;
-
-		for (Long id: keys) {
-
-			String error = null;
-			Double outputValue = outputResults.get(id);
-			Double correctValue = validationResults.get(id);
-
-			if (outputValue == null) {
-				missingVertices++;
-				error = "Vertex " + id + " is missing";
-			} else if (correctValue == null) {
-				unknownVertices++;
-				error = "Vertex " + id + " is not a valid vertex";
-			} else if (!rule.match(outputValue, correctValue)) {
-				incorrectVertices++;
-				error = "Vertex " + id + " has value '" + outputValue + "', but valid value is '" + correctValue + "'";
-			} else {
-				correctVertices++;
-			}
+		return valid;
+	}
 
-			if (error != null) {
-				if (verbose && errorsCount < MAX_PRINT_ERROR_COUNT) {
-					LOG.info(" - " + error);
-				}
+	/**
+	 * @return the counts of the last validation
+	 */
+	ValidationCounters getCounters() {
+		return counters;
+	}
+
+	private void validateInMemory() throws ValidatorException {
+		PartitionedVertexValues.ValueParser parser = valueParser();
+		Supplier<PartitionedVertexValues.ValueMatcher> matchers = DoubleValueMatcher::new;
+		int numberOfPartitions = numberOfThreads * PARTITIONS_PER_THREAD;
 
-				errorsCount++;
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			PartitionedVertexValues validationResults, outputResults;
+			long denseBaseId;
+			int denseLength;
+
+			try {
+				PartitionedVertexValues.ParsedFiles parsedFiles = PartitionedVertexValues.parseFiles(validationFile,
+						parser, numberOfPartitions, executor);
+				denseBaseId = parsedFiles.getDenseBaseId();
+				denseLength = parsedFiles.getDenseLength(numberOfVertices);
+				validationResults = parsedFiles.toValues(denseBaseId, denseLength, executor);
+			} catch (IOException e) {
+				throw new ValidatorException("Failed to read validation file '" + validationFile + "'");
+			}
+			LOG.info(validationResults.isDense() ?
+					String.format("Storing vertex values in arrays for ids %d to %d.", denseBaseId,
+							denseBaseId + denseLength - 1) :
+					"Storing vertex values in hash maps.");
+
+			try {
+				outputResults = PartitionedVertexValues.parseFiles(outputPath, parser, numberOfPartitions, executor)
+						.toValues(denseBaseId, denseLength, executor);
+			} catch (IOException e) {
+				throw new ValidatorException("Failed to read output file/directory '" + outputPath + "'");
 			}
-		}
 
-		if (errorsCount >= MAX_PRINT_ERROR_COUNT) {
-			LOG.info(" - [" + (errorsCount - MAX_PRINT_ERROR_COUNT) + " errors have been omitted] ");
+			try {
+				PartitionedVertexValues.compare(validationResults, outputResults, matchers, rule.isOrderDependent(),
+						counters, executor);
+			} catch (IOException e) {
+				throw new ValidatorException("Failed to compare outputs", e);
+			}
+		} finally {
+			executor.shutdownNow();
 		}
+	}
 
-		if (errorsCount > 0) {
-			LOG.info("Validation failed.");
+	private void validateExternal() throws ValidatorException {
+		Path temporaryDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+		try (ExternalVertexSorter validationSorter = new ExternalVertexSorter(temporaryDirectory, externalRunSize);
+		     ExternalVertexSorter outputSorter = new ExternalVertexSorter(temporaryDirectory, externalRunSize)) {
+			try {
+				PartitionedVertexValues.parseFilesSequentially(validationFile, valueParser(), validationSorter::add);
+			} catch (IOException e) {
+				throw new ValidatorException("Failed to read validation file '" + validationFile + "'");
+			}
 
-			long totalVertices = correctVertices + incorrectVertices + missingVertices;
+			try {
+				PartitionedVertexValues.parseFilesSequentially(outputPath, valueParser(), outputSorter::add);
+			} catch (IOException e) {
+				throw new ValidatorException("Failed to read output file/directory '" + outputPath + "'");
+			}
 
-			LOG.info(String.format(" - Correct vertices: %d (%.2f%%)",
-					correctVertices, (100.0 * correctVertices) / totalVertices));
-			LOG.info(String.format(" - Incorrect vertices: %d (%.2f%%)",
-					incorrectVertices, (100.0 * incorrectVertices) / totalVertices));
-			LOG.info(String.format(" - Missing vertices: %d (%.2f%%)",
-					missingVertices, (100.0 * missingVertices) / totalVertices));
-			LOG.info(String.format(" - Unknown vertices: %d (%.2f%%)",
-					unknownVertices, (100.0 * unknownVertices) / totalVertices));
-		} else {
-			LOG.info("Validation is successful.");
+			LOG.info(String.format("Sorted outputs with %d and %d spilled runs.",
+					validationSorter.getNumberOfSpilledRuns(), outputSorter.getNumberOfSpilledRuns()));
+
+			try (SortedVertexStream validationResults = validationSorter.sorted();
+			     SortedVertexStream outputResults = outputSorter.sorted()) {
+				boolean hasCorrect = validationResults.next();
+				boolean hasOutput = outputResults.next();
+				while (hasCorrect || hasOutput) {
+					if (!hasOutput || (hasCorrect && validationResults.getId() < outputResults.getId())) {
+						counters.addMissing(validationResults.getId());
+						hasCorrect = validationResults.next();
+					} else if (!hasCorrect || outputResults.getId() < validationResults.getId()) {
+						counters.addUnknown(outputResults.getId());
+						hasOutput = outputResults.next();
+					} else {
+						long id = outputResults.getId();
+						double outputValue = Double.longBitsToDouble(outputResults.getValue());
+						double correctValue = Double.longBitsToDouble(validationResults.getValue());
+						if (!rule.match(outputValue, correctValue)) {
+							counters.addIncorrect(id, outputValue, correctValue);
+						} else {
+							counters.addCorrect();
+						}
+						hasCorrect = validationResults.next();
+						hasOutput = outputResults.next();
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new ValidatorException("Failed to merge sorted outputs", e);
 		}
-
-		LOG.info(MemoryUtil.getMemoryStats());
-
-		return errorsCount == 0;
 	}
 
-	private Long2DoubleMap parseFileOrDirectory(Path filePath) throws IOException {
-
-		LOG.info(String.format("Parsing file/directory %s.", filePath));
+	/**
+	 * @return a parser that stores double values as their raw long bits
+	 */
+	private PartitionedVertexValues.ValueParser valueParser() {
+		return (line, start, end) -> Double.doubleToRawLongBits(rule.parse(line, start, end));
+	}
 
-		final Long2DoubleMap results = new Long2DoubleOpenHashMap();
-		final AtomicLong counter = new AtomicLong(0);
+	/**
+	 * Converts batches of raw long bits to doubles before matching them with the rule.
+	 */
+	private final class DoubleValueMatcher implements PartitionedVertexValues.ValueMatcher {
 
-		Files.walkFileTree(filePath, new SimpleFileVisitor<Path>() {
-			@Override
-			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+		private double[] outputDoubles = new double[0];
+		private double[] correctDoubles = new double[0];
 
-				try(BufferedReader reader = new BufferedReader(new FileReader(file.toFile()))) {
-					String line;
-					while ((line = reader.readLine()) != null) {
-						line = line.trim();
+		@Override
+		public void matchAll(long[] ids, long[] outputValues, long[] correctValues, int length, BitSet mismatches) {
+			if (outputDoubles.length < length) {
+				outputDoubles = new double[length];
+				correctDoubles = new double[length];
+			}
+			for (int i = 0; i < length; i++) {
+				outputDoubles[i] = Double.longBitsToDouble(outputValues[i]);
+				correctDoubles[i] = Double.longBitsToDouble(correctValues[i]);
+			}
+			rule.matchAll(ids, outputDoubles, correctDoubles, length, mismatches);
+		}
 
-						if (line.isEmpty()) {
-							continue;
-						}
+		@Override
+		public void addIncorrect(long id, long outputValue, long correctValue, ValidationCounters counters) {
+			counters.addIncorrect(id, Double.longBitsToDouble(outputValue), Double.longBitsToDouble(correctValue));
+		}
 
-						String[] parts = line.split("\\s+", 2);
-						try {
-							Long vertexId = Long.parseLong(parts[0]);
-							Double vertexValue = rule.parse(parts.length > 1 ? parts[1] : "");
-							results.put(vertexId, vertexValue);
-							if(counter.incrementAndGet() % 100000000 == 0) {
-								LOG.debug(String.format("Parsed %s lines from %s.", counter.get(), file.getFileName().toString()));
-								LOG.debug(MemoryUtil.getMemoryStats());
-							}
-						} catch(Throwable e) {
-							LOG.error("Skipped invalid line '" + line + "' of file '" + file.getFileName().toString() + "'");
-						}
-					}
-					LOG.info(String.format("Parsed %s lines from %s.", results.size(), file.getFileName().toString()));
-				}
-				return FileVisitResult.CONTINUE;
-			}
-		});
-		return results;
 	}
+
 }
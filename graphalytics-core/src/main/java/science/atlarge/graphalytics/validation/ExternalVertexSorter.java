@@ -0,0 +1,386 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.validation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorts vertex values by vertex id in bounded memory. Vertices are collected in a run of at most runSize vertices,
+ * which is radix sorted and spilled to a temporary file when full. The sorted output is a k-way merge of the spilled
+ * runs and the last run, which is kept in memory. If a vertex id is added more than once, only the last value is kept,
+ * matching the behaviour of inserting all vertices into a map.
+ */
+final class ExternalVertexSorter implements AutoCloseable {
+
+	private static final int INITIAL_CAPACITY = 1 << 10;
+	private static final int IO_BUFFER_SIZE = 1 << 16;
+	private static final int RADIX_BITS = 8;
+	private static final int RADIX = 1 << RADIX_BITS;
+	private static final int RADIX_PASSES = Long.SIZE / RADIX_BITS;
+
+	private final Path temporaryDirectory;
+	private final int runSize;
+	private final List<Path> runFiles = new ArrayList<>();
+	private Path runDirectory;
+
+	private long[] ids;
+	private long[] values;
+	private long[] idBuffer = new long[0];
+	private long[] valueBuffer = new long[0];
+	private int size;
+
+	/**
+	 * @param temporaryDirectory the directory to create the directory for spilled runs in
+	 * @param runSize            the maximum number of vertices kept in memory
+	 */
+	ExternalVertexSorter(Path temporaryDirectory, int runSize) {
+		if (runSize < 1) {
+			throw new IllegalArgumentException("The run size must be positive.");
+		}
+		this.temporaryDirectory = temporaryDirectory;
+		this.runSize = runSize;
+		this.ids = new long[Math.min(INITIAL_CAPACITY, runSize)];
+		this.values = new long[ids.length];
+	}
+
+	/**
+	 * @param id    the id of a vertex
+	 * @param value the value of the vertex
+	 * @throws IOException if the current run could not be spilled
+	 */
+	void add(long id, long value) throws IOException {
+		if (size == runSize) {
+			spill();
+		} else if (size == ids.length) {
+			int capacity = (int)Math.min(runSize, 2L * ids.length);
+			ids = Arrays.copyOf(ids, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+		ids[size] = id;
+		values[size] = value;
+		size++;
+	}
+
+	/**
+	 * @return the number of runs spilled to disk so far
+	 */
+	int getNumberOfSpilledRuns() {
+		return runFiles.size();
+	}
+
+	/**
+	 * Sorts the vertices added so far. No vertices can be added afterwards.
+	 *
+	 * @return a stream of the added vertices in ascending order of id
+	 * @throws IOException if a spilled run could not be opened
+	 */
+	SortedVertexStream sorted() throws IOException {
+		sortRun();
+		SortedVertexStream memoryRun = new MemoryRun(ids, values, size);
+		if (runFiles.isEmpty()) {
+			return memoryRun;
+		}
+
+		List<SortedVertexStream> runs = new ArrayList<>(runFiles.size() + 1);
+		try {
+			for (Path runFile : runFiles) {
+				runs.add(new FileRun(runFile));
+			}
+		} catch (IOException ex) {
+			for (SortedVertexStream run : runs) {
+				run.close();
+			}
+			throw ex;
+		}
+		runs.add(memoryRun);
+		return new MergedRuns(runs);
+	}
+
+	private void spill() throws IOException {
+		sortRun();
+		if (runDirectory == null) {
+			runDirectory = Files.createTempDirectory(temporaryDirectory, "graphalytics-validation-");
+		}
+		Path runFile = runDirectory.resolve("run-" + runFiles.size());
+		runFiles.add(runFile);
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+				Files.newOutputStream(runFile), IO_BUFFER_SIZE))) {
+			for (int i = 0; i < size; i++) {
+				output.writeLong(ids[i]);
+				output.writeLong(values[i]);
+			}
+		}
+		size = 0;
+	}
+
+	/**
+	 * Sorts the current run by a stable LSD radix sort on the vertex ids, and removes all but the last occurrence of
+	 * duplicate vertex ids.
+	 */
+	private void sortRun() {
+		if (idBuffer.length < size) {
+			idBuffer = new long[ids.length];
+			valueBuffer = new long[ids.length];
+		}
+
+		int[][] counts = new int[RADIX_PASSES][RADIX];
+		for (int i = 0; i < size; i++) {
+			long key = ids[i] ^ Long.MIN_VALUE;
+			for (int pass = 0; pass < RADIX_PASSES; pass++) {
+				counts[pass][(int)(key >>> (pass * RADIX_BITS)) & (RADIX - 1)]++;
+			}
+		}
+
+		for (int pass = 0; pass < RADIX_PASSES; pass++) {
+			int[] offsets = counts[pass];
+			if (size == 0 || offsets[(int)((ids[0] ^ Long.MIN_VALUE) >>> (pass * RADIX_BITS)) & (RADIX - 1)] == size) {
+				// All ids share this digit
+				continue;
+			}
+			int offset = 0;
+			for (int digit = 0; digit < RADIX; digit++) {
+				int count = offsets[digit];
+				offsets[digit] = offset;
+				offset += count;
+			}
+			for (int i = 0; i < size; i++) {
+				int target = offsets[(int)((ids[i] ^ Long.MIN_VALUE) >>> (pass * RADIX_BITS)) & (RADIX - 1)]++;
+				idBuffer[target] = ids[i];
+				valueBuffer[target] = values[i];
+			}
+			long[] swap = ids;
+			ids = idBuffer;
+			idBuffer = swap;
+			swap = values;
+			values = valueBuffer;
+			valueBuffer = swap;
+		}
+
+		int unique = 0;
+		for (int i = 0; i < size; i++) {
+			if (i + 1 < size && ids[i + 1] == ids[i]) {
+				continue;
+			}
+			ids[unique] = ids[i];
+			values[unique] = values[i];
+			unique++;
+		}
+		size = unique;
+	}
+
+	/**
+	 * Deletes the spilled runs.
+	 */
+	@Override
+	public void close() throws IOException {
+		for (Path runFile : runFiles) {
+			Files.deleteIfExists(runFile);
+		}
+		runFiles.clear();
+		if (runDirectory != null) {
+			Files.deleteIfExists(runDirectory);
+			runDirectory = null;
+		}
+	}
+
+	private static final class MemoryRun implements SortedVertexStream {
+
+		private final long[] ids;
+		private final long[] values;
+		private final int size;
+		private int position = -1;
+
+		private MemoryRun(long[] ids, long[] values, int size) {
+			this.ids = ids;
+			this.values = values;
+			this.size = size;
+		}
+
+		@Override
+		public boolean next() {
+			if (position + 1 < size) {
+				position++;
+				return true;
+			}
+			position = size;
+			return false;
+		}
+
+		@Override
+		public long getId() {
+			return ids[position];
+		}
+
+		@Override
+		public long getValue() {
+			return values[position];
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+	private static final class FileRun implements SortedVertexStream {
+
+		private final DataInputStream input;
+		private long id;
+		private long value;
+
+		private FileRun(Path runFile) throws IOException {
+			this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(runFile), IO_BUFFER_SIZE));
+		}
+
+		@Override
+		public boolean next() throws IOException {
+			try {
+				id = input.readLong();
+			} catch (EOFException ex) {
+				return false;
+			}
+			value = input.readLong();
+			return true;
+		}
+
+		@Override
+		public long getId() {
+			return id;
+		}
+
+		@Override
+		public long getValue() {
+			return value;
+		}
+
+		@Override
+		public void close() throws IOException {
+			input.close();
+		}
+
+	}
+
+	/**
+	 * K-way merge of sorted runs using a binary heap of run indices, ordered by the current id of each run and then by
+	 * run index. Runs are added in insertion order, so for duplicate ids the value of the last run is kept.
+	 */
+	private static final class MergedRuns implements SortedVertexStream {
+
+		private final SortedVertexStream[] runs;
+		private final int[] heap;
+		private int heapSize;
+		private long id;
+		private long value;
+
+		private MergedRuns(List<SortedVertexStream> runs) throws IOException {
+			this.runs = runs.toArray(new SortedVertexStream[runs.size()]);
+			this.heap = new int[this.runs.length];
+			for (int run = 0; run < this.runs.length; run++) {
+				if (this.runs[run].next()) {
+					heap[heapSize++] = run;
+				}
+			}
+			for (int i = heapSize / 2 - 1; i >= 0; i--) {
+				siftDown(i);
+			}
+		}
+
+		@Override
+		public boolean next() throws IOException {
+			if (heapSize == 0) {
+				return false;
+			}
+			id = runs[heap[0]].getId();
+			do {
+				SortedVertexStream run = runs[heap[0]];
+				value = run.getValue();
+				if (run.next()) {
+					siftDown(0);
+				} else {
+					heap[0] = heap[--heapSize];
+					if (heapSize > 0) {
+						siftDown(0);
+					}
+				}
+			} while (heapSize > 0 && runs[heap[0]].getId() == id);
+			return true;
+		}
+
+		private void siftDown(int index) {
+			int run = heap[index];
+			while (true) {
+				int child = 2 * index + 1;
+				if (child >= heapSize) {
+					break;
+				}
+				if (child + 1 < heapSize && precedes(heap[child + 1], heap[child])) {
+					child++;
+				}
+				if (!precedes(heap[child], run)) {
+					break;
+				}
+				heap[index] = heap[child];
+				index = child;
+			}
+			heap[index] = run;
+		}
+
+		private boolean precedes(int run, int otherRun) {
+			long runId = runs[run].getId();
+			long otherId = runs[otherRun].getId();
+			return runId < otherId || (runId == otherId && run < otherRun);
+		}
+
+		@Override
+		public long getId() {
+			return id;
+		}
+
+		@Override
+		public long getValue() {
+			return value;
+		}
+
+		@Override
+		public void close() throws IOException {
+			IOException exception = null;
+			for (SortedVertexStream run : runs) {
+				try {
+					run.close();
+				} catch (IOException ex) {
+					exception = ex;
+				}
+			}
+			if (exception != null) {
+				throw exception;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,658 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.validation;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import science.atlarge.graphalytics.util.MemoryUtil;
+import science.atlarge.graphalytics.util.io.DecimalParser;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Vertex values of an output file or directory, partitioned by vertex id. Values are stored as raw longs; double
+ * values are stored as their bit patterns. Vertices with an id in an optional dense range are stored in a flat array
+ * indexed by id, with a bitset marking the present vertices; all other vertices are stored in primitive hash maps.
+ * Partitions are assigned per block of 64 consecutive ids, so every word of the bitset belongs to a single partition.
+ * <p>
+ * The files of a directory are parsed concurrently, each into per-partition buffers, after which every partition
+ * is filled concurrently by inserting the buffers of all files in the order in which they were found. If a vertex id
+ * occurs more than once, the last value is kept, exactly as when parsing the files sequentially into one map.
+ * <p>
+ * The dense range of the reference output is only known once all of its ids have been seen, so every vertex is
+ * buffered first, at 16 bytes per vertex plus growth slack, regardless of the range. The dense range therefore lowers
+ * the memory held while comparing, not the peak while parsing: during insertion the arrays are allocated while the
+ * buffers of partitions that have not been filled yet are still held.
+ */
+final class PartitionedVertexValues {
+
+	private static final Logger LOG = LogManager.getLogger(PartitionedVertexValues.class);
+
+	private static final long PARTITION_MIXER = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Maximum ratio between the length of the dense range and the number of vertices for which the dense range is
+	 * used. At this ratio the filled arrays take at most 16 bytes and 2 presence bits per vertex, less than a
+	 * Long2LongOpenHashMap entry at its default load factor.
+	 */
+	static final int MAXIMUM_DENSE_RANGE_FACTOR = 2;
+	static final int MAXIMUM_DENSE_LENGTH = Integer.MAX_VALUE - Long.SIZE;
+
+	private final Long2LongOpenHashMap[] partitions;
+	private final long denseBaseId;
+	private final int denseLength;
+	private final long[] denseValues;
+	private final long[] densePresence;
+
+	private PartitionedVertexValues(int numberOfPartitions, long denseBaseId, int denseLength) {
+		this.partitions = new Long2LongOpenHashMap[numberOfPartitions];
+		this.denseBaseId = denseBaseId;
+		this.denseLength = denseLength;
+		this.denseValues = new long[denseLength];
+		this.densePresence = new long[(denseLength + Long.SIZE - 1) / Long.SIZE];
+	}
+
+	/**
+	 * @return true iff a dense range is used
+	 */
+	boolean isDense() {
+		return denseLength > 0;
+	}
+
+	/**
+	 * @param filePath           an output file or a directory of output files
+	 * @param parser             the parser for vertex values
+	 * @param numberOfPartitions the number of partitions to divide the vertices over
+	 * @param executor           the executor to parse files on
+	 * @return the parsed files, to be converted to PartitionedVertexValues
+	 * @throws IOException if a file could not be read
+	 */
+	static ParsedFiles parseFiles(Path filePath, final ValueParser parser, final int numberOfPartitions,
+			ExecutorService executor) throws IOException {
+		LOG.info(String.format("Parsing file/directory %s.", filePath));
+
+		final List<Path> files = new ArrayList<>();
+		Files.walkFileTree(filePath, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				files.add(file);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+
+		final FileBuffers[] buffers = new FileBuffers[files.size()];
+		runInParallel(executor, files.size(), new Task() {
+			@Override
+			public void run(int index) throws IOException {
+				buffers[index] = parseFile(files.get(index), parser, numberOfPartitions);
+			}
+		});
+		return new ParsedFiles(buffers, numberOfPartitions);
+	}
+
+	/**
+	 * Parses the files of an output file or directory one at a time, in the same order as parseFiles, and passes every
+	 * vertex to the consumer. Used by the external sort mode, so both modes parse lines identically.
+	 *
+	 * @param filePath an output file or a directory of output files
+	 * @param parser   the parser for vertex values
+	 * @param consumer receives the id and raw value of every valid line
+	 * @throws IOException if a file could not be read, or the consumer failed
+	 */
+	static void parseFilesSequentially(Path filePath, final ValueParser parser, final VertexConsumer consumer)
+			throws IOException {
+		LOG.info(String.format("Parsing file/directory %s.", filePath));
+
+		final AtomicLong counter = new AtomicLong(0);
+		Files.walkFileTree(filePath, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(final Path file, BasicFileAttributes attrs) throws IOException {
+				parseLines(file, parser, new VertexConsumer() {
+					@Override
+					public void accept(long vertexId, long vertexValue) throws IOException {
+						consumer.accept(vertexId, vertexValue);
+						if (counter.incrementAndGet() % 100000000 == 0) {
+							LOG.debug(String.format("Parsed %s lines from %s.", counter.get(),
+									file.getFileName().toString()));
+							LOG.debug(MemoryUtil.getMemoryStats());
+						}
+					}
+				});
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static FileBuffers parseFile(Path file, ValueParser parser, int numberOfPartitions) throws IOException {
+		final FileBuffers buffers = new FileBuffers(numberOfPartitions);
+		parseLines(file, parser, new VertexConsumer() {
+			@Override
+			public void accept(long vertexId, long vertexValue) {
+				buffers.add(vertexId, vertexValue);
+			}
+		});
+		return buffers;
+	}
+
+	/**
+	 * Parses every line of a file in place: the vertex id up to the first whitespace, and the value from the next
+	 * non-whitespace character to the end of the trimmed line. Empty lines are ignored and invalid lines are logged
+	 * and skipped.
+	 */
+	private static void parseLines(Path file, ValueParser parser, VertexConsumer consumer) throws IOException {
+		long lines = 0;
+		try (BufferedReader reader = new BufferedReader(new FileReader(file.toFile()))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+
+				if (line.isEmpty()) {
+					continue;
+				}
+
+				long vertexId;
+				long vertexValue;
+				try {
+					int idEnd = 0;
+					while (idEnd < line.length() && !isSeparator(line.charAt(idEnd))) {
+						idEnd++;
+					}
+					int valueStart = idEnd;
+					while (valueStart < line.length() && isSeparator(line.charAt(valueStart))) {
+						valueStart++;
+					}
+					vertexId = DecimalParser.parseLong(line, 0, idEnd);
+					vertexValue = parser.parse(line, valueStart, line.length());
+				} catch (Throwable e) {
+					LOG.error("Skipped invalid line '" + line + "' of file '" + file.getFileName().toString() + "'");
+					continue;
+				}
+				consumer.accept(vertexId, vertexValue);
+				lines++;
+			}
+		}
+		LOG.info(String.format("Parsed %s lines from %s.", lines, file.getFileName().toString()));
+	}
+
+	/**
+	 * @return true iff the character is whitespace according to the \s regular expression class
+	 */
+	private static boolean isSeparator(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	static int partitionOf(long vertexId, int numberOfPartitions) {
+		return (int)((((vertexId >> 6) * PARTITION_MIXER) >>> 33) % numberOfPartitions);
+	}
+
+	/**
+	 * Compares every partition of the output to the same partition of the reference output in parallel. Every
+	 * partition is counted separately, after which the counts are merged into the given counters.
+	 * <p>
+	 * If the matcher is order dependent, the partitions only count missing and unknown vertices in parallel and
+	 * collect the ids of the vertices that occur in both outputs. These vertices are then matched by a single matcher
+	 * in ascending order of vertex id, the order of the external sort mode, so the counts do not depend on the number
+	 * of threads or on the validation mode.
+	 *
+	 * @param validationValues the reference output
+	 * @param outputValues     the output of the platform, with the same partitions and dense range
+	 * @param matchers         creates a matcher for the values of vertices that occur in both outputs, per thread
+	 * @param inIdOrder        true iff the matcher is order dependent and must see the vertices in ascending id order
+	 * @param counters         the counters to add the results to
+	 * @param executor         the executor to compare partitions on
+	 * @throws IOException if a comparison failed
+	 */
+	static void compare(final PartitionedVertexValues validationValues, final PartitionedVertexValues outputValues,
+			final Supplier<ValueMatcher> matchers, final boolean inIdOrder, ValidationCounters counters,
+			ExecutorService executor) throws IOException {
+		final int numberOfPartitions = validationValues.partitions.length;
+		final ValidationCounters[] partitionCounters = new ValidationCounters[numberOfPartitions];
+		for (int partition = 0; partition < numberOfPartitions; partition++) {
+			partitionCounters[partition] = counters.newPartition();
+		}
+		final long[][] commonIds = new long[numberOfPartitions][];
+
+		runInParallel(executor, numberOfPartitions, new Task() {
+			@Override
+			public void run(int partition) {
+				ValidationCounters partitionCounter = partitionCounters[partition];
+				MatchBatch batch = inIdOrder ? null : new MatchBatch(matchers.get(), partitionCounter);
+				// Dense ranges are compared in contiguous slices of words rather than by partition
+				int numberOfWords = validationValues.densePresence.length;
+				compareDense(validationValues, outputValues, batch, partitionCounter,
+						(int)((long)numberOfWords * partition / numberOfPartitions),
+						(int)((long)numberOfWords * (partition + 1) / numberOfPartitions));
+				Long2LongOpenHashMap validation = validationValues.partitions[partition];
+				if (inIdOrder) {
+					commonIds[partition] = new long[validation.size()];
+				}
+				int numberOfCommonIds = compareHashed(validation, outputValues.partitions[partition], batch,
+						commonIds[partition], partitionCounter);
+				if (inIdOrder) {
+					commonIds[partition] = Arrays.copyOf(commonIds[partition], numberOfCommonIds);
+				} else {
+					batch.flush();
+				}
+			}
+		});
+
+		for (ValidationCounters partitionCounter : partitionCounters) {
+			counters.merge(partitionCounter);
+		}
+		if (inIdOrder) {
+			ValidationCounters orderedCounter = counters.newPartition();
+			matchInIdOrder(validationValues, outputValues, commonIds,
+					new MatchBatch(matchers.get(), orderedCounter));
+			counters.merge(orderedCounter);
+		}
+	}
+
+	/**
+	 * Matches the vertices that occur in both outputs in ascending order of vertex id. Ids in the hash maps lie
+	 * outside of the dense range, so they are matched before or after the dense range.
+	 */
+	private static void matchInIdOrder(PartitionedVertexValues validationValues,
+			PartitionedVertexValues outputValues, long[][] commonIds, MatchBatch batch) {
+		int numberOfCommonIds = 0;
+		for (long[] ids : commonIds) {
+			numberOfCommonIds += ids.length;
+		}
+		long[] sortedIds = new long[numberOfCommonIds];
+		int offset = 0;
+		for (int partition = 0; partition < commonIds.length; partition++) {
+			System.arraycopy(commonIds[partition], 0, sortedIds, offset, commonIds[partition].length);
+			offset += commonIds[partition].length;
+			commonIds[partition] = null;
+		}
+		Arrays.parallelSort(sortedIds);
+
+		int next = 0;
+		for (; next < sortedIds.length && sortedIds[next] < validationValues.denseBaseId; next++) {
+			matchHashed(validationValues, outputValues, sortedIds[next], batch);
+		}
+		long[] validationPresence = validationValues.densePresence;
+		long[] outputPresence = outputValues.densePresence;
+		for (int word = 0; word < validationPresence.length; word++) {
+			for (long both = validationPresence[word] & outputPresence[word]; both != 0; both &= both - 1) {
+				int index = word * Long.SIZE + Long.numberOfTrailingZeros(both);
+				batch.add(validationValues.denseBaseId + index, outputValues.denseValues[index],
+						validationValues.denseValues[index]);
+			}
+		}
+		for (; next < sortedIds.length; next++) {
+			matchHashed(validationValues, outputValues, sortedIds[next], batch);
+		}
+		batch.flush();
+	}
+
+	private static void matchHashed(PartitionedVertexValues validationValues, PartitionedVertexValues outputValues,
+			long id, MatchBatch batch) {
+		int partition = partitionOf(id, validationValues.partitions.length);
+		batch.add(id, outputValues.partitions[partition].get(id), validationValues.partitions[partition].get(id));
+	}
+
+	/**
+	 * Counts the missing and unknown vertices of a slice of the dense range, and adds the vertices that occur in both
+	 * outputs to the batch, unless the batch is null.
+	 */
+	private static void compareDense(PartitionedVertexValues validationValues, PartitionedVertexValues outputValues,
+			MatchBatch batch, ValidationCounters counters, int firstWord, int lastWord) {
+		long[] validationPresence = validationValues.densePresence;
+		long[] outputPresence = outputValues.densePresence;
+		long baseId = validationValues.denseBaseId;
+		for (int word = firstWord; word < lastWord; word++) {
+			long expected = validationPresence[word];
+			long actual = outputPresence[word];
+			for (long missing = expected & ~actual; missing != 0; missing &= missing - 1) {
+				counters.addMissing(baseId + word * (long)Long.SIZE + Long.numberOfTrailingZeros(missing));
+			}
+			for (long unknown = actual & ~expected; unknown != 0; unknown &= unknown - 1) {
+				counters.addUnknown(baseId + word * (long)Long.SIZE + Long.numberOfTrailingZeros(unknown));
+			}
+			if (batch == null) {
+				continue;
+			}
+			for (long both = expected & actual; both != 0; both &= both - 1) {
+				int index = word * Long.SIZE + Long.numberOfTrailingZeros(both);
+				batch.add(baseId + index, outputValues.denseValues[index], validationValues.denseValues[index]);
+			}
+		}
+	}
+
+	/**
+	 * Counts the missing and unknown vertices of a partition. The vertices that occur in both outputs are added to
+	 * the batch or, if the batch is null, their ids are stored in commonIds.
+	 *
+	 * @return the number of ids stored in commonIds
+	 */
+	private static int compareHashed(Long2LongOpenHashMap validation, Long2LongOpenHashMap output,
+			MatchBatch batch, long[] commonIds, ValidationCounters counters) {
+		int numberOfCommonIds = 0;
+		ObjectIterator<Long2LongMap.Entry> entries = validation.long2LongEntrySet().fastIterator();
+		while (entries.hasNext()) {
+			Long2LongMap.Entry entry = entries.next();
+			long id = entry.getLongKey();
+			if (!output.containsKey(id)) {
+				counters.addMissing(id);
+			} else if (batch == null) {
+				commonIds[numberOfCommonIds++] = id;
+			} else {
+				batch.add(id, output.get(id), entry.getLongValue());
+			}
+		}
+
+		entries = output.long2LongEntrySet().fastIterator();
+		while (entries.hasNext()) {
+			long id = entries.next().getLongKey();
+			if (!validation.containsKey(id)) {
+				counters.addUnknown(id);
+			}
+		}
+		return numberOfCommonIds;
+	}
+
+	private static void runInParallel(ExecutorService executor, int numberOfTasks, final Task task)
+			throws IOException {
+		List<Future<Void>> results = new ArrayList<>(numberOfTasks);
+		for (int i = 0; i < numberOfTasks; i++) {
+			final int index = i;
+			results.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws IOException {
+					task.run(index);
+					return null;
+				}
+			}));
+		}
+		for (Future<Void> result : results) {
+			try {
+				result.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while validating output.", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException)e.getCause();
+				} else if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)e.getCause();
+				}
+				throw new IOException("Failed to validate output.", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Parses the value of a vertex, given as a range of a line, to a raw long.
+	 */
+	interface ValueParser {
+
+		long parse(CharSequence line, int start, int end) throws NumberFormatException;
+
+	}
+
+	/**
+	 * Receives the vertices parsed from an output.
+	 */
+	interface VertexConsumer {
+
+		void accept(long vertexId, long vertexValue) throws IOException;
+
+	}
+
+	/**
+	 * Compares the values of batches of vertices that occur in both outputs. A matcher is used by one thread at a time.
+	 */
+	interface ValueMatcher {
+
+		/**
+		 * Matches a batch of vertices. Bit i of mismatches is set iff vertex i does not match; the bits of the other
+		 * vertices in the batch are cleared.
+		 */
+		void matchAll(long[] ids, long[] outputValues, long[] correctValues, int length, BitSet mismatches);
+
+		/**
+		 * Counts an incorrect vertex, formatting its values in their original type.
+		 */
+		void addIncorrect(long id, long outputValue, long correctValue, ValidationCounters counters);
+
+	}
+
+	/**
+	 * Buffers vertices that occur in both outputs to match them in batches.
+	 */
+	private static final class MatchBatch {
+
+		private static final int BATCH_SIZE = 1024;
+
+		private final ValueMatcher matcher;
+		private final ValidationCounters counters;
+		private final long[] ids = new long[BATCH_SIZE];
+		private final long[] outputValues = new long[BATCH_SIZE];
+		private final long[] correctValues = new long[BATCH_SIZE];
+		private final BitSet mismatches = new BitSet(BATCH_SIZE);
+		private int length;
+
+		private MatchBatch(ValueMatcher matcher, ValidationCounters counters) {
+			this.matcher = matcher;
+			this.counters = counters;
+		}
+
+		private void add(long id, long outputValue, long correctValue) {
+			ids[length] = id;
+			outputValues[length] = outputValue;
+			correctValues[length] = correctValue;
+			length++;
+			if (length == BATCH_SIZE) {
+				flush();
+			}
+		}
+
+		private void flush() {
+			if (length == 0) {
+				return;
+			}
+			matcher.matchAll(ids, outputValues, correctValues, length, mismatches);
+			int incorrect = 0;
+			for (int i = mismatches.nextSetBit(0); i >= 0 && i < length; i = mismatches.nextSetBit(i + 1)) {
+				matcher.addIncorrect(ids[i], outputValues[i], correctValues[i], counters);
+				incorrect++;
+			}
+			counters.addCorrect(length - incorrect);
+			length = 0;
+		}
+
+	}
+
+	private interface Task {
+
+		void run(int index) throws IOException;
+
+	}
+
+	/**
+	 * The vertices parsed from all files of an output, divided over the partitions but not yet deduplicated.
+	 */
+	static final class ParsedFiles {
+
+		private final FileBuffers[] buffers;
+		private final int numberOfPartitions;
+
+		private ParsedFiles(FileBuffers[] buffers, int numberOfPartitions) {
+			this.buffers = buffers;
+			this.numberOfPartitions = numberOfPartitions;
+		}
+
+		/**
+		 * @return the number of parsed lines, including duplicate vertex ids
+		 */
+		long getNumberOfVertices() {
+			long numberOfVertices = 0;
+			for (FileBuffers fileBuffers : buffers) {
+				numberOfVertices += fileBuffers.numberOfVertices;
+			}
+			return numberOfVertices;
+		}
+
+		/**
+		 * Returns the first id of a dense range covering all parsed ids, aligned to a word of the presence bitset.
+		 *
+		 * @return the base id of the dense range
+		 */
+		long getDenseBaseId() {
+			long minimumId = Long.MAX_VALUE;
+			for (FileBuffers fileBuffers : buffers) {
+				minimumId = Math.min(minimumId, fileBuffers.minimumId);
+			}
+			return minimumId & -Long.SIZE;
+		}
+
+		/**
+		 * Computes the length of a dense range covering all parsed ids, if the ids are compact enough for a dense range
+		 * to use less memory than hash maps.
+		 *
+		 * @param expectedNumberOfVertices the number of vertices in the graph, or a non-positive value if unknown
+		 * @return the length of the dense range starting at getDenseBaseId, or 0 if no dense range should be used
+		 */
+		int getDenseLength(long expectedNumberOfVertices) {
+			long numberOfParsedVertices = getNumberOfVertices();
+			if (numberOfParsedVertices == 0) {
+				return 0;
+			}
+			long numberOfVertices = Math.max(expectedNumberOfVertices, numberOfParsedVertices);
+			long maximumId = Long.MIN_VALUE;
+			for (FileBuffers fileBuffers : buffers) {
+				maximumId = Math.max(maximumId, fileBuffers.maximumId);
+			}
+			long baseId = getDenseBaseId();
+			if (maximumId - baseId < 0 || maximumId - baseId >= MAXIMUM_DENSE_LENGTH ||
+					maximumId - baseId >= numberOfVertices * MAXIMUM_DENSE_RANGE_FACTOR) {
+				// The range is sparse, too large for an array, or overflows
+				return 0;
+			}
+			return (int)(maximumId - baseId + 1);
+		}
+
+		/**
+		 * Inserts the parsed vertices into partitions, storing vertices in the given dense range in arrays. The parsed
+		 * buffers are released while inserting.
+		 *
+		 * @param denseBaseId the first id of the dense range, must be a multiple of 64
+		 * @param denseLength the length of the dense range, or 0 to store all vertices in hash maps
+		 * @param executor    the executor to fill partitions on
+		 * @return the vertex values
+		 * @throws IOException if filling a partition failed
+		 */
+		PartitionedVertexValues toValues(final long denseBaseId, final int denseLength, ExecutorService executor)
+				throws IOException {
+			final PartitionedVertexValues values = new PartitionedVertexValues(numberOfPartitions, denseBaseId,
+					denseLength);
+			runInParallel(executor, numberOfPartitions, new Task() {
+				@Override
+				public void run(int partition) {
+					int size = 0;
+					if (denseLength == 0) {
+						for (FileBuffers fileBuffers : buffers) {
+							size += fileBuffers.sizes[partition];
+						}
+					}
+					Long2LongOpenHashMap map = new Long2LongOpenHashMap(size);
+					for (FileBuffers fileBuffers : buffers) {
+						long[] ids = fileBuffers.ids[partition];
+						long[] fileValues = fileBuffers.values[partition];
+						for (int i = 0; i < fileBuffers.sizes[partition]; i++) {
+							long index = ids[i] - denseBaseId;
+							if (ids[i] >= denseBaseId && index < denseLength) {
+								values.denseValues[(int)index] = fileValues[i];
+								values.densePresence[(int)(index >>> 6)] |= 1L << index;
+							} else {
+								map.put(ids[i], fileValues[i]);
+							}
+						}
+						fileBuffers.ids[partition] = null;
+						fileBuffers.values[partition] = null;
+					}
+					values.partitions[partition] = map;
+				}
+			});
+			return values;
+		}
+
+	}
+
+	/**
+	 * The vertices parsed from a single file, divided over the partitions.
+	 */
+	private static final class FileBuffers {
+
+		private static final int INITIAL_CAPACITY = 16;
+
+		private final long[][] ids;
+		private final long[][] values;
+		private final int[] sizes;
+		private long minimumId = Long.MAX_VALUE;
+		private long maximumId = Long.MIN_VALUE;
+		private long numberOfVertices;
+
+		private FileBuffers(int numberOfPartitions) {
+			this.ids = new long[numberOfPartitions][];
+			this.values = new long[numberOfPartitions][];
+			this.sizes = new int[numberOfPartitions];
+			for (int partition = 0; partition < numberOfPartitions; partition++) {
+				ids[partition] = new long[INITIAL_CAPACITY];
+				values[partition] = new long[INITIAL_CAPACITY];
+			}
+		}
+
+		private void add(long id, long value) {
+			int partition = partitionOf(id, sizes.length);
+			int size = sizes[partition];
+			if (size == ids[partition].length) {
+				ids[partition] = Arrays.copyOf(ids[partition], size * 2);
+				values[partition] = Arrays.copyOf(values[partition], size * 2);
+			}
+			ids[partition][size] = id;
+			values[partition][size] = value;
+			sizes[partition] = size + 1;
+			minimumId = Math.min(minimumId, id);
+			maximumId = Math.max(maximumId, id);
+			numberOfVertices++;
+		}
+
+	}
+
+}
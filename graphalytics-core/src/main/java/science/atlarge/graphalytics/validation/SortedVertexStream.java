@@ -0,0 +1,49 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.validation;
+
+import java.io.IOException;
+
+/**
+ * Stream of vertex values in ascending order of vertex id, with every vertex id occurring at most once. Values are
+ * stored as raw longs; double values are stored as their bit patterns.
+ */
+interface SortedVertexStream extends AutoCloseable {
+
+	/**
+	 * Advances to the next vertex.
+	 *
+	 * @return true iff there was a next vertex
+	 * @throws IOException if the vertex could not be read
+	 */
+	boolean next() throws IOException;
+
+	/**
+	 * @return the id of the current vertex
+	 */
+	long getId();
+
+	/**
+	 * @return the value of the current vertex
+	 */
+	long getValue();
+
+	@Override
+	void close() throws IOException;
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.validation;
+
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the correct, incorrect, missing and unknown vertices found by a vertex validator, logs the first errors, and
+ * reports the totals. Partitions of a validation can be counted concurrently by separate counters created through
+ * newPartition, which share the limit on the number of logged errors, and merged afterwards.
+ */
+final class ValidationCounters {
+
+	private static final long MAX_PRINT_ERROR_COUNT = 100;
+
+	private final Logger log;
+	private final boolean verbose;
+	private final AtomicLong printedErrors;
+
+	private long errorsCount;
+	private long missingVertices;
+	private long unknownVertices;
+	private long incorrectVertices;
+	private long correctVertices;
+
+	/**
+	 * @param log     the logger to report errors and totals to
+	 * @param verbose true iff the first errors should be logged
+	 */
+	ValidationCounters(Logger log, boolean verbose) {
+		this(log, verbose, new AtomicLong());
+	}
+
+	private ValidationCounters(Logger log, boolean verbose, AtomicLong printedErrors) {
+		this.log = log;
+		this.verbose = verbose;
+		this.printedErrors = printedErrors;
+	}
+
+	/**
+	 * @return new counters for a partition of the validation, to be merged into these counters
+	 */
+	ValidationCounters newPartition() {
+		return new ValidationCounters(log, verbose, printedErrors);
+	}
+
+	/**
+	 * @param partition the counters of a partition of the validation
+	 */
+	void merge(ValidationCounters partition) {
+		errorsCount += partition.errorsCount;
+		missingVertices += partition.missingVertices;
+		unknownVertices += partition.unknownVertices;
+		incorrectVertices += partition.incorrectVertices;
+		correctVertices += partition.correctVertices;
+	}
+
+	void addCorrect() {
+		correctVertices++;
+	}
+
+	void addCorrect(long count) {
+		correctVertices += count;
+	}
+
+	void addMissing(long id) {
+		missingVertices++;
+		if (reservePrintedError()) {
+			addError("Vertex " + id + " is missing");
+		} else {
+			errorsCount++;
+		}
+	}
+
+	void addUnknown(long id) {
+		unknownVertices++;
+		if (reservePrintedError()) {
+			addError("Vertex " + id + " is not a valid vertex");
+		} else {
+			errorsCount++;
+		}
+	}
+
+	void addIncorrect(long id, long outputValue, long correctValue) {
+		incorrectVertices++;
+		if (reservePrintedError()) {
+			addError("Vertex " + id + " has value '" + outputValue + "', but valid value is '" + correctValue + "'");
+		} else {
+			errorsCount++;
+		}
+	}
+
+	void addIncorrect(long id, double outputValue, double correctValue) {
+		incorrectVertices++;
+		if (reservePrintedError()) {
+			addError("Vertex " + id + " has value '" + outputValue + "', but valid value is '" + correctValue + "'");
+		} else {
+			errorsCount++;
+		}
+	}
+
+	/**
+	 * @return true iff the current error should be logged, in which case it counts towards the logged errors
+	 */
+	private boolean reservePrintedError() {
+		return verbose && printedErrors.get() < MAX_PRINT_ERROR_COUNT &&
+				printedErrors.incrementAndGet() <= MAX_PRINT_ERROR_COUNT;
+	}
+
+	private void addError(String error) {
+		log.info(" - " + error);
+		errorsCount++;
+	}
+
+	long getMissingVertices() {
+		return missingVertices;
+	}
+
+	long getUnknownVertices() {
+		return unknownVertices;
+	}
+
+	long getIncorrectVertices() {
+		return incorrectVertices;
+	}
+
+	long getCorrectVertices() {
+		return correctVertices;
+	}
+
+	/**
+	 * Logs the outcome of the validation.
+	 *
+	 * @return true iff no errors were found
+	 */
+	boolean report() {
+		if (errorsCount >= MAX_PRINT_ERROR_COUNT) {
+			log.info(" - [" + (errorsCount - MAX_PRINT_ERROR_COUNT) + " errors have been omitted] ");
+		}
+
+		if (errorsCount > 0) {
+			log.info("Validation failed.");
+
+			long totalVertices = correctVertices + incorrectVertices + missingVertices;
+
+			log.info(String.format(" - Correct vertices: %d (%.2f%%)",
+					correctVertices, (100.0 * correctVertices) / totalVertices));
+			log.info(String.format(" - Incorrect vertices: %d (%.2f%%)",
+					incorrectVertices, (100.0 * incorrectVertices) / totalVertices));
+			log.info(String.format(" - Missing vertices: %d (%.2f%%)",
+					missingVertices, (100.0 * missingVertices) / totalVertices));
+			log.info(String.format(" - Unknown vertices: %d (%.2f%%)",
+					unknownVertices, (100.0 * unknownVertices) / totalVertices));
+		} else {
+			log.info("Validation is successful.");
+		}
+		return errorsCount == 0;
+	}
+
+}
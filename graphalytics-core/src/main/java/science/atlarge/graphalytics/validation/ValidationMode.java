@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.validation;
+
+/**
+ * Strategy used by the vertex validators to match the vertices of the platform output to the reference output.
+ */
+public enum ValidationMode {
+
+	/**
+	 * Loads both outputs into memory, storing vertex values in flat arrays indexed by vertex id if the ids of the
+	 * reference output are compact and in hash maps otherwise, and compares them on multiple threads. Fast, but
+	 * requires both outputs to fit in memory.
+	 */
+	IN_MEMORY("memory"),
+
+	/**
+	 * Sorts both outputs by vertex id in bounded memory, spilling sorted runs to temporary files, and compares them in
+	 * a single streaming merge.
+	 */
+	EXTERNAL_SORT("external");
+
+	private final String name;
+
+	ValidationMode(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the name of the mode, as used in the benchmark configuration
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @param name the name of a validation mode
+	 * @return the validation mode with the given name, or null if no such mode exists
+	 */
+	public static ValidationMode fromName(String name) {
+		for (ValidationMode mode : values()) {
+			if (mode.name.equalsIgnoreCase(name.trim())) {
+				return mode;
+			}
+		}
+		return null;
+	}
+
+}
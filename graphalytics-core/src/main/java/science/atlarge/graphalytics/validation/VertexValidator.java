@@ -23,5 +23,11 @@ package science.atlarge.graphalytics.validation;
  * @author Wing Lung Ngai
  */
 public abstract class VertexValidator<E> {
+
+    /**
+     * Default maximum number of vertices kept in memory per side in the external sort validation mode.
+     */
+    public static final int DEFAULT_EXTERNAL_RUN_SIZE = 1 << 21;
+
     public abstract boolean validate() throws ValidatorException;
 }
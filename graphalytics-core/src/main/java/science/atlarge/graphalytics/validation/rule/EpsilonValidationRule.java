@@ -17,6 +17,8 @@
  */
 package science.atlarge.graphalytics.validation.rule;
 
+import science.atlarge.graphalytics.util.io.DecimalParser;
+
 /**
  * Validation rule which checks whether the output value equal to the reference value within
  * an error margin of x%.
@@ -24,7 +26,7 @@ package science.atlarge.graphalytics.validation.rule;
  * @author Stijn Heldens
  * @author Wing Lung Ngai
  */
-public class EpsilonValidationRule implements ValidationRule<Double> {
+public class EpsilonValidationRule implements DoubleValidationRule {
 
 	// The platform output should be within this margin of the reference output (i.e., |a-b|/b < threshold)
 	private final static double COMPARISON_THRESHOLD = 0.0001;
@@ -37,20 +39,37 @@ public class EpsilonValidationRule implements ValidationRule<Double> {
 
 
 	@Override
-	public Double parse(String val) throws NumberFormatException {
+	public double parse(CharSequence val) throws NumberFormatException {
+		return parse(val, 0, val.length());
+	}
+
+	@Override
+	public double parse(CharSequence val, int start, int end) throws NumberFormatException {
 
 		// According to the specifications for Java SE7, Double.parseDouble(String) will
 		// only consider the string "Infinity" (optionally prefixed with "+" or "-") to
 		// be a infinity value. Graphalytics will be more liberal in what is accepted.
-		String low = val.toLowerCase();
-
-		if (low.equals("inf") || low.equals("+inf") || low.equals("infinity") || low.equals("+infinity")) {
+		if (equalsIgnoreCase(val, start, end, "inf") || equalsIgnoreCase(val, start, end, "+inf") ||
+				equalsIgnoreCase(val, start, end, "infinity") || equalsIgnoreCase(val, start, end, "+infinity")) {
 			return Double.POSITIVE_INFINITY;
-		} else if (low.equals("-inf") || low.equals("-infinity")) {
+		} else if (equalsIgnoreCase(val, start, end, "-inf") || equalsIgnoreCase(val, start, end, "-infinity")) {
 			return Double.NEGATIVE_INFINITY;
 		}
 
-		return Double.parseDouble(val);
+		// Plain decimals are parsed in place, all other syntax accepted by Double.parseDouble requires a String
+		return DecimalParser.parseDouble(val, start, end);
+	}
+
+	private static boolean equalsIgnoreCase(CharSequence value, int start, int end, String lowerCase) {
+		if (end - start != lowerCase.length()) {
+			return false;
+		}
+		for (int i = 0; i < lowerCase.length(); i++) {
+			if (Character.toLowerCase(value.charAt(start + i)) != lowerCase.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	private static boolean isNearInfinity(double v) {
@@ -62,7 +81,7 @@ public class EpsilonValidationRule implements ValidationRule<Double> {
 	}
 
 	@Override
-	public boolean match(Double outputValue, Double correctValue) {
+	public boolean match(double outputValue, double correctValue) {
 
 		double a = outputValue;
 		double b = correctValue;
@@ -17,45 +17,63 @@
  */
 package science.atlarge.graphalytics.validation.rule;
 
-import java.util.HashMap;
-import java.util.Map;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import science.atlarge.graphalytics.util.io.DecimalParser;
 
 /**
- * Validation rule which checks if vertex values are identical under equivalence.
+ * Validation rule which checks if vertex values are identical under equivalence. The rule keeps the mapping between
+ * labels seen so far, so whether a vertex matches depends on the vertices matched before it. The rule is therefore
+ * order dependent and not thread-safe: the validators match all vertices on a single thread in ascending order of
+ * vertex id, which makes the counts deterministic.
  *
  * @author Stijn Heldens
  * @author Wing Lung Ngai
  */
-public class EquivalenceValidationRule implements ValidationRule<Long> {
-	private Map<Long, Long> leftMap;
-	private Map<Long, Long> rightMap;
+public class EquivalenceValidationRule implements LongValidationRule {
+	private static final long UNMAPPED = -1;
+
+	private final Long2LongMap leftMap;
+	private final Long2LongMap rightMap;
 	private long counter;
 
 	public EquivalenceValidationRule() {
-		leftMap = new HashMap<Long, Long>();
-		rightMap = new HashMap<Long, Long>();
+		leftMap = new Long2LongOpenHashMap();
+		leftMap.defaultReturnValue(UNMAPPED);
+		rightMap = new Long2LongOpenHashMap();
+		rightMap.defaultReturnValue(UNMAPPED);
 		counter = 0;
 	}
 
 	@Override
-	public Long parse(String val) throws NumberFormatException {
-		return Long.parseLong(val);
+	public long parse(CharSequence val) throws NumberFormatException {
+		return DecimalParser.parseLong(val, 0, val.length());
+	}
+
+	@Override
+	public long parse(CharSequence val, int start, int end) throws NumberFormatException {
+		return DecimalParser.parseLong(val, start, end);
+	}
+
+	@Override
+	public boolean isOrderDependent() {
+		return true;
 	}
 
 	@Override
-	public boolean match(Long left, Long right) {
-		Long a = leftMap.get(left);
-		Long b = rightMap.get(right);
+	public boolean match(long left, long right) {
+		long a = leftMap.get(left);
+		long b = rightMap.get(right);
 
-		// If a and b are both null then we have not seen these labels
+		// If a and b are both unmapped then we have not seen these labels
 		// before. Unify the labels by mapping them to the same value.
-		if (a == null && b == null) {
+		if (a == UNMAPPED && b == UNMAPPED) {
 			leftMap.put(left, counter);
 			rightMap.put(right, counter);
 			counter++;
 			return true;
 		}
 
-		return a != null && b != null & a.equals(b);
+		return a != UNMAPPED && b != UNMAPPED && a == b;
 	}
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.validation.rule;
+
+import java.util.BitSet;
+
+/**
+ * Specialization of ValidationRule for long vertex values, which parses and compares values without boxing. The
+ * boxed methods of ValidationRule delegate to the primitive methods.
+ */
+public interface LongValidationRule extends ValidationRule<Long> {
+
+	/**
+	 * @param value the textual representation of a vertex value
+	 * @return the parsed value
+	 * @throws NumberFormatException if the value could not be parsed
+	 */
+	long parse(CharSequence value) throws NumberFormatException;
+
+	/**
+	 * Parses a vertex value from a range of a character sequence. The default implementation parses a subsequence;
+	 * implementations should override it to parse the range in place.
+	 *
+	 * @param value the characters containing the textual representation of a vertex value
+	 * @param start the index of the first character of the value
+	 * @param end   the index directly after the last character of the value
+	 * @return the parsed value
+	 * @throws NumberFormatException if the value could not be parsed
+	 */
+	default long parse(CharSequence value, int start, int end) throws NumberFormatException {
+		return parse(value.subSequence(start, end));
+	}
+
+	/**
+	 * @param outputValue  the value of a vertex in the platform output
+	 * @param correctValue the value of the vertex in the reference output
+	 * @return true iff the output value is correct
+	 */
+	boolean match(long outputValue, long correctValue);
+
+	/**
+	 * Matches a batch of vertices. Bit i of mismatches is set iff vertex i does not match; the bits of the other
+	 * vertices in the batch are cleared.
+	 *
+	 * @param ids           the ids of the vertices
+	 * @param outputValues  the values of the vertices in the platform output
+	 * @param correctValues the values of the vertices in the reference output
+	 * @param length        the number of vertices in the batch
+	 * @param mismatches    the set of vertices that do not match
+	 */
+	default void matchAll(long[] ids, long[] outputValues, long[] correctValues, int length, BitSet mismatches) {
+		mismatches.clear(0, length);
+		for (int i = 0; i < length; i++) {
+			if (!match(outputValues[i], correctValues[i])) {
+				mismatches.set(i);
+			}
+		}
+	}
+
+	@Override
+	default Long parse(String value) throws NumberFormatException {
+		return parse((CharSequence)value);
+	}
+
+	@Override
+	default boolean match(Long outputValue, Long correctValue) {
+		return outputValue != null && correctValue != null && match(outputValue.longValue(), correctValue.longValue());
+	}
+
+}
@@ -17,6 +17,10 @@
  */
 package science.atlarge.graphalytics.validation.rule;
 
+import science.atlarge.graphalytics.util.io.DecimalParser;
+
+import java.util.BitSet;
+
 /**
  * Validation rule which checks if two longs are identical.
  *
@@ -24,15 +28,30 @@ package science.atlarge.graphalytics.validation.rule;
  * @author Tim Hegeman
  * @author Wing Lung Ngai
  */
-public class MatchLongValidationRule implements ValidationRule<Long> {
+public class MatchLongValidationRule implements LongValidationRule {
+
+	@Override
+	public long parse(CharSequence val) throws NumberFormatException {
+		return DecimalParser.parseLong(val, 0, val.length());
+	}
+
+	@Override
+	public long parse(CharSequence val, int start, int end) throws NumberFormatException {
+		return DecimalParser.parseLong(val, start, end);
+	}
 
 	@Override
-	public Long parse(String val) throws NumberFormatException {
-		return Long.parseLong(val);
+	public boolean match(long lhs, long rhs) {
+		return lhs == rhs;
 	}
 
 	@Override
-	public boolean match(Long lhs, Long rhs) {
-		return lhs != null && rhs != null && lhs.equals(rhs);
+	public void matchAll(long[] ids, long[] outputValues, long[] correctValues, int length, BitSet mismatches) {
+		mismatches.clear(0, length);
+		for (int i = 0; i < length; i++) {
+			if (outputValues[i] != correctValues[i]) {
+				mismatches.set(i);
+			}
+		}
 	}
 }
@@ -34,4 +34,12 @@ import science.atlarge.graphalytics.validation.VertexValidator;
 public interface ValidationRule<E> {
 	public E parse(String val) throws Throwable;
 	public boolean match(E lhs, E rhs);
+
+	/**
+	 * @return true iff the result of match depends on the vertices matched before, in which case the validators match
+	 *         the vertices one at a time in ascending order of vertex id
+	 */
+	public default boolean isOrderDependent() {
+		return false;
+	}
 }
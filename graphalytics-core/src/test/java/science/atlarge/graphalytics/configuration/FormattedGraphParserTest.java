@@ -23,8 +23,12 @@ import science.atlarge.graphalytics.domain.graph.PropertyList;
 import science.atlarge.graphalytics.domain.graph.PropertyType;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.PropertiesConfiguration;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 
 import static org.junit.Assert.assertEquals;
@@ -37,6 +41,9 @@ import static org.junit.Assert.assertEquals;
  */
 public class FormattedGraphParserTest {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Test
 	public void testParseGraphOnBasicConfiguration() throws InvalidConfigurationException {
 		final String ROOT_DIR = "graph-root-dir";
@@ -67,6 +74,21 @@ public class FormattedGraphParserTest {
 		assertGraphEqual(FIXTURE.getExpectedGraph(), parser.parseFormattedGraph());
 	}
 
+	@Test
+	public void testParseGraphWithCompressedVertexFile() throws InvalidConfigurationException, IOException {
+		final String ROOT_DIR = temporaryFolder.getRoot().getPath();
+		final Fixture FIXTURE = constructBasicGraph(ROOT_DIR);
+		final FormattedGraph EXPECTED_GRAPH = FIXTURE.getExpectedGraph();
+		Files.createFile(Paths.get(EXPECTED_GRAPH.getVertexFilePath() + ".gz"));
+		Files.createFile(Paths.get(EXPECTED_GRAPH.getEdgeFilePath()));
+
+		FormattedGraphParser parser = new FormattedGraphParser(FIXTURE.getConfiguration(),
+				FIXTURE.getGraphName(), ROOT_DIR);
+		FormattedGraph graph = parser.parseFormattedGraph();
+		assertEquals(EXPECTED_GRAPH.getVertexFilePath() + ".gz", graph.getVertexFilePath());
+		assertEquals(EXPECTED_GRAPH.getEdgeFilePath(), graph.getEdgeFilePath());
+	}
+
 	private static void assertGraphEqual(FormattedGraph expected, FormattedGraph actual) {
 		assertEquals(expected.getName(), actual.getName());
 		assertEquals(expected.getNumberOfVertices(), actual.getNumberOfVertices());
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for GraphCacheManager.
+ */
+public class GraphCacheManagerTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	/**
+	 * Creates a cache file of the given size with a manifest that was last modified at the given time.
+	 */
+	private File createCacheFile(String name, int size, long lastUsed) throws IOException {
+		File file = new File(temporaryFolder.getRoot(), name);
+		Files.write(file.toPath(), new byte[size]);
+		File manifest = new File(temporaryFolder.getRoot(), name + ".manifest");
+		Files.write(manifest.toPath(), new byte[0]);
+		Files.setLastModifiedTime(manifest.toPath(), FileTime.fromMillis(lastUsed));
+		return file;
+	}
+
+	@Test
+	public void testParseSize() {
+		assertEquals(100L, GraphCacheManager.parseSize("100"));
+		assertEquals(2L << 10, GraphCacheManager.parseSize("2k"));
+		assertEquals(3L << 30, GraphCacheManager.parseSize(" 3G "));
+		assertEquals(1L << 40, GraphCacheManager.parseSize("1t"));
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() throws IOException {
+		File oldest = createCacheFile("oldest.v", 100, 1000);
+		File middle = createCacheFile("middle.v", 100, 2000);
+		File newest = createCacheFile("newest.v", 100, 3000);
+
+		GraphCacheManager manager = new GraphCacheManager(250, Collections.<FormattedGraph>emptyList());
+		assertEquals(200, manager.evict(temporaryFolder.getRoot().toPath(), 100));
+
+		assertFalse(oldest.exists());
+		assertFalse(new File(oldest.getPath() + ".manifest").exists());
+		assertFalse(middle.exists());
+		assertTrue(newest.exists());
+	}
+
+	@Test
+	public void testEvictWithinBudget() throws IOException {
+		File file = createCacheFile("graph.v", 100, 1000);
+
+		GraphCacheManager manager = new GraphCacheManager(1000, Collections.<FormattedGraph>emptyList());
+		assertEquals(0, manager.evict(temporaryFolder.getRoot().toPath(), 100));
+		assertTrue(file.exists());
+	}
+
+	@Test
+	public void testRequiredFilesAreNotEvicted() throws IOException {
+		File required = createCacheFile("required.v", 100, 1000);
+		File other = createCacheFile("other.v", 100, 2000);
+		FormattedGraph requiredGraph = new FormattedGraph("graph", 0, 0, false, required.getPath(),
+				new File(temporaryFolder.getRoot(), "required.e").getPath(), new PropertyList(), new PropertyList());
+
+		GraphCacheManager manager = new GraphCacheManager(150, Collections.singletonList(requiredGraph));
+		assertEquals(100, manager.evict(temporaryFolder.getRoot().toPath(), 0));
+		assertTrue(required.exists());
+		assertFalse(other.exists());
+	}
+
+	@Test
+	public void testUnmanagedFilesAreNotEvicted() throws IOException {
+		File source = new File(temporaryFolder.getRoot(), "source.v");
+		Files.write(source.toPath(), new byte[1000]);
+
+		GraphCacheManager manager = new GraphCacheManager(10, Collections.<FormattedGraph>emptyList());
+		assertEquals(0, manager.evict(temporaryFolder.getRoot().toPath(), 0));
+		assertTrue(source.exists());
+	}
+
+}
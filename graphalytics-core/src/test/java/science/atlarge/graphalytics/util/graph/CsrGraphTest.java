@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.graph;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.domain.graph.Property;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test cases for CsrGraph and parsing it with PropertyGraphParser.
+ */
+public class CsrGraphTest {
+
+	private static final PropertyList VERTEX_PROPERTIES = new PropertyList(new Property("rank", PropertyType.INTEGER));
+	private static final PropertyList EDGE_PROPERTIES = new PropertyList(new Property("weight", PropertyType.REAL));
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File writeInput(String input) throws IOException {
+		File file = temporaryFolder.newFile();
+		Files.write(file.toPath(), input.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private CsrGraph parse(boolean isDirected) throws IOException {
+		File vertices = writeInput("30 3\n10 1\n20 2\n");
+		File edges = writeInput("10 20 0.5\n10 30 1.5\n30 10 2.5\n");
+		return PropertyGraphParser.parseCsrGraph(vertices.getPath(), edges.getPath(), isDirected,
+				VERTEX_PROPERTIES, EDGE_PROPERTIES);
+	}
+
+	@Test
+	public void testDenseVertexIndices() throws IOException {
+		CsrGraph graph = parse(true);
+
+		assertEquals(3, graph.getNumberOfVertices());
+		for (int vertex = 0; vertex < 3; vertex++) {
+			long id = (vertex + 1) * 10;
+			assertEquals(id, graph.getVertexId(vertex));
+			assertEquals(vertex, graph.getVertexIndex(id));
+			assertEquals(vertex + 1, graph.getVertexLongProperty(0, vertex));
+		}
+		assertEquals(-1, graph.getVertexIndex(15));
+	}
+
+	@Test
+	public void testDirectedAdjacency() throws IOException {
+		CsrGraph graph = parse(true);
+		int v10 = graph.getVertexIndex(10);
+		int v30 = graph.getVertexIndex(30);
+
+		assertEquals(3, graph.getNumberOfEdges());
+		assertEquals(2, graph.getOutDegree(v10));
+		int edge = graph.getOutEdgesBegin(v10) + 1;
+		assertEquals(v30, graph.getOutEdgeTarget(edge));
+		assertEquals(1.5, graph.getEdgeDoubleProperty(0, edge), 0.0);
+
+		assertEquals(1, graph.getInDegree(v10));
+		int position = graph.getInEdgesBegin(v10);
+		assertEquals(v30, graph.getInEdgeSource(position));
+		assertEquals(2.5, graph.getEdgeDoubleProperty(0, graph.getInEdge(position)), 0.0);
+		assertEquals(0, graph.getOutDegree(graph.getVertexIndex(20)));
+	}
+
+	@Test
+	public void testUndirectedAdjacency() throws IOException {
+		CsrGraph graph = parse(false);
+		int v20 = graph.getVertexIndex(20);
+
+		assertEquals(6, graph.getNumberOfEdges());
+		assertEquals(1, graph.getOutDegree(v20));
+		assertEquals(1, graph.getInDegree(v20));
+		int edge = graph.getOutEdgesBegin(v20);
+		assertEquals(graph.getVertexIndex(10), graph.getOutEdgeTarget(edge));
+		assertEquals(0.5, graph.getEdgeDoubleProperty(0, edge), 0.0);
+		assertEquals(0.5, graph.getEdgeDoubleProperty(0, graph.getInEdge(graph.getInEdgesBegin(v20))), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEdgeToMissingVertex() {
+		CsrGraph.Builder builder = new CsrGraph.Builder(true, new PropertyList(), new PropertyList());
+		builder.addVertex(1, null);
+		builder.addEdge(1, 2, null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateVertex() {
+		CsrGraph.Builder builder = new CsrGraph.Builder(true, new PropertyList(), new PropertyList());
+		builder.addVertex(1, null);
+		builder.addVertex(1, null);
+		builder.build();
+	}
+
+}
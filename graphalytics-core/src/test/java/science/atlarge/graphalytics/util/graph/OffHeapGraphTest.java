@@ -0,0 +1,199 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.graph;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.domain.graph.Property;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+import science.atlarge.graphalytics.util.io.CsrGraphFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for OffHeapGraph and PropertyGraphParser.parseOffHeapGraph.
+ */
+public class OffHeapGraphTest {
+
+	private static final PropertyList VERTEX_PROPERTIES = new PropertyList(new Property("rank", PropertyType.INTEGER));
+	private static final PropertyList EDGE_PROPERTIES = new PropertyList(new Property("weight", PropertyType.REAL));
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File writeInput(String input) throws IOException {
+		File file = temporaryFolder.newFile();
+		Files.write(file.toPath(), input.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private File[] generateGraph(int numberOfVertices, int numberOfEdges) throws IOException {
+		Random random = new Random(7);
+		StringBuilder vertices = new StringBuilder();
+		for (int i = numberOfVertices - 1; i >= 0; i--) {
+			vertices.append(i * 5).append(' ').append(-i).append('\n');
+		}
+		StringBuilder edges = new StringBuilder();
+		for (int i = 0; i < numberOfEdges; i++) {
+			edges.append(random.nextInt(numberOfVertices) * 5).append(' ')
+					.append(random.nextInt(numberOfVertices) * 5).append(' ')
+					.append(i).append(".25\n");
+		}
+		return new File[]{writeInput(vertices.toString()), writeInput(edges.toString())};
+	}
+
+	private static void assertGraphEquals(CsrGraph expected, OffHeapGraph actual) {
+		assertEquals(expected.isDirected(), actual.isDirected());
+		assertEquals(expected.getNumberOfVertices(), actual.getNumberOfVertices());
+		assertEquals(expected.getNumberOfEdges(), actual.getNumberOfEdges());
+		for (int v = 0; v < expected.getNumberOfVertices(); v++) {
+			assertEquals(expected.getVertexId(v), actual.getVertexId(v));
+			assertEquals(v, actual.getVertexIndex(expected.getVertexId(v)));
+			assertEquals(expected.getVertexLongProperty(0, v), actual.getVertexLongProperty(0, v));
+			assertEquals(expected.getOutDegree(v), actual.getOutDegree(v));
+			assertEquals(expected.getOutEdgesBegin(v), actual.getOutEdgesBegin(v));
+			assertEquals(expected.getInDegree(v), actual.getInDegree(v));
+			assertEquals(expected.getInEdgesBegin(v), actual.getInEdgesBegin(v));
+			for (int position = expected.getInEdgesBegin(v); position < expected.getInEdgesEnd(v); position++) {
+				assertEquals(expected.getInEdgeSource(position), actual.getInEdgeSource(position));
+				assertEquals(expected.getInEdge(position), actual.getInEdge(position));
+			}
+		}
+		for (int e = 0; e < expected.getNumberOfEdges(); e++) {
+			assertEquals(expected.getOutEdgeTarget(e), actual.getOutEdgeTarget(e));
+			assertEquals(expected.getEdgeDoubleProperty(0, e), actual.getEdgeDoubleProperty(0, e), 0.0);
+		}
+	}
+
+	private void testMatchesCsrGraph(boolean isDirected) throws IOException {
+		File[] input = generateGraph(300, 2000);
+		CsrGraph expected = PropertyGraphParser.parseCsrGraph(input[0].getPath(), input[1].getPath(), isDirected,
+				VERTEX_PROPERTIES, EDGE_PROPERTIES, 1);
+		Path store = temporaryFolder.getRoot().toPath().resolve("graph.ohg");
+		try (OffHeapGraph actual = PropertyGraphParser.parseOffHeapGraph(input[0].getPath(), input[1].getPath(),
+				isDirected, VERTEX_PROPERTIES, EDGE_PROPERTIES, store)) {
+			assertGraphEquals(expected, actual);
+		}
+		assertFalse(Files.exists(store.resolveSibling("graph.ohg.tmp")));
+	}
+
+	@Test
+	public void testDirectedGraphMatchesCsrGraph() throws IOException {
+		testMatchesCsrGraph(true);
+	}
+
+	@Test
+	public void testUndirectedGraphMatchesCsrGraph() throws IOException {
+		testMatchesCsrGraph(false);
+	}
+
+	@Test
+	public void testReopenWithoutRebuild() throws IOException {
+		File[] input = generateGraph(50, 200);
+		Path store = temporaryFolder.getRoot().toPath().resolve("graph.ohg");
+		PropertyGraphParser.parseOffHeapGraph(input[0].getPath(), input[1].getPath(), true, VERTEX_PROPERTIES,
+				EDGE_PROPERTIES, store).close();
+
+		// Remove the input to ensure the store does not depend on it
+		assertTrue(input[0].delete());
+		assertTrue(input[1].delete());
+		try (OffHeapGraph graph = OffHeapGraph.open(store)) {
+			assertEquals(50, graph.getNumberOfVertices());
+			assertEquals(200, graph.getNumberOfEdges());
+			assertEquals(-49, graph.getVertexLongProperty(0, graph.getVertexIndex(245)));
+			assertEquals(-1, graph.getVertexIndex(3));
+		}
+	}
+
+	@Test
+	public void testPropertyTypes() throws IOException {
+		File vertices = writeInput("1 4\n2 8\n");
+		File edges = writeInput("1 2 0.5\n");
+		Path store = temporaryFolder.getRoot().toPath().resolve("graph.ohg");
+		try (OffHeapGraph graph = PropertyGraphParser.parseOffHeapGraph(vertices.getPath(), edges.getPath(), false,
+				VERTEX_PROPERTIES, EDGE_PROPERTIES, store)) {
+			assertEquals(8, graph.getVertexLongProperty(0, 1));
+			assertEquals(0.5, graph.getEdgeDoubleProperty(0, 1), 0.0);
+			assertEquals(1, graph.getInEdge(1));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongPropertyTypeIsRejected() throws IOException {
+		File vertices = writeInput("1 4\n");
+		File edges = writeInput("");
+		Path store = temporaryFolder.getRoot().toPath().resolve("graph.ohg");
+		try (OffHeapGraph graph = PropertyGraphParser.parseOffHeapGraph(vertices.getPath(), edges.getPath(), true,
+				VERTEX_PROPERTIES, EDGE_PROPERTIES, store)) {
+			graph.getVertexDoubleProperty(0, 0);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingVertexIsRejected() throws IOException {
+		File vertices = writeInput("1 4\n");
+		File edges = writeInput("1 3 1.0\n");
+		Path store = temporaryFolder.getRoot().toPath().resolve("graph.ohg");
+		PropertyGraphParser.parseOffHeapGraph(vertices.getPath(), edges.getPath(), true, VERTEX_PROPERTIES,
+				EDGE_PROPERTIES, store).close();
+	}
+
+	@Test
+	public void testStoreIsCsrGraphFile() throws IOException {
+		File vertices = writeInput("3 4\n1 8\n");
+		File edges = writeInput("3 1 0.5\n");
+		Path store = temporaryFolder.getRoot().toPath().resolve("graph.ohg");
+		PropertyGraphParser.parseOffHeapGraph(vertices.getPath(), edges.getPath(), true, VERTEX_PROPERTIES,
+				EDGE_PROPERTIES, store).close();
+		try (CsrGraphFile file = CsrGraphFile.open(store)) {
+			assertTrue(file.isDirected());
+			assertTrue(file.hasSortedVertexIds());
+			assertTrue(file.hasInEdges());
+			assertFalse(file.isSymmetric());
+			assertEquals(1, file.getVertexIds().get(0));
+			assertEquals(3, file.getVertexIds().get(1));
+			assertEquals(0, file.getNeighbours().get(0));
+			assertEquals(1, file.getInSources().get(0));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedStoreIsRejected() throws IOException {
+		File vertices = writeInput("1 4\n2 8\n");
+		File edges = writeInput("1 2 0.5\n");
+		Path store = temporaryFolder.getRoot().toPath().resolve("graph.ohg");
+		PropertyGraphParser.parseOffHeapGraph(vertices.getPath(), edges.getPath(), true, VERTEX_PROPERTIES,
+				EDGE_PROPERTIES, store).close();
+		byte[] data = Files.readAllBytes(store);
+		Files.write(store, Arrays.copyOf(data, data.length - 8));
+		OffHeapGraph.open(store).close();
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.graph;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.domain.graph.Property;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test cases for ParallelCsrGraphLoader.
+ */
+public class ParallelCsrGraphLoaderTest {
+
+	private static final PropertyList VERTEX_PROPERTIES = new PropertyList(new Property("rank", PropertyType.INTEGER));
+	private static final PropertyList EDGE_PROPERTIES = new PropertyList(new Property("weight", PropertyType.REAL));
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File writeInput(String input) throws IOException {
+		File file = temporaryFolder.newFile();
+		Files.write(file.toPath(), input.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private File[] generateGraph(int numberOfVertices, int numberOfEdges) throws IOException {
+		Random random = new Random(42);
+		StringBuilder vertices = new StringBuilder();
+		for (int i = numberOfVertices - 1; i >= 0; i--) {
+			vertices.append(i * 3).append(' ').append(i).append('\n');
+		}
+		StringBuilder edges = new StringBuilder();
+		for (int i = 0; i < numberOfEdges; i++) {
+			edges.append(random.nextInt(numberOfVertices) * 3).append(' ')
+					.append(random.nextInt(numberOfVertices) * 3).append(' ')
+					.append(i).append(".5\n");
+		}
+		return new File[]{writeInput(vertices.toString()), writeInput(edges.toString())};
+	}
+
+	private static void assertGraphEquals(CsrGraph expected, CsrGraph actual) {
+		assertEquals(expected.getNumberOfVertices(), actual.getNumberOfVertices());
+		assertEquals(expected.getNumberOfEdges(), actual.getNumberOfEdges());
+		for (int v = 0; v < expected.getNumberOfVertices(); v++) {
+			assertEquals(expected.getVertexId(v), actual.getVertexId(v));
+			assertEquals(expected.getVertexLongProperty(0, v), actual.getVertexLongProperty(0, v));
+			assertEquals(expected.getOutEdgesBegin(v), actual.getOutEdgesBegin(v));
+			assertEquals(expected.getOutEdgesEnd(v), actual.getOutEdgesEnd(v));
+			assertEquals(expected.getInEdgesBegin(v), actual.getInEdgesBegin(v));
+			assertEquals(expected.getInEdgesEnd(v), actual.getInEdgesEnd(v));
+		}
+		for (int e = 0; e < expected.getNumberOfEdges(); e++) {
+			assertEquals(expected.getOutEdgeTarget(e), actual.getOutEdgeTarget(e));
+			assertEquals(expected.getEdgeDoubleProperty(0, e), actual.getEdgeDoubleProperty(0, e), 0.0);
+			assertEquals(expected.getInEdgeSource(e), actual.getInEdgeSource(e));
+			assertEquals(expected.getInEdge(e), actual.getInEdge(e));
+		}
+	}
+
+	private void testMatchesSequentialBuild(boolean isDirected) throws IOException {
+		File[] files = generateGraph(500, 5000);
+		CsrGraph expected = PropertyGraphParser.parseCsrGraph(files[0].getPath(), files[1].getPath(), isDirected,
+				VERTEX_PROPERTIES, EDGE_PROPERTIES, 1);
+		for (int threads : new int[]{2, 3, 8}) {
+			CsrGraph actual = new ParallelCsrGraphLoader(threads, 64).load(files[0].getPath(), files[1].getPath(),
+					isDirected, VERTEX_PROPERTIES, EDGE_PROPERTIES);
+			assertGraphEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void testDirectedMatchesSequentialBuild() throws IOException {
+		testMatchesSequentialBuild(true);
+	}
+
+	@Test
+	public void testUndirectedMatchesSequentialBuild() throws IOException {
+		testMatchesSequentialBuild(false);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEdgeToMissingVertex() throws IOException {
+		File vertices = writeInput("1\n2\n");
+		File edges = writeInput("1 2\n2 3\n");
+		new ParallelCsrGraphLoader(2, 1).load(vertices.getPath(), edges.getPath(), true, new PropertyList(),
+				new PropertyList());
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for CompressionCodecs and reading compressed graph files through GraphFileStreams.
+ */
+public class CompressionCodecsTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File writeCompressed(String name, String input) throws IOException {
+		File file = temporaryFolder.newFile(name);
+		try (OutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
+			output.write(input.getBytes(StandardCharsets.UTF_8));
+		}
+		return file;
+	}
+
+	@Test
+	public void testForPath() {
+		assertTrue(CompressionCodecs.forPath("graph.e.gz") instanceof GzipCompressionCodec);
+		assertNull(CompressionCodecs.forPath("graph.e"));
+	}
+
+	@Test
+	public void testFindFile() throws IOException {
+		File plain = temporaryFolder.newFile("plain.v");
+		File compressed = writeCompressed("compressed.v.gz", "");
+
+		assertEquals(plain.getPath(), CompressionCodecs.findFile(plain.getPath()));
+		assertEquals(compressed.getPath(), CompressionCodecs.findFile(compressed.getPath()));
+		assertEquals(compressed.getPath(),
+				CompressionCodecs.findFile(new File(temporaryFolder.getRoot(), "compressed.v").getPath()));
+		assertNull(CompressionCodecs.findFile(new File(temporaryFolder.getRoot(), "missing.v").getPath()));
+	}
+
+	@Test
+	public void testOpenCompressedEdgeList() throws IOException {
+		File input = writeCompressed("graph.e.gz", "0 1 a\n\n1 2 b c\n");
+
+		EdgeListStream.EdgeData[] expectedOutput = new EdgeListStream.EdgeData[]{
+				new EdgeListStream.EdgeData(0, 1, new String[]{"a"}),
+				new EdgeListStream.EdgeData(1, 2, new String[]{"b", "c"})
+		};
+
+		try (EdgeListStream reader = GraphFileStreams.openEdgeList(input.getPath())) {
+			EdgeListStreamUtility.validateEdgeListStreamOutput(reader, expectedOutput);
+		}
+	}
+
+	@Test
+	public void testProjectCompressedVertexList() throws IOException {
+		StringBuilder vertices = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			vertices.append(i).append(" x").append(i).append(" y\n");
+			expected.append(i).append(" x").append(i).append('\n');
+		}
+		File input = writeCompressed("graph.v.gz", vertices.toString());
+		File output = temporaryFolder.newFile();
+
+		new ParallelGraphFileProjector(4, 16).projectVertexFile(input.getPath(), output.getPath(), new int[]{0});
+
+		assertEquals(expected.toString(), new String(Files.readAllBytes(output.toPath()),
+				StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.domain.graph.Property;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for CsrGraphWriter, CsrGraphFile and the CSR vertex and edge list readers.
+ */
+public class CsrGraphFileTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static final String VERTICES = "30 7\n10 8\n20 9\n";
+	private static final String EDGES = "10 20 0.5\n30 10 1.5\n10 30 2.5\n";
+
+	private File writeInput(String input) throws IOException {
+		File file = temporaryFolder.newFile();
+		Files.write(file.toPath(), input.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private Path writeCsr(String vertices, String edges) throws IOException {
+		File vertexFile = writeInput(vertices);
+		File edgeFile = writeInput(edges);
+		Path output = new File(temporaryFolder.getRoot(), "graph.csr").toPath();
+		new CsrGraphWriter(true,
+				new PropertyList(new Property("value", PropertyType.INTEGER)),
+				new PropertyList(new Property("weight", PropertyType.REAL)))
+				.write(vertexFile.getPath(), edgeFile.getPath(), output);
+		return output;
+	}
+
+	@Test
+	public void testWriteAndOpen() throws IOException {
+		Path output = writeCsr(VERTICES, EDGES);
+
+		try (CsrGraphFile graphFile = CsrGraphFile.open(output)) {
+			assertTrue(graphFile.isDirected());
+			assertEquals(3, graphFile.getNumberOfVertices());
+			assertEquals(3, graphFile.getNumberOfEdges());
+			assertArrayEquals(new PropertyType[]{PropertyType.INTEGER}, graphFile.getVertexPropertyTypes());
+			assertArrayEquals(new PropertyType[]{PropertyType.REAL}, graphFile.getEdgePropertyTypes());
+
+			// Vertices are kept in file order, edges are grouped by source vertex
+			assertArrayEquals(new long[]{30, 10, 20}, graphFile.getVertexIds().toArray());
+			assertArrayEquals(new long[]{7, 8, 9}, graphFile.getVertexProperty(0).toArray());
+			assertArrayEquals(new long[]{0, 1, 3, 3}, graphFile.getOffsets().toArray());
+			assertArrayEquals(new long[]{1, 2, 0}, graphFile.getNeighbours().toArray());
+			assertArrayEquals(new double[]{1.5, 0.5, 2.5}, graphFile.getEdgeProperty(0).toDoubleArray(), 0.0);
+		}
+	}
+
+	@Test
+	public void testSourceFingerprint() throws IOException {
+		File vertexFile = writeInput(VERTICES);
+		File edgeFile = writeInput(EDGES);
+		Path output = new File(temporaryFolder.getRoot(), "graph.csr").toPath();
+		new CsrGraphWriter(false,
+				new PropertyList(new Property("value", PropertyType.INTEGER)),
+				new PropertyList(new Property("weight", PropertyType.REAL)))
+				.write(vertexFile.getPath(), edgeFile.getPath(), output);
+
+		try (CsrGraphFile graphFile = CsrGraphFile.open(output)) {
+			assertFalse(graphFile.isDirected());
+			assertEquals(GraphCacheManifest.fingerprint(vertexFile.getPath(), edgeFile.getPath()),
+					graphFile.getSourceFingerprint());
+		}
+	}
+
+	@Test
+	public void testReadersOnSampleGraph() throws IOException {
+		Path output = writeCsr(VERTICES, EDGES);
+
+		VertexListStream.VertexData[] expectedVertices = new VertexListStream.VertexData[]{
+				new VertexListStream.VertexData(30, new String[]{"7"}),
+				new VertexListStream.VertexData(10, new String[]{"8"}),
+				new VertexListStream.VertexData(20, new String[]{"9"})
+		};
+		try (VertexListStream reader = GraphFileStreams.openVertexList(output.toString())) {
+			VertexListStreamUtility.validateVertexListStreamOutput(reader, expectedVertices);
+		}
+
+		EdgeListStream.EdgeData[] expectedEdges = new EdgeListStream.EdgeData[]{
+				new EdgeListStream.EdgeData(30, 10, new String[]{"1.5"}),
+				new EdgeListStream.EdgeData(10, 20, new String[]{"0.5"}),
+				new EdgeListStream.EdgeData(10, 30, new String[]{"2.5"})
+		};
+		try (EdgeListStream reader = GraphFileStreams.openEdgeList(output.toString())) {
+			EdgeListStreamUtility.validateEdgeListStreamOutput(reader, expectedEdges);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testEdgeToUnknownVertex() throws IOException {
+		writeCsr(VERTICES, "10 20 0.5\n10 40 1.0\n");
+	}
+
+	@Test(expected = IOException.class)
+	public void testDuplicateVertex() throws IOException {
+		writeCsr("10 1\n20 2\n10 3\n", EDGES);
+	}
+
+	@Test
+	public void testFailedWriteRemovesTemporaryFile() throws IOException {
+		try {
+			writeCsr(VERTICES, "10 20 0.5\n30 10 heavy\n");
+			throw new AssertionError("Expected IOException for an unparsable edge property");
+		} catch (IOException ignored) {
+		}
+		assertFalse(Files.exists(new File(temporaryFolder.getRoot(), "graph.csr.tmp").toPath()));
+		assertFalse(Files.exists(new File(temporaryFolder.getRoot(), "graph.csr").toPath()));
+	}
+
+	@Test(expected = IOException.class)
+	public void testOpenTruncatedFile() throws IOException {
+		Path output = writeCsr(VERTICES, EDGES);
+		byte[] data = Files.readAllBytes(output);
+		Files.write(output, Arrays.copyOf(data, data.length - 8));
+		CsrGraphFile.open(output).close();
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test cases for DecimalParser.
+ */
+public class DecimalParserTest {
+
+	private static long parseLong(String value) {
+		return DecimalParser.parseLong(value, 0, value.length());
+	}
+
+	@Test
+	public void testParseLong() {
+		assertEquals(0L, parseLong("0"));
+		assertEquals(5L, parseLong("+5"));
+		assertEquals(-42L, parseLong("-42"));
+		assertEquals(Long.MAX_VALUE, parseLong(Long.toString(Long.MAX_VALUE)));
+		assertEquals(Long.MIN_VALUE, parseLong(Long.toString(Long.MIN_VALUE)));
+		assertEquals(123L, DecimalParser.parseLong("x123 ", 1, 4));
+	}
+
+	@Test
+	public void testParseLongRejectsInvalidValues() {
+		String[] invalidValues = {"", "-", "+", "1.0", "12a", " 1", "9223372036854775808", "-9223372036854775809"};
+		for (String value : invalidValues) {
+			try {
+				parseLong(value);
+				throw new AssertionError("Expected NumberFormatException for \"" + value + "\"");
+			} catch (NumberFormatException ignored) {
+			}
+		}
+	}
+
+	@Test
+	public void testParseDoubleLikeParseDouble() {
+		String[] values = {"0", "-0", "1.5", "+0.25", "-123.456", "1e10", "2.5E-3", "0.1", "123456789012345678",
+				"9007199254740993", "1e22", "1e23", "1e-30", "4.9e-324", "1.7976931348623157E308", "NaN", "0x1p3",
+				"1.0d", "1.", ".5"};
+		for (String value : values) {
+			assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)),
+					Double.doubleToLongBits(DecimalParser.parseDouble("7 " + value + " 8", 2, 2 + value.length())));
+		}
+
+		Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			String value = random.nextInt(1000000) + "." + random.nextInt(1000000) + "e" + (random.nextInt(40) - 20);
+			assertEquals(value, Double.parseDouble(value), DecimalParser.parseDouble(value, 0, value.length()), 0.0);
+		}
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testParseDoubleRejectsInvalidValues() {
+		DecimalParser.parseDouble("1.5x", 0, 4);
+	}
+
+}
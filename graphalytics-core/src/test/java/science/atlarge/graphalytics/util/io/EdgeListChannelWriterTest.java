@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test cases for EdgeListChannelWriter.
+ */
+public class EdgeListChannelWriterTest {
+
+	private static final EdgeListStream.EdgeData[] edges = new EdgeListStream.EdgeData[]{
+			new EdgeListStream.EdgeData(0, 1, new String[]{"testing"}),
+			new EdgeListStream.EdgeData(1, 2, new String[]{"multiple", "properties"}),
+			new EdgeListStream.EdgeData(10, -1, new String[]{"ünicode"})
+	};
+
+	private static final String expectedOutput = "0 1 testing\n" +
+			"1 2 multiple properties\n" +
+			"10 -1 ünicode\n";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testWriteAllOnMockEdgeListStream() throws IOException {
+		EdgeListStream edgeListStream = new MockEdgeListStream(edges);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		try (EdgeListChannelWriter writer = new EdgeListChannelWriter(edgeListStream,
+				Channels.newChannel(outputStream))) {
+			writer.writeAll();
+		}
+
+		assertEquals("Output of EdgeListChannelWriter is correct", expectedOutput,
+				new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testWriteAllOnFilteredMappedInput() throws IOException {
+		File input = temporaryFolder.newFile();
+		Files.write(input.toPath(), "1 2 a b\n\n2 3 c d\n".getBytes(StandardCharsets.UTF_8));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		try (EdgeListChannelWriter writer = new EdgeListChannelWriter(
+				new EdgeListPropertyFilter(new MappedEdgeListReader(input.toPath()), new int[]{1, 0}),
+				Channels.newChannel(outputStream))) {
+			writer.writeAll();
+		}
+
+		assertEquals("1 2 b a\n2 3 d c\n", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingPropertyInMappedInput() throws IOException {
+		File input = temporaryFolder.newFile();
+		Files.write(input.toPath(), "1 2 a b\n\n2 3 c d\n".getBytes(StandardCharsets.UTF_8));
+
+		try (EdgeListChannelWriter writer = new EdgeListChannelWriter(
+				new EdgeListPropertyFilter(new MappedEdgeListReader(input.toPath()), new int[]{2}),
+				Channels.newChannel(new ByteArrayOutputStream()))) {
+			writer.writeAll();
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test cases for EvlpByteWriter.
+ */
+public class EvlpByteWriterTest {
+
+	@Test
+	public void testWriteLong() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (EvlpByteWriter writer = new EvlpByteWriter(Channels.newChannel(output))) {
+			long[] values = {0, 7, -7, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE};
+			for (long value : values) {
+				writer.writeLong(value);
+				writer.endLine();
+			}
+		}
+
+		assertEquals("0\n7\n-7\n1234567890123\n9223372036854775807\n-9223372036854775808\n",
+				new String(output.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testWriteTokensAcrossSmallBuffer() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (EvlpByteWriter writer = new EvlpByteWriter(Channels.newChannel(output), 4)) {
+			writer.writeLong(12345);
+			writer.writeSeparator();
+			writer.writeToken("a-token-longer-than-the-buffer");
+			writer.writeSeparator();
+			writer.writeToken("été");
+			writer.writeSeparator();
+			writer.writeDouble(0.25);
+			writer.endLine();
+		}
+
+		assertEquals("12345 a-token-longer-than-the-buffer été 0.25\n",
+				new String(output.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testWriteTokenFromTokenizer() throws IOException {
+		LineTokenizer tokenizer = new LineTokenizer();
+		ByteBuffer line = ByteBuffer.wrap("  1 first\tsecond ".getBytes(StandardCharsets.UTF_8));
+		tokenizer.tokenize(line, 0, line.limit());
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (EvlpByteWriter writer = new EvlpByteWriter(Channels.newChannel(output), 4)) {
+			writer.writeToken(tokenizer, 2);
+			writer.writeSeparator();
+			writer.writeToken(tokenizer, 1);
+		}
+
+		assertEquals("second first", new String(output.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for GraphCacheManifest.
+ */
+public class GraphCacheManifestTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File writeFile(String name, String contents) throws IOException {
+		File file = new File(temporaryFolder.getRoot(), name);
+		Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	@Test
+	public void testMatchesAfterWrite() throws IOException {
+		File source = writeFile("source.v", "1 0.5 2\n2 1.5 3\n");
+		File cache = writeFile("cache.v", "1 2\n2 3\n");
+
+		GraphCacheManifest manifest = GraphCacheManifest.describe(source.getPath(), new int[]{1});
+		assertFalse("Cache file without manifest is not reused", manifest.matches(cache.getPath()));
+
+		manifest.write(cache.getPath());
+		assertTrue(manifest.matches(cache.getPath()));
+		assertTrue(GraphCacheManifest.describe(source.getPath(), new int[]{1}).matches(cache.getPath()));
+	}
+
+	@Test
+	public void testDifferentPropertiesDoNotMatch() throws IOException {
+		File source = writeFile("source.v", "1 0.5 2\n2 1.5 3\n");
+		File cache = writeFile("cache.v", "1 2\n2 3\n");
+
+		GraphCacheManifest.describe(source.getPath(), new int[]{1}).write(cache.getPath());
+		assertFalse(GraphCacheManifest.describe(source.getPath(), new int[]{0}).matches(cache.getPath()));
+	}
+
+	@Test
+	public void testChangedSourceDoesNotMatch() throws IOException {
+		File source = writeFile("source.v", "1 0.5 2\n2 1.5 3\n");
+		File cache = writeFile("cache.v", "1 2\n2 3\n");
+
+		GraphCacheManifest.describe(source.getPath(), new int[]{1}).write(cache.getPath());
+		Files.write(source.toPath(), "3 2.5 4\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		assertFalse(GraphCacheManifest.describe(source.getPath(), new int[]{1}).matches(cache.getPath()));
+	}
+
+	@Test
+	public void testTruncatedCacheFileDoesNotMatch() throws IOException {
+		File source = writeFile("source.v", "1 0.5 2\n2 1.5 3\n");
+		File cache = writeFile("cache.v", "1 2\n2 3\n");
+
+		GraphCacheManifest manifest = GraphCacheManifest.describe(source.getPath(), new int[]{1});
+		manifest.write(cache.getPath());
+		writeFile("cache.v", "1 2\n");
+		assertFalse(manifest.matches(cache.getPath()));
+	}
+
+	@Test
+	public void testInvalidate() throws IOException {
+		File source = writeFile("source.v", "1 0.5 2\n2 1.5 3\n");
+		File cache = writeFile("cache.v", "1 2\n2 3\n");
+
+		GraphCacheManifest manifest = GraphCacheManifest.describe(source.getPath(), new int[]{1});
+		manifest.write(cache.getPath());
+		GraphCacheManifest.invalidate(cache.getPath());
+		assertFalse(manifest.matches(cache.getPath()));
+	}
+
+}
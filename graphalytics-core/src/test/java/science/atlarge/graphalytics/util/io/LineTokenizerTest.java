@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Test cases for LineTokenizer.
+ */
+public class LineTokenizerTest {
+
+	private static LineTokenizer tokenize(String line) {
+		byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+		LineTokenizer tokenizer = new LineTokenizer();
+		tokenizer.tokenize(ByteBuffer.wrap(bytes), 0, bytes.length);
+		return tokenizer;
+	}
+
+	private static void assertParsesAsJava(String value) throws IOException {
+		assertEquals(value, Double.doubleToRawLongBits(Double.parseDouble(value)),
+				Double.doubleToRawLongBits(tokenize("1 " + value).parseDouble(1)));
+	}
+
+	@Test
+	public void testParseDoubleMatchesDoubleParseDouble() throws IOException {
+		String[] values = {"0", "-0", "+0.0", "1", "1.", ".5", "-2.5", "0.1", "0.3", "123.456", "1e10", "1E-5",
+				"-3.25e+2", "0.000000000000000000001", "9007199254740991", "9007199254740993", "1.7976931348623157e308",
+				"4.9e-324", "1e23", "1e-23", "123456789012345678901234567890", "Infinity", "-Infinity", "NaN",
+				"0x1.8p1", "2.5d", "1e00005"};
+		for (String value : values) {
+			assertParsesAsJava(value);
+		}
+
+		Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			assertParsesAsJava(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10)));
+			assertParsesAsJava(String.format("%.6f", random.nextDouble() * 1000));
+		}
+	}
+
+	@Test
+	public void testParseDoubleRejectsInvalidValues() {
+		String[] values = {".", "-", "1e", "1.2.3", "e5", "1x"};
+		for (String value : values) {
+			try {
+				tokenize(value).parseDouble(0);
+				fail("Expected an IOException for \"" + value + "\"");
+			} catch (IOException expected) {
+			}
+		}
+	}
+
+}
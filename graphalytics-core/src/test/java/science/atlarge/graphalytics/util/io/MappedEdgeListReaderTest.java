@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test cases for MappedEdgeListReader.
+ */
+public class MappedEdgeListReaderTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File writeInput(String input) throws IOException {
+		File file = temporaryFolder.newFile();
+		Files.write(file.toPath(), input.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	@Test
+	public void testHasNextEdgeOnEmptyLines() throws IOException {
+		File input = writeInput("\n  \n	\n");
+
+		try (MappedEdgeListReader reader = new MappedEdgeListReader(input.toPath())) {
+			assertFalse(reader.hasNextEdge());
+		}
+	}
+
+	@Test
+	public void testHasNextEdgeOnEmptyFile() throws IOException {
+		File input = writeInput("");
+
+		try (MappedEdgeListReader reader = new MappedEdgeListReader(input.toPath())) {
+			assertFalse(reader.hasNextEdge());
+		}
+	}
+
+	@Test
+	public void testGetNextEdgeOnSampleFile() throws IOException {
+		File input = writeInput("0 1 1.23 property\n1 2 variable number of properties\r\n\n10 1");
+
+		EdgeListStream.EdgeData[] expectedOutput = new EdgeListStream.EdgeData[]{
+				new EdgeListStream.EdgeData(0, 1, new String[]{"1.23", "property"}),
+				new EdgeListStream.EdgeData(1, 2, new String[]{"variable", "number", "of", "properties"}),
+				new EdgeListStream.EdgeData(10, 1, new String[0])
+		};
+
+		try (MappedEdgeListReader reader = new MappedEdgeListReader(input.toPath())) {
+			EdgeListStreamUtility.validateEdgeListStreamOutput(reader, expectedOutput);
+		}
+	}
+
+	@Test
+	public void testGetNextEdgeAcrossMappingWindows() throws IOException {
+		File input = writeInput("123 456 p1\n-7 9223372036854775807\n42 43 a b c\n");
+
+		EdgeListStream.EdgeData[] expectedOutput = new EdgeListStream.EdgeData[]{
+				new EdgeListStream.EdgeData(123, 456, new String[]{"p1"}),
+				new EdgeListStream.EdgeData(-7, Long.MAX_VALUE, new String[0]),
+				new EdgeListStream.EdgeData(42, 43, new String[]{"a", "b", "c"})
+		};
+
+		try (MappedEdgeListReader reader = new MappedEdgeListReader(input.toPath(), 24)) {
+			EdgeListStreamUtility.validateEdgeListStreamOutput(reader, expectedOutput);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testHasNextEdgeOnMalformedIdentifier() throws IOException {
+		File input = writeInput("0 1x\n");
+
+		try (MappedEdgeListReader reader = new MappedEdgeListReader(input.toPath())) {
+			reader.hasNextEdge();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testHasNextEdgeOnSingleToken() throws IOException {
+		File input = writeInput("0\n");
+
+		try (MappedEdgeListReader reader = new MappedEdgeListReader(input.toPath())) {
+			reader.hasNextEdge();
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test cases for MappedVertexListReader.
+ */
+public class MappedVertexListReaderTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File writeInput(String input) throws IOException {
+		File file = temporaryFolder.newFile();
+		Files.write(file.toPath(), input.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	@Test
+	public void testHasNextVertexOnEmptyLines() throws IOException {
+		File input = writeInput("\n  \n	\n");
+
+		try (MappedVertexListReader reader = new MappedVertexListReader(input.toPath())) {
+			assertFalse(reader.hasNextVertex());
+		}
+	}
+
+	@Test
+	public void testGetNextVertexOnSampleFile() throws IOException {
+		File input = writeInput("0 1.23 property\n1 variable number of properties\n10\n");
+
+		VertexListStream.VertexData[] expectedOutput = new VertexListStream.VertexData[]{
+				new VertexListStream.VertexData(0, new String[]{"1.23", "property"}),
+				new VertexListStream.VertexData(1, new String[]{"variable", "number", "of", "properties"}),
+				new VertexListStream.VertexData(10, new String[0])
+		};
+
+		try (MappedVertexListReader reader = new MappedVertexListReader(input.toPath())) {
+			VertexListStreamUtility.validateVertexListStreamOutput(reader, expectedOutput);
+		}
+	}
+
+	@Test
+	public void testGetNextVertexAcrossMappingWindows() throws IOException {
+		File input = writeInput("1000 a\n2000 bb\n3000\n4000 c d\n");
+
+		VertexListStream.VertexData[] expectedOutput = new VertexListStream.VertexData[]{
+				new VertexListStream.VertexData(1000, new String[]{"a"}),
+				new VertexListStream.VertexData(2000, new String[]{"bb"}),
+				new VertexListStream.VertexData(3000, new String[0]),
+				new VertexListStream.VertexData(4000, new String[]{"c", "d"})
+		};
+
+		try (MappedVertexListReader reader = new MappedVertexListReader(input.toPath(), 10)) {
+			VertexListStreamUtility.validateVertexListStreamOutput(reader, expectedOutput);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testHasNextVertexOnLineExceedingWindow() throws IOException {
+		File input = writeInput("1 this line is longer than the window\n");
+
+		try (MappedVertexListReader reader = new MappedVertexListReader(input.toPath(), 8)) {
+			reader.hasNextVertex();
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+/**
+ * Test cases for ParallelGraphFileProjector.
+ */
+public class ParallelGraphFileProjectorTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File writeInput(String input) throws IOException {
+		File file = temporaryFolder.newFile();
+		Files.write(file.toPath(), input.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static String generateEdges(int count) {
+		StringBuilder edges = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			edges.append(i).append(' ').append(i * 7 + 1).append(' ').append(i % 13).append(" 0.").append(i)
+					.append('\n');
+			if (i % 17 == 0) {
+				edges.append('\n');
+			}
+		}
+		return edges.toString();
+	}
+
+	@Test
+	public void testProjectEdgeFileMatchesSequentialOutput() throws IOException {
+		File input = writeInput(generateEdges(1000));
+		File expected = temporaryFolder.newFile();
+		File actual = temporaryFolder.newFile();
+		int[] propertyIndices = {1, 0};
+
+		try (EdgeListStreamWriter writer = new EdgeListStreamWriter(
+				new EdgeListPropertyFilter(new MappedEdgeListReader(input.toPath()), propertyIndices),
+				new FileOutputStream(expected))) {
+			writer.writeAll();
+		}
+		new ParallelGraphFileProjector(4, 100).projectEdgeFile(input.getPath(), actual.getPath(), propertyIndices);
+
+		assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+		assertFalse(new File(actual.getPath() + ".part0").exists());
+	}
+
+	@Test
+	public void testProjectVertexFileWithoutTrailingNewline() throws IOException {
+		File input = writeInput("1 a b\n2 c d\n3 e f\n4 g h");
+		File output = temporaryFolder.newFile();
+
+		new ParallelGraphFileProjector(3, 1).projectVertexFile(input.getPath(), output.getPath(), new int[]{1});
+
+		assertEquals("1 b\n2 d\n3 f\n4 h\n", new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testProjectEdgeFileToMultipleTargets() throws IOException {
+		File input = writeInput(generateEdges(1000));
+		int[][] propertyIndices = {{0}, {}, {1, 1}};
+		String[] expectedOutputs = new String[propertyIndices.length];
+		String[] targetPaths = new String[propertyIndices.length];
+		for (int t = 0; t < propertyIndices.length; t++) {
+			File expected = temporaryFolder.newFile();
+			new ParallelGraphFileProjector(1).projectEdgeFile(input.getPath(), expected.getPath(), propertyIndices[t]);
+			expectedOutputs[t] = new String(Files.readAllBytes(expected.toPath()), StandardCharsets.UTF_8);
+			targetPaths[t] = temporaryFolder.newFile().getPath();
+		}
+
+		new ParallelGraphFileProjector(4, 100).projectEdgeFile(input.getPath(), targetPaths, propertyIndices);
+
+		for (int t = 0; t < propertyIndices.length; t++) {
+			assertEquals(expectedOutputs[t],
+					new String(Files.readAllBytes(new File(targetPaths[t]).toPath()), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void testProjectVertexFileToMultipleTargetsSequentially() throws IOException {
+		File input = writeInput("1 a b\n2 c d\n");
+		File first = temporaryFolder.newFile();
+		File second = temporaryFolder.newFile();
+
+		new ParallelGraphFileProjector(1).projectVertexFile(input.getPath(),
+				new String[]{first.getPath(), second.getPath()}, new int[][]{{1, 0}, {}});
+
+		assertEquals("1 b a\n2 d c\n", new String(Files.readAllBytes(first.toPath()), StandardCharsets.UTF_8));
+		assertEquals("1\n2\n", new String(Files.readAllBytes(second.toPath()), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testChunkBoundariesAreLineAligned() throws IOException {
+		String data = generateEdges(200);
+		File input = writeInput(data);
+
+		long[] boundaries = new ParallelGraphFileProjector(8, 16).findChunkBoundaries(input.toPath());
+
+		assertEquals(9, boundaries.length);
+		assertEquals(0, boundaries[0]);
+		assertEquals(data.length(), boundaries[boundaries.length - 1]);
+		for (int i = 1; i < boundaries.length - 1; i++) {
+			assertEquals('\n', data.charAt((int)boundaries[i] - 1));
+		}
+	}
+
+	@Test
+	public void testSmallFileIsNotSplit() throws IOException {
+		File input = writeInput("1 2\n3 4\n");
+
+		long[] boundaries = new ParallelGraphFileProjector(8).findChunkBoundaries(input.toPath());
+
+		assertArrayEquals(new long[]{0, 8}, boundaries);
+	}
+
+	@Test
+	public void testMalformedInputFailsWithoutOutput() throws IOException {
+		File input = writeInput(generateEdges(100) + "12\n" + generateEdges(100));
+		File output = temporaryFolder.newFile();
+
+		try {
+			new ParallelGraphFileProjector(4, 100).projectEdgeFile(input.getPath(), output.getPath(), new int[0]);
+			fail("Expected an IOException for malformed input.");
+		} catch (IOException expected) {
+			assertFalse(output.exists());
+		}
+	}
+
+	@Test
+	public void testFailedChunkLeavesNoSegments() throws IOException {
+		File input = writeInput("12\n" + generateEdges(200000));
+		File output = new File(temporaryFolder.getRoot(), "output");
+
+		try {
+			new ParallelGraphFileProjector(4, 100).projectEdgeFile(input.getPath(), output.getPath(), new int[0]);
+			fail("Expected an IOException for malformed input.");
+		} catch (IOException expected) {
+			String[] files = temporaryFolder.getRoot().list();
+			for (String file : files) {
+				assertFalse(file, file.startsWith("output"));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for PipelinedEdgeListReader.
+ */
+public class PipelinedEdgeListReaderTest {
+
+	private static InputStream input(String input) {
+		return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testHasNextEdgeOnEmptyLines() throws IOException {
+		try (PipelinedEdgeListReader reader = new PipelinedEdgeListReader(input("\n  \n	\n"), 64, 2)) {
+			assertFalse(reader.hasNextEdge());
+		}
+	}
+
+	@Test
+	public void testGetNextEdgeOnSampleFile() throws IOException {
+		String input = "0 1 1.23 property\n1 2 variable number of properties\r\n\n10 1";
+
+		EdgeListStream.EdgeData[] expectedOutput = new EdgeListStream.EdgeData[]{
+				new EdgeListStream.EdgeData(0, 1, new String[]{"1.23", "property"}),
+				new EdgeListStream.EdgeData(1, 2, new String[]{"variable", "number", "of", "properties"}),
+				new EdgeListStream.EdgeData(10, 1, new String[0])
+		};
+
+		try (PipelinedEdgeListReader reader = new PipelinedEdgeListReader(input(input))) {
+			EdgeListStreamUtility.validateEdgeListStreamOutput(reader, expectedOutput);
+		}
+	}
+
+	@Test
+	public void testGetNextEdgeAcrossBlocks() throws IOException {
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			input.append(i).append(' ').append(i + 1).append(' ').append(i % 7).append('\n');
+		}
+
+		// Small blocks force many lines to be carried over from one block to the next
+		try (PipelinedEdgeListReader reader = new PipelinedEdgeListReader(input(input.toString()), 32, 3)) {
+			for (int i = 0; i < 10000; i++) {
+				assertTrue(reader.hasNextEdge());
+				EdgeListStream.EdgeData edge = reader.getNextEdge();
+				assertEquals(i, edge.getSourceId());
+				assertEquals(i + 1, edge.getDestinationId());
+				assertEquals(String.valueOf(i % 7), edge.getValues()[0]);
+			}
+			assertFalse(reader.hasNextEdge());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testHasNextEdgeOnMalformedIdentifier() throws IOException {
+		try (PipelinedEdgeListReader reader = new PipelinedEdgeListReader(input("0 1\n0 1x\n"), 64, 2)) {
+			while (reader.hasNextEdge()) {
+				reader.getNextEdge();
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testHasNextEdgeOnSingleToken() throws IOException {
+		try (PipelinedEdgeListReader reader = new PipelinedEdgeListReader(input("0\n"), 64, 2)) {
+			reader.hasNextEdge();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testLineExceedingBlockSize() throws IOException {
+		try (PipelinedEdgeListReader reader = new PipelinedEdgeListReader(
+				input("0 1 a-property-value-that-does-not-fit\n2 3\n"), 16, 1)) {
+			while (reader.hasNextEdge()) {
+				reader.getNextEdge();
+			}
+		}
+	}
+
+	@Test(timeout = 10000, expected = IOException.class)
+	public void testUncheckedSourceFailure() throws IOException {
+		InputStream failingSource = new InputStream() {
+			@Override
+			public int read() {
+				throw new IllegalStateException("Corrupt input");
+			}
+		};
+
+		try (PipelinedEdgeListReader reader = new PipelinedEdgeListReader(failingSource, 64, 2)) {
+			reader.hasNextEdge();
+		}
+	}
+
+	@Test
+	public void testCloseBeforeEndOfStream() throws IOException {
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			input.append(i).append(' ').append(i).append('\n');
+		}
+
+		PipelinedEdgeListReader reader = new PipelinedEdgeListReader(input(input.toString()), 64, 2);
+		assertEquals(0, reader.getNextEdge().getSourceId());
+		reader.close();
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for PipelinedVertexListReader.
+ */
+public class PipelinedVertexListReaderTest {
+
+	private static InputStream input(String input) {
+		return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testGetNextVertexOnSampleFile() throws IOException {
+		String input = "0 1.23 property\n1 variable number of properties\n\n10\n";
+
+		VertexListStream.VertexData[] expectedOutput = new VertexListStream.VertexData[]{
+				new VertexListStream.VertexData(0, new String[]{"1.23", "property"}),
+				new VertexListStream.VertexData(1, new String[]{"variable", "number", "of", "properties"}),
+				new VertexListStream.VertexData(10, new String[0])
+		};
+
+		try (PipelinedVertexListReader reader = new PipelinedVertexListReader(input(input))) {
+			VertexListStreamUtility.validateVertexListStreamOutput(reader, expectedOutput);
+		}
+	}
+
+	@Test
+	public void testGetNextVertexAcrossBlocks() throws IOException {
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			input.append(i).append(' ').append(i * 2).append('\n');
+		}
+
+		try (PipelinedVertexListReader reader = new PipelinedVertexListReader(input(input.toString()), 32, 3)) {
+			for (int i = 0; i < 10000; i++) {
+				assertTrue(reader.hasNextVertex());
+				VertexListStream.VertexData vertex = reader.getNextVertex();
+				assertEquals(i, vertex.getId());
+				assertEquals(i * 2, reader.getTokenizer().parseLong(1));
+			}
+			assertFalse(reader.hasNextVertex());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testHasNextVertexOnMalformedIdentifier() throws IOException {
+		try (PipelinedVertexListReader reader = new PipelinedVertexListReader(input("1x\n"), 64, 2)) {
+			reader.hasNextVertex();
+		}
+	}
+
+}
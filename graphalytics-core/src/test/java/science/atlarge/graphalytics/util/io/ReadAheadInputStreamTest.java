@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test cases for ReadAheadInputStream.
+ */
+public class ReadAheadInputStreamTest {
+
+	private static byte[] generateData(int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte)(i * 31);
+		}
+		return data;
+	}
+
+	@Test
+	public void testReadAcrossBlocks() throws IOException {
+		byte[] data = generateData(1000);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		try (InputStream input = new ReadAheadInputStream(new ByteArrayInputStream(data), "test", 64, 2)) {
+			byte[] buffer = new byte[100];
+			assertEquals(data[0] & 0xFF, input.read());
+			output.write(data[0]);
+			for (int bytesRead = input.read(buffer); bytesRead >= 0; bytesRead = input.read(buffer)) {
+				output.write(buffer, 0, bytesRead);
+			}
+			assertEquals(-1, input.read());
+		}
+
+		assertArrayEquals(data, output.toByteArray());
+	}
+
+	@Test
+	public void testReadEmptyStream() throws IOException {
+		try (InputStream input = new ReadAheadInputStream(new ByteArrayInputStream(new byte[0]), "test", 64, 2)) {
+			assertEquals(-1, input.read());
+			assertEquals(-1, input.read(new byte[10]));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testSourceFailureIsRethrown() throws IOException {
+		InputStream failingSource = new InputStream() {
+			private int remaining = 100;
+
+			@Override
+			public int read() throws IOException {
+				return read(new byte[1], 0, 1) < 0 ? -1 : 0;
+			}
+
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				if (remaining == 0) {
+					throw new IOException("Corrupt input");
+				}
+				int bytesRead = Math.min(length, remaining);
+				remaining -= bytesRead;
+				return bytesRead;
+			}
+		};
+
+		try (InputStream input = new ReadAheadInputStream(failingSource, "test", 16, 2)) {
+			while (input.read() >= 0) {
+				// Consume until the failure is reported
+			}
+		}
+	}
+
+	@Test(timeout = 10000, expected = IOException.class)
+	public void testUncheckedSourceFailureIsRethrown() throws IOException {
+		InputStream failingSource = new InputStream() {
+			@Override
+			public int read() {
+				throw new IllegalStateException("Corrupt input");
+			}
+		};
+
+		try (InputStream input = new ReadAheadInputStream(failingSource, "test", 16, 2)) {
+			input.read();
+		}
+	}
+
+	@Test
+	public void testCloseBeforeEndOfStream() throws IOException {
+		InputStream input = new ReadAheadInputStream(new ByteArrayInputStream(generateData(10000)), "test", 16, 2);
+		assertEquals(0, input.read());
+		input.close();
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.domain.graph.Property;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+import science.atlarge.graphalytics.util.graph.PropertyGraph;
+import science.atlarge.graphalytics.util.graph.PropertyGraphParser;
+import science.atlarge.graphalytics.util.graph.PropertyGraphValueParsers;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test cases for TypedEdgeListReader.
+ */
+public class TypedEdgeListReaderTest {
+
+	private static final PropertyList PROPERTIES = new PropertyList(
+			new Property("count", PropertyType.INTEGER),
+			new Property("weight", PropertyType.REAL));
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private EdgeListStream mappedInput(String input) throws IOException {
+		File file = temporaryFolder.newFile();
+		Files.write(file.toPath(), input.getBytes(StandardCharsets.UTF_8));
+		return new MappedEdgeListReader(file.toPath());
+	}
+
+	private static EdgeListStream streamInput(String input) {
+		return new EdgeListInputStreamReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static void validateSampleOutput(TypedEdgeListStream reader) throws IOException {
+		TypedEdgeListStream.TypedEdgeData data = reader.getNextEdge();
+		assertEquals(1, data.getSourceId());
+		assertEquals(2, data.getDestinationId());
+		assertEquals(5, data.getLong(0));
+		assertEquals(0.5, data.getDouble(1), 0.0);
+
+		data = reader.getNextEdge();
+		assertEquals(2, data.getSourceId());
+		assertEquals(3, data.getDestinationId());
+		assertEquals(-7, data.getLong(0));
+		assertEquals(1000.0, data.getDouble(1), 0.0);
+
+		assertFalse(reader.hasNextEdge());
+	}
+
+	@Test
+	public void testMappedInput() throws IOException {
+		try (TypedEdgeListStream reader = new TypedEdgeListReader(
+				mappedInput("1 2 5 0.5\n2 3 -7 1e3\n"), PROPERTIES)) {
+			validateSampleOutput(reader);
+		}
+	}
+
+	@Test
+	public void testStreamInput() throws IOException {
+		try (TypedEdgeListStream reader = new TypedEdgeListReader(
+				streamInput("1 2 5 0.5\n2 3 -7 1e3\n"), PROPERTIES)) {
+			validateSampleOutput(reader);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testMalformedValueInMappedInput() throws IOException {
+		try (TypedEdgeListStream reader = new TypedEdgeListReader(
+				mappedInput("1 2 5 abc\n"), PROPERTIES)) {
+			reader.getNextEdge();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testMalformedValueInStreamInput() throws IOException {
+		try (TypedEdgeListStream reader = new TypedEdgeListReader(
+				streamInput("1 2 5 abc\n"), PROPERTIES)) {
+			reader.getNextEdge();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingProperty() throws IOException {
+		try (TypedEdgeListStream reader = new TypedEdgeListReader(
+				mappedInput("1 2 5\n"), PROPERTIES)) {
+			reader.getNextEdge();
+		}
+	}
+
+	@Test
+	public void testParsePropertyGraph() throws IOException {
+		VertexListStream vertices = new VertexListInputStreamReader(
+				new ByteArrayInputStream("1\n2\n3\n".getBytes(StandardCharsets.UTF_8)));
+		PropertyGraph<Void, Double> graph = PropertyGraphParser.parsePropertyGraph(
+				new TypedVertexListReader(vertices, new PropertyList()),
+				new TypedEdgeListReader(streamInput("1 2 0.5\n2 3 1e3\n"),
+						new PropertyList(new Property("weight", PropertyType.REAL))),
+				true,
+				PropertyGraphValueParsers.typedVoidParser(),
+				PropertyGraphValueParsers.typedDoubleParser());
+
+		assertEquals(3, graph.getVertices().size());
+		PropertyGraph<Void, Double>.Edge edge = graph.getVertex(2).getOutgoingEdges().iterator().next();
+		assertEquals(3, edge.getDestinationVertex().getId());
+		assertEquals(1000.0, edge.getValue(), 0.0);
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.domain.graph.Property;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test cases for TypedVertexListReader.
+ */
+public class TypedVertexListReaderTest {
+
+	private static final PropertyList PROPERTIES = new PropertyList(
+			new Property("count", PropertyType.INTEGER),
+			new Property("weight", PropertyType.REAL));
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private VertexListStream mappedInput(String input) throws IOException {
+		File file = temporaryFolder.newFile();
+		Files.write(file.toPath(), input.getBytes(StandardCharsets.UTF_8));
+		return new MappedVertexListReader(file.toPath());
+	}
+
+	private static VertexListStream streamInput(String input) {
+		return new VertexListInputStreamReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static void validateSampleOutput(TypedVertexListStream reader) throws IOException {
+		TypedVertexListStream.TypedVertexData data = reader.getNextVertex();
+		assertEquals(1, data.getId());
+		assertEquals(5, data.getLong(0));
+		assertEquals(0.5, data.getDouble(1), 0.0);
+
+		data = reader.getNextVertex();
+		assertEquals(2, data.getId());
+		assertEquals(-7, data.getLong(0));
+		assertEquals(1000.0, data.getDouble(1), 0.0);
+
+		assertFalse(reader.hasNextVertex());
+	}
+
+	@Test
+	public void testMappedInput() throws IOException {
+		try (TypedVertexListStream reader = new TypedVertexListReader(
+				mappedInput("1 5 0.5\n2 -7 1e3\n"), PROPERTIES)) {
+			validateSampleOutput(reader);
+		}
+	}
+
+	@Test
+	public void testStreamInput() throws IOException {
+		try (TypedVertexListStream reader = new TypedVertexListReader(
+				streamInput("1 5 0.5\n2 -7 1e3\n"), PROPERTIES)) {
+			validateSampleOutput(reader);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testMalformedValueInMappedInput() throws IOException {
+		try (TypedVertexListStream reader = new TypedVertexListReader(
+				mappedInput("1 5 abc\n"), PROPERTIES)) {
+			reader.getNextVertex();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testMalformedValueInStreamInput() throws IOException {
+		try (TypedVertexListStream reader = new TypedVertexListReader(
+				streamInput("1 5 abc\n"), PROPERTIES)) {
+			reader.getNextVertex();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingProperty() throws IOException {
+		try (TypedVertexListStream reader = new TypedVertexListReader(
+				mappedInput("1 5\n"), PROPERTIES)) {
+			reader.getNextVertex();
+		}
+	}
+
+}
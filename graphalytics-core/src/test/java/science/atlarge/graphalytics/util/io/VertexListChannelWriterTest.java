@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test cases for VertexListChannelWriter.
+ */
+public class VertexListChannelWriterTest {
+
+	private static final VertexListStream.VertexData[] vertices = new VertexListStream.VertexData[]{
+			new VertexListStream.VertexData(0, new String[]{"testing"}),
+			new VertexListStream.VertexData(1, new String[]{"multiple", "properties"}),
+			new VertexListStream.VertexData(-10, new String[]{"ünicode"})
+	};
+
+	private static final String expectedOutput = "0 testing\n" +
+			"1 multiple properties\n" +
+			"-10 ünicode\n";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testWriteAllOnMockVertexListStream() throws IOException {
+		VertexListStream vertexListStream = new MockVertexListStream(vertices);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		try (VertexListChannelWriter writer = new VertexListChannelWriter(vertexListStream,
+				Channels.newChannel(outputStream))) {
+			writer.writeAll();
+		}
+
+		assertEquals("Output of VertexListChannelWriter is correct", expectedOutput,
+				new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testWriteAllOnFilteredMappedInput() throws IOException {
+		File input = temporaryFolder.newFile();
+		Files.write(input.toPath(), "1 a b\n\n2 c d\n".getBytes(StandardCharsets.UTF_8));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		try (VertexListChannelWriter writer = new VertexListChannelWriter(
+				new VertexListPropertyFilter(new MappedVertexListReader(input.toPath()), new int[]{1, 0}),
+				Channels.newChannel(outputStream))) {
+			writer.writeAll();
+		}
+
+		assertEquals("1 b a\n2 d c\n", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingPropertyInMappedInput() throws IOException {
+		File input = temporaryFolder.newFile();
+		Files.write(input.toPath(), "1 a b\n\n2 c d\n".getBytes(StandardCharsets.UTF_8));
+
+		try (VertexListChannelWriter writer = new VertexListChannelWriter(
+				new VertexListPropertyFilter(new MappedVertexListReader(input.toPath()), new int[]{2}),
+				Channels.newChannel(new ByteArrayOutputStream()))) {
+			writer.writeAll();
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.validation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for ExternalVertexSorter.
+ */
+public class ExternalVertexSorterTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private void assertSortedAndDeduplicated(int runSize, int numberOfVertices, long idRange) throws IOException {
+		Random random = new Random(runSize * 31L + numberOfVertices);
+		Map<Long, Long> expected = new TreeMap<>();
+		Path directory = temporaryFolder.getRoot().toPath();
+		try (ExternalVertexSorter sorter = new ExternalVertexSorter(directory, runSize)) {
+			for (int i = 0; i < numberOfVertices; i++) {
+				long id = idRange > 0 ? (long)(random.nextDouble() * idRange) - idRange / 2 : random.nextLong();
+				long value = random.nextLong();
+				sorter.add(id, value);
+				expected.put(id, value);
+			}
+			assertEquals((numberOfVertices - 1) / runSize, sorter.getNumberOfSpilledRuns());
+
+			try (SortedVertexStream stream = sorter.sorted()) {
+				for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+					assertTrue(stream.next());
+					assertEquals(entry.getKey().longValue(), stream.getId());
+					assertEquals(entry.getValue().longValue(), stream.getValue());
+				}
+				assertFalse(stream.next());
+			}
+		}
+		assertEquals("spilled runs are deleted", 0, directory.toFile().list().length);
+	}
+
+	@Test
+	public void testSortInMemory() throws IOException {
+		assertSortedAndDeduplicated(1 << 20, 10000, 0);
+	}
+
+	@Test
+	public void testSortWithSpilledRuns() throws IOException {
+		assertSortedAndDeduplicated(1000, 10500, 0);
+	}
+
+	@Test
+	public void testLastDuplicateIsKeptAcrossRuns() throws IOException {
+		// Many duplicate ids, including negative ids, within and across runs
+		assertSortedAndDeduplicated(100, 5000, 300);
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		try (ExternalVertexSorter sorter = new ExternalVertexSorter(temporaryFolder.getRoot().toPath(), 10);
+		     SortedVertexStream stream = sorter.sorted()) {
+			assertFalse(stream.next());
+		}
+	}
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.validation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.util.io.DecimalParser;
+import science.atlarge.graphalytics.validation.rule.EpsilonValidationRule;
+import science.atlarge.graphalytics.validation.rule.EquivalenceValidationRule;
+import science.atlarge.graphalytics.validation.rule.MatchLongValidationRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for LongVertexValidator and DoubleVertexValidator, checking that all validation modes and numbers of
+ * threads report the same counts.
+ */
+public class VertexValidatorTest {
+
+	private static final int NUMBER_OF_VERTICES = 20000;
+	private static final int RUN_SIZE = 1000;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	/**
+	 * Writes a reference output and a platform output, split over several files, with missing, unknown and incorrect
+	 * vertices. Unknown vertices occur both between and beyond the ids of the reference output. The platform output
+	 * also contains invalid lines, and duplicate vertices of which only the last occurrence is correct.
+	 *
+	 * @return the number of missing vertices
+	 */
+	private long writeOutputs(Path validationFile, File outputDirectory, boolean doubles, long idStride)
+			throws IOException {
+		long missingVertices = 0;
+		Random random = new Random(42);
+		PrintWriter[] outputFiles = new PrintWriter[3];
+		outputDirectory.mkdirs();
+		for (int i = 0; i < outputFiles.length; i++) {
+			outputFiles[i] = new PrintWriter(new File(outputDirectory, "part-" + i));
+		}
+		try (PrintWriter validation = new PrintWriter(validationFile.toFile())) {
+			for (int vertex = 0; vertex < NUMBER_OF_VERTICES; vertex++) {
+				long id = vertex * idStride - 1000;
+				String value = doubles ? Double.toString(random.nextDouble()) : Long.toString(random.nextInt(100));
+				PrintWriter output = outputFiles[random.nextInt(outputFiles.length)];
+				if (vertex % 23 == 0) {
+					// Unknown vertex within the range of the reference output
+					output.println(id + " " + value);
+					continue;
+				}
+				validation.println(id + " " + value);
+
+				if (vertex % 10 == 0) {
+					missingVertices++;
+					continue;
+				}
+				if (vertex % 13 == 0) {
+					output.println(id + " " + (doubles ? "2.5" : "-1"));
+				} else {
+					if (vertex % 17 == 0) {
+						outputFiles[0].println(id + " " + (doubles ? "3.5" : "-2"));
+						output = outputFiles[outputFiles.length - 1];
+					}
+					output.println(id + " " + value);
+				}
+				if (vertex % 19 == 0) {
+					// Unknown vertex beyond the range of the reference output
+					output.println((id + idStride * NUMBER_OF_VERTICES) + " " + value);
+				}
+				if (vertex % 101 == 0) {
+					output.println("not a vertex");
+				}
+			}
+		} finally {
+			for (PrintWriter outputFile : outputFiles) {
+				outputFile.close();
+			}
+		}
+		return missingVertices;
+	}
+
+	private static void assertSameCounts(ValidationCounters expected, ValidationCounters actual) {
+		assertEquals(expected.getCorrectVertices(), actual.getCorrectVertices());
+		assertEquals(expected.getIncorrectVertices(), actual.getIncorrectVertices());
+		assertEquals(expected.getMissingVertices(), actual.getMissingVertices());
+		assertEquals(expected.getUnknownVertices(), actual.getUnknownVertices());
+	}
+
+	private void validateLongOutputs(long idStride) throws IOException, ValidatorException {
+		Path validationFile = temporaryFolder.newFile("validation-" + idStride).toPath();
+		File outputDirectory = new File(temporaryFolder.getRoot(), "output-" + idStride);
+		long missingVertices = writeOutputs(validationFile, outputDirectory, false, idStride);
+
+		LongVertexValidator singleThreaded = new LongVertexValidator(outputDirectory.toPath(), validationFile,
+				new MatchLongValidationRule(), false, ValidationMode.IN_MEMORY, RUN_SIZE, 1, NUMBER_OF_VERTICES);
+		LongVertexValidator multiThreaded = new LongVertexValidator(outputDirectory.toPath(), validationFile,
+				new MatchLongValidationRule(), false, ValidationMode.IN_MEMORY, RUN_SIZE, 4, NUMBER_OF_VERTICES);
+		LongVertexValidator external = new LongVertexValidator(outputDirectory.toPath(), validationFile,
+				new MatchLongValidationRule(), false, ValidationMode.EXTERNAL_SORT, RUN_SIZE, 1, NUMBER_OF_VERTICES);
+		assertFalse(singleThreaded.validate());
+		assertFalse(multiThreaded.validate());
+		assertFalse(external.validate());
+
+		assertEquals(missingVertices, singleThreaded.getCounters().getMissingVertices());
+		assertSameCounts(singleThreaded.getCounters(), multiThreaded.getCounters());
+		assertSameCounts(singleThreaded.getCounters(), external.getCounters());
+	}
+
+	private void validateDoubleOutputs(long idStride) throws IOException, ValidatorException {
+		Path validationFile = temporaryFolder.newFile("validation-" + idStride).toPath();
+		File outputDirectory = new File(temporaryFolder.getRoot(), "output-" + idStride);
+		long missingVertices = writeOutputs(validationFile, outputDirectory, true, idStride);
+
+		DoubleVertexValidator singleThreaded = new DoubleVertexValidator(outputDirectory.toPath(), validationFile,
+				new EpsilonValidationRule(), false, ValidationMode.IN_MEMORY, RUN_SIZE, 1, NUMBER_OF_VERTICES);
+		DoubleVertexValidator multiThreaded = new DoubleVertexValidator(outputDirectory.toPath(), validationFile,
+				new EpsilonValidationRule(), false, ValidationMode.IN_MEMORY, RUN_SIZE, 4, NUMBER_OF_VERTICES);
+		DoubleVertexValidator external = new DoubleVertexValidator(outputDirectory.toPath(), validationFile,
+				new EpsilonValidationRule(), false, ValidationMode.EXTERNAL_SORT, RUN_SIZE, 1, NUMBER_OF_VERTICES);
+		assertFalse(singleThreaded.validate());
+		assertFalse(multiThreaded.validate());
+		assertFalse(external.validate());
+
+		assertEquals(missingVertices, singleThreaded.getCounters().getMissingVertices());
+		assertSameCounts(singleThreaded.getCounters(), multiThreaded.getCounters());
+		assertSameCounts(singleThreaded.getCounters(), external.getCounters());
+	}
+
+	@Test
+	public void testLongValidationModesReportSameCounts() throws IOException, ValidatorException {
+		// Dense and sparse vertex ids
+		validateLongOutputs(1);
+		validateLongOutputs(7);
+	}
+
+	@Test
+	public void testDoubleValidationModesReportSameCounts() throws IOException, ValidatorException {
+		validateDoubleOutputs(1);
+		validateDoubleOutputs(7);
+	}
+
+	@Test
+	public void testEquivalenceValidationOnMultipleThreads() throws IOException, ValidatorException {
+		Path validationFile = temporaryFolder.newFile("validation-equivalence").toPath();
+		File outputFile = temporaryFolder.newFile("output-equivalence");
+		try (PrintWriter validation = new PrintWriter(validationFile.toFile());
+		     PrintWriter output = new PrintWriter(outputFile)) {
+			for (int vertex = 0; vertex < NUMBER_OF_VERTICES; vertex++) {
+				long label = vertex % 97;
+				validation.println(vertex + " " + label);
+				// Relabel the components of the reference output
+				output.println(vertex + " " + (label * 31 + 5));
+			}
+		}
+
+		LongVertexValidator validator = new LongVertexValidator(outputFile.toPath(), validationFile,
+				new EquivalenceValidationRule(), false, ValidationMode.IN_MEMORY, RUN_SIZE, 4, NUMBER_OF_VERTICES);
+		assertTrue(validator.validate());
+		assertEquals(NUMBER_OF_VERTICES, validator.getCounters().getCorrectVertices());
+	}
+
+	/**
+	 * Writes an equivalence output that relabels the components of the reference output, except for some vertices
+	 * that carry the label of another component. Which of these vertices are counted as incorrect depends on the
+	 * order in which the vertices are matched.
+	 */
+	private void writeMismatchingEquivalenceOutputs(Path validationFile, File outputFile, long idStride)
+			throws IOException {
+		try (PrintWriter validation = new PrintWriter(validationFile.toFile());
+		     PrintWriter output = new PrintWriter(outputFile)) {
+			for (int vertex = 0; vertex < NUMBER_OF_VERTICES; vertex++) {
+				long id = vertex * idStride;
+				long label = vertex % 97;
+				validation.println(id + " " + label);
+				long outputLabel = vertex % 13 == 0 ? (label + 1) % 97 : label;
+				output.println(id + " " + (outputLabel * 31 + 5));
+			}
+		}
+	}
+
+	@Test
+	public void testEquivalenceCountsDoNotDependOnThreads() throws IOException, ValidatorException {
+		for (long idStride : new long[]{1, 7}) {
+			Path validationFile = temporaryFolder.newFile("validation-equivalence-" + idStride).toPath();
+			File outputFile = temporaryFolder.newFile("output-equivalence-" + idStride);
+			writeMismatchingEquivalenceOutputs(validationFile, outputFile, idStride);
+
+			LongVertexValidator singleThreaded = new LongVertexValidator(outputFile.toPath(), validationFile,
+					new EquivalenceValidationRule(), false, ValidationMode.IN_MEMORY, RUN_SIZE, 1, NUMBER_OF_VERTICES);
+			assertFalse(singleThreaded.validate());
+			assertTrue(singleThreaded.getCounters().getIncorrectVertices() > 0);
+			for (int numberOfThreads : new int[]{2, 3, 4}) {
+				LongVertexValidator multiThreaded = new LongVertexValidator(outputFile.toPath(), validationFile,
+						new EquivalenceValidationRule(), false, ValidationMode.IN_MEMORY, RUN_SIZE, numberOfThreads,
+						NUMBER_OF_VERTICES);
+				assertFalse(multiThreaded.validate());
+				assertSameCounts(singleThreaded.getCounters(), multiThreaded.getCounters());
+			}
+		}
+	}
+
+	@Test
+	public void testEquivalenceValidationModesReportSameCounts() throws IOException, ValidatorException {
+		for (long idStride : new long[]{1, 7}) {
+			Path validationFile = temporaryFolder.newFile("validation-modes-" + idStride).toPath();
+			File outputFile = temporaryFolder.newFile("output-modes-" + idStride);
+			writeMismatchingEquivalenceOutputs(validationFile, outputFile, idStride);
+
+			LongVertexValidator inMemory = new LongVertexValidator(outputFile.toPath(), validationFile,
+					new EquivalenceValidationRule(), false, ValidationMode.IN_MEMORY, RUN_SIZE, 4, NUMBER_OF_VERTICES);
+			LongVertexValidator external = new LongVertexValidator(outputFile.toPath(), validationFile,
+					new EquivalenceValidationRule(), false, ValidationMode.EXTERNAL_SORT, RUN_SIZE, 1,
+					NUMBER_OF_VERTICES);
+			assertFalse(inMemory.validate());
+			assertFalse(external.validate());
+			assertSameCounts(inMemory.getCounters(), external.getCounters());
+		}
+	}
+
+	@Test
+	public void testDenseRangeSelection() throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			assertEquals(1000, parseIds(executor, 1, 1000).getDenseLength(-1));
+			assertEquals(0, parseIds(executor, 3, 1000).getDenseLength(-1));
+			// The number of vertices of the graph allows a sparser reference output
+			assertEquals(2998, parseIds(executor, 3, 1000).getDenseLength(2000));
+			assertEquals(0, parseIds(executor, 1, 0).getDenseLength(100));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private PartitionedVertexValues.ParsedFiles parseIds(ExecutorService executor, long idStride, int count)
+			throws IOException {
+		File file = temporaryFolder.newFile();
+		try (PrintWriter writer = new PrintWriter(file)) {
+			for (int i = 0; i < count; i++) {
+				writer.println((i * idStride + 128) + " 0");
+			}
+		}
+		return PartitionedVertexValues.parseFiles(file.toPath(), DecimalParser::parseLong, 4, executor);
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.validation.rule;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for the primitive specializations of ValidationRule, checking that the primitive, boxed and batch
+ * methods agree.
+ */
+public class ValidationRulesTest {
+
+	@Test
+	public void testEpsilonParsesInfinity() {
+		EpsilonValidationRule rule = new EpsilonValidationRule();
+		assertEquals(Double.POSITIVE_INFINITY, rule.parse((CharSequence)"Inf"), 0.0);
+		assertEquals(Double.POSITIVE_INFINITY, rule.parse((CharSequence)"+INFINITY"), 0.0);
+		assertEquals(Double.NEGATIVE_INFINITY, rule.parse((CharSequence)"-inf"), 0.0);
+		assertEquals(0.25, rule.parse("0.25"), 0.0);
+	}
+
+	@Test
+	public void testEpsilonParsesRangeLikeParseDouble() {
+		EpsilonValidationRule rule = new EpsilonValidationRule();
+		String[] values = {"0", "-0", "1.5", "+0.25", "-123.456", "1e10", "2.5E-3", "0.1", "123456789012345678",
+				"9007199254740993", "1e23", "1e-30", "4.9e-324", "1.7976931348623157E308", "NaN", "0x1p3", "1.0d", "1."};
+		for (String value : values) {
+			double expected = Double.parseDouble(value);
+			assertEquals(value, Double.doubleToLongBits(expected),
+					Double.doubleToLongBits(rule.parse("7 " + value + " 8", 2, 2 + value.length())));
+			assertEquals(value, Double.doubleToLongBits(expected), Double.doubleToLongBits(rule.parse(value)));
+		}
+
+		Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			String value = random.nextInt(1000000) + "." + random.nextInt(1000000) + "e" + (random.nextInt(40) - 20);
+			assertEquals(value, Double.parseDouble(value), rule.parse(value, 0, value.length()), 0.0);
+		}
+		assertEquals(Double.NEGATIVE_INFINITY, rule.parse("x -inf", 2, 6), 0.0);
+	}
+
+	@Test
+	public void testLongRulesParseRange() {
+		assertEquals(-42L, new MatchLongValidationRule().parse("1 -42", 2, 5));
+		assertEquals(7L, new EquivalenceValidationRule().parse("1 7 ", 2, 3));
+	}
+
+	@Test
+	public void testEpsilonMatchAllAgreesWithMatch() {
+		EpsilonValidationRule rule = new EpsilonValidationRule();
+		Random random = new Random(42);
+		int length = 500;
+		long[] ids = new long[length];
+		double[] outputValues = new double[length];
+		double[] correctValues = new double[length];
+		for (int i = 0; i < length; i++) {
+			ids[i] = i;
+			correctValues[i] = random.nextDouble();
+			outputValues[i] = random.nextBoolean() ? correctValues[i] * (1 + 1e-6) : random.nextDouble();
+		}
+
+		BitSet mismatches = new BitSet();
+		// Bits of a previous batch must be cleared
+		mismatches.set(0, length);
+		rule.matchAll(ids, outputValues, correctValues, length, mismatches);
+		for (int i = 0; i < length; i++) {
+			assertEquals(!rule.match(outputValues[i], correctValues[i]), mismatches.get(i));
+			assertEquals(rule.match(outputValues[i], correctValues[i]),
+					rule.match(Double.valueOf(outputValues[i]), Double.valueOf(correctValues[i])));
+		}
+	}
+
+	@Test
+	public void testMatchLongMatchAllAgreesWithMatch() {
+		MatchLongValidationRule rule = new MatchLongValidationRule();
+		long[] ids = {1, 2, 3, 4};
+		long[] outputValues = {5, 6, 7, Long.MIN_VALUE};
+		long[] correctValues = {5, 0, 7, Long.MIN_VALUE};
+
+		BitSet mismatches = new BitSet();
+		mismatches.set(3);
+		rule.matchAll(ids, outputValues, correctValues, 4, mismatches);
+		assertEquals(1, mismatches.cardinality());
+		assertTrue(mismatches.get(1));
+		assertFalse(rule.match((Long)null, Long.valueOf(5)));
+	}
+
+	@Test
+	public void testEquivalenceRequiresBijection() {
+		EquivalenceValidationRule rule = new EquivalenceValidationRule();
+		assertTrue(rule.match(10L, 1L));
+		assertTrue(rule.match(20L, 2L));
+		assertTrue(rule.match(10L, 1L));
+		// The same output label for a different reference label
+		assertFalse(rule.match(10L, 2L));
+		// A different output label for the same reference label
+		assertFalse(rule.match(30L, 1L));
+
+		BitSet mismatches = new BitSet();
+		rule.matchAll(new long[]{1, 2, 3}, new long[]{20, 40, 40}, new long[]{2, 4, 5}, 3, mismatches);
+		assertEquals(1, mismatches.cardinality());
+		assertTrue(mismatches.get(2));
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import science.atlarge.graphalytics.domain.algorithms.Algorithm;
+import science.atlarge.graphalytics.domain.algorithms.AlgorithmParameters;
+import science.atlarge.graphalytics.domain.algorithms.BreadthFirstSearchParameters;
+import science.atlarge.graphalytics.domain.algorithms.CommunityDetectionLPParameters;
+import science.atlarge.graphalytics.domain.algorithms.PageRankParameters;
+import science.atlarge.graphalytics.domain.algorithms.SingleSourceShortestPathsParameters;
+import science.atlarge.graphalytics.domain.graph.Property;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+import science.atlarge.graphalytics.reference.algorithms.bfs.BreadthFirstSearch;
+import science.atlarge.graphalytics.reference.algorithms.cdlp.CommunityDetectionLP;
+import science.atlarge.graphalytics.reference.algorithms.lcc.LocalClusteringCoefficient;
+import science.atlarge.graphalytics.reference.algorithms.pr.PageRank;
+import science.atlarge.graphalytics.reference.algorithms.sssp.SingleSourceShortestPaths;
+import science.atlarge.graphalytics.reference.algorithms.wcc.WeaklyConnectedComponents;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Dispatches the execution of a Graphalytics algorithm to the corresponding reference implementation.
+ */
+public final class ReferenceAlgorithms {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * The algorithms with a reference implementation.
+	 */
+	public static final Set<Algorithm> SUPPORTED_ALGORITHMS = EnumSet.of(Algorithm.BFS, Algorithm.CDLP, Algorithm.LCC,
+			Algorithm.PR, Algorithm.SSSP, Algorithm.WCC);
+
+	/**
+	 * Prevent instantiation of utility class.
+	 */
+	private ReferenceAlgorithms() {
+	}
+
+	/**
+	 * @param algorithm      the algorithm to execute
+	 * @param parameters     the parameters of the algorithm
+	 * @param graph          the graph to execute the algorithm on
+	 * @param edgeProperties the properties of each edge in the graph
+	 * @param pool           the pool to execute the algorithm on
+	 * @return the output of the algorithm
+	 * @throws IllegalArgumentException if the algorithm is not supported, or a required property is missing
+	 */
+	public static VertexOutput execute(Algorithm algorithm, AlgorithmParameters parameters, CsrGraph graph,
+			PropertyList edgeProperties, ForkJoinPool pool) {
+		switch (algorithm) {
+			case BFS:
+				BreadthFirstSearchParameters bfsParameters = (BreadthFirstSearchParameters)parameters;
+				BreadthFirstSearch bfs = new BreadthFirstSearch(graph, pool);
+				long[] depths = bfs.run(bfsParameters.getSourceVertex());
+				for (BreadthFirstSearch.LevelStatistics level : bfs.getLevelStatistics()) {
+					LOG.info("BFS level {}.", level);
+				}
+				return VertexOutput.ofLongs(graph, depths);
+			case CDLP:
+				CommunityDetectionLPParameters cdlpParameters = (CommunityDetectionLPParameters)parameters;
+				CommunityDetectionLP cdlp = new CommunityDetectionLP(graph, pool);
+				long[] labels = cdlp.run(cdlpParameters.getMaxIterations());
+				for (CommunityDetectionLP.IterationStatistics iteration : cdlp.getIterationStatistics()) {
+					LOG.info("CDLP {}.", iteration);
+				}
+				return VertexOutput.ofLongs(graph, labels);
+			case LCC:
+				return VertexOutput.ofDoubles(graph, new LocalClusteringCoefficient(graph, pool).run());
+			case PR:
+				PageRankParameters prParameters = (PageRankParameters)parameters;
+				PageRank pageRank = new PageRank(graph, pool);
+				double[] ranks = pageRank.run(prParameters.getDampingFactor(), prParameters.getNumberOfIterations());
+				double[] deltas = new double[pageRank.getIterationStatistics().size()];
+				for (PageRank.IterationStatistics iteration : pageRank.getIterationStatistics()) {
+					LOG.info("PR {}.", iteration);
+					deltas[iteration.getIteration() - 1] = iteration.getL1Delta();
+				}
+				return VertexOutput.ofDoubles(graph, ranks).withIterationDeltas(deltas);
+			case SSSP:
+				SingleSourceShortestPathsParameters ssspParameters = (SingleSourceShortestPathsParameters)parameters;
+				int weightProperty = edgeProperties.indexOf(
+						new Property(ssspParameters.getWeightPropertyName(), PropertyType.REAL));
+				if (weightProperty < 0) {
+					throw new IllegalArgumentException("Graph has no REAL edge property named \"" +
+							ssspParameters.getWeightPropertyName() + "\".");
+				}
+				return VertexOutput.ofDoubles(graph, new SingleSourceShortestPaths(graph, pool)
+						.run(ssspParameters.getSourceVertex(), weightProperty));
+			case WCC:
+				return VertexOutput.ofLongs(graph, new WeaklyConnectedComponents(graph, pool).run());
+			default:
+				throw new IllegalArgumentException("Algorithm " + algorithm.getAcronym() +
+						" has no reference implementation.");
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import science.atlarge.graphalytics.configuration.ConfigurationUtil;
+import science.atlarge.graphalytics.configuration.GraphParser;
+import science.atlarge.graphalytics.configuration.InvalidConfigurationException;
+import science.atlarge.graphalytics.domain.algorithms.Algorithm;
+import science.atlarge.graphalytics.domain.algorithms.AlgorithmParameters;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.domain.graph.Graph;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.util.graph.PropertyGraphParser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command-line tool that generates validation data for a graph configured in the benchmark configuration. The graph
+ * is read from "graphs.root-directory", the configured algorithms are executed by the reference implementations, and
+ * the output of each algorithm is written to "graphs.validation-directory" as &lt;graph&gt;-&lt;ALGORITHM&gt;, where
+ * the benchmark looks for validation data:
+ * <pre>
+ * ReferenceOutputGenerator [--threads &lt;n&gt;] &lt;graph&gt; [&lt;algorithm&gt; ...]
+ * </pre>
+ * If no algorithms are given, output is generated for all algorithms configured for the graph. For iterative
+ * algorithms that report it, the L1 norm of the change per iteration is written next to the output, to
+ * &lt;graph&gt;-&lt;ALGORITHM&gt;.deltas.
+ */
+public final class ReferenceOutputGenerator {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private static final String BENCHMARK_PROPERTIES_FILE = "benchmark.properties";
+	private static final String GRAPHS_ROOT_DIRECTORY_KEY = "graphs.root-directory";
+	private static final String GRAPHS_CACHE_DIRECTORY_KEY = "graphs.cache-directory";
+	private static final String GRAPHS_VALIDATION_DIRECTORY_KEY = "graphs.validation-directory";
+	private static final String ITERATION_DELTAS_SUFFIX = ".deltas";
+
+	private final Configuration benchmarkConfiguration;
+	private final int numberOfThreads;
+
+	/**
+	 * @param benchmarkConfiguration the benchmark configuration describing the graph
+	 * @param numberOfThreads        the number of threads to use
+	 */
+	public ReferenceOutputGenerator(Configuration benchmarkConfiguration, int numberOfThreads) {
+		this.benchmarkConfiguration = benchmarkConfiguration;
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/**
+	 * Generates the validation data of a graph.
+	 *
+	 * @param graphName  the name of the graph
+	 * @param algorithms the algorithms to generate output for, or an empty list for all configured algorithms
+	 * @return the paths of the generated files
+	 * @throws InvalidConfigurationException if the graph is not configured correctly
+	 * @throws IOException                   if the graph could not be read or the output could not be written
+	 */
+	public List<Path> generate(String graphName, List<Algorithm> algorithms) throws IOException {
+		String graphRootDirectory = ConfigurationUtil.getString(benchmarkConfiguration, GRAPHS_ROOT_DIRECTORY_KEY);
+		String graphCacheDirectory = benchmarkConfiguration.getString(GRAPHS_CACHE_DIRECTORY_KEY,
+				Paths.get(graphRootDirectory, "cache").toString());
+		Path validationDirectory = Paths.get(benchmarkConfiguration.getString(GRAPHS_VALIDATION_DIRECTORY_KEY,
+				graphRootDirectory));
+
+		Graph graph = new GraphParser(benchmarkConfiguration.subset("graph." + graphName), graphName,
+				graphRootDirectory, graphCacheDirectory).parseGraph();
+		Map<Algorithm, AlgorithmParameters> algorithmParameters = graph.getAlgorithmParameters();
+		List<Algorithm> selectedAlgorithms = new ArrayList<>();
+		for (Algorithm algorithm : algorithms.isEmpty() ? algorithmParameters.keySet() : algorithms) {
+			if (!algorithmParameters.containsKey(algorithm)) {
+				throw new InvalidConfigurationException("Algorithm " + algorithm.getAcronym() +
+						" is not configured for graph \"" + graphName + "\".");
+			}
+			if (ReferenceAlgorithms.SUPPORTED_ALGORITHMS.contains(algorithm)) {
+				selectedAlgorithms.add(algorithm);
+			} else {
+				LOG.warn("Skipping algorithm " + algorithm.getAcronym() + ", which has no reference implementation.");
+			}
+		}
+
+		// The source graph contains all properties required by any algorithm
+		FormattedGraph sourceGraph = graph.getSourceGraph();
+		long startTime = System.nanoTime();
+		CsrGraph csrGraph = PropertyGraphParser.parseCsrGraph(sourceGraph.getVertexFilePath(),
+				sourceGraph.getEdgeFilePath(), sourceGraph.isDirected(), sourceGraph.getVertexProperties(),
+				sourceGraph.getEdgeProperties(), numberOfThreads);
+		LOG.info("Loaded graph \"{}\" in {} ms.", graphName, (System.nanoTime() - startTime) / 1000000);
+
+		List<Path> outputFiles = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+		try {
+			for (Algorithm algorithm : selectedAlgorithms) {
+				startTime = System.nanoTime();
+				VertexOutput output = ReferenceAlgorithms.execute(algorithm, algorithmParameters.get(algorithm),
+						csrGraph, sourceGraph.getEdgeProperties(), pool);
+				LOG.info("Executed algorithm {} on graph \"{}\" in {} ms.", algorithm.getAcronym(), graphName,
+						(System.nanoTime() - startTime) / 1000000);
+
+				Path outputFile = validationDirectory.resolve(graphName + "-" + algorithm.getAcronym());
+				output.write(outputFile);
+				outputFiles.add(outputFile);
+				LOG.info("Wrote validation data to \"{}\".", outputFile);
+				if (output.hasIterationDeltas()) {
+					Path deltasFile = validationDirectory.resolve(graphName + "-" + algorithm.getAcronym() +
+							ITERATION_DELTAS_SUFFIX);
+					output.writeIterationDeltas(deltasFile);
+					outputFiles.add(deltasFile);
+					LOG.info("Wrote iteration deltas to \"{}\".", deltasFile);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+		return outputFiles;
+	}
+
+	public static void main(String[] args) throws IOException {
+		int numberOfThreads = Runtime.getRuntime().availableProcessors();
+		String graphName = null;
+		List<Algorithm> algorithms = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--threads") && i + 1 < args.length) {
+				numberOfThreads = Integer.parseInt(args[++i]);
+			} else if (graphName == null) {
+				graphName = args[i];
+			} else {
+				Algorithm algorithm = Algorithm.fromAcronym(args[i]);
+				if (algorithm == null) {
+					printUsage("Unknown algorithm \"" + args[i] + "\".");
+					return;
+				}
+				algorithms.add(algorithm);
+			}
+		}
+		if (graphName == null || numberOfThreads < 1) {
+			printUsage(graphName == null ? "Missing graph name." : "Number of threads must be at least 1.");
+			return;
+		}
+
+		Configuration benchmarkConfiguration = ConfigurationUtil.loadConfiguration(BENCHMARK_PROPERTIES_FILE);
+		new ReferenceOutputGenerator(benchmarkConfiguration, numberOfThreads).generate(graphName, algorithms);
+	}
+
+	private static void printUsage(String error) {
+		System.err.println(error);
+		System.err.println("Usage: ReferenceOutputGenerator [--threads <n>] <graph> [<algorithm> ...]");
+		System.exit(1);
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import science.atlarge.graphalytics.configuration.ConfigurationUtil;
+import science.atlarge.graphalytics.domain.benchmark.BenchmarkRun;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.domain.graph.LoadedGraph;
+import science.atlarge.graphalytics.execution.BenchmarkRunSetup;
+import science.atlarge.graphalytics.execution.Platform;
+import science.atlarge.graphalytics.execution.PlatformExecutionException;
+import science.atlarge.graphalytics.execution.RunSpecification;
+import science.atlarge.graphalytics.report.result.BenchmarkMetric;
+import science.atlarge.graphalytics.report.result.BenchmarkMetrics;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.util.graph.PropertyGraphParser;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reference platform driver for the Graphalytics benchmark. All algorithms are executed in the JVM of the benchmark
+ * runner by multi-threaded implementations over a CsrGraph, so no external system is required. The output of this
+ * platform can be used as validation data for custom graphs, see ReferenceOutputGenerator.
+ */
+public class ReferencePlatform implements Platform {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	public static final String PLATFORM_NAME = "reference";
+
+	private static final String PLATFORM_PROPERTIES_FILE = "platform.properties";
+	private static final String NUM_THREADS_KEY = "platform.reference.num-threads";
+	private static final String OUTPUT_FILE_NAME = "part-0";
+
+	private long processingTimeNanos = -1;
+
+	@Override
+	public void verifySetup() throws Exception {
+
+	}
+
+	@Override
+	public LoadedGraph loadGraph(FormattedGraph formattedGraph) throws Exception {
+		// The graph is parsed in the runner process, as the executor and runner do not share memory
+		for (String path : new String[]{formattedGraph.getVertexFilePath(), formattedGraph.getEdgeFilePath()}) {
+			if (!Files.exists(Paths.get(path))) {
+				throw new PlatformExecutionException("Missing graph file \"" + path + "\".");
+			}
+		}
+		return new LoadedGraph(formattedGraph, formattedGraph.getVertexFilePath(), formattedGraph.getEdgeFilePath());
+	}
+
+	@Override
+	public void deleteGraph(LoadedGraph loadedGraph) throws Exception {
+
+	}
+
+	@Override
+	public void prepare(RunSpecification runSpecification) throws Exception {
+
+	}
+
+	@Override
+	public void startup(RunSpecification runSpecification) throws Exception {
+		processingTimeNanos = -1;
+	}
+
+	@Override
+	public void run(RunSpecification runSpecification) throws PlatformExecutionException {
+		BenchmarkRun benchmarkRun = runSpecification.getBenchmarkRun();
+		BenchmarkRunSetup benchmarkRunSetup = runSpecification.getBenchmarkRunSetup();
+		LoadedGraph loadedGraph = runSpecification.getRuntimeSetup().getLoadedGraph();
+		FormattedGraph formattedGraph = loadedGraph.getFormattedGraph();
+
+		if (!ReferenceAlgorithms.SUPPORTED_ALGORITHMS.contains(benchmarkRun.getAlgorithm())) {
+			throw new PlatformExecutionException("Algorithm " + benchmarkRun.getAlgorithm().getAcronym() +
+					" is not supported by the reference platform.");
+		}
+
+		int numberOfThreads = getNumberOfThreads();
+		ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+		try {
+			CsrGraph graph = PropertyGraphParser.parseCsrGraph(loadedGraph.getVertexPath(), loadedGraph.getEdgePath(),
+					formattedGraph.isDirected(), formattedGraph.getVertexProperties(),
+					formattedGraph.getEdgeProperties(), numberOfThreads);
+
+			LOG.info("Executing benchmark with algorithm \"{}\" on graph \"{}\" using {} threads.",
+					benchmarkRun.getAlgorithm().getName(), formattedGraph.getName(), numberOfThreads);
+			long startTime = System.nanoTime();
+			VertexOutput output = ReferenceAlgorithms.execute(benchmarkRun.getAlgorithm(),
+					benchmarkRun.getAlgorithmParameters(), graph, formattedGraph.getEdgeProperties(), pool);
+			processingTimeNanos = System.nanoTime() - startTime;
+			LOG.info("Executed benchmark with algorithm \"{}\" on graph \"{}\" in {} ms.",
+					benchmarkRun.getAlgorithm().getName(), formattedGraph.getName(), processingTimeNanos / 1000000);
+
+			if (benchmarkRunSetup.isOutputRequired()) {
+				// The validators read every file in the output directory, so the output is written as a single part
+				output.write(benchmarkRunSetup.getOutputDir().resolve(OUTPUT_FILE_NAME));
+			}
+		} catch (IOException | RuntimeException e) {
+			throw new PlatformExecutionException("Failed to execute the reference implementation.", e);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static int getNumberOfThreads() {
+		int defaultThreads = Runtime.getRuntime().availableProcessors();
+		try {
+			Configuration platformConfiguration = ConfigurationUtil.loadConfiguration(PLATFORM_PROPERTIES_FILE);
+			int threads = platformConfiguration.getInt(NUM_THREADS_KEY, defaultThreads);
+			if (threads < 1) {
+				LOG.error("Invalid value for configuration " + NUM_THREADS_KEY + ": " + threads);
+				return defaultThreads;
+			}
+			return threads;
+		} catch (Exception e) {
+			LOG.debug("Failed to read configuration " + NUM_THREADS_KEY + ", using " + defaultThreads + " threads.");
+			return defaultThreads;
+		}
+	}
+
+	@Override
+	public BenchmarkMetrics finalize(RunSpecification runSpecification) throws Exception {
+		BenchmarkMetrics metrics = new BenchmarkMetrics();
+		if (processingTimeNanos >= 0) {
+			metrics.setProcessingTime(new BenchmarkMetric(
+					new BigDecimal(processingTimeNanos).divide(new BigDecimal(1000000000), 3, BigDecimal.ROUND_CEILING),
+					"s"));
+		}
+		return metrics;
+	}
+
+	@Override
+	public void terminate(RunSpecification runSpecification) throws Exception {
+		// All work is done within the runner process, there are no external processes to terminate
+	}
+
+	@Override
+	public String getPlatformName() {
+		return PLATFORM_NAME;
+	}
+
+}
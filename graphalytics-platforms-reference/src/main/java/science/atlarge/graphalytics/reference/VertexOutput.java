@@ -0,0 +1,191 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference;
+
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.util.io.EvlpByteWriter;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Output of an algorithm: one INTEGER or REAL value per vertex of a CsrGraph, indexed by dense vertex index. Written
+ * in the format read by LongVertexValidator and DoubleVertexValidator, i.e. one line per vertex with the vertex id and
+ * value separated by a space, in ascending order of vertex id.
+ * <p>
+ * Iterative algorithms may attach the L1 norm of the change in values per iteration, which is written to a separate
+ * file to document how far the output is from convergence.
+ */
+public final class VertexOutput {
+
+	private final CsrGraph graph;
+	private final long[] longValues;
+	private final double[] doubleValues;
+	private final double[] iterationDeltas;
+
+	private VertexOutput(CsrGraph graph, long[] longValues, double[] doubleValues, double[] iterationDeltas) {
+		this.graph = graph;
+		this.longValues = longValues;
+		this.doubleValues = doubleValues;
+		this.iterationDeltas = iterationDeltas;
+	}
+
+	/**
+	 * @param graph  the graph the values belong to
+	 * @param values the value of each vertex, indexed by dense vertex index
+	 * @return the output
+	 */
+	public static VertexOutput ofLongs(CsrGraph graph, long[] values) {
+		return new VertexOutput(graph, values, null, null);
+	}
+
+	/**
+	 * @param graph  the graph the values belong to
+	 * @param values the value of each vertex, indexed by dense vertex index
+	 * @return the output
+	 */
+	public static VertexOutput ofDoubles(CsrGraph graph, double[] values) {
+		return new VertexOutput(graph, null, values, null);
+	}
+
+	/**
+	 * @param iterationDeltas the L1 norm of the change in values in each iteration, in order
+	 * @return a copy of this output with the given iteration deltas
+	 */
+	public VertexOutput withIterationDeltas(double[] iterationDeltas) {
+		return new VertexOutput(graph, longValues, doubleValues, iterationDeltas.clone());
+	}
+
+	/**
+	 * @return true iff iteration deltas are attached to this output
+	 */
+	public boolean hasIterationDeltas() {
+		return iterationDeltas != null;
+	}
+
+	/**
+	 * @return the number of iterations with an attached delta
+	 */
+	public int getNumberOfIterations() {
+		return iterationDeltas == null ? 0 : iterationDeltas.length;
+	}
+
+	/**
+	 * @param iteration the index of an iteration, starting at 0
+	 * @return the L1 norm of the change in values in the iteration
+	 */
+	public double getIterationDelta(int iteration) {
+		return iterationDeltas[iteration];
+	}
+
+	/**
+	 * @return true iff the output consists of REAL values
+	 */
+	public boolean isReal() {
+		return doubleValues != null;
+	}
+
+	/**
+	 * @return the number of vertices in the output
+	 */
+	public int size() {
+		return graph.getNumberOfVertices();
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the id of the vertex
+	 */
+	public long getVertexId(int vertex) {
+		return graph.getVertexId(vertex);
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the INTEGER value of the vertex
+	 */
+	public long getLong(int vertex) {
+		return longValues[vertex];
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the REAL value of the vertex
+	 */
+	public double getDouble(int vertex) {
+		return doubleValues[vertex];
+	}
+
+	/**
+	 * Writes the output to a file, replacing any existing file. Missing parent directories are created.
+	 *
+	 * @param path the file to write to
+	 * @throws IOException if the file could not be written
+	 */
+	public void write(Path path) throws IOException {
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		try (EvlpByteWriter writer = openWriter(path)) {
+			for (int v = 0; v < size(); v++) {
+				writer.writeLong(graph.getVertexId(v));
+				writer.writeSeparator();
+				if (isReal()) {
+					writer.writeDouble(doubleValues[v]);
+				} else {
+					writer.writeLong(longValues[v]);
+				}
+				writer.endLine();
+			}
+		}
+	}
+
+	/**
+	 * Writes the attached iteration deltas to a file, one line per iteration with the number of the iteration
+	 * (starting at 1) and its delta separated by a space. Missing parent directories are created.
+	 *
+	 * @param path the file to write to
+	 * @throws IOException           if the file could not be written
+	 * @throws IllegalStateException if no iteration deltas are attached
+	 */
+	public void writeIterationDeltas(Path path) throws IOException {
+		if (iterationDeltas == null) {
+			throw new IllegalStateException("No iteration deltas are attached to this output.");
+		}
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		try (EvlpByteWriter writer = openWriter(path)) {
+			for (int i = 0; i < iterationDeltas.length; i++) {
+				writer.writeLong(i + 1);
+				writer.writeSeparator();
+				writer.writeDouble(iterationDeltas[i]);
+				writer.endLine();
+			}
+		}
+	}
+
+	private static EvlpByteWriter openWriter(Path path) throws IOException {
+		return new EvlpByteWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+	}
+
+}
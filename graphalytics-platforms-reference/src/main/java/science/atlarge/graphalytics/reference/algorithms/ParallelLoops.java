@@ -0,0 +1,211 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join helpers for parallel loops over vertex ranges. A range is split in halves until it is at most the grain
+ * size, so idle workers steal the remaining halves of busy workers and skewed ranges are balanced dynamically.
+ */
+public final class ParallelLoops {
+
+	private static final int MINIMUM_GRAIN_SIZE = 64;
+	private static final int TASKS_PER_THREAD = 32;
+
+	/**
+	 * Prevent instantiation of utility class.
+	 */
+	private ParallelLoops() {
+	}
+
+	/**
+	 * Body of a parallel loop, applied to disjoint ranges of indices.
+	 */
+	public interface RangeBody {
+
+		/**
+		 * @param begin the first index of the range
+		 * @param end   the index directly after the last index of the range
+		 */
+		void apply(int begin, int end);
+
+	}
+
+	/**
+	 * Body of a parallel loop that computes a partial sum over each range.
+	 */
+	public interface LongRangeBody {
+
+		long apply(int begin, int end);
+
+	}
+
+	/**
+	 * Body of a parallel loop that computes a partial sum over each range.
+	 */
+	public interface DoubleRangeBody {
+
+		double apply(int begin, int end);
+
+	}
+
+	/**
+	 * @param pool the pool the loop is executed on
+	 * @param size the number of indices in the loop
+	 * @return a grain size that creates enough tasks to balance the load over all threads of the pool
+	 */
+	public static int grainSize(ForkJoinPool pool, int size) {
+		return Math.max(MINIMUM_GRAIN_SIZE, size / (pool.getParallelism() * TASKS_PER_THREAD));
+	}
+
+	/**
+	 * Applies a body to all indices in [0, size) in parallel.
+	 *
+	 * @param pool the pool to execute the loop on
+	 * @param size the number of indices in the loop
+	 * @param body the body to apply to each range of indices
+	 */
+	public static void forRange(ForkJoinPool pool, int size, RangeBody body) {
+		forRange(pool, size, grainSize(pool, size), body);
+	}
+
+	/**
+	 * Applies a body to all indices in [0, size) in parallel, using the given grain size.
+	 *
+	 * @param pool      the pool to execute the loop on
+	 * @param size      the number of indices in the loop
+	 * @param grainSize the maximum number of indices processed by a single task
+	 * @param body      the body to apply to each range of indices
+	 */
+	public static void forRange(ForkJoinPool pool, int size, int grainSize, RangeBody body) {
+		if (size > 0) {
+			pool.invoke(new RangeAction(body, 0, size, grainSize));
+		}
+	}
+
+	/**
+	 * Applies a body to all indices in [0, size) in parallel, and sums the partial results of all ranges.
+	 *
+	 * @param pool the pool to execute the loop on
+	 * @param size the number of indices in the loop
+	 * @param body the body to apply to each range of indices
+	 * @return the sum of the partial results
+	 */
+	public static long sumLongRange(ForkJoinPool pool, int size, LongRangeBody body) {
+		return size > 0 ? pool.invoke(new LongRangeTask(body, 0, size, grainSize(pool, size))) : 0L;
+	}
+
+	/**
+	 * Applies a body to all indices in [0, size) in parallel, and sums the partial results of all ranges. Ranges are
+	 * split deterministically, so the result does not depend on scheduling.
+	 *
+	 * @param pool the pool to execute the loop on
+	 * @param size the number of indices in the loop
+	 * @param body the body to apply to each range of indices
+	 * @return the sum of the partial results
+	 */
+	public static double sumDoubleRange(ForkJoinPool pool, int size, DoubleRangeBody body) {
+		return size > 0 ? pool.invoke(new DoubleRangeTask(body, 0, size, grainSize(pool, size))) : 0.0;
+	}
+
+	private static final class RangeAction extends RecursiveAction {
+
+		private final RangeBody body;
+		private final int begin;
+		private final int end;
+		private final int grainSize;
+
+		private RangeAction(RangeBody body, int begin, int end, int grainSize) {
+			this.body = body;
+			this.begin = begin;
+			this.end = end;
+			this.grainSize = grainSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - begin <= grainSize) {
+				body.apply(begin, end);
+				return;
+			}
+			int middle = (begin + end) >>> 1;
+			invokeAll(new RangeAction(body, begin, middle, grainSize), new RangeAction(body, middle, end, grainSize));
+		}
+
+	}
+
+	private static final class LongRangeTask extends RecursiveTask<Long> {
+
+		private final LongRangeBody body;
+		private final int begin;
+		private final int end;
+		private final int grainSize;
+
+		private LongRangeTask(LongRangeBody body, int begin, int end, int grainSize) {
+			this.body = body;
+			this.begin = begin;
+			this.end = end;
+			this.grainSize = grainSize;
+		}
+
+		@Override
+		protected Long compute() {
+			if (end - begin <= grainSize) {
+				return body.apply(begin, end);
+			}
+			int middle = (begin + end) >>> 1;
+			LongRangeTask right = new LongRangeTask(body, middle, end, grainSize);
+			right.fork();
+			long left = new LongRangeTask(body, begin, middle, grainSize).compute();
+			return left + right.join();
+		}
+
+	}
+
+	private static final class DoubleRangeTask extends RecursiveTask<Double> {
+
+		private final DoubleRangeBody body;
+		private final int begin;
+		private final int end;
+		private final int grainSize;
+
+		private DoubleRangeTask(DoubleRangeBody body, int begin, int end, int grainSize) {
+			this.body = body;
+			this.begin = begin;
+			this.end = end;
+			this.grainSize = grainSize;
+		}
+
+		@Override
+		protected Double compute() {
+			if (end - begin <= grainSize) {
+				return body.apply(begin, end);
+			}
+			int middle = (begin + end) >>> 1;
+			DoubleRangeTask right = new DoubleRangeTask(body, middle, end, grainSize);
+			right.fork();
+			double left = new DoubleRangeTask(body, begin, middle, grainSize).compute();
+			return left + right.join();
+		}
+
+	}
+
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.bfs;
+
+import science.atlarge.graphalytics.reference.algorithms.ParallelLoops;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parallel direction-optimizing breadth-first search. Each level is expanded either top-down, by scanning the
+ * outgoing edges of the frontier, or bottom-up, by letting every unvisited vertex search its incoming edges for a
+ * parent in the frontier and stopping at the first one found. The search switches to bottom-up when the frontier
+ * has more outgoing edges than the unvisited vertices have incoming edges divided by alpha, and back to top-down
+ * when the frontier shrinks below the number of vertices divided by beta. On low-diameter graphs this avoids
+ * examining most edges of the few large levels.
+ * <p>
+ * Visited vertices are tracked in a bitmap. The top-down step claims vertices with a compare-and-set on their bit
+ * and collects them in a queue; the bottom-up step reads the frontier from a bitmap and writes the next frontier
+ * one whole word per vertex range, so it needs no atomic operations. Unreachable vertices have depth
+ * Long.MAX_VALUE. The direction, frontier size and duration of each level are available after a run.
+ */
+public final class BreadthFirstSearch {
+
+	public static final long UNREACHABLE = Long.MAX_VALUE;
+
+	public static final int DEFAULT_ALPHA = 15;
+	public static final int DEFAULT_BETA = 18;
+
+	/**
+	 * The direction in which a level of the search is expanded.
+	 */
+	public enum Direction {
+		TOP_DOWN,
+		BOTTOM_UP
+	}
+
+	private final CsrGraph graph;
+	private final ForkJoinPool pool;
+	private final int alpha;
+	private final int beta;
+
+	private long[] depths;
+	private AtomicLongArray visited;
+	private List<LevelStatistics> levelStatistics = Collections.emptyList();
+
+	/**
+	 * @param graph the graph to traverse, following outgoing edges
+	 * @param pool  the pool to execute the traversal on
+	 */
+	public BreadthFirstSearch(CsrGraph graph, ForkJoinPool pool) {
+		this(graph, pool, DEFAULT_ALPHA, DEFAULT_BETA);
+	}
+
+	/**
+	 * @param graph the graph to traverse, following outgoing edges
+	 * @param pool  the pool to execute the traversal on
+	 * @param alpha switch to bottom-up when the frontier has more than 1/alpha of the unexplored edges
+	 * @param beta  switch back to top-down when the frontier has less than 1/beta of the vertices
+	 */
+	public BreadthFirstSearch(CsrGraph graph, ForkJoinPool pool, int alpha, int beta) {
+		if (alpha <= 0 || beta <= 0) {
+			throw new IllegalArgumentException("Alpha and beta must be positive.");
+		}
+		this.graph = graph;
+		this.pool = pool;
+		this.alpha = alpha;
+		this.beta = beta;
+	}
+
+	/**
+	 * @param sourceVertexId the id of the vertex to start the search from
+	 * @return the depth of each vertex, indexed by dense vertex index
+	 */
+	public long[] run(long sourceVertexId) {
+		int numberOfVertices = graph.getNumberOfVertices();
+		depths = new long[numberOfVertices];
+		visited = new AtomicLongArray(numberOfWords(numberOfVertices));
+		List<LevelStatistics> statistics = new ArrayList<>();
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> Arrays.fill(depths, begin, end, UNREACHABLE));
+
+		int source = graph.getVertexIndex(sourceVertexId);
+		if (source >= 0) {
+			depths[source] = 0;
+			markVisited(source);
+			search(source, statistics);
+		}
+
+		long[] result = depths;
+		depths = null;
+		visited = null;
+		levelStatistics = Collections.unmodifiableList(statistics);
+		return result;
+	}
+
+	/**
+	 * @return the statistics of each level expanded by the last run, in order of depth
+	 */
+	public List<LevelStatistics> getLevelStatistics() {
+		return levelStatistics;
+	}
+
+	private void search(int source, List<LevelStatistics> statistics) {
+		int numberOfVertices = graph.getNumberOfVertices();
+		int[] queue = new int[]{source};
+		int[] queueBuffer = new int[numberOfVertices];
+		long[] frontierBits = null;
+		long[] nextBits = null;
+		Direction direction = Direction.TOP_DOWN;
+
+		long frontierSize = 1;
+		long previousFrontierSize = 0;
+		long frontierEdges = graph.getOutDegree(source);
+		long unexploredEdges = (long)graph.getNumberOfEdges() - graph.getInDegree(source);
+		LongAdder discoveredEdges = new LongAdder();
+		LongAdder discoveredInEdges = new LongAdder();
+
+		for (long depth = 1; frontierSize > 0; depth++) {
+			long startTime = System.nanoTime();
+			if (direction == Direction.TOP_DOWN && frontierEdges > unexploredEdges / alpha) {
+				frontierBits = toBitmap(queue);
+				nextBits = new long[frontierBits.length];
+				direction = Direction.BOTTOM_UP;
+			} else if (direction == Direction.BOTTOM_UP && frontierSize < previousFrontierSize &&
+					frontierSize < numberOfVertices / beta) {
+				queue = toQueue(frontierBits, queueBuffer);
+				direction = Direction.TOP_DOWN;
+			}
+
+			discoveredEdges.reset();
+			discoveredInEdges.reset();
+			long expandedSize = frontierSize;
+			if (direction == Direction.TOP_DOWN) {
+				queue = topDownStep(queue, queueBuffer, depth, discoveredEdges, discoveredInEdges);
+				frontierSize = queue.length;
+			} else {
+				frontierSize = bottomUpStep(frontierBits, nextBits, depth, discoveredEdges, discoveredInEdges);
+				long[] swap = frontierBits;
+				frontierBits = nextBits;
+				nextBits = swap;
+			}
+			previousFrontierSize = expandedSize;
+			frontierEdges = discoveredEdges.sum();
+			unexploredEdges -= discoveredInEdges.sum();
+			statistics.add(new LevelStatistics(depth, direction, expandedSize, frontierSize,
+					System.nanoTime() - startTime));
+		}
+	}
+
+	private int[] topDownStep(int[] frontier, int[] next, long depth, LongAdder discoveredEdges,
+			LongAdder discoveredInEdges) {
+		AtomicInteger nextSize = new AtomicInteger();
+		ParallelLoops.forRange(pool, frontier.length, (begin, end) -> {
+			int[] discovered = new int[64];
+			int count = 0;
+			long outEdges = 0;
+			long inEdges = 0;
+			for (int i = begin; i < end; i++) {
+				int vertex = frontier[i];
+				for (int edge = graph.getOutEdgesBegin(vertex); edge < graph.getOutEdgesEnd(vertex); edge++) {
+					int neighbour = graph.getOutEdgeTarget(edge);
+					if (!isVisited(neighbour) && markVisited(neighbour)) {
+						depths[neighbour] = depth;
+						if (count == discovered.length) {
+							discovered = Arrays.copyOf(discovered, count * 2);
+						}
+						discovered[count++] = neighbour;
+						outEdges += graph.getOutDegree(neighbour);
+						inEdges += graph.getInDegree(neighbour);
+					}
+				}
+			}
+			int offset = nextSize.getAndAdd(count);
+			System.arraycopy(discovered, 0, next, offset, count);
+			discoveredEdges.add(outEdges);
+			discoveredInEdges.add(inEdges);
+		});
+		return Arrays.copyOf(next, nextSize.get());
+	}
+
+	private long bottomUpStep(long[] frontier, long[] next, long depth, LongAdder discoveredEdges,
+			LongAdder discoveredInEdges) {
+		int numberOfVertices = graph.getNumberOfVertices();
+		return ParallelLoops.sumLongRange(pool, frontier.length, (beginWord, endWord) -> {
+			long count = 0;
+			long outEdges = 0;
+			long inEdges = 0;
+			for (int word = beginWord; word < endWord; word++) {
+				long visitedBits = visited.get(word);
+				long nextWord = 0L;
+				int wordEnd = Math.min(numberOfVertices, (word + 1) << 6);
+				for (int vertex = word << 6; vertex < wordEnd; vertex++) {
+					long bit = 1L << vertex;
+					if ((visitedBits & bit) != 0) {
+						continue;
+					}
+					for (int i = graph.getInEdgesBegin(vertex); i < graph.getInEdgesEnd(vertex); i++) {
+						if (isSet(frontier, graph.getInEdgeSource(i))) {
+							depths[vertex] = depth;
+							nextWord |= bit;
+							count++;
+							outEdges += graph.getOutDegree(vertex);
+							inEdges += graph.getInDegree(vertex);
+							break;
+						}
+					}
+				}
+				next[word] = nextWord;
+				if (nextWord != 0L) {
+					// Every vertex of this word belongs to the current range, so no other task updates the word
+					visited.set(word, visitedBits | nextWord);
+				}
+			}
+			discoveredEdges.add(outEdges);
+			discoveredInEdges.add(inEdges);
+			return count;
+		});
+	}
+
+	private long[] toBitmap(int[] queue) {
+		long[] bits = new long[numberOfWords(graph.getNumberOfVertices())];
+		for (int vertex : queue) {
+			bits[vertex >>> 6] |= 1L << vertex;
+		}
+		return bits;
+	}
+
+	private int[] toQueue(long[] bits, int[] buffer) {
+		AtomicInteger size = new AtomicInteger();
+		ParallelLoops.forRange(pool, bits.length, (beginWord, endWord) -> {
+			int count = 0;
+			for (int word = beginWord; word < endWord; word++) {
+				count += Long.bitCount(bits[word]);
+			}
+			int offset = size.getAndAdd(count);
+			for (int word = beginWord; word < endWord; word++) {
+				for (long remaining = bits[word]; remaining != 0L; remaining &= remaining - 1) {
+					buffer[offset++] = (word << 6) + Long.numberOfTrailingZeros(remaining);
+				}
+			}
+		});
+		return Arrays.copyOf(buffer, size.get());
+	}
+
+	private boolean isVisited(int vertex) {
+		return (visited.get(vertex >>> 6) & (1L << vertex)) != 0;
+	}
+
+	private boolean markVisited(int vertex) {
+		int word = vertex >>> 6;
+		long bit = 1L << vertex;
+		while (true) {
+			long bits = visited.get(word);
+			if ((bits & bit) != 0) {
+				return false;
+			}
+			if (visited.compareAndSet(word, bits, bits | bit)) {
+				return true;
+			}
+		}
+	}
+
+	private static boolean isSet(long[] bits, int vertex) {
+		return (bits[vertex >>> 6] & (1L << vertex)) != 0;
+	}
+
+	private static int numberOfWords(int numberOfVertices) {
+		return (numberOfVertices + 63) >>> 6;
+	}
+
+	/**
+	 * Statistics of a single level of the search.
+	 */
+	public static final class LevelStatistics {
+
+		private final long depth;
+		private final Direction direction;
+		private final long frontierSize;
+		private final long discoveredVertices;
+		private final long durationNanos;
+
+		private LevelStatistics(long depth, Direction direction, long frontierSize, long discoveredVertices,
+				long durationNanos) {
+			this.depth = depth;
+			this.direction = direction;
+			this.frontierSize = frontierSize;
+			this.discoveredVertices = discoveredVertices;
+			this.durationNanos = durationNanos;
+		}
+
+		/**
+		 * @return the depth assigned to vertices discovered in this level
+		 */
+		public long getDepth() {
+			return depth;
+		}
+
+		/**
+		 * @return the direction in which this level was expanded
+		 */
+		public Direction getDirection() {
+			return direction;
+		}
+
+		/**
+		 * @return the number of vertices in the frontier that was expanded
+		 */
+		public long getFrontierSize() {
+			return frontierSize;
+		}
+
+		/**
+		 * @return the number of vertices discovered in this level
+		 */
+		public long getDiscoveredVertices() {
+			return discoveredVertices;
+		}
+
+		/**
+		 * @return the time taken to expand this level, in nanoseconds
+		 */
+		public long getDurationNanos() {
+			return durationNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("depth %d %s: %d frontier, %d discovered, %.3f ms", depth, direction,
+					frontierSize, discoveredVertices, durationNanos / 1e6);
+		}
+
+	}
+
+}
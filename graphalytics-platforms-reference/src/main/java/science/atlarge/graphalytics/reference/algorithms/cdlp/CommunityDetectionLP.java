@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.cdlp;
+
+import science.atlarge.graphalytics.reference.algorithms.ParallelLoops;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel synchronous community detection by label propagation. Every vertex starts with its own id as label. In
+ * each iteration, every vertex adopts the most frequent label among its neighbours in the previous iteration, picking
+ * the smallest label on ties. For directed graphs the neighbours are the multiset union of in- and out-neighbours, so
+ * a vertex that is connected in both directions is counted twice. Vertices without neighbours keep their label.
+ * <p>
+ * Labels are stored as dense vertex indices, which have the same order as the vertex ids, and are counted in a
+ * LabelHistogram owned by each worker thread. As iterations are synchronous, an iteration in which no label changes
+ * would repeat forever, so the remaining iterations are skipped. The number of changed labels and the duration of
+ * each iteration are available after a run.
+ */
+public final class CommunityDetectionLP {
+
+	private final CsrGraph graph;
+	private final ForkJoinPool pool;
+	private final ThreadLocal<LabelHistogram> histograms = ThreadLocal.withInitial(LabelHistogram::new);
+
+	private List<IterationStatistics> iterationStatistics = Collections.emptyList();
+
+	/**
+	 * @param graph the graph to detect communities in
+	 * @param pool  the pool to execute the computation on
+	 */
+	public CommunityDetectionLP(CsrGraph graph, ForkJoinPool pool) {
+		this.graph = graph;
+		this.pool = pool;
+	}
+
+	/**
+	 * @param maxIterations the number of iterations to execute
+	 * @return the label of each vertex, indexed by dense vertex index
+	 */
+	public long[] run(int maxIterations) {
+		int numberOfVertices = graph.getNumberOfVertices();
+		int[] labels = new int[numberOfVertices];
+		int[] nextLabels = new int[numberOfVertices];
+		int[] initialLabels = labels;
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			for (int v = begin; v < end; v++) {
+				initialLabels[v] = v;
+			}
+		});
+
+		List<IterationStatistics> statistics = new ArrayList<>();
+		for (int iteration = 1; iteration <= maxIterations; iteration++) {
+			long startTime = System.nanoTime();
+			int[] currentLabels = labels;
+			int[] updatedLabels = nextLabels;
+			long changedLabels = ParallelLoops.sumLongRange(pool, numberOfVertices, (begin, end) -> {
+				LabelHistogram histogram = histograms.get();
+				long changed = 0;
+				for (int v = begin; v < end; v++) {
+					updatedLabels[v] = mostFrequentLabel(v, currentLabels, histogram);
+					if (updatedLabels[v] != currentLabels[v]) {
+						changed++;
+					}
+				}
+				return changed;
+			});
+			nextLabels = labels;
+			labels = updatedLabels;
+			statistics.add(new IterationStatistics(iteration, changedLabels, System.nanoTime() - startTime));
+			if (changedLabels == 0) {
+				break;
+			}
+		}
+		iterationStatistics = Collections.unmodifiableList(statistics);
+
+		int[] finalLabels = labels;
+		long[] result = new long[numberOfVertices];
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			for (int v = begin; v < end; v++) {
+				result[v] = graph.getVertexId(finalLabels[v]);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * @return the statistics of each iteration executed by the last run, in order
+	 */
+	public List<IterationStatistics> getIterationStatistics() {
+		return iterationStatistics;
+	}
+
+	private int mostFrequentLabel(int vertex, int[] labels, LabelHistogram histogram) {
+		int outDegree = graph.getOutDegree(vertex);
+		int inDegree = graph.isDirected() ? graph.getInDegree(vertex) : 0;
+		histogram.reset(outDegree + inDegree);
+		for (int edge = graph.getOutEdgesBegin(vertex); edge < graph.getOutEdgesEnd(vertex); edge++) {
+			histogram.add(labels[graph.getOutEdgeTarget(edge)]);
+		}
+		if (graph.isDirected()) {
+			for (int i = graph.getInEdgesBegin(vertex); i < graph.getInEdgesEnd(vertex); i++) {
+				histogram.add(labels[graph.getInEdgeSource(i)]);
+			}
+		}
+		return histogram.mostFrequentLabel(labels[vertex]);
+	}
+
+	/**
+	 * Statistics of a single iteration of label propagation.
+	 */
+	public static final class IterationStatistics {
+
+		private final int iteration;
+		private final long changedLabels;
+		private final long durationNanos;
+
+		private IterationStatistics(int iteration, long changedLabels, long durationNanos) {
+			this.iteration = iteration;
+			this.changedLabels = changedLabels;
+			this.durationNanos = durationNanos;
+		}
+
+		/**
+		 * @return the number of the iteration, starting at 1
+		 */
+		public int getIteration() {
+			return iteration;
+		}
+
+		/**
+		 * @return the number of vertices whose label changed in this iteration
+		 */
+		public long getChangedLabels() {
+			return changedLabels;
+		}
+
+		/**
+		 * @return the time taken by this iteration, in nanoseconds
+		 */
+		public long getDurationNanos() {
+			return durationNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("iteration %d: %d labels changed, %.3f ms", iteration, changedLabels,
+					durationNanos / 1e6);
+		}
+
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.cdlp;
+
+import java.util.Arrays;
+
+/**
+ * Reusable primitive histogram for finding the most frequent label among the neighbours of a vertex. Neighbour labels
+ * are collected in a buffer; short buffers are sorted and scanned, longer buffers are counted in an open-addressing
+ * hash table that is cleared by visiting only the slots that were used. Each thread owns one histogram, so no memory
+ * is allocated per vertex once the buffers have grown to the largest degree.
+ */
+final class LabelHistogram {
+
+	/**
+	 * Buffers of at most this many labels are sorted instead of counted in the hash table.
+	 */
+	static final int SORT_THRESHOLD = 32;
+
+	private static final int EMPTY = -1;
+
+	private int[] labels = new int[SORT_THRESHOLD];
+	private int size;
+
+	private int[] keys = new int[0];
+	private int[] counts = new int[0];
+	private int[] usedSlots = new int[0];
+
+	/**
+	 * Removes all labels and makes room for the given number of labels.
+	 *
+	 * @param capacity the number of labels that will be added
+	 */
+	void reset(int capacity) {
+		size = 0;
+		if (labels.length < capacity) {
+			labels = new int[Math.max(capacity, labels.length * 2)];
+		}
+	}
+
+	/**
+	 * @param label a label to add, must be non-negative
+	 */
+	void add(int label) {
+		labels[size++] = label;
+	}
+
+	/**
+	 * @param defaultLabel the label to return if no labels were added
+	 * @return the most frequent label added since the last reset, or the smallest such label on ties
+	 */
+	int mostFrequentLabel(int defaultLabel) {
+		if (size == 0) {
+			return defaultLabel;
+		}
+		return size <= SORT_THRESHOLD ? mostFrequentBySorting() : mostFrequentByHashing();
+	}
+
+	private int mostFrequentBySorting() {
+		Arrays.sort(labels, 0, size);
+		// Runs of equal labels are in ascending order, so only a strictly longer run replaces the best label
+		int bestLabel = labels[0];
+		int bestFrequency = 0;
+		for (int runStart = 0; runStart < size; ) {
+			int runEnd = runStart + 1;
+			while (runEnd < size && labels[runEnd] == labels[runStart]) {
+				runEnd++;
+			}
+			if (runEnd - runStart > bestFrequency) {
+				bestFrequency = runEnd - runStart;
+				bestLabel = labels[runStart];
+			}
+			runStart = runEnd;
+		}
+		return bestLabel;
+	}
+
+	private int mostFrequentByHashing() {
+		if (keys.length < 2 * size) {
+			int capacity = Integer.highestOneBit(2 * size - 1) << 1;
+			keys = new int[capacity];
+			counts = new int[capacity];
+			usedSlots = new int[capacity];
+			Arrays.fill(keys, EMPTY);
+		}
+		int mask = keys.length - 1;
+		int used = 0;
+		for (int i = 0; i < size; i++) {
+			int label = labels[i];
+			int slot = (label * 0x9E3779B9) >>> 7 & mask;
+			while (keys[slot] != EMPTY && keys[slot] != label) {
+				slot = (slot + 1) & mask;
+			}
+			if (keys[slot] == EMPTY) {
+				keys[slot] = label;
+				counts[slot] = 0;
+				usedSlots[used++] = slot;
+			}
+			counts[slot]++;
+		}
+
+		int bestLabel = Integer.MAX_VALUE;
+		int bestFrequency = 0;
+		for (int i = 0; i < used; i++) {
+			int slot = usedSlots[i];
+			int frequency = counts[slot];
+			if (frequency > bestFrequency || (frequency == bestFrequency && keys[slot] < bestLabel)) {
+				bestFrequency = frequency;
+				bestLabel = keys[slot];
+			}
+			keys[slot] = EMPTY;
+		}
+		return bestLabel;
+	}
+
+}
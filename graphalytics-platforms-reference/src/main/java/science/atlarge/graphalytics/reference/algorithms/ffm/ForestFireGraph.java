@@ -0,0 +1,210 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.ffm;
+
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.util.io.EvlpByteWriter;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A graph grown by the forest fire model: an immutable CsrGraph with new vertices and edges layered on top. Vertices
+ * are identified by a dense index; the vertices of the original graph keep their index, and new vertex i has index
+ * getNumberOfVertices() of the original graph plus i and id maxId + 1 + i. Edges added to a vertex are stored in
+ * growable per-vertex int arrays, next to the original CSR adjacency.
+ * <p>
+ * For undirected graphs only outgoing adjacency is used, and every new edge is added in both directions.
+ */
+public final class ForestFireGraph {
+
+	private final CsrGraph baseGraph;
+	private final int numberOfBaseVertices;
+	private final long maxId;
+	private final int numberOfVertices;
+
+	private final int[][] addedOut;
+	private final int[] addedOutSize;
+	private final int[][] addedIn;
+	private final int[] addedInSize;
+
+	ForestFireGraph(CsrGraph baseGraph, long maxId, int numberOfNewVertices) {
+		this.baseGraph = baseGraph;
+		this.numberOfBaseVertices = baseGraph.getNumberOfVertices();
+		this.maxId = maxId;
+		this.numberOfVertices = numberOfBaseVertices + numberOfNewVertices;
+		this.addedOut = new int[numberOfVertices][];
+		this.addedOutSize = new int[numberOfVertices];
+		this.addedIn = baseGraph.isDirected() ? new int[numberOfVertices][] : null;
+		this.addedInSize = baseGraph.isDirected() ? new int[numberOfVertices] : null;
+	}
+
+	/**
+	 * @return true iff the graph is directed
+	 */
+	public boolean isDirected() {
+		return baseGraph.isDirected();
+	}
+
+	/**
+	 * @return the number of vertices in the graph, including new vertices
+	 */
+	public int getNumberOfVertices() {
+		return numberOfVertices;
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the id of the vertex
+	 */
+	public long getVertexId(int vertex) {
+		if (vertex < numberOfBaseVertices) {
+			return baseGraph.getVertexId(vertex);
+		}
+		return maxId + 1 + (vertex - numberOfBaseVertices);
+	}
+
+	/**
+	 * @param vertex the dense index of a vertex
+	 * @return the out-neighbours of the vertex, or all neighbours for undirected graphs, sorted by index
+	 */
+	public int[] getOutNeighbours(int vertex) {
+		int[] neighbours = new int[getOutDegree(vertex)];
+		for (int i = 0; i < neighbours.length; i++) {
+			neighbours[i] = getOutNeighbour(vertex, i);
+		}
+		Arrays.sort(neighbours);
+		return neighbours;
+	}
+
+	int getOutDegree(int vertex) {
+		int baseDegree = vertex < numberOfBaseVertices ? baseGraph.getOutDegree(vertex) : 0;
+		return baseDegree + addedOutSize[vertex];
+	}
+
+	int getOutNeighbour(int vertex, int position) {
+		if (vertex < numberOfBaseVertices) {
+			int baseDegree = baseGraph.getOutDegree(vertex);
+			if (position < baseDegree) {
+				return baseGraph.getOutEdgeTarget(baseGraph.getOutEdgesBegin(vertex) + position);
+			}
+			position -= baseDegree;
+		}
+		return addedOut[vertex][position];
+	}
+
+	int getInDegree(int vertex) {
+		int baseDegree = vertex < numberOfBaseVertices ? baseGraph.getInDegree(vertex) : 0;
+		return baseDegree + addedInSize[vertex];
+	}
+
+	int getInNeighbour(int vertex, int position) {
+		if (vertex < numberOfBaseVertices) {
+			int baseDegree = baseGraph.getInDegree(vertex);
+			if (position < baseDegree) {
+				return baseGraph.getInEdgeSource(baseGraph.getInEdgesBegin(vertex) + position);
+			}
+			position -= baseDegree;
+		}
+		return addedIn[vertex][position];
+	}
+
+	/**
+	 * Adds a new vertex with edges to the vertices it burned. Not thread-safe; new vertices are added in order.
+	 *
+	 * @param vertex the dense index of the new vertex
+	 * @param burned the vertices burned by the new vertex
+	 * @param count  the number of burned vertices
+	 */
+	void addVertex(int vertex, int[] burned, int count) {
+		addedOut[vertex] = Arrays.copyOf(burned, count);
+		addedOutSize[vertex] = count;
+		for (int i = 0; i < count; i++) {
+			if (isDirected()) {
+				addEdge(addedIn, addedInSize, burned[i], vertex);
+			} else {
+				addEdge(addedOut, addedOutSize, burned[i], vertex);
+			}
+		}
+	}
+
+	private static void addEdge(int[][] lists, int[] sizes, int vertex, int neighbour) {
+		int[] list = lists[vertex];
+		if (list == null) {
+			list = lists[vertex] = new int[4];
+		} else if (sizes[vertex] == list.length) {
+			list = lists[vertex] = Arrays.copyOf(list, list.length * 2);
+		}
+		list[sizes[vertex]++] = neighbour;
+	}
+
+	/**
+	 * Writes the graph in the EVLP format, without properties. Vertices and the edges of each vertex are written in
+	 * ascending order of id; undirected edges are written once, from the vertex with the lower id.
+	 *
+	 * @param vertexFile the file to write the vertex list to
+	 * @param edgeFile   the file to write the edge list to
+	 * @throws IOException if a file could not be written
+	 */
+	public void writeEvlp(Path vertexFile, Path edgeFile) throws IOException {
+		try (EvlpByteWriter writer = new EvlpByteWriter(open(vertexFile))) {
+			for (int v = 0; v < numberOfVertices; v++) {
+				writer.writeLong(getVertexId(v));
+				writer.endLine();
+			}
+		}
+		try (EvlpByteWriter writer = new EvlpByteWriter(open(edgeFile))) {
+			int[] neighbours = new int[16];
+			for (int v = 0; v < numberOfVertices; v++) {
+				int degree = getOutDegree(v);
+				if (neighbours.length < degree) {
+					neighbours = new int[Math.max(degree, neighbours.length * 2)];
+				}
+				int count = 0;
+				for (int i = 0; i < degree; i++) {
+					int neighbour = getOutNeighbour(v, i);
+					// Dense indices are in ascending order of id, also for new vertices
+					if (isDirected() || neighbour > v) {
+						neighbours[count++] = neighbour;
+					}
+				}
+				Arrays.sort(neighbours, 0, count);
+				long vertexId = getVertexId(v);
+				for (int i = 0; i < count; i++) {
+					writer.writeLong(vertexId);
+					writer.writeSeparator();
+					writer.writeLong(getVertexId(neighbours[i]));
+					writer.endLine();
+				}
+			}
+		}
+	}
+
+	private static FileChannel open(Path path) throws IOException {
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+}
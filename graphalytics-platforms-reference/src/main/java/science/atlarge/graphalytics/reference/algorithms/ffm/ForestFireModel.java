@@ -0,0 +1,318 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.ffm;
+
+import science.atlarge.graphalytics.reference.algorithms.ParallelLoops;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel, seedable forest fire model graph generator. Every new vertex picks a uniformly random ambassador among
+ * the vertices that exist before it, and spreads a fire from there for at most maxIterations steps: every burning
+ * vertex burns a geometrically distributed number of its unburned out-neighbours (with parameter p) and in-neighbours
+ * (with parameter r), chosen uniformly at random, or only neighbours (with parameter p) for undirected graphs. The new
+ * vertex gets an edge to every burned vertex.
+ * <p>
+ * New vertices are processed in batches. The fires of a batch are spread in parallel on the graph as it was before
+ * the batch, and then committed in order until the first vertex that picked an uncommitted ambassador or burned a
+ * vertex that an earlier vertex of the batch also burned. The remaining vertices are retried in the next batch. A
+ * committed fire never met a vertex whose neighbours changed within the batch, so it is exactly the fire the vertex
+ * would have spread when processed sequentially. As every vertex draws from its own random generator, derived from
+ * the seed and its id, the output depends only on the seed and not on the number of threads or the batch sizes.
+ */
+public final class ForestFireModel {
+
+	static final int MINIMUM_BATCH_SIZE = 16;
+	static final int MAXIMUM_BATCH_SIZE = 1 << 16;
+
+	private static final long SEED_MIXER = 0x9E3779B97F4A7C15L;
+
+	private final CsrGraph graph;
+	private final ForkJoinPool pool;
+	private final long seed;
+	private final int initialBatchSize;
+
+	/**
+	 * @param graph the graph to grow
+	 * @param pool  the pool to execute the computation on
+	 * @param seed  the seed of the random generators
+	 */
+	public ForestFireModel(CsrGraph graph, ForkJoinPool pool, long seed) {
+		this(graph, pool, seed, Math.max(MINIMUM_BATCH_SIZE, pool.getParallelism() * 64));
+	}
+
+	ForestFireModel(CsrGraph graph, ForkJoinPool pool, long seed, int initialBatchSize) {
+		this.graph = graph;
+		this.pool = pool;
+		this.seed = seed;
+		this.initialBatchSize = initialBatchSize;
+	}
+
+	/**
+	 * @param maxId               the highest vertex id in the graph; new vertices get consecutive ids after it
+	 * @param pRatio              the parameter of the geometric distribution of burned out-neighbours
+	 * @param rRatio              the parameter of the geometric distribution of burned in-neighbours
+	 * @param maxIterations       the maximum number of steps a fire spreads from the ambassador
+	 * @param numberOfNewVertices the number of vertices to add
+	 * @return the grown graph
+	 * @throws IllegalArgumentException if maxId is lower than a vertex id in the graph, or a parameter is invalid
+	 */
+	public ForestFireGraph run(long maxId, double pRatio, double rRatio, int maxIterations, int numberOfNewVertices) {
+		int numberOfBaseVertices = graph.getNumberOfVertices();
+		if (numberOfBaseVertices > 0 && graph.getVertexId(numberOfBaseVertices - 1) > maxId) {
+			throw new IllegalArgumentException("The graph contains vertex id " +
+					graph.getVertexId(numberOfBaseVertices - 1) + ", which exceeds the maximum id " + maxId + ".");
+		}
+		if (!(pRatio >= 0.0 && pRatio < 1.0) || !(rRatio >= 0.0 && rRatio < 1.0)) {
+			throw new IllegalArgumentException("The p and r ratios must be in [0, 1).");
+		}
+		if (maxIterations < 0 || numberOfNewVertices < 0 || maxId > Long.MAX_VALUE - numberOfNewVertices) {
+			throw new IllegalArgumentException("Invalid number of iterations or new vertices.");
+		}
+
+		ForestFireGraph grownGraph = new ForestFireGraph(graph, maxId, numberOfNewVertices);
+		if (numberOfBaseVertices == 0) {
+			// Without an ambassador the fires can not start, so the new vertices remain isolated
+			for (int i = 0; i < numberOfNewVertices; i++) {
+				grownGraph.addVertex(i, new int[0], 0);
+			}
+			return grownGraph;
+		}
+
+		ThreadLocal<Fire> threadFires = ThreadLocal.withInitial(() -> new Fire(grownGraph));
+		int[] committedBy = new int[grownGraph.getNumberOfVertices()];
+		Arrays.fill(committedBy, -1);
+		int batchSize = initialBatchSize;
+		for (int committed = 0; committed < numberOfNewVertices; ) {
+			int batchStart = committed;
+			int batchEnd = (int)Math.min(numberOfNewVertices, (long)batchStart + batchSize);
+			int[][] fires = new int[batchEnd - batchStart][];
+			ParallelLoops.forRange(pool, fires.length, 1, (begin, end) -> {
+				Fire fire = threadFires.get();
+				for (int i = begin; i < end; i++) {
+					int newVertex = batchStart + i;
+					fires[i] = fire.spread(numberOfBaseVertices + newVertex, numberOfBaseVertices + batchStart,
+							pRatio, rRatio, maxIterations, randomFor(maxId + 1 + newVertex));
+				}
+			});
+
+			// Commit fires in order until the first conflict with an earlier fire of the batch
+			int accepted = 0;
+			while (accepted < fires.length && isCommittable(fires[accepted], committedBy, batchStart)) {
+				int[] burned = fires[accepted];
+				int vertex = numberOfBaseVertices + batchStart + accepted;
+				for (int burnedVertex : burned) {
+					committedBy[burnedVertex] = batchStart + accepted;
+				}
+				grownGraph.addVertex(vertex, burned, burned.length);
+				accepted++;
+			}
+			committed += accepted;
+			batchSize = accepted == fires.length ? Math.min(MAXIMUM_BATCH_SIZE, batchSize * 2) :
+					Math.max(MINIMUM_BATCH_SIZE, accepted * 2);
+		}
+		return grownGraph;
+	}
+
+	private static boolean isCommittable(int[] burned, int[] committedBy, int batchStart) {
+		if (burned == null) {
+			return false;
+		}
+		for (int vertex : burned) {
+			if (committedBy[vertex] >= batchStart) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private SplittableRandom randomFor(long vertexId) {
+		return new SplittableRandom(seed ^ (vertexId * SEED_MIXER));
+	}
+
+	/**
+	 * Reusable state for spreading fires on one thread. Burned vertices are kept in BFS order in an array, so the
+	 * vertices burned in the last step form its tail, and in an open-addressing hash set that is cleared through the
+	 * array, so the state does not grow with the graph.
+	 */
+	private static final class Fire {
+
+		private static final int EMPTY = -1;
+
+		private final ForestFireGraph graph;
+		private int[] burned = new int[16];
+		private int burnedCount;
+		private int[] burnedSet = new int[64];
+		private int[] candidates = new int[16];
+
+		private Fire(ForestFireGraph graph) {
+			this.graph = graph;
+			Arrays.fill(burnedSet, EMPTY);
+		}
+
+		/**
+		 * @param numberOfExistingVertices the number of vertices that exist before the new vertex
+		 * @param numberOfVisibleVertices  the number of vertices committed before the current batch
+		 * @param pRatio                   the parameter of the geometric distribution of burned out-neighbours
+		 * @param rRatio                   the parameter of the geometric distribution of burned in-neighbours
+		 * @param maxIterations            the maximum number of steps the fire spreads from the ambassador
+		 * @param random                   the random generator of the new vertex
+		 * @return the burned vertices, or null if the ambassador is not committed yet
+		 */
+		private int[] spread(int numberOfExistingVertices, int numberOfVisibleVertices, double pRatio, double rRatio,
+				int maxIterations, SplittableRandom random) {
+			int ambassador = random.nextInt(numberOfExistingVertices);
+			if (ambassador >= numberOfVisibleVertices) {
+				return null;
+			}
+
+			clear();
+			burn(ambassador);
+			int frontierBegin = 0;
+			for (int iteration = 0; iteration < maxIterations && frontierBegin < burnedCount; iteration++) {
+				int frontierEnd = burnedCount;
+				for (int i = frontierBegin; i < frontierEnd; i++) {
+					int vertex = burned[i];
+					burnOutNeighbours(vertex, geometric(random, pRatio), random);
+					if (graph.isDirected()) {
+						burnInNeighbours(vertex, geometric(random, rRatio), random);
+					}
+				}
+				frontierBegin = frontierEnd;
+			}
+			return Arrays.copyOf(burned, burnedCount);
+		}
+
+		/**
+		 * @return the number of successes before the first failure in Bernoulli trials with success probability p
+		 */
+		private static int geometric(SplittableRandom random, double p) {
+			int count = 0;
+			while (random.nextDouble() < p) {
+				count++;
+			}
+			return count;
+		}
+
+		private void burnOutNeighbours(int vertex, int count, SplittableRandom random) {
+			if (count == 0) {
+				return;
+			}
+			int degree = graph.getOutDegree(vertex);
+			int candidateCount = 0;
+			candidates = ensureCapacity(candidates, degree);
+			for (int i = 0; i < degree; i++) {
+				int neighbour = graph.getOutNeighbour(vertex, i);
+				if (!isBurned(neighbour)) {
+					candidates[candidateCount++] = neighbour;
+				}
+			}
+			burnRandomCandidates(candidateCount, count, random);
+		}
+
+		private void burnInNeighbours(int vertex, int count, SplittableRandom random) {
+			if (count == 0) {
+				return;
+			}
+			int degree = graph.getInDegree(vertex);
+			int candidateCount = 0;
+			candidates = ensureCapacity(candidates, degree);
+			for (int i = 0; i < degree; i++) {
+				int neighbour = graph.getInNeighbour(vertex, i);
+				if (!isBurned(neighbour)) {
+					candidates[candidateCount++] = neighbour;
+				}
+			}
+			burnRandomCandidates(candidateCount, count, random);
+		}
+
+		/**
+		 * Burns a uniformly random selection of candidates by a partial Fisher-Yates shuffle. Candidates connected by
+		 * duplicate edges occur more than once, and are burned only once.
+		 */
+		private void burnRandomCandidates(int candidateCount, int count, SplittableRandom random) {
+			for (int i = 0; i < count && i < candidateCount; i++) {
+				int selected = i + random.nextInt(candidateCount - i);
+				int candidate = candidates[selected];
+				candidates[selected] = candidates[i];
+				candidates[i] = candidate;
+				if (!isBurned(candidate)) {
+					burn(candidate);
+				}
+			}
+		}
+
+		private void burn(int vertex) {
+			burned = ensureCapacity(burned, burnedCount + 1);
+			burned[burnedCount++] = vertex;
+			if (2 * burnedCount > burnedSet.length) {
+				burnedSet = new int[burnedSet.length * 2];
+				Arrays.fill(burnedSet, EMPTY);
+				for (int i = 0; i < burnedCount; i++) {
+					insert(burned[i]);
+				}
+			} else {
+				insert(vertex);
+			}
+		}
+
+		private void insert(int vertex) {
+			int mask = burnedSet.length - 1;
+			int slot = hash(vertex) & mask;
+			while (burnedSet[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			burnedSet[slot] = vertex;
+		}
+
+		private boolean isBurned(int vertex) {
+			int mask = burnedSet.length - 1;
+			for (int slot = hash(vertex) & mask; burnedSet[slot] != EMPTY; slot = (slot + 1) & mask) {
+				if (burnedSet[slot] == vertex) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void clear() {
+			int mask = burnedSet.length - 1;
+			for (int i = 0; i < burnedCount; i++) {
+				// Clear the run of slots probed from the home slot, which includes the slot of the vertex
+				for (int slot = hash(burned[i]) & mask; burnedSet[slot] != EMPTY; slot = (slot + 1) & mask) {
+					burnedSet[slot] = EMPTY;
+				}
+			}
+			burnedCount = 0;
+		}
+
+		private static int hash(int vertex) {
+			int hash = vertex * 0x9E3779B9;
+			return hash ^ (hash >>> 16);
+		}
+
+		private static int[] ensureCapacity(int[] array, int capacity) {
+			return array.length >= capacity ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+		}
+
+	}
+
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.lcc;
+
+import science.atlarge.graphalytics.reference.algorithms.ParallelLoops;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel local clustering coefficient by degree-ordered triangle counting. The neighbourhood of a vertex is the
+ * set of its in- and out-neighbours, excluding the vertex itself. The coefficient is the number of edges between
+ * neighbours, counting both directions for undirected graphs, divided by the number of ordered pairs of neighbours.
+ * Vertices with fewer than two neighbours have a coefficient of zero.
+ * <p>
+ * Every pair of adjacent vertices is stored once, oriented from the vertex with the lower degree to the vertex with
+ * the higher degree, together with flags recording which directed edges exist between the two. Each triangle is
+ * then found exactly once, by intersecting the sorted oriented neighbour arrays of its two lowest-ranked vertices,
+ * and credits each of its vertices with the number of directed edges on the opposite side. The orientation bounds
+ * the length of every oriented array by the square root of twice the number of edges, so hubs no longer dominate
+ * the work. Intersections merge arrays of similar length, gallop through the longer of two skewed arrays, and use a
+ * hash table of the oriented neighbours for the few vertices with long oriented arrays.
+ */
+public final class LocalClusteringCoefficient {
+
+	private static final int OUT_EDGE = 1;
+	private static final int IN_EDGE = 2;
+
+	/**
+	 * Intersections gallop through the longer array if it is this many times longer than the shorter array.
+	 */
+	static final int GALLOP_RATIO = 32;
+
+	/**
+	 * Vertices with at least this many oriented neighbours look up common neighbours in a hash table.
+	 */
+	static final int HASH_THRESHOLD = 512;
+
+	private final CsrGraph graph;
+	private final ForkJoinPool pool;
+	private final int hashThreshold;
+
+	private int[] degrees;
+	private int[] orientedOffsets;
+	private int[] orientedTargets;
+	private byte[] orientedFlags;
+	private AtomicLongArray edgeCounts;
+
+	/**
+	 * @param graph the graph to compute the clustering coefficients of
+	 * @param pool  the pool to execute the computation on
+	 */
+	public LocalClusteringCoefficient(CsrGraph graph, ForkJoinPool pool) {
+		this(graph, pool, HASH_THRESHOLD);
+	}
+
+	LocalClusteringCoefficient(CsrGraph graph, ForkJoinPool pool, int hashThreshold) {
+		this.graph = graph;
+		this.pool = pool;
+		this.hashThreshold = hashThreshold;
+	}
+
+	/**
+	 * @return the local clustering coefficient of each vertex, indexed by dense vertex index
+	 */
+	public double[] run() {
+		int numberOfVertices = graph.getNumberOfVertices();
+		buildOrientedGraph();
+
+		edgeCounts = new AtomicLongArray(numberOfVertices);
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			int[] hashTable = new int[0];
+			for (int u = begin; u < end; u++) {
+				int size = orientedOffsets[u + 1] - orientedOffsets[u];
+				if (size >= hashThreshold) {
+					if (hashTable.length < 4 * size) {
+						hashTable = new int[Integer.highestOneBit(4 * size - 1) << 1];
+					}
+					countTrianglesWithHashTable(u, hashTable);
+				} else {
+					countTriangles(u);
+				}
+			}
+		});
+
+		double[] coefficients = new double[numberOfVertices];
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			for (int v = begin; v < end; v++) {
+				long degree = degrees[v];
+				coefficients[v] = degree < 2 ? 0.0 : (double)edgeCounts.get(v) / (degree * (degree - 1));
+			}
+		});
+
+		degrees = null;
+		orientedOffsets = null;
+		orientedTargets = null;
+		orientedFlags = null;
+		edgeCounts = null;
+		return coefficients;
+	}
+
+	/**
+	 * Computes the number of distinct neighbours of every vertex, and stores the neighbours of each vertex that rank
+	 * higher than the vertex itself, sorted by index.
+	 */
+	private void buildOrientedGraph() {
+		int numberOfVertices = graph.getNumberOfVertices();
+		degrees = new int[numberOfVertices];
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			long[] neighbours = new long[16];
+			for (int v = begin; v < end; v++) {
+				neighbours = ensureCapacity(neighbours, v);
+				degrees[v] = collectNeighbours(v, neighbours);
+			}
+		});
+
+		int[] orientedDegrees = new int[numberOfVertices];
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			long[] neighbours = new long[16];
+			for (int v = begin; v < end; v++) {
+				neighbours = ensureCapacity(neighbours, v);
+				int count = collectNeighbours(v, neighbours);
+				int oriented = 0;
+				for (int i = 0; i < count; i++) {
+					if (ranksHigher((int)(neighbours[i] >>> 2), v)) {
+						oriented++;
+					}
+				}
+				orientedDegrees[v] = oriented;
+			}
+		});
+
+		// Every pair of adjacent vertices is stored once, so the total fits in an int like the edges of the graph
+		orientedOffsets = new int[numberOfVertices + 1];
+		for (int v = 0; v < numberOfVertices; v++) {
+			orientedOffsets[v + 1] = orientedOffsets[v] + orientedDegrees[v];
+		}
+		orientedTargets = new int[orientedOffsets[numberOfVertices]];
+		orientedFlags = new byte[orientedOffsets[numberOfVertices]];
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			long[] neighbours = new long[16];
+			for (int v = begin; v < end; v++) {
+				neighbours = ensureCapacity(neighbours, v);
+				int count = collectNeighbours(v, neighbours);
+				int position = orientedOffsets[v];
+				for (int i = 0; i < count; i++) {
+					int neighbour = (int)(neighbours[i] >>> 2);
+					if (ranksHigher(neighbour, v)) {
+						orientedTargets[position] = neighbour;
+						orientedFlags[position] = (byte)(neighbours[i] & (OUT_EDGE | IN_EDGE));
+						position++;
+					}
+				}
+			}
+		});
+	}
+
+	private long[] ensureCapacity(long[] neighbours, int vertex) {
+		int required = graph.getOutDegree(vertex) + graph.getInDegree(vertex);
+		return neighbours.length >= required ? neighbours : new long[Math.max(required, neighbours.length * 2)];
+	}
+
+	/**
+	 * Collects the distinct neighbours of a vertex, excluding the vertex itself, sorted by index. Each neighbour is
+	 * packed together with flags recording whether an outgoing and/or incoming edge connects it to the vertex.
+	 *
+	 * @param vertex     the vertex to collect the neighbours of
+	 * @param neighbours an array with room for the in- and out-degree of the vertex
+	 * @return the number of distinct neighbours
+	 */
+	private int collectNeighbours(int vertex, long[] neighbours) {
+		int count = 0;
+		for (int edge = graph.getOutEdgesBegin(vertex); edge < graph.getOutEdgesEnd(vertex); edge++) {
+			neighbours[count++] = (long)graph.getOutEdgeTarget(edge) << 2 | OUT_EDGE;
+		}
+		for (int i = graph.getInEdgesBegin(vertex); i < graph.getInEdgesEnd(vertex); i++) {
+			neighbours[count++] = (long)graph.getInEdgeSource(i) << 2 | IN_EDGE;
+		}
+		Arrays.sort(neighbours, 0, count);
+
+		int unique = 0;
+		for (int i = 0; i < count; i++) {
+			long neighbour = neighbours[i] >>> 2;
+			if (neighbour == vertex) {
+				continue;
+			}
+			if (unique > 0 && neighbours[unique - 1] >>> 2 == neighbour) {
+				neighbours[unique - 1] |= neighbours[i];
+			} else {
+				neighbours[unique++] = neighbours[i];
+			}
+		}
+		return unique;
+	}
+
+	private boolean ranksHigher(int vertex, int other) {
+		return degrees[vertex] > degrees[other] || (degrees[vertex] == degrees[other] && vertex > other);
+	}
+
+	/**
+	 * Finds all triangles in which u is the lowest-ranked vertex, by intersecting the oriented neighbours of u with
+	 * those of each of its oriented neighbours w.
+	 */
+	private void countTriangles(int u) {
+		int aBegin = orientedOffsets[u];
+		int aEnd = orientedOffsets[u + 1];
+		long uCount = 0;
+		for (int a = aBegin; a < aEnd; a++) {
+			int w = orientedTargets[a];
+			int bBegin = orientedOffsets[w];
+			int bEnd = orientedOffsets[w + 1];
+			int aSize = aEnd - aBegin;
+			int bSize = bEnd - bBegin;
+			if ((long)aSize * GALLOP_RATIO < bSize) {
+				uCount += gallop(aBegin, aEnd, bBegin, bEnd, orientedFlags[a], w, true);
+			} else if ((long)bSize * GALLOP_RATIO < aSize) {
+				uCount += gallop(bBegin, bEnd, aBegin, aEnd, orientedFlags[a], w, false);
+			} else {
+				uCount += merge(aBegin, aEnd, bBegin, bEnd, orientedFlags[a], w);
+			}
+		}
+		if (uCount > 0) {
+			edgeCounts.addAndGet(u, uCount);
+		}
+	}
+
+	/**
+	 * Finds all triangles in which u is the lowest-ranked vertex, by looking up the oriented neighbours of each
+	 * oriented neighbour w of u in a hash table of the oriented neighbours of u.
+	 */
+	private void countTrianglesWithHashTable(int u, int[] hashTable) {
+		int aBegin = orientedOffsets[u];
+		int aEnd = orientedOffsets[u + 1];
+		int mask = hashTable.length - 1;
+		// Entries hold the position of a neighbour plus one, so zero marks an empty slot
+		Arrays.fill(hashTable, 0);
+		for (int a = aBegin; a < aEnd; a++) {
+			int slot = hash(orientedTargets[a]) & mask;
+			while (hashTable[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			hashTable[slot] = a + 1;
+		}
+
+		long uCount = 0;
+		for (int a = aBegin; a < aEnd; a++) {
+			int w = orientedTargets[a];
+			long wCount = 0;
+			for (int b = orientedOffsets[w]; b < orientedOffsets[w + 1]; b++) {
+				int x = orientedTargets[b];
+				for (int slot = hash(x) & mask; hashTable[slot] != 0; slot = (slot + 1) & mask) {
+					int position = hashTable[slot] - 1;
+					if (orientedTargets[position] == x) {
+						uCount += countTriangle(orientedFlags[a], position, b);
+						wCount += Integer.bitCount(orientedFlags[position]);
+						break;
+					}
+				}
+			}
+			if (wCount > 0) {
+				edgeCounts.addAndGet(w, wCount);
+			}
+		}
+		if (uCount > 0) {
+			edgeCounts.addAndGet(u, uCount);
+		}
+	}
+
+	private long merge(int aBegin, int aEnd, int bBegin, int bEnd, byte uwFlags, int w) {
+		long uCount = 0;
+		long wCount = 0;
+		int a = aBegin;
+		int b = bBegin;
+		while (a < aEnd && b < bEnd) {
+			int aTarget = orientedTargets[a];
+			int bTarget = orientedTargets[b];
+			if (aTarget < bTarget) {
+				a++;
+			} else if (aTarget > bTarget) {
+				b++;
+			} else {
+				uCount += countTriangle(uwFlags, a, b);
+				wCount += Integer.bitCount(orientedFlags[a]);
+				a++;
+				b++;
+			}
+		}
+		if (wCount > 0) {
+			edgeCounts.addAndGet(w, wCount);
+		}
+		return uCount;
+	}
+
+	/**
+	 * Intersects a short array with a long array by searching each element of the short array in the remainder of the
+	 * long array, using an exponential search followed by a binary search.
+	 */
+	private long gallop(int shortBegin, int shortEnd, int longBegin, int longEnd, byte uwFlags, int w,
+			boolean shortIsU) {
+		long uCount = 0;
+		long wCount = 0;
+		int low = longBegin;
+		for (int s = shortBegin; s < shortEnd && low < longEnd; s++) {
+			int target = orientedTargets[s];
+			int step = 1;
+			int high = low;
+			while (high < longEnd && orientedTargets[high] < target) {
+				low = high + 1;
+				high += step;
+				step <<= 1;
+			}
+			high = Math.min(high, longEnd - 1);
+			// Binary search for the first element not less than the target in [low, high]
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (orientedTargets[middle] < target) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			if (low < longEnd && orientedTargets[low] == target) {
+				int a = shortIsU ? s : low;
+				int b = shortIsU ? low : s;
+				uCount += countTriangle(uwFlags, a, b);
+				wCount += Integer.bitCount(orientedFlags[a]);
+				low++;
+			}
+		}
+		if (wCount > 0) {
+			edgeCounts.addAndGet(w, wCount);
+		}
+		return uCount;
+	}
+
+	/**
+	 * Credits the third vertex x of a triangle (u, w, x) with the edges between u and w, and returns the credit for u,
+	 * the edges between w and x. The credit for w, the edges between u and x, is accumulated by the caller.
+	 *
+	 * @param uwFlags the flags of the oriented edge from u to w
+	 * @param a       the position of x in the oriented neighbours of u
+	 * @param b       the position of x in the oriented neighbours of w
+	 * @return the number of directed edges between w and x
+	 */
+	private long countTriangle(byte uwFlags, int a, int b) {
+		edgeCounts.addAndGet(orientedTargets[a], Integer.bitCount(uwFlags));
+		return Integer.bitCount(orientedFlags[b]);
+	}
+
+	private static int hash(int vertex) {
+		return (vertex * 0x9E3779B9) >>> 7;
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.pr;
+
+import science.atlarge.graphalytics.reference.algorithms.ParallelLoops;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel PageRank with a fixed number of iterations. Every vertex pulls the rank of its in-neighbours, and the rank
+ * of vertices without outgoing edges (dangling vertices) is redistributed uniformly over all vertices.
+ * <p>
+ * Each iteration first computes the contribution of every vertex, its rank divided by its out-degree, in a separate
+ * array while summing the rank of dangling vertices. The pull loop then only sums contributions over contiguous
+ * in-edges, without divisions or branches, and needs no synchronization as every vertex writes only its own rank.
+ * The L1 norm of the change in ranks and the duration of each iteration are available after a run.
+ */
+public final class PageRank {
+
+	private final CsrGraph graph;
+	private final ForkJoinPool pool;
+
+	private List<IterationStatistics> iterationStatistics = Collections.emptyList();
+
+	/**
+	 * @param graph the graph to compute the PageRank of
+	 * @param pool  the pool to execute the computation on
+	 */
+	public PageRank(CsrGraph graph, ForkJoinPool pool) {
+		this.graph = graph;
+		this.pool = pool;
+	}
+
+	/**
+	 * @param dampingFactor      the damping factor
+	 * @param numberOfIterations the number of iterations to execute
+	 * @return the rank of each vertex, indexed by dense vertex index
+	 */
+	public double[] run(double dampingFactor, int numberOfIterations) {
+		int numberOfVertices = graph.getNumberOfVertices();
+		double[] ranks = new double[numberOfVertices];
+		double[] nextRanks = new double[numberOfVertices];
+		double[] contributions = new double[numberOfVertices];
+		double[] inverseOutDegrees = new double[numberOfVertices];
+		double initialRank = 1.0 / numberOfVertices;
+		double[] initialRanks = ranks;
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			for (int v = begin; v < end; v++) {
+				initialRanks[v] = initialRank;
+				int outDegree = graph.getOutDegree(v);
+				inverseOutDegrees[v] = outDegree == 0 ? 0.0 : 1.0 / outDegree;
+			}
+		});
+
+		List<IterationStatistics> statistics = new ArrayList<>();
+		for (int iteration = 1; iteration <= numberOfIterations; iteration++) {
+			long startTime = System.nanoTime();
+			double[] currentRanks = ranks;
+			double danglingRank = ParallelLoops.sumDoubleRange(pool, numberOfVertices, (begin, end) -> {
+				double sum = 0.0;
+				for (int v = begin; v < end; v++) {
+					contributions[v] = currentRanks[v] * inverseOutDegrees[v];
+					if (inverseOutDegrees[v] == 0.0) {
+						sum += currentRanks[v];
+					}
+				}
+				return sum;
+			});
+
+			double base = (1.0 - dampingFactor) / numberOfVertices + dampingFactor * danglingRank / numberOfVertices;
+			double[] updatedRanks = nextRanks;
+			double l1Delta = ParallelLoops.sumDoubleRange(pool, numberOfVertices, (begin, end) -> {
+				double delta = 0.0;
+				for (int v = begin; v < end; v++) {
+					double sum = 0.0;
+					for (int i = graph.getInEdgesBegin(v), last = graph.getInEdgesEnd(v); i < last; i++) {
+						sum += contributions[graph.getInEdgeSource(i)];
+					}
+					double rank = base + dampingFactor * sum;
+					delta += Math.abs(rank - currentRanks[v]);
+					updatedRanks[v] = rank;
+				}
+				return delta;
+			});
+			nextRanks = ranks;
+			ranks = updatedRanks;
+			statistics.add(new IterationStatistics(iteration, l1Delta, danglingRank, System.nanoTime() - startTime));
+		}
+		iterationStatistics = Collections.unmodifiableList(statistics);
+		return ranks;
+	}
+
+	/**
+	 * @return the statistics of each iteration executed by the last run, in order
+	 */
+	public List<IterationStatistics> getIterationStatistics() {
+		return iterationStatistics;
+	}
+
+	/**
+	 * Statistics of a single PageRank iteration.
+	 */
+	public static final class IterationStatistics {
+
+		private final int iteration;
+		private final double l1Delta;
+		private final double danglingRank;
+		private final long durationNanos;
+
+		private IterationStatistics(int iteration, double l1Delta, double danglingRank, long durationNanos) {
+			this.iteration = iteration;
+			this.l1Delta = l1Delta;
+			this.danglingRank = danglingRank;
+			this.durationNanos = durationNanos;
+		}
+
+		/**
+		 * @return the number of the iteration, starting at 1
+		 */
+		public int getIteration() {
+			return iteration;
+		}
+
+		/**
+		 * @return the sum over all vertices of the absolute difference between their rank before and after this
+		 * iteration
+		 */
+		public double getL1Delta() {
+			return l1Delta;
+		}
+
+		/**
+		 * @return the total rank of dangling vertices at the start of this iteration
+		 */
+		public double getDanglingRank() {
+			return danglingRank;
+		}
+
+		/**
+		 * @return the time taken by this iteration, in nanoseconds
+		 */
+		public long getDurationNanos() {
+			return durationNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("iteration %d: L1 delta %.6e, dangling rank %.6e, %.3f ms", iteration, l1Delta,
+					danglingRank, durationNanos / 1e6);
+		}
+
+	}
+
+}
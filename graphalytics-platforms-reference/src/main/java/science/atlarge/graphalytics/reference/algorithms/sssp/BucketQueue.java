@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.sssp;
+
+import java.util.Arrays;
+
+/**
+ * Primitive bucket structure for delta-stepping. Buckets are identified by their index, and only a window of
+ * consecutive buckets starting at the current bucket may hold vertices, so the buckets are stored in a cyclic array
+ * of int lists. A vertex is queued in at most one bucket at a time: adding it to a lower bucket invalidates its
+ * entry in the higher bucket, which is skipped when that bucket is taken.
+ */
+final class BucketQueue {
+
+	private final int[][] slots;
+	private final int[] sizes;
+	private final long[] queuedBucket;
+
+	/**
+	 * @param span             the number of consecutive buckets that may hold vertices at the same time
+	 * @param numberOfVertices the number of vertices in the graph
+	 */
+	BucketQueue(int span, int numberOfVertices) {
+		this.slots = new int[span][];
+		this.sizes = new int[span];
+		this.queuedBucket = new long[numberOfVertices];
+		Arrays.fill(queuedBucket, -1L);
+	}
+
+	/**
+	 * Queues a vertex in a bucket, unless it is already queued in that bucket.
+	 *
+	 * @param bucket the index of the bucket
+	 * @param vertex the dense index of the vertex
+	 */
+	void add(long bucket, int vertex) {
+		if (queuedBucket[vertex] == bucket) {
+			return;
+		}
+		queuedBucket[vertex] = bucket;
+		int slot = slotOf(bucket);
+		int[] entries = slots[slot];
+		if (entries == null) {
+			entries = slots[slot] = new int[16];
+		} else if (sizes[slot] == entries.length) {
+			entries = slots[slot] = Arrays.copyOf(entries, entries.length * 2);
+		}
+		entries[sizes[slot]++] = vertex;
+	}
+
+	/**
+	 * @param bucket the index of the bucket
+	 * @return true iff the bucket has entries, possibly invalidated ones
+	 */
+	boolean hasVertices(long bucket) {
+		return sizes[slotOf(bucket)] > 0;
+	}
+
+	/**
+	 * Removes all vertices from a bucket.
+	 *
+	 * @param bucket the index of the bucket
+	 * @return the vertices that were queued in the bucket, excluding vertices that moved to a lower bucket
+	 */
+	int[] take(long bucket) {
+		int slot = slotOf(bucket);
+		int[] entries = slots[slot];
+		int count = 0;
+		for (int i = 0; i < sizes[slot]; i++) {
+			int vertex = entries[i];
+			if (queuedBucket[vertex] == bucket) {
+				queuedBucket[vertex] = -1L;
+				entries[count++] = vertex;
+			}
+		}
+		sizes[slot] = 0;
+		return Arrays.copyOf(entries, count);
+	}
+
+	/**
+	 * @param bucket the index of the current bucket, which must be empty
+	 * @return the index of the first bucket after the current bucket that has entries, or -1 if there is none
+	 */
+	long nextNonEmptyBucket(long bucket) {
+		for (long next = bucket + 1; next < bucket + slots.length; next++) {
+			if (sizes[slotOf(next)] > 0) {
+				return next;
+			}
+		}
+		return -1L;
+	}
+
+	private int slotOf(long bucket) {
+		return (int)(bucket % slots.length);
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.sssp;
+
+import science.atlarge.graphalytics.reference.algorithms.ParallelLoops;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAccumulator;
+
+/**
+ * Parallel single-source shortest paths by delta-stepping. Vertices are kept in buckets of width delta by tentative
+ * distance, and buckets are settled in increasing order. Settling a bucket relaxes the outgoing edges of all its
+ * vertices in parallel, using a compare-and-set loop to lower the distance of the target; targets whose distance
+ * falls within the current bucket are processed again in the next phase of the same bucket. Compared to
+ * Bellman-Ford, a vertex is only expanded once its distance is close to final, which avoids most redundant
+ * relaxations on graphs with a wide weight distribution.
+ * <p>
+ * Unless given explicitly, delta is derived from the edge weights such that on average one outgoing edge per vertex
+ * is lighter than delta. Edge weights must be non-negative. Unreachable vertices have distance positive infinity.
+ */
+public final class SingleSourceShortestPaths {
+
+	/**
+	 * The maximum number of buckets that can hold vertices at the same time, bounds delta from below.
+	 */
+	static final int MAX_BUCKET_SPAN = 1 << 16;
+
+	private static final int WEIGHT_SAMPLE_SIZE = 1 << 16;
+
+	private final CsrGraph graph;
+	private final ForkJoinPool pool;
+
+	/**
+	 * @param graph the graph to compute shortest paths in, following outgoing edges
+	 * @param pool  the pool to execute the computation on
+	 */
+	public SingleSourceShortestPaths(CsrGraph graph, ForkJoinPool pool) {
+		this.graph = graph;
+		this.pool = pool;
+	}
+
+	/**
+	 * @param sourceVertexId the id of the vertex to compute distances from
+	 * @param weightProperty the index of the REAL edge property holding the edge weights
+	 * @return the distance to each vertex, indexed by dense vertex index
+	 */
+	public double[] run(long sourceVertexId, int weightProperty) {
+		return run(sourceVertexId, weightProperty, Double.NaN);
+	}
+
+	/**
+	 * @param sourceVertexId the id of the vertex to compute distances from
+	 * @param weightProperty the index of the REAL edge property holding the edge weights
+	 * @param delta          the width of a bucket, or NaN to derive it from the edge weights
+	 * @return the distance to each vertex, indexed by dense vertex index
+	 * @throws IllegalArgumentException if the graph contains a negative or NaN edge weight
+	 */
+	public double[] run(long sourceVertexId, int weightProperty, double delta) {
+		int numberOfVertices = graph.getNumberOfVertices();
+		AtomicLongArray distances = new AtomicLongArray(numberOfVertices);
+		long infinity = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			for (int v = begin; v < end; v++) {
+				distances.set(v, infinity);
+			}
+		});
+
+		int source = graph.getVertexIndex(sourceVertexId);
+		if (source >= 0) {
+			double maxWeight = maxFiniteWeight(weightProperty);
+			if (Double.isNaN(delta)) {
+				delta = tuneDelta(weightProperty, maxWeight);
+			} else if (!(delta > 0.0) || Double.isInfinite(delta)) {
+				throw new IllegalArgumentException("Delta must be positive and finite, but was " + delta + ".");
+			}
+			// Pending distances are below the current bucket plus the maximum weight, so buckets are reused cyclically
+			double boundedDelta = Math.max(delta, maxWeight / MAX_BUCKET_SPAN);
+			int span = (int)Math.ceil(maxWeight / boundedDelta) + 2;
+			distances.set(source, Double.doubleToLongBits(0.0));
+			settleBuckets(source, distances, new BucketQueue(span, numberOfVertices), boundedDelta, weightProperty);
+		}
+
+		double[] result = new double[numberOfVertices];
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			for (int v = begin; v < end; v++) {
+				result[v] = Double.longBitsToDouble(distances.get(v));
+			}
+		});
+		return result;
+	}
+
+	private void settleBuckets(int source, AtomicLongArray distances, BucketQueue buckets, double delta,
+			int weightProperty) {
+		int[] updated = new int[Math.max(16, graph.getOutDegree(source))];
+		buckets.add(0, source);
+		for (long bucket = 0; bucket >= 0; bucket = buckets.nextNonEmptyBucket(bucket)) {
+			while (buckets.hasVertices(bucket)) {
+				int[] frontier = buckets.take(bucket);
+				int frontierEdges = (int)ParallelLoops.sumLongRange(pool, frontier.length, (begin, end) -> {
+					long edges = 0;
+					for (int i = begin; i < end; i++) {
+						edges += graph.getOutDegree(frontier[i]);
+					}
+					return edges;
+				});
+				if (updated.length < frontierEdges) {
+					updated = new int[Math.max(frontierEdges, updated.length * 2)];
+				}
+				int count = relax(frontier, updated, distances, weightProperty);
+				for (int i = 0; i < count; i++) {
+					buckets.add(bucketOf(distances, updated[i], delta), updated[i]);
+				}
+			}
+		}
+	}
+
+	private int relax(int[] frontier, int[] updated, AtomicLongArray distances, int weightProperty) {
+		AtomicInteger updatedSize = new AtomicInteger();
+		ParallelLoops.forRange(pool, frontier.length, (begin, end) -> {
+			int[] lowered = new int[64];
+			int count = 0;
+			for (int i = begin; i < end; i++) {
+				int vertex = frontier[i];
+				double distance = Double.longBitsToDouble(distances.get(vertex));
+				for (int edge = graph.getOutEdgesBegin(vertex); edge < graph.getOutEdgesEnd(vertex); edge++) {
+					int target = graph.getOutEdgeTarget(edge);
+					if (lowerDistance(distances, target, distance + graph.getEdgeDoubleProperty(weightProperty, edge))) {
+						if (count == lowered.length) {
+							lowered = Arrays.copyOf(lowered, count * 2);
+						}
+						lowered[count++] = target;
+					}
+				}
+			}
+			int offset = updatedSize.getAndAdd(count);
+			System.arraycopy(lowered, 0, updated, offset, count);
+		});
+		return updatedSize.get();
+	}
+
+	private static long bucketOf(AtomicLongArray distances, int vertex, double delta) {
+		return (long)(Double.longBitsToDouble(distances.get(vertex)) / delta);
+	}
+
+	private static boolean lowerDistance(AtomicLongArray distances, int vertex, double candidate) {
+		while (true) {
+			long current = distances.get(vertex);
+			if (Double.longBitsToDouble(current) <= candidate) {
+				return false;
+			}
+			if (distances.compareAndSet(vertex, current, Double.doubleToLongBits(candidate))) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * @param weightProperty the index of the REAL edge property holding the edge weights
+	 * @return the largest finite edge weight, or 0 if the graph has no edges
+	 * @throws IllegalArgumentException if the graph contains a negative or NaN edge weight
+	 */
+	private double maxFiniteWeight(int weightProperty) {
+		DoubleAccumulator maxWeight = new DoubleAccumulator(Math::max, 0.0);
+		ParallelLoops.forRange(pool, graph.getNumberOfEdges(), (begin, end) -> {
+			double max = 0.0;
+			for (int edge = begin; edge < end; edge++) {
+				double weight = graph.getEdgeDoubleProperty(weightProperty, edge);
+				if (!(weight >= 0.0)) {
+					throw new IllegalArgumentException("Edge weights must be non-negative, but found weight " +
+							weight + ".");
+				}
+				if (weight > max && weight != Double.POSITIVE_INFINITY) {
+					max = weight;
+				}
+			}
+			maxWeight.accumulate(max);
+		});
+		return maxWeight.get();
+	}
+
+	/**
+	 * Derives delta from a sample of the edge weights: the quantile of the weight distribution at which an average
+	 * vertex has one outgoing edge lighter than delta. Larger deltas expose more parallelism per bucket, but let
+	 * vertices be expanded before their distance is final.
+	 *
+	 * @param weightProperty the index of the REAL edge property holding the edge weights
+	 * @param maxWeight      the largest finite edge weight
+	 * @return the derived delta
+	 */
+	double tuneDelta(int weightProperty, double maxWeight) {
+		int numberOfEdges = graph.getNumberOfEdges();
+		int sampleSize = Math.min(numberOfEdges, WEIGHT_SAMPLE_SIZE);
+		double[] sample = new double[sampleSize];
+		for (int i = 0; i < sampleSize; i++) {
+			sample[i] = graph.getEdgeDoubleProperty(weightProperty, (int)((long)i * numberOfEdges / sampleSize));
+		}
+		Arrays.sort(sample);
+
+		double averageDegree = (double)numberOfEdges / graph.getNumberOfVertices();
+		int quantile = (int)Math.min(sampleSize - 1, sampleSize / Math.max(1.0, averageDegree));
+		double delta = sampleSize > 0 ? Math.min(sample[quantile], maxWeight) : 0.0;
+		if (delta > 0.0) {
+			return delta;
+		}
+		// Most sampled weights are zero, fall back to the smallest positive weight
+		for (double weight : sample) {
+			if (weight > 0.0 && weight <= maxWeight) {
+				return weight;
+			}
+		}
+		return maxWeight > 0.0 ? maxWeight : 1.0;
+	}
+
+}
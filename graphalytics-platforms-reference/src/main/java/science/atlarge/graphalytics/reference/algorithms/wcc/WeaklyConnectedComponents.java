@@ -0,0 +1,186 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.wcc;
+
+import science.atlarge.graphalytics.reference.algorithms.ParallelLoops;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Parallel weakly connected components by lock-free union-find with neighbour sampling (Afforest). Components are
+ * trees of parent pointers over dense vertex indices. Trees are linked with a compare-and-set that always hooks the
+ * higher root under the lower vertex, and flattened by path compression, so every vertex ends up pointing directly
+ * at the smallest index in its component.
+ * <p>
+ * The first few out-neighbours of every vertex are linked first, which usually connects most of the giant
+ * component. The largest intermediate component is then estimated from a random sample of vertices, and its members
+ * skip their remaining edges: any edge between the giant component and another component is still found from the
+ * other endpoint, through its remaining out-edges or, for directed graphs, its in-edges. Edge directions are thus
+ * ignored. Each component is labelled with the smallest vertex id it contains.
+ */
+public final class WeaklyConnectedComponents {
+
+	/**
+	 * The number of out-neighbours per vertex that are linked before the giant component is estimated.
+	 */
+	static final int NEIGHBOUR_ROUNDS = 2;
+
+	private static final int SAMPLE_SIZE = 1024;
+	private static final long SAMPLE_SEED = 0x5eed;
+
+	private final CsrGraph graph;
+	private final ForkJoinPool pool;
+	private final int neighbourRounds;
+
+	private AtomicIntegerArray parents;
+
+	/**
+	 * @param graph the graph to compute the components of
+	 * @param pool  the pool to execute the computation on
+	 */
+	public WeaklyConnectedComponents(CsrGraph graph, ForkJoinPool pool) {
+		this(graph, pool, NEIGHBOUR_ROUNDS);
+	}
+
+	WeaklyConnectedComponents(CsrGraph graph, ForkJoinPool pool, int neighbourRounds) {
+		this.graph = graph;
+		this.pool = pool;
+		this.neighbourRounds = neighbourRounds;
+	}
+
+	/**
+	 * @return the component id of each vertex, indexed by dense vertex index
+	 */
+	public long[] run() {
+		int numberOfVertices = graph.getNumberOfVertices();
+		parents = new AtomicIntegerArray(numberOfVertices);
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			for (int v = begin; v < end; v++) {
+				parents.set(v, v);
+			}
+		});
+
+		for (int round = 0; round < neighbourRounds; round++) {
+			int neighbour = round;
+			ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+				for (int v = begin; v < end; v++) {
+					int edge = graph.getOutEdgesBegin(v) + neighbour;
+					if (edge < graph.getOutEdgesEnd(v)) {
+						link(v, graph.getOutEdgeTarget(edge));
+					}
+				}
+			});
+			compress();
+		}
+
+		int giantComponent = sampleLargestComponent();
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			for (int v = begin; v < end; v++) {
+				if (parents.get(v) == giantComponent) {
+					continue;
+				}
+				for (int edge = graph.getOutEdgesBegin(v) + neighbourRounds; edge < graph.getOutEdgesEnd(v); edge++) {
+					link(v, graph.getOutEdgeTarget(edge));
+				}
+				if (graph.isDirected()) {
+					for (int i = graph.getInEdgesBegin(v); i < graph.getInEdgesEnd(v); i++) {
+						link(v, graph.getInEdgeSource(i));
+					}
+				}
+			}
+		});
+		compress();
+
+		long[] components = new long[numberOfVertices];
+		ParallelLoops.forRange(pool, numberOfVertices, (begin, end) -> {
+			for (int v = begin; v < end; v++) {
+				components[v] = graph.getVertexId(parents.get(v));
+			}
+		});
+		parents = null;
+		return components;
+	}
+
+	/**
+	 * Merges the trees containing two vertices by hooking the higher of two roots under the lower vertex. A failed
+	 * compare-and-set means another thread changed the tree, so the search restarts one level higher.
+	 */
+	private void link(int u, int v) {
+		int p1 = parents.get(u);
+		int p2 = parents.get(v);
+		while (p1 != p2) {
+			int high = Math.max(p1, p2);
+			int low = Math.min(p1, p2);
+			int highParent = parents.get(high);
+			if (highParent == low) {
+				return;
+			}
+			if (highParent == high && parents.compareAndSet(high, high, low)) {
+				return;
+			}
+			p1 = parents.get(highParent);
+			p2 = parents.get(low);
+		}
+	}
+
+	/**
+	 * Points every vertex directly at the root of its tree.
+	 */
+	private void compress() {
+		ParallelLoops.forRange(pool, graph.getNumberOfVertices(), (begin, end) -> {
+			for (int v = begin; v < end; v++) {
+				int parent = parents.get(v);
+				int grandparent = parents.get(parent);
+				while (parent != grandparent) {
+					parents.set(v, grandparent);
+					parent = grandparent;
+					grandparent = parents.get(parent);
+				}
+			}
+		});
+	}
+
+	/**
+	 * @return the root that most vertices in a random sample point at, which is likely the giant component
+	 */
+	private int sampleLargestComponent() {
+		int numberOfVertices = graph.getNumberOfVertices();
+		if (numberOfVertices == 0) {
+			return -1;
+		}
+		Random random = new Random(SAMPLE_SEED);
+		Map<Integer, Integer> counts = new HashMap<>();
+		int largest = parents.get(0);
+		int largestCount = 0;
+		for (int i = 0; i < SAMPLE_SIZE; i++) {
+			int root = parents.get(random.nextInt(numberOfVertices));
+			int count = counts.merge(root, 1, Integer::sum);
+			if (count > largestCount) {
+				largest = root;
+				largestCount = count;
+			}
+		}
+		return largest;
+	}
+
+}
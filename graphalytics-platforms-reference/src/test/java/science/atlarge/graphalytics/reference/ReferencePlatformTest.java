@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.domain.algorithms.Algorithm;
+import science.atlarge.graphalytics.domain.algorithms.BreadthFirstSearchParameters;
+import science.atlarge.graphalytics.domain.benchmark.BenchmarkRun;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.domain.graph.Graph;
+import science.atlarge.graphalytics.domain.graph.LoadedGraph;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.execution.BenchmarkRunSetup;
+import science.atlarge.graphalytics.execution.RunSpecification;
+import science.atlarge.graphalytics.execution.RuntimeSetup;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test cases for ReferencePlatform.
+ */
+public class ReferencePlatformTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testRunWritesOutputToOutputDirectory() throws Exception {
+		File vertices = temporaryFolder.newFile("graph.v");
+		File edges = temporaryFolder.newFile("graph.e");
+		Files.write(vertices.toPath(), "1\n2\n3\n".getBytes(StandardCharsets.UTF_8));
+		Files.write(edges.toPath(), "1 2\n2 3\n".getBytes(StandardCharsets.UTF_8));
+		FormattedGraph formattedGraph = new FormattedGraph("graph", 3, 2, true, vertices.getPath(), edges.getPath(),
+				new PropertyList(), new PropertyList());
+		Graph graph = new Graph.Builder("graph", formattedGraph, temporaryFolder.getRoot().getPath())
+				.withAlgorithm(Algorithm.BFS, new BreadthFirstSearchParameters(1)).toGraphSet();
+		BenchmarkRun benchmarkRun = new BenchmarkRun(Algorithm.BFS, graph, 60);
+		Path root = temporaryFolder.getRoot().toPath();
+		BenchmarkRunSetup benchmarkRunSetup = new BenchmarkRunSetup(benchmarkRun, root.resolve("log"),
+				root.resolve("output"), root.resolve("validation"), true, false);
+		Files.createDirectories(benchmarkRunSetup.getOutputDir());
+
+		ReferencePlatform platform = new ReferencePlatform();
+		LoadedGraph loadedGraph = platform.loadGraph(formattedGraph);
+		RunSpecification runSpecification = new RunSpecification(benchmarkRun, benchmarkRunSetup,
+				new RuntimeSetup(loadedGraph));
+		platform.startup(runSpecification);
+		platform.run(runSpecification);
+
+		File[] outputFiles = benchmarkRunSetup.getOutputDir().toFile().listFiles();
+		assertEquals(1, outputFiles.length);
+		assertEquals(Arrays.asList("1 0", "2 1", "3 2"),
+				Files.readAllLines(outputFiles[0].toPath(), StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference;
+
+import science.atlarge.graphalytics.domain.graph.Property;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.util.graph.PropertyGraph;
+import science.atlarge.graphalytics.util.io.PropertyValues;
+import science.atlarge.graphalytics.validation.GraphStructure;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Conversions between the in-memory graphs used by the validation tests and CsrGraph, and random graphs for
+ * comparing the parallel algorithms against sequential implementations.
+ */
+public final class ValidationGraphs {
+
+	public static final PropertyList WEIGHT_PROPERTIES = new PropertyList(new Property("weight", PropertyType.REAL));
+
+	/**
+	 * Pool shared by the algorithm tests, with more than one worker so the parallel code paths are exercised.
+	 */
+	public static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	/**
+	 * Prevent instantiation of utility class.
+	 */
+	private ValidationGraphs() {
+	}
+
+	/**
+	 * Converts a GraphStructure to a CsrGraph. The edges of undirected graphs are listed in both directions by
+	 * GraphStructure, so each pair of vertices is added once.
+	 *
+	 * @param structure  the graph to convert
+	 * @param isDirected true iff the graph is directed
+	 * @return the converted graph
+	 */
+	public static CsrGraph toCsrGraph(GraphStructure structure, boolean isDirected) {
+		CsrGraph.Builder builder = new CsrGraph.Builder(isDirected, new PropertyList(), new PropertyList());
+		for (long vertexId : structure.getVertices()) {
+			builder.addVertex(vertexId, null);
+		}
+		Set<String> addedEdges = new HashSet<>();
+		for (long sourceId : structure.getVertices()) {
+			for (long destinationId : structure.getEdgesForVertex(sourceId)) {
+				if (isDirected || addedEdges.add(Math.min(sourceId, destinationId) + " " +
+						Math.max(sourceId, destinationId))) {
+					builder.addEdge(sourceId, destinationId, null);
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Converts a PropertyGraph with edge weights to a CsrGraph with a single REAL edge property. The edges of
+	 * undirected graphs are stored in both directions by PropertyGraph, so each pair of vertices is added once.
+	 *
+	 * @param graph      the graph to convert
+	 * @param isDirected true iff the graph is directed
+	 * @return the converted graph
+	 */
+	public static CsrGraph toCsrGraph(PropertyGraph<Void, Double> graph, boolean isDirected) {
+		CsrGraph.Builder builder = new CsrGraph.Builder(isDirected, new PropertyList(), WEIGHT_PROPERTIES);
+		for (PropertyGraph<Void, Double>.Vertex vertex : graph.getVertices()) {
+			builder.addVertex(vertex.getId(), null);
+		}
+		Set<String> addedEdges = new HashSet<>();
+		for (PropertyGraph<Void, Double>.Vertex vertex : graph.getVertices()) {
+			for (PropertyGraph<Void, Double>.Edge edge : vertex.getOutgoingEdges()) {
+				long sourceId = vertex.getId();
+				long destinationId = edge.getDestinationVertex().getId();
+				if (isDirected || addedEdges.add(Math.min(sourceId, destinationId) + " " +
+						Math.max(sourceId, destinationId))) {
+					builder.addEdge(sourceId, destinationId, weight(edge.getValue()));
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @param weight the weight of an edge
+	 * @return property values for an edge of a graph with WEIGHT_PROPERTIES
+	 */
+	public static PropertyValues weight(double weight) {
+		return new WeightValue(weight);
+	}
+
+	/**
+	 * @param output the output of an algorithm with INTEGER values
+	 * @return a map from vertex id to value
+	 */
+	public static Map<Long, Long> toLongMap(VertexOutput output) {
+		Map<Long, Long> values = new HashMap<>();
+		for (int v = 0; v < output.size(); v++) {
+			values.put(output.getVertexId(v), output.getLong(v));
+		}
+		return values;
+	}
+
+	/**
+	 * @param output the output of an algorithm with REAL values
+	 * @return a map from vertex id to value
+	 */
+	public static Map<Long, Double> toDoubleMap(VertexOutput output) {
+		Map<Long, Double> values = new HashMap<>();
+		for (int v = 0; v < output.size(); v++) {
+			values.put(output.getVertexId(v), output.getDouble(v));
+		}
+		return values;
+	}
+
+	/**
+	 * Builder for random graphs with a fixed seed. Vertex v gets the id v * idStride + idOffset, so the ids differ
+	 * from the dense indices. The endpoints of each edge are drawn uniformly from the first sourceRange and
+	 * destinationRange vertices, unless the sources are skewed towards low indices to create hubs.
+	 */
+	public static final class RandomGraphBuilder {
+
+		private final boolean isDirected;
+		private final int numberOfVertices;
+		private final int numberOfEdges;
+		private final long seed;
+
+		private long idStride = 1;
+		private long idOffset = 0;
+		private int sourceRange;
+		private int destinationRange;
+		private double sourceSkew = 1.0;
+		private boolean allowSelfLoops = true;
+		private boolean isWeighted = false;
+		private double zeroWeightFraction = 0.0;
+
+		/**
+		 * @param isDirected       true iff the graph is directed
+		 * @param numberOfVertices the number of vertices
+		 * @param numberOfEdges    the number of random edges to draw
+		 * @param seed             the seed of the random number generator
+		 */
+		public RandomGraphBuilder(boolean isDirected, int numberOfVertices, int numberOfEdges, long seed) {
+			this.isDirected = isDirected;
+			this.numberOfVertices = numberOfVertices;
+			this.numberOfEdges = numberOfEdges;
+			this.seed = seed;
+			this.sourceRange = numberOfVertices;
+			this.destinationRange = numberOfVertices;
+		}
+
+		/**
+		 * @param idStride the difference between the ids of consecutive vertices
+		 * @param idOffset the id of the first vertex
+		 * @return this builder
+		 */
+		public RandomGraphBuilder ids(long idStride, long idOffset) {
+			this.idStride = idStride;
+			this.idOffset = idOffset;
+			return this;
+		}
+
+		/**
+		 * @param sourceRange the number of vertices, starting at the first, that can be the source of an edge
+		 * @return this builder
+		 */
+		public RandomGraphBuilder sourceRange(int sourceRange) {
+			this.sourceRange = sourceRange;
+			return this;
+		}
+
+		/**
+		 * @param destinationRange the number of vertices, starting at the first, that can be the target of an edge
+		 * @return this builder
+		 */
+		public RandomGraphBuilder destinationRange(int destinationRange) {
+			this.destinationRange = destinationRange;
+			return this;
+		}
+
+		/**
+		 * @param exponent the power to which a uniform number in [0, 1) is raised to pick a source vertex; higher
+		 *                 exponents concentrate more edges on the first vertices
+		 * @return this builder
+		 */
+		public RandomGraphBuilder skewedSources(double exponent) {
+			this.sourceSkew = exponent;
+			return this;
+		}
+
+		/**
+		 * Drops the edges whose endpoints coincide.
+		 *
+		 * @return this builder
+		 */
+		public RandomGraphBuilder withoutSelfLoops() {
+			this.allowSelfLoops = false;
+			return this;
+		}
+
+		/**
+		 * Adds a uniform random weight in [0, 1) to each edge, with WEIGHT_PROPERTIES as the edge properties.
+		 *
+		 * @param zeroWeightFraction the fraction of edges with weight zero instead
+		 * @return this builder
+		 */
+		public RandomGraphBuilder weighted(double zeroWeightFraction) {
+			this.isWeighted = true;
+			this.zeroWeightFraction = zeroWeightFraction;
+			return this;
+		}
+
+		/**
+		 * @param vertex the dense index of a vertex
+		 * @return the id of the vertex
+		 */
+		public long vertexId(int vertex) {
+			return vertex * idStride + idOffset;
+		}
+
+		/**
+		 * @return a CsrGraph builder holding the vertices and random edges, to which further edges can be added
+		 */
+		public CsrGraph.Builder toBuilder() {
+			Random random = new Random(seed);
+			CsrGraph.Builder builder = new CsrGraph.Builder(isDirected, new PropertyList(),
+					isWeighted ? WEIGHT_PROPERTIES : new PropertyList());
+			for (int vertex = 0; vertex < numberOfVertices; vertex++) {
+				builder.addVertex(vertexId(vertex), null);
+			}
+			for (int edge = 0; edge < numberOfEdges; edge++) {
+				int source = sourceSkew == 1.0 ? random.nextInt(sourceRange) :
+						(int)(sourceRange * Math.pow(random.nextDouble(), sourceSkew));
+				int destination = random.nextInt(destinationRange);
+				PropertyValues weight = null;
+				if (isWeighted) {
+					weight = weight(random.nextDouble() < zeroWeightFraction ? 0.0 : random.nextDouble());
+				}
+				if (allowSelfLoops || source != destination) {
+					builder.addEdge(vertexId(source), vertexId(destination), weight);
+				}
+			}
+			return builder;
+		}
+
+		/**
+		 * @return the random graph
+		 */
+		public CsrGraph build() {
+			return toBuilder().build();
+		}
+
+	}
+
+	private static final class WeightValue extends PropertyValues {
+
+		private final double weight;
+
+		private WeightValue(double weight) {
+			super(WEIGHT_PROPERTIES);
+			this.weight = weight;
+		}
+
+		@Override
+		public double getDouble(int property) {
+			return weight;
+		}
+
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.bfs;
+
+import org.junit.Test;
+import science.atlarge.graphalytics.domain.algorithms.BreadthFirstSearchParameters;
+import science.atlarge.graphalytics.reference.ValidationGraphs;
+import science.atlarge.graphalytics.reference.ValidationGraphs.RandomGraphBuilder;
+import science.atlarge.graphalytics.reference.VertexOutput;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.validation.GraphStructure;
+import science.atlarge.graphalytics.validation.algorithms.bfs.BreadthFirstSearchOutput;
+import science.atlarge.graphalytics.validation.algorithms.bfs.BreadthFirstSearchValidationTest;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static science.atlarge.graphalytics.reference.ValidationGraphs.POOL;
+
+/**
+ * Validation tests for the reference BreadthFirstSearch implementation.
+ */
+public class BreadthFirstSearchTest extends BreadthFirstSearchValidationTest {
+
+	@Override
+	public BreadthFirstSearchOutput executeDirectedBreadthFirstSearch(GraphStructure graph, BreadthFirstSearchParameters parameters) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, true);
+		return new BreadthFirstSearchOutput(ValidationGraphs.toLongMap(VertexOutput.ofLongs(csrGraph,
+				new BreadthFirstSearch(csrGraph, POOL).run(parameters.getSourceVertex()))));
+	}
+
+	@Override
+	public BreadthFirstSearchOutput executeUndirectedBreadthFirstSearch(GraphStructure graph, BreadthFirstSearchParameters parameters) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, false);
+		return new BreadthFirstSearchOutput(ValidationGraphs.toLongMap(VertexOutput.ofLongs(csrGraph,
+				new BreadthFirstSearch(csrGraph, POOL).run(parameters.getSourceVertex()))));
+	}
+
+	@Test
+	public void testDirectionSwitchingMatchesSequentialSearch() {
+		for (boolean isDirected : new boolean[]{true, false}) {
+			CsrGraph graph = new RandomGraphBuilder(isDirected, 20000, 60000, 42).ids(3, 1).skewedSources(3).build();
+			long[] expected = sequentialSearch(graph, 0);
+			int[][] thresholds = {{BreadthFirstSearch.DEFAULT_ALPHA, BreadthFirstSearch.DEFAULT_BETA}, {1, 1},
+					{Integer.MAX_VALUE, Integer.MAX_VALUE}, {Integer.MAX_VALUE, 1}};
+			for (int[] threshold : thresholds) {
+				BreadthFirstSearch bfs = new BreadthFirstSearch(graph, POOL, threshold[0], threshold[1]);
+				assertArrayEquals(expected, bfs.run(graph.getVertexId(0)));
+			}
+		}
+	}
+
+	@Test
+	public void testLevelStatistics() {
+		CsrGraph graph = new RandomGraphBuilder(false, 5000, 20000, 7).ids(3, 1).skewedSources(3).build();
+		long[] expected = sequentialSearch(graph, 0);
+		long maxDepth = Arrays.stream(expected).filter(d -> d != BreadthFirstSearch.UNREACHABLE).max().getAsLong();
+
+		BreadthFirstSearch bfs = new BreadthFirstSearch(graph, POOL, Integer.MAX_VALUE, Integer.MAX_VALUE);
+		bfs.run(graph.getVertexId(0));
+		// The last level expands the deepest vertices and discovers nothing
+		assertEquals(maxDepth + 1, bfs.getLevelStatistics().size());
+		long discovered = 1;
+		for (BreadthFirstSearch.LevelStatistics level : bfs.getLevelStatistics()) {
+			assertEquals(BreadthFirstSearch.Direction.BOTTOM_UP, level.getDirection());
+			discovered += level.getDiscoveredVertices();
+		}
+		assertEquals(Arrays.stream(expected).filter(d -> d != BreadthFirstSearch.UNREACHABLE).count(), discovered);
+	}
+
+	@Test
+	public void testMissingSourceVertex() {
+		CsrGraph graph = new RandomGraphBuilder(true, 100, 200, 1).ids(3, 1).skewedSources(3).build();
+		long[] depths = new BreadthFirstSearch(graph, POOL).run(-1L);
+		for (long depth : depths) {
+			assertEquals(BreadthFirstSearch.UNREACHABLE, depth);
+		}
+	}
+
+	private static long[] sequentialSearch(CsrGraph graph, int source) {
+		long[] depths = new long[graph.getNumberOfVertices()];
+		Arrays.fill(depths, BreadthFirstSearch.UNREACHABLE);
+		depths[source] = 0;
+		Queue<Integer> queue = new ArrayDeque<>();
+		queue.add(source);
+		while (!queue.isEmpty()) {
+			int vertex = queue.remove();
+			for (int edge = graph.getOutEdgesBegin(vertex); edge < graph.getOutEdgesEnd(vertex); edge++) {
+				int neighbour = graph.getOutEdgeTarget(edge);
+				if (depths[neighbour] == BreadthFirstSearch.UNREACHABLE) {
+					depths[neighbour] = depths[vertex] + 1;
+					queue.add(neighbour);
+				}
+			}
+		}
+		return depths;
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.cdlp;
+
+import org.junit.Test;
+import science.atlarge.graphalytics.domain.algorithms.CommunityDetectionLPParameters;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.reference.ValidationGraphs;
+import science.atlarge.graphalytics.reference.ValidationGraphs.RandomGraphBuilder;
+import science.atlarge.graphalytics.reference.VertexOutput;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.validation.GraphStructure;
+import science.atlarge.graphalytics.validation.algorithms.cdlp.CommunityDetectionLPOutput;
+import science.atlarge.graphalytics.validation.algorithms.cdlp.CommunityDetectionLPValidationTest;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static science.atlarge.graphalytics.reference.ValidationGraphs.POOL;
+
+/**
+ * Validation tests for the reference CommunityDetectionLP implementation.
+ */
+public class CommunityDetectionLPTest extends CommunityDetectionLPValidationTest {
+
+	@Override
+	public CommunityDetectionLPOutput executeDirectedCommunityDetection(GraphStructure graph, CommunityDetectionLPParameters parameters) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, true);
+		return new CommunityDetectionLPOutput(ValidationGraphs.toLongMap(VertexOutput.ofLongs(csrGraph,
+				new CommunityDetectionLP(csrGraph, POOL).run(parameters.getMaxIterations()))));
+	}
+
+	@Override
+	public CommunityDetectionLPOutput executeUndirectedCommunityDetection(GraphStructure graph, CommunityDetectionLPParameters parameters) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, false);
+		return new CommunityDetectionLPOutput(ValidationGraphs.toLongMap(VertexOutput.ofLongs(csrGraph,
+				new CommunityDetectionLP(csrGraph, POOL).run(parameters.getMaxIterations()))));
+	}
+
+	@Test
+	public void testHistogramsMatchSortedNeighbourLabels() {
+		for (boolean isDirected : new boolean[]{true, false}) {
+			CsrGraph graph = new RandomGraphBuilder(isDirected, 5000, 40000, 42).ids(7, 3).skewedSources(3).build();
+			CommunityDetectionLP cdlp = new CommunityDetectionLP(graph, POOL);
+			long[] expected = sortedNeighbourLabels(graph, 5);
+			assertArrayEquals(expected, cdlp.run(5));
+			assertTrue(cdlp.getIterationStatistics().size() <= 5);
+		}
+	}
+
+	@Test
+	public void testIterationStatistics() {
+		// Two disjoint triangles converge to the smallest id of each triangle after one iteration
+		CsrGraph.Builder builder = new CsrGraph.Builder(false, new PropertyList(), new PropertyList());
+		for (long vertex = 1; vertex <= 6; vertex++) {
+			builder.addVertex(vertex, null);
+		}
+		long[][] edges = {{1, 2}, {2, 3}, {1, 3}, {4, 5}, {5, 6}, {4, 6}};
+		for (long[] edge : edges) {
+			builder.addEdge(edge[0], edge[1], null);
+		}
+		CommunityDetectionLP cdlp = new CommunityDetectionLP(builder.build(), POOL);
+
+		assertArrayEquals(new long[]{2, 1, 1, 5, 4, 4}, cdlp.run(1));
+		assertEquals(6, cdlp.getIterationStatistics().get(0).getChangedLabels());
+
+		// The labels are stable after the second iteration, so the third iteration is the last
+		assertArrayEquals(new long[]{1, 1, 1, 4, 4, 4}, cdlp.run(10));
+		assertEquals(3, cdlp.getIterationStatistics().size());
+		assertEquals(2, cdlp.getIterationStatistics().get(1).getChangedLabels());
+		assertEquals(0, cdlp.getIterationStatistics().get(2).getChangedLabels());
+		assertTrue(cdlp.getIterationStatistics().get(2).getDurationNanos() >= 0);
+	}
+
+	private static long[] sortedNeighbourLabels(CsrGraph graph, int iterations) {
+		long[] labels = new long[graph.getNumberOfVertices()];
+		for (int v = 0; v < labels.length; v++) {
+			labels[v] = graph.getVertexId(v);
+		}
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			long[] next = new long[labels.length];
+			for (int v = 0; v < labels.length; v++) {
+				long[] neighbourLabels = new long[graph.getOutDegree(v) + (graph.isDirected() ? graph.getInDegree(v) : 0)];
+				int count = 0;
+				for (int edge = graph.getOutEdgesBegin(v); edge < graph.getOutEdgesEnd(v); edge++) {
+					neighbourLabels[count++] = labels[graph.getOutEdgeTarget(edge)];
+				}
+				for (int i = graph.getInEdgesBegin(v); graph.isDirected() && i < graph.getInEdgesEnd(v); i++) {
+					neighbourLabels[count++] = labels[graph.getInEdgeSource(i)];
+				}
+				Arrays.sort(neighbourLabels);
+				next[v] = labels[v];
+				int bestFrequency = 0;
+				for (int start = 0, end; start < count; start = end) {
+					for (end = start + 1; end < count && neighbourLabels[end] == neighbourLabels[start]; end++) {
+					}
+					if (end - start > bestFrequency) {
+						bestFrequency = end - start;
+						next[v] = neighbourLabels[start];
+					}
+				}
+			}
+			labels = next;
+		}
+		return labels;
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.ffm;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.domain.algorithms.ForestFireModelParameters;
+import science.atlarge.graphalytics.reference.ValidationGraphs;
+import science.atlarge.graphalytics.reference.ValidationGraphs.RandomGraphBuilder;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.validation.GraphStructure;
+import science.atlarge.graphalytics.validation.algorithms.ffm.ForestFireModelValidationTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static science.atlarge.graphalytics.reference.ValidationGraphs.POOL;
+
+/**
+ * Validation tests for the reference ForestFireModel implementation.
+ */
+public class ForestFireModelTest extends ForestFireModelValidationTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Override
+	public GraphStructure executeDirectedForestFireModel(GraphStructure graph, ForestFireModelParameters parameters) {
+		return run(ValidationGraphs.toCsrGraph(graph, true), parameters);
+	}
+
+	@Override
+	public GraphStructure executeUndirectedForestFireModel(GraphStructure graph,
+			ForestFireModelParameters parameters) {
+		return run(ValidationGraphs.toCsrGraph(graph, false), parameters);
+	}
+
+	private static GraphStructure run(CsrGraph graph, ForestFireModelParameters parameters) {
+		ForestFireGraph result = new ForestFireModel(graph, POOL, 42).run(parameters.getMaxId(),
+				parameters.getPRatio(), parameters.getRRatio(), parameters.getMaxIterations(),
+				parameters.getNumNewVertices());
+		Map<Long, Set<Long>> edges = new HashMap<>();
+		for (int vertex = 0; vertex < result.getNumberOfVertices(); vertex++) {
+			Set<Long> neighbours = new HashSet<>();
+			for (int neighbour : result.getOutNeighbours(vertex)) {
+				neighbours.add(result.getVertexId(neighbour));
+			}
+			edges.put(result.getVertexId(vertex), neighbours);
+		}
+		return new GraphStructure(edges);
+	}
+
+	@Test
+	public void testOutputIndependentOfBatchSizeAndParallelism() {
+		for (boolean isDirected : new boolean[]{true, false}) {
+			CsrGraph graph = new RandomGraphBuilder(isDirected, 2000, 6000, 7).ids(2, 1).withoutSelfLoops().build();
+			List<int[]> expected = adjacency(new ForestFireModel(graph, new ForkJoinPool(1), 3, 1)
+					.run(5000, 0.5, 0.3, 3, 3000));
+			for (int batchSize : new int[]{ForestFireModel.MINIMUM_BATCH_SIZE, 1000}) {
+				for (int parallelism : new int[]{1, 4}) {
+					ForestFireGraph result = new ForestFireModel(graph, new ForkJoinPool(parallelism), 3, batchSize)
+							.run(5000, 0.5, 0.3, 3, 3000);
+					List<int[]> actual = adjacency(result);
+					assertEquals(expected.size(), actual.size());
+					for (int vertex = 0; vertex < expected.size(); vertex++) {
+						assertArrayEquals(expected.get(vertex), actual.get(vertex));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testWriteEvlp() throws IOException {
+		CsrGraph graph = new RandomGraphBuilder(false, 10, 15, 11).ids(2, 1).withoutSelfLoops().build();
+		ForestFireGraph result = new ForestFireModel(graph, POOL, 5).run(100, 0.4, 0.0, 2, 5);
+		Path vertexFile = temporaryFolder.getRoot().toPath().resolve("out").resolve("graph.v");
+		Path edgeFile = temporaryFolder.getRoot().toPath().resolve("out").resolve("graph.e");
+		result.writeEvlp(vertexFile, edgeFile);
+
+		List<String> expectedVertices = new ArrayList<>();
+		List<String> expectedEdges = new ArrayList<>();
+		for (int vertex = 0; vertex < result.getNumberOfVertices(); vertex++) {
+			expectedVertices.add(Long.toString(result.getVertexId(vertex)));
+			for (int neighbour : result.getOutNeighbours(vertex)) {
+				if (neighbour > vertex) {
+					expectedEdges.add(result.getVertexId(vertex) + " " + result.getVertexId(neighbour));
+				}
+			}
+		}
+		assertEquals(expectedVertices, Files.readAllLines(vertexFile, StandardCharsets.UTF_8));
+		assertEquals(expectedEdges, Files.readAllLines(edgeFile, StandardCharsets.UTF_8));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMaxIdBelowExistingId() {
+		CsrGraph graph = new RandomGraphBuilder(true, 10, 15, 13).ids(2, 1).withoutSelfLoops().build();
+		new ForestFireModel(graph, POOL, 5).run(5, 0.4, 0.4, 2, 5);
+	}
+
+	private static List<int[]> adjacency(ForestFireGraph graph) {
+		List<int[]> adjacency = new ArrayList<>();
+		for (int vertex = 0; vertex < graph.getNumberOfVertices(); vertex++) {
+			adjacency.add(graph.getOutNeighbours(vertex));
+		}
+		return adjacency;
+	}
+
+}
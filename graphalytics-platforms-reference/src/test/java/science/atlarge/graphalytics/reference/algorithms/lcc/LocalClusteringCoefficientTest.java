@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.lcc;
+
+import org.junit.Test;
+import science.atlarge.graphalytics.reference.ValidationGraphs;
+import science.atlarge.graphalytics.reference.ValidationGraphs.RandomGraphBuilder;
+import science.atlarge.graphalytics.reference.VertexOutput;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.validation.GraphStructure;
+import science.atlarge.graphalytics.validation.algorithms.lcc.LocalClusteringCoefficientOutput;
+import science.atlarge.graphalytics.validation.algorithms.lcc.LocalClusteringCoefficientValidationTest;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static science.atlarge.graphalytics.reference.ValidationGraphs.POOL;
+
+/**
+ * Validation tests for the reference LocalClusteringCoefficient implementation.
+ */
+public class LocalClusteringCoefficientTest extends LocalClusteringCoefficientValidationTest {
+
+	@Override
+	public LocalClusteringCoefficientOutput executeDirectedLocalClusteringCoefficient(GraphStructure graph) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, true);
+		return new LocalClusteringCoefficientOutput(ValidationGraphs.toDoubleMap(VertexOutput.ofDoubles(csrGraph,
+				new LocalClusteringCoefficient(csrGraph, POOL).run())));
+	}
+
+	@Override
+	public LocalClusteringCoefficientOutput executeUndirectedLocalClusteringCoefficient(GraphStructure graph) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, false);
+		return new LocalClusteringCoefficientOutput(ValidationGraphs.toDoubleMap(VertexOutput.ofDoubles(csrGraph,
+				new LocalClusteringCoefficient(csrGraph, POOL).run())));
+	}
+
+	@Test
+	public void testTriangleCountingMatchesNeighbourhoodScan() {
+		for (boolean isDirected : new boolean[]{true, false}) {
+			CsrGraph graph = new RandomGraphBuilder(isDirected, 3000, 40000, 42).skewedSources(4).build();
+			double[] expected = neighbourhoodScan(graph);
+			for (int hashThreshold : new int[]{1, LocalClusteringCoefficient.HASH_THRESHOLD, Integer.MAX_VALUE}) {
+				assertArrayEquals(expected, new LocalClusteringCoefficient(graph, POOL, hashThreshold).run(), 1e-12);
+			}
+		}
+	}
+
+	/**
+	 * Creates a graph with a few hubs, self-loops and duplicate edges, so that all intersection strategies are used.
+	 */
+
+	private static double[] neighbourhoodScan(CsrGraph graph) {
+		double[] coefficients = new double[graph.getNumberOfVertices()];
+		for (int v = 0; v < graph.getNumberOfVertices(); v++) {
+			int[] neighbours = new int[graph.getOutDegree(v) + graph.getInDegree(v)];
+			int count = 0;
+			for (int edge = graph.getOutEdgesBegin(v); edge < graph.getOutEdgesEnd(v); edge++) {
+				neighbours[count++] = graph.getOutEdgeTarget(edge);
+			}
+			for (int i = graph.getInEdgesBegin(v); i < graph.getInEdgesEnd(v); i++) {
+				neighbours[count++] = graph.getInEdgeSource(i);
+			}
+			final int vertex = v;
+			neighbours = Arrays.stream(neighbours).filter(n -> n != vertex).sorted().distinct().toArray();
+			long degree = neighbours.length;
+			if (degree < 2) {
+				continue;
+			}
+			long edges = 0;
+			for (int neighbour : neighbours) {
+				// Count each distinct target once, as duplicate edges do not add to the coefficient
+				int[] targets = new int[graph.getOutDegree(neighbour)];
+				for (int edge = graph.getOutEdgesBegin(neighbour); edge < graph.getOutEdgesEnd(neighbour); edge++) {
+					targets[edge - graph.getOutEdgesBegin(neighbour)] = graph.getOutEdgeTarget(edge);
+				}
+				for (int target : Arrays.stream(targets).distinct().toArray()) {
+					if (target != neighbour && Arrays.binarySearch(neighbours, target) >= 0) {
+						edges++;
+					}
+				}
+			}
+			coefficients[v] = (double)edges / (degree * (degree - 1));
+		}
+		return coefficients;
+	}
+
+}
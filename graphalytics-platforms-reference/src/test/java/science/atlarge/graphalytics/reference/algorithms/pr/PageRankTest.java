@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.pr;
+
+import org.junit.Test;
+import science.atlarge.graphalytics.domain.algorithms.PageRankParameters;
+import science.atlarge.graphalytics.reference.ValidationGraphs;
+import science.atlarge.graphalytics.reference.ValidationGraphs.RandomGraphBuilder;
+import science.atlarge.graphalytics.reference.VertexOutput;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.validation.GraphStructure;
+import science.atlarge.graphalytics.validation.algorithms.pr.PageRankOutput;
+import science.atlarge.graphalytics.validation.algorithms.pr.PageRankValidationTest;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static science.atlarge.graphalytics.reference.ValidationGraphs.POOL;
+
+/**
+ * Validation tests for the reference PageRank implementation.
+ */
+public class PageRankTest extends PageRankValidationTest {
+
+	@Override
+	public PageRankOutput executeDirectedPageRank(GraphStructure graph, PageRankParameters parameters) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, true);
+		return new PageRankOutput(ValidationGraphs.toDoubleMap(VertexOutput.ofDoubles(csrGraph,
+				new PageRank(csrGraph, POOL).run(parameters.getDampingFactor(), parameters.getNumberOfIterations()))));
+	}
+
+	@Override
+	public PageRankOutput executeUndirectedPageRank(GraphStructure graph, PageRankParameters parameters) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, false);
+		return new PageRankOutput(ValidationGraphs.toDoubleMap(VertexOutput.ofDoubles(csrGraph,
+				new PageRank(csrGraph, POOL).run(parameters.getDampingFactor(), parameters.getNumberOfIterations()))));
+	}
+
+	@Test
+	public void testIterationDeltas() {
+		// Only half of the vertices have outgoing edges, the other half is dangling
+		CsrGraph graph = new RandomGraphBuilder(true, 20000, 60000, 42).sourceRange(10000).build();
+		PageRank pageRank = new PageRank(graph, POOL);
+		double[] previousRanks = pageRank.run(0.85, 0);
+		assertEquals(0, pageRank.getIterationStatistics().size());
+
+		for (int iterations = 1; iterations <= 5; iterations++) {
+			double[] ranks = pageRank.run(0.85, iterations);
+			PageRank.IterationStatistics last = pageRank.getIterationStatistics().get(iterations - 1);
+			double l1Delta = 0.0;
+			for (int v = 0; v < ranks.length; v++) {
+				l1Delta += Math.abs(ranks[v] - previousRanks[v]);
+			}
+			assertEquals(iterations, pageRank.getIterationStatistics().size());
+			assertEquals(l1Delta, last.getL1Delta(), 1e-12);
+			// Dangling rank is redistributed, so the total rank is preserved
+			assertEquals(1.0, Arrays.stream(ranks).sum(), 1e-9);
+			previousRanks = ranks;
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.sssp;
+
+import org.junit.Test;
+import science.atlarge.graphalytics.domain.algorithms.SingleSourceShortestPathsParameters;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.reference.ValidationGraphs;
+import science.atlarge.graphalytics.reference.ValidationGraphs.RandomGraphBuilder;
+import science.atlarge.graphalytics.reference.VertexOutput;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.util.graph.PropertyGraph;
+import science.atlarge.graphalytics.validation.algorithms.sssp.SingleSourceShortestPathsOutput;
+import science.atlarge.graphalytics.validation.algorithms.sssp.SingleSourceShortestPathsValidationTest;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static science.atlarge.graphalytics.reference.ValidationGraphs.POOL;
+
+/**
+ * Validation tests for the reference SingleSourceShortestPaths implementation.
+ */
+public class SingleSourceShortestPathsTest extends SingleSourceShortestPathsValidationTest {
+
+	@Override
+	public SingleSourceShortestPathsOutput executeDirectedSingleSourceShortestPaths(PropertyGraph<Void, Double> graph, SingleSourceShortestPathsParameters parameters) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, true);
+		return new SingleSourceShortestPathsOutput(ValidationGraphs.toDoubleMap(VertexOutput.ofDoubles(csrGraph,
+				new SingleSourceShortestPaths(csrGraph, POOL).run(parameters.getSourceVertex(), 0))));
+	}
+
+	@Override
+	public SingleSourceShortestPathsOutput executeUndirectedSingleSourceShortestPaths(PropertyGraph<Void, Double> graph, SingleSourceShortestPathsParameters parameters) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, false);
+		return new SingleSourceShortestPathsOutput(ValidationGraphs.toDoubleMap(VertexOutput.ofDoubles(csrGraph,
+				new SingleSourceShortestPaths(csrGraph, POOL).run(parameters.getSourceVertex(), 0))));
+	}
+
+	@Test
+	public void testDeltaSteppingMatchesDijkstra() {
+		for (boolean isDirected : new boolean[]{true, false}) {
+			CsrGraph graph = new RandomGraphBuilder(isDirected, 20000, 80000, 42).ids(3, 1).weighted(0.0).build();
+			double[] expected = dijkstra(graph, 0);
+			SingleSourceShortestPaths sssp = new SingleSourceShortestPaths(graph, POOL);
+			assertArrayEquals(expected, sssp.run(graph.getVertexId(0), 0), 1e-9);
+			for (double delta : new double[]{1e-6, 0.05, 1.0, 1e6}) {
+				assertArrayEquals(expected, sssp.run(graph.getVertexId(0), 0, delta), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void testZeroWeights() {
+		CsrGraph graph = new RandomGraphBuilder(true, 5000, 20000, 7).ids(3, 1).weighted(0.9).build();
+		double[] expected = dijkstra(graph, 0);
+		assertArrayEquals(expected, new SingleSourceShortestPaths(graph, POOL).run(graph.getVertexId(0), 0), 1e-9);
+	}
+
+	@Test
+	public void testTunedDeltaMakesOneEdgePerVertexLight() {
+		CsrGraph graph = new RandomGraphBuilder(true, 10000, 100000, 3).ids(3, 1).weighted(0.0).build();
+		double delta = new SingleSourceShortestPaths(graph, POOL).tuneDelta(0, 1.0);
+		// Weights are uniform in [0, 1) with an average degree of 10
+		assertEquals(0.1, delta, 0.01);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeWeight() {
+		CsrGraph.Builder builder = new CsrGraph.Builder(true, new PropertyList(), ValidationGraphs.WEIGHT_PROPERTIES);
+		builder.addVertex(1, null);
+		builder.addVertex(2, null);
+		builder.addEdge(1, 2, ValidationGraphs.weight(-1.0));
+		new SingleSourceShortestPaths(builder.build(), POOL).run(1, 0);
+	}
+
+	private static double[] dijkstra(CsrGraph graph, int source) {
+		double[] distances = new double[graph.getNumberOfVertices()];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		distances[source] = 0.0;
+		PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+		queue.add(new double[]{0.0, source});
+		while (!queue.isEmpty()) {
+			double[] entry = queue.remove();
+			int vertex = (int)entry[1];
+			if (entry[0] > distances[vertex]) {
+				continue;
+			}
+			for (int edge = graph.getOutEdgesBegin(vertex); edge < graph.getOutEdgesEnd(vertex); edge++) {
+				int target = graph.getOutEdgeTarget(edge);
+				double distance = entry[0] + graph.getEdgeDoubleProperty(0, edge);
+				if (distance < distances[target]) {
+					distances[target] = distance;
+					queue.add(new double[]{distance, target});
+				}
+			}
+		}
+		return distances;
+	}
+
+}
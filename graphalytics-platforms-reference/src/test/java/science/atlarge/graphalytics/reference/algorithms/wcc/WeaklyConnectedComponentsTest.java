@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015 - 2017 Atlarge Research Team,
+ * operating at Technische Universiteit Delft
+ * and Vrije Universiteit Amsterdam, the Netherlands.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.reference.algorithms.wcc;
+
+import org.junit.Test;
+import science.atlarge.graphalytics.reference.ValidationGraphs;
+import science.atlarge.graphalytics.reference.ValidationGraphs.RandomGraphBuilder;
+import science.atlarge.graphalytics.reference.VertexOutput;
+import science.atlarge.graphalytics.util.graph.CsrGraph;
+import science.atlarge.graphalytics.validation.GraphStructure;
+import science.atlarge.graphalytics.validation.algorithms.wcc.WeaklyConnectedComponentsOutput;
+import science.atlarge.graphalytics.validation.algorithms.wcc.WeaklyConnectedComponentsValidationTest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static science.atlarge.graphalytics.reference.ValidationGraphs.POOL;
+
+/**
+ * Validation tests for the reference WeaklyConnectedComponents implementation.
+ */
+public class WeaklyConnectedComponentsTest extends WeaklyConnectedComponentsValidationTest {
+
+	@Override
+	public WeaklyConnectedComponentsOutput executeDirectedConnectedComponents(GraphStructure graph) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, true);
+		return new WeaklyConnectedComponentsOutput(ValidationGraphs.toLongMap(VertexOutput.ofLongs(csrGraph,
+				new WeaklyConnectedComponents(csrGraph, POOL).run())));
+	}
+
+	@Override
+	public WeaklyConnectedComponentsOutput executeUndirectedConnectedComponents(GraphStructure graph) throws Exception {
+		CsrGraph csrGraph = ValidationGraphs.toCsrGraph(graph, false);
+		return new WeaklyConnectedComponentsOutput(ValidationGraphs.toLongMap(VertexOutput.ofLongs(csrGraph,
+				new WeaklyConnectedComponents(csrGraph, POOL).run())));
+	}
+
+	@Test
+	public void testUnionFindMatchesSequentialLabelling() {
+		for (boolean isDirected : new boolean[]{true, false}) {
+			// A giant component plus many small components and isolated vertices
+			CsrGraph graph = giantComponentGraph(isDirected, 50000, 20000, 30000, 42);
+			long[] expected = sequentialLabelling(graph);
+			for (int rounds : new int[]{0, 1, WeaklyConnectedComponents.NEIGHBOUR_ROUNDS, 8}) {
+				assertArrayEquals(expected, new WeaklyConnectedComponents(graph, POOL, rounds).run());
+			}
+		}
+	}
+
+	private static CsrGraph giantComponentGraph(boolean isDirected, int numberOfVertices, int giantSize,
+			int giantEdges, long seed) {
+		RandomGraphBuilder graph = new RandomGraphBuilder(isDirected, numberOfVertices, giantEdges, seed).ids(2, 5)
+				.sourceRange(giantSize).destinationRange(giantSize);
+		CsrGraph.Builder builder = graph.toBuilder();
+		for (int vertex = giantSize; vertex + 1 < numberOfVertices; vertex += 3) {
+			// Edges point from high to low ids, so low ids are not linked first
+			builder.addEdge(graph.vertexId(vertex + 1), graph.vertexId(vertex), null);
+		}
+		return builder.build();
+	}
+
+	private static long[] sequentialLabelling(CsrGraph graph) {
+		int[] components = new int[graph.getNumberOfVertices()];
+		for (int v = 0; v < components.length; v++) {
+			components[v] = v;
+		}
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int v = 0; v < components.length; v++) {
+				for (int edge = graph.getOutEdgesBegin(v); edge < graph.getOutEdgesEnd(v); edge++) {
+					int target = graph.getOutEdgeTarget(edge);
+					int label = Math.min(components[v], components[target]);
+					if (components[v] != label || components[target] != label) {
+						components[v] = label;
+						components[target] = label;
+						changed = true;
+					}
+				}
+			}
+		}
+		long[] labels = new long[components.length];
+		for (int v = 0; v < components.length; v++) {
+			labels[v] = graph.getVertexId(components[v]);
+		}
+		return labels;
+	}
+
+}